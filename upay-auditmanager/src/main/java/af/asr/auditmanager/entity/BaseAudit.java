@@ -1,38 +1,72 @@
 package af.asr.auditmanager.entity;
 
+import af.asr.lang.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.persistence.Column;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.PrePersist;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
- * Base class for {@link Audit} with {@link #uuid} and {@link #createdAt}
+ * Base class for {@link Audit} with {@link #logId} and {@link #createdAt}
  */
 @MappedSuperclass
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class BaseAudit {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(BaseAudit.class);
+
+	/**
+	 * Generator of {@link #logId}, one per node. The node id is taken from the
+	 * audit.node-id system property, which every node writing to the same table
+	 * should set to a distinct value from 0 to 1023. Without it the node id is a
+	 * hash of the MAC addresses of the host, which two hosts may share.
+	 */
+	private static final SequenceGenerator SEQUENCE_GENERATOR = createSequenceGenerator();
+
 	/**
-	 * Field for immutable universally unique identifier (UUID)
+	 * Field for immutable time-ordered identifier: milliseconds since the epoch
+	 * of {@link SequenceGenerator}, node id and sequence, so audits are inserted
+	 * in key order. Assigned by {@link #assignLogId()} when the audit is written.
 	 */
 	@Id
 	@Column(name = "log_id", nullable = false, updatable = false)
-	private String uuid;
+	private Long logId;
 
 	@Column(name = "log_dtimes", nullable = false, updatable = false)
 	private LocalDateTime createdAt;
 
 	/**
-	 * Constructor to initialize {@link BaseAudit} with uuid and timestamp
+	 * Function to give a new audit its log id and timestamp, called before it is
+	 * inserted rather than on construction, which also happens on every load
 	 */
-	public BaseAudit() {
-		uuid = UUID.randomUUID().toString();
-		createdAt = LocalDateTime.now();
+	@PrePersist
+	public void assignLogId() {
+		if (logId == null) {
+			logId = SEQUENCE_GENERATOR.nextId();
+		}
+		if (createdAt == null) {
+			createdAt = LocalDateTime.now();
+		}
+	}
+
+	private static SequenceGenerator createSequenceGenerator() {
+		Integer nodeId = Integer.getInteger("audit.node-id");
+		if (nodeId != null) {
+			return new SequenceGenerator(nodeId);
+		}
+		SequenceGenerator sequenceGenerator = new SequenceGenerator();
+		LOGGER.warn("audit.node-id is not set, log ids use node id {} derived from the MAC addresses, "
+				+ "set -Daudit.node-id to a value unique to this node", sequenceGenerator.getNodeId());
+		return sequenceGenerator;
 	}
 
 }
@@ -1,5 +1,7 @@
 package af.asr.auditmanager.exception.auditmanager.spi;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface with function to write AuditRequest
  */
@@ -13,4 +15,12 @@ public interface AuditHandler<T> {
 	 */
 	boolean addAudit(T auditRequest);
 
+	/**
+	 * Function to write AuditRequest without waiting for it to be stored
+	 * 
+	 * @param auditRequest The AuditRequest
+	 * @return future completed with true once AuditRequest is written
+	 */
+	CompletableFuture<Boolean> addAuditAsync(T auditRequest);
+
 }
\ No newline at end of file
@@ -0,0 +1,284 @@
+package af.asr.auditmanager.impl;
+
+import af.asr.auditmanager.entity.Audit;
+import af.asr.auditmanager.exception.auditmanager.exception.AuditManagerException;
+import af.asr.auditmanager.exception.dataaccess.DataAccessLayerException;
+import af.asr.auditmanager.repository.AuditRepository;
+import af.asr.auditmanager.util.constant.AuditDurability;
+import af.asr.auditmanager.util.constant.AuditErrorCodes;
+import af.asr.lang.MpscRingBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind writer of {@link Audit}: callers put audits on a bounded
+ * {@link MpscRingBuffer}, and a single flusher thread inserts them with
+ * {@link AuditRepository#insertAll} in batches, one transaction each. A batch
+ * is written once it holds batch-size audits or its oldest audit waited
+ * flush-interval milliseconds.
+ *
+ * With {@link AuditDurability#WAIT_FOR_FLUSH} {@link #write} returns once the
+ * batch of the audit is committed, with {@link AuditDurability#FIRE_AND_FORGET}
+ * once it is queued. A caller finding the queue full waits up to offer-timeout
+ * milliseconds for room.
+ * 
+ * The flusher gives each audit its log id as it takes it off the queue. The
+ * flusher parks while it has nothing to write, or until its batch is due,
+ * and callers unpark it when they queue an audit.
+ */
+@Component
+public class AuditBatchWriter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AuditBatchWriter.class);
+
+	/**
+	 * Pause of a caller waiting for room in the queue
+	 */
+	private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+	/**
+	 * Field for {@link AuditRepository} having the batch insert of audits
+	 */
+	@Autowired
+	private AuditRepository auditRepository;
+
+	@Value("${audit.writer.queue-size:65536}")
+	private int queueSize;
+
+	@Value("${audit.writer.batch-size:500}")
+	private int batchSize;
+
+	@Value("${audit.writer.flush-interval:20}")
+	private long flushInterval;
+
+	@Value("${audit.writer.offer-timeout:1000}")
+	private long offerTimeout;
+
+	@Value("${audit.writer.flush-timeout:10000}")
+	private long flushTimeout;
+
+	@Value("${audit.writer.durability:WAIT_FOR_FLUSH}")
+	private AuditDurability durability;
+
+	private MpscRingBuffer<QueuedAudit> queue;
+	private Thread flusher;
+	private volatile boolean running;
+	private volatile boolean flusherParked;
+
+	/**
+	 * Audits drained and not written yet, and the futures to complete with them,
+	 * only touched by the flusher thread
+	 */
+	private List<Audit> batch;
+	private List<CompletableFuture<Boolean>> waiting;
+	private long oldest;
+	private final Consumer<QueuedAudit> collector = this::add;
+
+	/**
+	 * Starts the flusher thread
+	 */
+	@PostConstruct
+	public void start() {
+		queue = new MpscRingBuffer<>(queueSize);
+		batch = new ArrayList<>(batchSize);
+		waiting = new ArrayList<>();
+		running = true;
+		flusher = new Thread(this::flushLoop, "audit-batch-writer");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/**
+	 * Stops taking audits and writes the queued ones
+	 */
+	@PreDestroy
+	public void stop() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(flusher);
+		try {
+			flusher.join(flushTimeout);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (!flusher.isAlive()) {
+			// audits of callers that passed the running check as the flusher ended
+			drainAndFlush();
+		}
+	}
+
+	/**
+	 * Function to write an audit
+	 *
+	 * @param audit The audit
+	 * @return true - once written or queued, depending on the durability
+	 */
+	public boolean write(Audit audit) {
+		if (durability == AuditDurability.FIRE_AND_FORGET) {
+			enqueue(audit, null);
+			return true;
+		}
+		CompletableFuture<Boolean> future = new CompletableFuture<>();
+		enqueue(audit, future);
+		try {
+			return future.get(flushTimeout, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			throw new DataAccessLayerException(AuditErrorCodes.WRITEFAILED.getErrorCode(),
+					AuditErrorCodes.WRITEFAILED.getErrorMessage(), e.getCause());
+		} catch (TimeoutException e) {
+			throw new AuditManagerException(AuditErrorCodes.WRITETIMEOUT.getErrorCode(),
+					AuditErrorCodes.WRITETIMEOUT.getErrorMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AuditManagerException(AuditErrorCodes.WRITETIMEOUT.getErrorCode(),
+					AuditErrorCodes.WRITETIMEOUT.getErrorMessage());
+		}
+	}
+
+	/**
+	 * Function to write an audit without waiting, whatever the durability
+	 *
+	 * @param audit The audit
+	 * @return future completed with true once the audit is written, or with a
+	 *         {@link DataAccessLayerException}
+	 */
+	public CompletableFuture<Boolean> writeAsync(Audit audit) {
+		CompletableFuture<Boolean> future = new CompletableFuture<>();
+		enqueue(audit, future);
+		return future;
+	}
+
+	private void enqueue(Audit audit, CompletableFuture<Boolean> future) {
+		long deadline = 0;
+		boolean full = false;
+		QueuedAudit queued = new QueuedAudit(audit, future);
+		while (running) {
+			if (queue.offer(queued)) {
+				if (flusherParked) {
+					LockSupport.unpark(flusher);
+				}
+				return;
+			}
+			long now = System.nanoTime();
+			if (!full) {
+				full = true;
+				deadline = now + TimeUnit.MILLISECONDS.toNanos(offerTimeout);
+			} else if (now - deadline >= 0) {
+				break;
+			}
+			LockSupport.parkNanos(PARK_NANOS);
+		}
+		throw new AuditManagerException(AuditErrorCodes.QUEUEFULL.getErrorCode(),
+				AuditErrorCodes.QUEUEFULL.getErrorMessage());
+	}
+
+	/**
+	 * Body of the flusher thread
+	 */
+	private void flushLoop() {
+		for (;;) {
+			boolean open = running;
+			boolean empty = batch.isEmpty();
+			int drained = queue.drain(collector, batchSize - batch.size());
+			if (batch.isEmpty()) {
+				if (!open) {
+					return;
+				}
+				park(0);
+				continue;
+			}
+			long now = System.nanoTime();
+			if (empty) {
+				oldest = now;
+			}
+			long due = oldest + TimeUnit.MILLISECONDS.toNanos(flushInterval) - now;
+			if (!open || batch.size() >= batchSize || due <= 0) {
+				flush();
+			} else if (drained == 0) {
+				park(due);
+			}
+		}
+	}
+
+	/**
+	 * Parks the flusher until a caller queues an audit or the writer is stopped,
+	 * and for at most the given nanoseconds when positive. The flag is raised
+	 * before the last look at the queue, so a caller queueing after that look
+	 * sees it and unparks the flusher.
+	 */
+	private void park(long nanos) {
+		flusherParked = true;
+		if (running && queue.isEmpty()) {
+			if (nanos > 0) {
+				LockSupport.parkNanos(this, nanos);
+			} else {
+				LockSupport.park(this);
+			}
+		}
+		flusherParked = false;
+	}
+
+	private void drainAndFlush() {
+		while (queue.drain(collector, batchSize - batch.size()) > 0 || !batch.isEmpty()) {
+			flush();
+		}
+	}
+
+	private void add(QueuedAudit queued) {
+		// drawn here, on the one flusher thread, so log ids follow the insert order
+		queued.audit.assignLogId();
+		batch.add(queued.audit);
+		if (queued.future != null) {
+			waiting.add(queued.future);
+		}
+	}
+
+	private void flush() {
+		List<Audit> audits = batch;
+		List<CompletableFuture<Boolean>> futures = waiting;
+		batch = new ArrayList<>(batchSize);
+		waiting = new ArrayList<>();
+		try {
+			auditRepository.insertAll(audits);
+			for (CompletableFuture<Boolean> future : futures) {
+				future.complete(true);
+			}
+		} catch (RuntimeException e) {
+			LOGGER.error("{} audits could not be written", audits.size(), e);
+			for (CompletableFuture<Boolean> future : futures) {
+				future.completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * An audit on the queue, with the future to complete once it is written, if any
+	 */
+	private static final class QueuedAudit {
+
+		private final Audit audit;
+		private final CompletableFuture<Boolean> future;
+
+		private QueuedAudit(Audit audit, CompletableFuture<Boolean> future) {
+			this.audit = audit;
+			this.future = future;
+		}
+	}
+
+}
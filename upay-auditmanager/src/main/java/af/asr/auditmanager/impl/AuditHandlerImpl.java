@@ -1,48 +1,64 @@
-package af.asr.auditmanager.impl;
-
-import af.asr.auditmanager.entity.Audit;
-import af.asr.auditmanager.exception.auditmanager.spi.AuditHandler;
-import af.asr.auditmanager.repository.AuditRepository;
-import af.asr.auditmanager.request.AuditRequestDto;
-import af.asr.auditmanager.util.AuditUtils;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
-
-/**
- * Implementation of {@link AuditHandler} with function to write
- */
-@Service
-public class AuditHandlerImpl implements AuditHandler<AuditRequestDto> {
-
-	/**
-	 * Field for {@link AuditRepository} having data access operations related to
-	 * audit
-	 */
-	@Autowired
-	private AuditRepository auditRepository;
-
-	/**
-	 * Field for {@link ModelMapper} for performing object mapping
-	 */
-	@Autowired
-	private ModelMapper modelMapper;
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see
-	 * io.mosip.kernel.core.audit.handler.AuditHandler#writeAudit(io.mosip.kernel.
-	 * core.audit.dto.AuditRequest)
-	 */
-	@Override
-	public boolean addAudit(AuditRequestDto auditRequest) {
-
-		AuditUtils.validateAuditRequest(auditRequest);
-
-		Audit event = modelMapper.map(auditRequest, Audit.class);
-		auditRepository.save(event);
-		return true;
-	}
-
-}
+package af.asr.auditmanager.impl;
+
+import af.asr.auditmanager.entity.Audit;
+import af.asr.auditmanager.exception.auditmanager.spi.AuditHandler;
+import af.asr.auditmanager.request.AuditRequestDto;
+import af.asr.auditmanager.util.AuditUtils;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementation of {@link AuditHandler} with function to write
+ */
+@Service
+public class AuditHandlerImpl implements AuditHandler<AuditRequestDto> {
+
+	/**
+	 * Field for {@link AuditBatchWriter} writing audits to the database in
+	 * batches
+	 */
+	@Autowired
+	private AuditBatchWriter auditBatchWriter;
+
+	/**
+	 * Field for {@link ModelMapper} for performing object mapping
+	 */
+	@Autowired
+	private ModelMapper modelMapper;
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * io.mosip.kernel.core.audit.handler.AuditHandler#writeAudit(io.mosip.kernel.
+	 * core.audit.dto.AuditRequest)
+	 */
+	@Override
+	public boolean addAudit(AuditRequestDto auditRequest) {
+
+		AuditUtils.validateAuditRequest(auditRequest);
+
+		Audit event = modelMapper.map(auditRequest, Audit.class);
+		return auditBatchWriter.write(event);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * af.asr.auditmanager.exception.auditmanager.spi.AuditHandler#addAuditAsync(
+	 * java.lang.Object)
+	 */
+	@Override
+	public CompletableFuture<Boolean> addAuditAsync(AuditRequestDto auditRequest) {
+
+		AuditUtils.validateAuditRequest(auditRequest);
+
+		Audit event = modelMapper.map(auditRequest, Audit.class);
+		return auditBatchWriter.writeAsync(event);
+	}
+
+}
@@ -0,0 +1,20 @@
+package af.asr.auditmanager.repository;
+
+import af.asr.auditmanager.entity.Audit;
+
+import java.util.List;
+
+/**
+ * Repository fragment writing many {@link Audit} at once, without going
+ * through the persistence context
+ */
+public interface AuditBatchRepository {
+
+	/**
+	 * Inserts the audits with JDBC batches, in one transaction
+	 * 
+	 * @param audits The audits to insert
+	 */
+	void insertAll(List<Audit> audits);
+
+}
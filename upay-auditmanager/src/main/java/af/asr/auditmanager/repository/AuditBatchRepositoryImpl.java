@@ -0,0 +1,72 @@
+package af.asr.auditmanager.repository;
+
+import af.asr.auditmanager.entity.Audit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementation of {@link AuditBatchRepository} with {@link JdbcTemplate}.
+ * 
+ * On PostgreSQL, adding reWriteBatchedInserts=true to the JDBC URL lets the
+ * driver send each batch as multi-row inserts.
+ */
+public class AuditBatchRepositoryImpl implements AuditBatchRepository {
+
+	private static final String INSERT = "insert into audit.app_audit_log (log_id, log_dtimes, event_id, event_name, "
+			+ "event_type, action_dtimes, host_name, host_ip, app_id, app_name, session_user_id, session_user_name, "
+			+ "ref_id, ref_id_type, cr_by, module_name, module_id, log_desc) "
+			+ "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	/**
+	 * Field for {@link JdbcTemplate} on the datasource of the repository
+	 */
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * af.asr.auditmanager.repository.AuditBatchRepository#insertAll(java.util.List)
+	 */
+	@Override
+	@Transactional
+	public void insertAll(List<Audit> audits) {
+		jdbcTemplate.batchUpdate(INSERT, audits, audits.size(), AuditBatchRepositoryImpl::setValues);
+	}
+
+	private static void setValues(PreparedStatement statement, Audit audit) throws SQLException {
+		// the batch bypasses the persistence context and its @PrePersist callback
+		audit.assignLogId();
+		statement.setLong(1, audit.getLogId());
+		statement.setTimestamp(2, toTimestamp(audit.getCreatedAt()));
+		statement.setString(3, audit.getEventId());
+		statement.setString(4, audit.getEventName());
+		statement.setString(5, audit.getEventType());
+		statement.setTimestamp(6, toTimestamp(audit.getActionTimeStamp()));
+		statement.setString(7, audit.getHostName());
+		statement.setString(8, audit.getHostIp());
+		statement.setString(9, audit.getApplicationId());
+		statement.setString(10, audit.getApplicationName());
+		statement.setString(11, audit.getSessionUserId());
+		statement.setString(12, audit.getSessionUserName());
+		statement.setString(13, audit.getId());
+		statement.setString(14, audit.getIdType());
+		statement.setString(15, audit.getCreatedBy());
+		statement.setString(16, audit.getModuleName());
+		statement.setString(17, audit.getModuleId());
+		statement.setString(18, audit.getDescription());
+	}
+
+	private static Timestamp toTimestamp(LocalDateTime dateTime) {
+		return dateTime == null ? null : Timestamp.valueOf(dateTime);
+	}
+
+}
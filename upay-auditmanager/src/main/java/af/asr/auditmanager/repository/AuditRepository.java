@@ -8,8 +8,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 /**
  * Repository interface with data access and data modification functions on
- * {@link Audit}
+ * {@link Audit}, and batch inserts from {@link AuditBatchRepository}
  */
-public interface AuditRepository extends JpaRepository<Audit, Long> {
+public interface AuditRepository extends JpaRepository<Audit, Long>, AuditBatchRepository {
 
 }
@@ -0,0 +1,198 @@
+package af.asr.auditmanager.util;
+
+import af.asr.auditmanager.request.AuditRequestDto;
+
+import javax.validation.Constraint;
+import javax.validation.Valid;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Validation engine for {@link AuditRequestDto}, built once per class loader.
+ *
+ * The {@link Validator} is bootstrapped once and kept. Besides, the
+ * {@link NotNull} and {@link Size} constraints on the fields of
+ * {@link AuditRequestDto} are read once and compiled into a list of checks
+ * calling the getters directly, which {@link #isValid} runs instead of the
+ * validator. If the request class carries any constraint these checks do not
+ * understand, or the request is a subclass, the validator is used instead.
+ */
+public final class AuditRequestValidator {
+
+	/**
+	 * Validator built once, used when the compiled checks do not apply
+	 */
+	private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+	/**
+	 * Compiled checks, null when the constraints of {@link AuditRequestDto} are
+	 * not all understood
+	 */
+	private static final FieldCheck[] CHECKS = compile();
+
+	/**
+	 * Private constructor for AuditRequestValidator
+	 */
+	private AuditRequestValidator() {
+
+	}
+
+	/**
+	 * Function to validate {@link AuditRequestDto}
+	 *
+	 * @param auditRequest The audit request
+	 * @return true - if the audit request meets all its constraints
+	 */
+	public static boolean isValid(AuditRequestDto auditRequest) {
+		if (CHECKS == null || auditRequest.getClass() != AuditRequestDto.class) {
+			return VALIDATOR.validate(auditRequest).isEmpty();
+		}
+		for (FieldCheck check : CHECKS) {
+			if (!check.test(auditRequest)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the checks of every constrained field, or null if a constraint
+	 *         cannot be compiled
+	 */
+	private static FieldCheck[] compile() {
+		try {
+			if (AuditRequestDto.class.getSuperclass() != Object.class
+					|| hasOtherConstraint(AuditRequestDto.class.getAnnotations())) {
+				return null;
+			}
+			Map<String, Method> getters = new HashMap<>();
+			for (PropertyDescriptor property : Introspector.getBeanInfo(AuditRequestDto.class, Object.class)
+					.getPropertyDescriptors()) {
+				if (property.getReadMethod() != null) {
+					if (hasOtherConstraint(property.getReadMethod().getAnnotations())
+							|| property.getReadMethod().isAnnotationPresent(NotNull.class)
+							|| property.getReadMethod().isAnnotationPresent(Size.class)) {
+						return null;
+					}
+					getters.put(property.getName(), property.getReadMethod());
+				}
+			}
+			List<FieldCheck> checks = new ArrayList<>();
+			for (Field field : AuditRequestDto.class.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers())) {
+					continue;
+				}
+				NotNull notNull = field.getAnnotation(NotNull.class);
+				Size size = field.getAnnotation(Size.class);
+				if (hasOtherConstraint(field.getAnnotations()) || !isDefault(notNull) || !isDefault(size)
+						|| size != null && !CharSequence.class.isAssignableFrom(field.getType())) {
+					return null;
+				}
+				if (notNull != null || size != null) {
+					Method getter = getters.get(field.getName());
+					if (getter == null) {
+						return null;
+					}
+					checks.add(new FieldCheck(compileGetter(getter), notNull != null, size == null ? 0 : size.min(),
+							size == null ? Integer.MAX_VALUE : size.max()));
+				}
+			}
+			return checks.toArray(new FieldCheck[0]);
+		} catch (Throwable e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return true if one of the annotations is a bean validation constraint
+	 *         other than {@link NotNull} and {@link Size}, or asks for cascading
+	 */
+	private static boolean hasOtherConstraint(Annotation[] annotations) {
+		for (Annotation annotation : annotations) {
+			Class<? extends Annotation> type = annotation.annotationType();
+			if (type == NotNull.class || type == Size.class) {
+				continue;
+			}
+			if (type == Valid.class || type.isAnnotationPresent(Constraint.class)
+					|| type.getName().startsWith("javax.validation.")
+					|| type.getName().startsWith("org.hibernate.validator.")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if the constraint is absent, or applies to the default group
+	 *         only
+	 */
+	private static boolean isDefault(NotNull notNull) {
+		return notNull == null || notNull.groups().length == 0;
+	}
+
+	private static boolean isDefault(Size size) {
+		return size == null || size.groups().length == 0;
+	}
+
+	/**
+	 * @return the getter as a function, called like a lambda rather than by
+	 *         reflection
+	 */
+	@SuppressWarnings("unchecked")
+	private static Function<AuditRequestDto, Object> compileGetter(Method getter) throws Throwable {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodHandle handle = lookup.unreflect(getter);
+		return (Function<AuditRequestDto, Object>) LambdaMetafactory
+				.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+						MethodType.methodType(Object.class, Object.class), handle, handle.type().wrap())
+				.getTarget().invokeExact();
+	}
+
+	/**
+	 * {@link NotNull} and {@link Size} of one field
+	 */
+	private static final class FieldCheck {
+
+		private final Function<AuditRequestDto, Object> getter;
+		private final boolean notNull;
+		private final int min;
+		private final int max;
+
+		FieldCheck(Function<AuditRequestDto, Object> getter, boolean notNull, int min, int max) {
+			this.getter = getter;
+			this.notNull = notNull;
+			this.min = min;
+			this.max = max;
+		}
+
+		boolean test(AuditRequestDto auditRequest) {
+			Object value = getter.apply(auditRequest);
+			if (value == null) {
+				return !notNull;
+			}
+			if (value instanceof CharSequence) {
+				int length = ((CharSequence) value).length();
+				return length >= min && length <= max;
+			}
+			return true;
+		}
+	}
+
+}
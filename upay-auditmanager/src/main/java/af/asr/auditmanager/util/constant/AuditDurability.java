@@ -0,0 +1,19 @@
+package af.asr.auditmanager.util.constant;
+
+/**
+ * When {@link af.asr.auditmanager.impl.AuditHandlerImpl#addAudit} returns
+ * compared to the audit being written to the database
+ */
+public enum AuditDurability {
+
+	/**
+	 * Returns once the audit is queued; a failed write is only logged
+	 */
+	FIRE_AND_FORGET,
+
+	/**
+	 * Returns once the batch holding the audit is committed
+	 */
+	WAIT_FOR_FLUSH
+
+}
@@ -6,7 +6,13 @@ package af.asr.auditmanager.util.constant;
 public enum AuditErrorCodes {
 	HANDLEREXCEPTION("KER-AUD-001", "Invalid Audit Request. Required parameters must be present"),
 
-	INVALIDFORMAT("KER-AUD-002", "Invalid Audit Request. Format is incorrect. (For timestamp, use UTC format)");
+	INVALIDFORMAT("KER-AUD-002", "Invalid Audit Request. Format is incorrect. (For timestamp, use UTC format)"),
+
+	QUEUEFULL("KER-AUD-003", "Audit not accepted. The audit queue is full or closed"),
+
+	WRITEFAILED("KER-AUD-004", "Audit could not be written to the database"),
+
+	WRITETIMEOUT("KER-AUD-005", "Audit was not written to the database in time");
 
 	private final String errorCode;
 	private final String errorMessage;
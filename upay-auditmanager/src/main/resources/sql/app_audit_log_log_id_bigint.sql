@@ -0,0 +1,32 @@
+-- Migrates audit.app_audit_log.log_id from a varchar UUID to the bigint
+-- time-ordered id drawn by af.asr.lang.SequenceGenerator (PostgreSQL).
+--
+-- Existing rows are numbered from 1 in log_dtimes order, far below any id the
+-- generator draws, and keep their UUID in legacy_log_id.
+-- Run it with the writers stopped.
+
+BEGIN;
+
+DO $$
+DECLARE
+	primary_key text;
+BEGIN
+	SELECT conname INTO primary_key FROM pg_constraint
+	WHERE conrelid = 'audit.app_audit_log'::regclass AND contype = 'p';
+	IF primary_key IS NOT NULL THEN
+		EXECUTE format('ALTER TABLE audit.app_audit_log DROP CONSTRAINT %I', primary_key);
+	END IF;
+END $$;
+
+ALTER TABLE audit.app_audit_log RENAME COLUMN log_id TO legacy_log_id;
+ALTER TABLE audit.app_audit_log ALTER COLUMN legacy_log_id DROP NOT NULL;
+ALTER TABLE audit.app_audit_log ADD COLUMN log_id bigint;
+
+UPDATE audit.app_audit_log audit_log SET log_id = numbered.row_number
+FROM (SELECT ctid, row_number() OVER (ORDER BY log_dtimes) AS row_number FROM audit.app_audit_log) numbered
+WHERE audit_log.ctid = numbered.ctid;
+
+ALTER TABLE audit.app_audit_log ALTER COLUMN log_id SET NOT NULL;
+ALTER TABLE audit.app_audit_log ADD CONSTRAINT pk_audlog_log_id PRIMARY KEY (log_id);
+
+COMMIT;
@@ -0,0 +1,147 @@
+package af.asr.auditmanager.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import af.asr.auditmanager.entity.Audit;
+import af.asr.auditmanager.exception.auditmanager.exception.AuditManagerException;
+import af.asr.auditmanager.exception.dataaccess.DataAccessLayerException;
+import af.asr.auditmanager.impl.AuditBatchWriter;
+import af.asr.auditmanager.repository.AuditRepository;
+import af.asr.auditmanager.util.constant.AuditDurability;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class AuditBatchWriterTest {
+
+	private AuditRepository auditRepository;
+
+	private AuditBatchWriter auditBatchWriter;
+
+	private List<Integer> batchSizes;
+
+	@Before
+	public void setUp() {
+		batchSizes = Collections.synchronizedList(new ArrayList<>());
+		auditRepository = Mockito.mock(AuditRepository.class);
+		Mockito.doAnswer(invocation -> batchSizes.add(invocation.<List<Audit>>getArgument(0).size()))
+				.when(auditRepository).insertAll(ArgumentMatchers.anyList());
+		auditBatchWriter = new AuditBatchWriter();
+		ReflectionTestUtils.setField(auditBatchWriter, "auditRepository", auditRepository);
+		ReflectionTestUtils.setField(auditBatchWriter, "queueSize", 1024);
+		ReflectionTestUtils.setField(auditBatchWriter, "batchSize", 100);
+		ReflectionTestUtils.setField(auditBatchWriter, "flushInterval", 20L);
+		ReflectionTestUtils.setField(auditBatchWriter, "offerTimeout", 10L);
+		ReflectionTestUtils.setField(auditBatchWriter, "flushTimeout", 5000L);
+		ReflectionTestUtils.setField(auditBatchWriter, "durability", AuditDurability.WAIT_FOR_FLUSH);
+	}
+
+	@After
+	public void tearDown() {
+		auditBatchWriter.stop();
+	}
+
+	@Test
+	public void writeWaitForFlushTest() {
+		auditBatchWriter.start();
+
+		assertThat(auditBatchWriter.write(new Audit()), is(true));
+		assertThat(batchSizes, is(Collections.singletonList(1)));
+	}
+
+	@Test
+	public void idleFlusherParksUntilWriteTest() throws InterruptedException {
+		auditBatchWriter.start();
+		Thread flusher = (Thread) ReflectionTestUtils.getField(auditBatchWriter, "flusher");
+		for (int i = 0; i < 500 && flusher.getState() != Thread.State.WAITING; i++) {
+			Thread.sleep(10);
+		}
+
+		assertThat(flusher.getState(), is(Thread.State.WAITING));
+		assertThat(auditBatchWriter.write(new Audit()), is(true));
+		assertThat(batchSizes, is(Collections.singletonList(1)));
+	}
+
+	@Test
+	public void writeBatchesTest() throws InterruptedException, ExecutionException {
+		auditBatchWriter.start();
+
+		List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+		for (int i = 0; i < 250; i++) {
+			futures.add(auditBatchWriter.writeAsync(new Audit()));
+		}
+		for (CompletableFuture<Boolean> future : futures) {
+			assertThat(future.get(), is(true));
+		}
+		int written = 0;
+		for (int batchSize : batchSizes) {
+			assertThat(batchSize <= 100, is(true));
+			written += batchSize;
+		}
+		assertThat(written, is(250));
+	}
+
+	@Test
+	public void writeFireAndForgetFlushedOnStopTest() {
+		ReflectionTestUtils.setField(auditBatchWriter, "durability", AuditDurability.FIRE_AND_FORGET);
+		ReflectionTestUtils.setField(auditBatchWriter, "flushInterval", 60000L);
+		auditBatchWriter.start();
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(auditBatchWriter.write(new Audit()), is(true));
+		}
+		auditBatchWriter.stop();
+
+		assertThat(batchSizes, is(Collections.singletonList(10)));
+	}
+
+	@Test(expected = DataAccessLayerException.class)
+	public void writeFailedTest() {
+		Mockito.doThrow(new IllegalStateException("database down")).when(auditRepository)
+				.insertAll(ArgumentMatchers.anyList());
+		auditBatchWriter.start();
+
+		auditBatchWriter.write(new Audit());
+	}
+
+	@Test
+	public void writeQueueFullTest() throws InterruptedException {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.doAnswer(invocation -> {
+			writing.countDown();
+			release.await();
+			return null;
+		}).when(auditRepository).insertAll(ArgumentMatchers.anyList());
+		ReflectionTestUtils.setField(auditBatchWriter, "queueSize", 2);
+		ReflectionTestUtils.setField(auditBatchWriter, "batchSize", 1);
+		auditBatchWriter.start();
+
+		auditBatchWriter.writeAsync(new Audit());
+		assertThat(writing.await(5, TimeUnit.SECONDS), is(true));
+		auditBatchWriter.writeAsync(new Audit());
+		auditBatchWriter.writeAsync(new Audit());
+		try {
+			auditBatchWriter.writeAsync(new Audit());
+			fail();
+		} catch (AuditManagerException e) {
+			assertThat(e.getErrorCode(), is("KER-AUD-003"));
+		} finally {
+			release.countDown();
+		}
+	}
+
+}
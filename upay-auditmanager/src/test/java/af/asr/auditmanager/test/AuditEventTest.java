@@ -1,6 +1,7 @@
 package af.asr.auditmanager.test;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 import java.time.LocalDateTime;
@@ -35,7 +36,7 @@ public class AuditEventTest {
 	@Test
 	public void auditBuilderTest() {
 
-		Mockito.when(auditRepository.save(ArgumentMatchers.any(Audit.class))).thenReturn(new Audit());
+		Mockito.doNothing().when(auditRepository).insertAll(ArgumentMatchers.anyList());
 
 		AuditRequestBuilder auditRequestBuilder = new AuditRequestBuilder();
 
@@ -49,12 +50,16 @@ public class AuditEventTest {
 		auditHandlerImpl.addAudit(auditRequest);
 
 		assertThat(auditHandlerImpl.addAudit(auditRequestBuilder.build()), is(true));
+		Mockito.verify(auditRepository, Mockito.times(2)).insertAll(ArgumentMatchers
+				.argThat(audits -> audits.size() == 1 && "eventId".equals(audits.get(0).getEventId())
+						&& audits.get(0).getLogId() != null));
+		Mockito.verify(auditRepository, Mockito.never()).save(ArgumentMatchers.any(Audit.class));
 	}
 
 	@Test(expected = AuditManagerException.class)
 	public void auditBuilderExceptionTest() {
 
-		Mockito.when(auditRepository.save(ArgumentMatchers.any(Audit.class))).thenReturn(new Audit());
+		Mockito.doNothing().when(auditRepository).insertAll(ArgumentMatchers.anyList());
 
 		AuditRequestBuilder auditRequestBuilder = new AuditRequestBuilder();
 
@@ -69,4 +74,21 @@ public class AuditEventTest {
 
 	}
 
+	@Test
+	public void auditLogIdOrderTest() {
+
+		Audit audit = new Audit();
+		assertThat(audit.getLogId(), is(nullValue()));
+		audit.assignLogId();
+		long previous = audit.getLogId();
+		for (int i = 0; i < 10000; i++) {
+			Audit next = new Audit();
+			next.assignLogId();
+			assertThat(next.getLogId() > previous, is(true));
+			previous = next.getLogId();
+		}
+		audit.assignLogId();
+		assertThat(audit.getLogId() < previous, is(true));
+	}
+
 }
\ No newline at end of file
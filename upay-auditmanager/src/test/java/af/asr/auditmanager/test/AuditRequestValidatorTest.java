@@ -0,0 +1,120 @@
+package af.asr.auditmanager.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import af.asr.auditmanager.builder.AuditRequestBuilder;
+import af.asr.auditmanager.exception.auditmanager.exception.AuditManagerException;
+import af.asr.auditmanager.request.AuditRequestDto;
+import af.asr.auditmanager.util.AuditRequestValidator;
+import af.asr.auditmanager.util.AuditUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AuditRequestValidatorTest {
+
+	private static ValidatorFactory factory;
+
+	private static Validator validator;
+
+	@BeforeClass
+	public static void setUp() {
+		factory = Validation.buildDefaultValidatorFactory();
+		validator = factory.getValidator();
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		factory.close();
+	}
+
+	@Test
+	public void validRequestTest() {
+		AuditRequestDto auditRequest = validRequest();
+
+		assertThat(AuditRequestValidator.isValid(auditRequest), is(true));
+		AuditUtils.validateAuditRequest(auditRequest);
+	}
+
+	@Test(expected = AuditManagerException.class)
+	public void invalidRequestTest() {
+		AuditRequestDto auditRequest = validRequest();
+		auditRequest.setEventId(null);
+
+		AuditUtils.validateAuditRequest(auditRequest);
+	}
+
+	@Test
+	public void invalidRequestErrorCodeTest() {
+		AuditRequestDto auditRequest = validRequest();
+		auditRequest.setHostIp("255.255.255.255.1");
+		try {
+			AuditUtils.validateAuditRequest(auditRequest);
+			fail();
+		} catch (AuditManagerException e) {
+			assertThat(e.getErrorCode(), is("KER-AUD-001"));
+			assertThat(e.getErrorText(), is("Invalid Audit Request. Required parameters must be present"));
+		}
+	}
+
+	/**
+	 * Every string field null, empty, and around the bounds of its size, and every
+	 * other field null, must be judged as the bean validator does
+	 */
+	@Test
+	public void sameAsValidatorTest() throws Exception {
+		for (PropertyDescriptor property : Introspector.getBeanInfo(AuditRequestDto.class, Object.class)
+				.getPropertyDescriptors()) {
+			if (property.getPropertyType() == String.class) {
+				for (int length : Arrays.asList(-1, 0, 1, 15, 16, 17, 63, 64, 65, 127, 128, 129, 255, 256, 257, 2048,
+						2049)) {
+					AuditRequestDto auditRequest = validRequest();
+					property.getWriteMethod().invoke(auditRequest, length < 0 ? null : repeat(length));
+					assertSameAsValidator(auditRequest, property.getName() + " of length " + length);
+				}
+			} else {
+				AuditRequestDto auditRequest = validRequest();
+				property.getWriteMethod().invoke(auditRequest, (Object) null);
+				assertSameAsValidator(auditRequest, property.getName() + " null");
+			}
+		}
+	}
+
+	@Test
+	public void subclassTest() {
+		AuditRequestDto auditRequest = new AuditRequestDto() {
+		};
+		assertThat(AuditRequestValidator.isValid(auditRequest), is(false));
+	}
+
+	private void assertSameAsValidator(AuditRequestDto auditRequest, String reason) {
+		assertThat(reason, AuditRequestValidator.isValid(auditRequest), is(validator.validate(auditRequest).isEmpty()));
+	}
+
+	private static String repeat(int length) {
+		char[] value = new char[length];
+		Arrays.fill(value, 'a');
+		return new String(value);
+	}
+
+	private static AuditRequestDto validRequest() {
+		return new AuditRequestBuilder().setActionTimeStamp(LocalDateTime.now()).setApplicationId("applicationId")
+				.setApplicationName("applicationName").setCreatedBy("createdBy").setDescription("description")
+				.setEventId("eventId").setEventName("eventName").setEventType("eventType").setHostIp("hostIp")
+				.setHostName("hostName").setId("id").setIdType("idType").setModuleId("moduleId")
+				.setModuleName("moduleName").setSessionUserId("sessionUserId").setSessionUserName("sessionUserName")
+				.build();
+	}
+
+}
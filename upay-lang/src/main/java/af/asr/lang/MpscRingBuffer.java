@@ -0,0 +1,105 @@
+package af.asr.lang;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Fixed-size queue that any number of threads may offer to and exactly one thread drains,
+ * without locks and without allocating once it is built.
+ *
+ * Each slot keeps a sequence number next to its element. A slot at position p may be written
+ * when its sequence is p, holds a published element when it is p + 1, and is free again for
+ * the next lap when the drainer sets it to p + capacity. Producers only contend on the CAS
+ * that claims a position.
+ *
+ * The sequence of a published element is written with a volatile store, so whatever a
+ * producer reads after {@link #offer} returns true (say, a flag raised by a drainer about to
+ * sleep) is ordered after the element became visible to the drainer.
+ *
+ * @param <E> the element type
+ */
+public class MpscRingBuffer<E> {
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    // drainer thread only
+    private long consumed;
+
+    /**
+     * @param size the least number of elements held, rounded up to a power of two
+     */
+    public MpscRingBuffer(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        int capacity = size <= 2 ? 2 : Integer.highestOneBit(size - 1) << 1;
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * Safe to call from any thread.
+     *
+     * @return false, leaving the buffer untouched, when every slot is taken
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        for (;;) {
+            long position = claimed.get();
+            int index = (int) (position & mask);
+            long lag = sequences.get(index) - position;
+            if (lag < 0) {
+                return false;
+            }
+            if (lag == 0 && claimed.compareAndSet(position, position + 1)) {
+                elements[index] = element;
+                sequences.set(index, position + 1);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Passes up to max published elements to the consumer, oldest first. Drainer thread only.
+     *
+     * @return how many elements were passed on
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> consumer, int max) {
+        int count = 0;
+        for (; count < max; count++) {
+            int index = (int) (consumed & mask);
+            if (sequences.get(index) != consumed + 1) {
+                break;
+            }
+            E element = (E) elements[index];
+            elements[index] = null;
+            sequences.lazySet(index, consumed + elements.length);
+            consumed++;
+            consumer.accept(element);
+        }
+        return count;
+    }
+
+    /**
+     * Drainer thread only.
+     *
+     * @return true when the next element in line is not published yet
+     */
+    public boolean isEmpty() {
+        return sequences.get((int) (consumed & mask)) != consumed + 1;
+    }
+}
@@ -11,6 +11,9 @@ import java.util.Enumeration;
  *
  * This class should be used as a Singleton.
  * Make sure that you create and reuse a Single instance of SequenceGenerator per node in your distributed system cluster.
+ *
+ * Ids keep increasing when the system clock is set back: the last timestamp is reused until
+ * the clock catches up, moving on by one millisecond whenever its sequence is exhausted.
  */
 public class SequenceGenerator {
     private static final int TOTAL_BITS = 64;
@@ -43,12 +46,13 @@ public class SequenceGenerator {
     }
 
 
-    public synchronized long nextId() {
-        long currentTimestamp = timestamp();
+    public int getNodeId() {
+        return nodeId;
+    }
 
-        if(currentTimestamp < lastTimestamp) {
-            throw new IllegalStateException("Invalid System Clock!");
-        }
+    public synchronized long nextId() {
+        // a clock set back reuses the last timestamp
+        long currentTimestamp = Math.max(timestamp(), lastTimestamp);
 
         if (currentTimestamp == lastTimestamp) {
             sequence = (sequence + 1) & maxSequence;
@@ -75,12 +79,13 @@ public class SequenceGenerator {
         return Instant.now().toEpochMilli() - CUSTOM_EPOCH;
     }
 
-    // Block and wait till next millisecond
+    // Block and wait till next millisecond, or take it right away while the clock is behind
     private long waitNextMillis(long currentTimestamp) {
-        while (currentTimestamp == lastTimestamp) {
-            currentTimestamp = timestamp();
+        long nextTimestamp = timestamp();
+        while (nextTimestamp == currentTimestamp) {
+            nextTimestamp = timestamp();
         }
-        return currentTimestamp;
+        return Math.max(nextTimestamp, currentTimestamp + 1);
     }
 
     private int createNodeId() {
@@ -0,0 +1,212 @@
+package af.asr.logger.appender;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import af.asr.logger.constant.ConfigurationDefault;
+import af.asr.logger.constant.OverflowPolicy;
+
+/**
+ * Async appender; logging calls only put the event in a buffer and a background
+ * thread writes them to the file or rolling file appender in batches
+
+ */
+@XmlRootElement
+public class AsyncAppender {
+
+    /**
+     * Name of the appender
+     */
+    private String appenderName;
+    /**
+     * Number of events the buffer holds, rounded up to a power of two; with default 8192
+     */
+    private int bufferSize = ConfigurationDefault.DEFAULTBUFFERSIZE;
+    /**
+     * Number of events written between two flushes of the file; with default 256
+     */
+    private int batchSize = ConfigurationDefault.DEFAULTBATCHSIZE;
+    /**
+     * What is done with an event when the buffer is full; with default DROP_TRACE_DEBUG
+     */
+    private OverflowPolicy overflowPolicy = ConfigurationDefault.DEFAULTOVERFLOWPOLICY;
+    /**
+     * With the SAMPLE policy one in sampleRate events below WARN is kept when the buffer
+     * is full; with default 10
+     */
+    private int sampleRate = ConfigurationDefault.DEFAULTSAMPLERATE;
+    /**
+     * Longest time in milliseconds a logging call waits for room in a full buffer before
+     * its event is dropped; with default 50
+     */
+    private long blockTimeout = ConfigurationDefault.DEFAULTBLOCKTIMEOUT;
+    /**
+     * File the events are written to; either this or rollingFileAppender is
+     * <b>Mandatory field to pass</b>
+     */
+    private FileAppender fileAppender;
+    /**
+     * Rolling file the events are written to, used instead of fileAppender when given
+     */
+    private RollingFileAppender rollingFileAppender;
+
+    /**
+     * Getter for appenderName
+     *
+     * @return name of current Appender
+     */
+    public String getAppenderName() {
+        return appenderName;
+    }
+
+    /**
+     * Setter for appenderName
+     *
+     * @param appenderName name of the Appender
+     */
+    @XmlAttribute
+    public void setAppenderName(String appenderName) {
+        this.appenderName = appenderName;
+    }
+
+    /**
+     * Getter for bufferSize
+     *
+     * @return number of events the buffer holds
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Setter for bufferSize
+     *
+     * @param bufferSize number of events the buffer holds, rounded up to a power of
+     *                   two; with default 8192
+     */
+    @XmlElement
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Getter for batchSize
+     *
+     * @return number of events written between two flushes
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Setter for batchSize
+     *
+     * @param batchSize number of events written between two flushes of the file;
+     *                  with default 256
+     */
+    @XmlElement
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Getter for overflowPolicy
+     *
+     * @return current overflowPolicy value
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Setter for overflowPolicy
+     *
+     * @param overflowPolicy what is done with an event when the buffer is full;
+     *                       with default DROP_TRACE_DEBUG
+     */
+    @XmlElement
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Getter for sampleRate
+     *
+     * @return current sampleRate value
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Setter for sampleRate
+     *
+     * @param sampleRate with the SAMPLE policy one in sampleRate events below WARN
+     *                   is kept when the buffer is full; with default 10
+     */
+    @XmlElement
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Getter for blockTimeout
+     *
+     * @return current blockTimeout value in milliseconds
+     */
+    public long getBlockTimeout() {
+        return blockTimeout;
+    }
+
+    /**
+     * Setter for blockTimeout
+     *
+     * @param blockTimeout longest time in milliseconds a logging call waits for
+     *                     room in a full buffer; with default 50
+     */
+    @XmlElement
+    public void setBlockTimeout(long blockTimeout) {
+        this.blockTimeout = blockTimeout;
+    }
+
+    /**
+     * Getter for fileAppender
+     *
+     * @return {@link FileAppender} the events are written to
+     */
+    public FileAppender getFileAppender() {
+        return fileAppender;
+    }
+
+    /**
+     * Setter for fileAppender
+     *
+     * @param fileAppender {@link FileAppender} the events are written to
+     */
+    @XmlElement
+    public void setFileAppender(FileAppender fileAppender) {
+        this.fileAppender = fileAppender;
+    }
+
+    /**
+     * Getter for rollingFileAppender
+     *
+     * @return {@link RollingFileAppender} the events are written to
+     */
+    public RollingFileAppender getRollingFileAppender() {
+        return rollingFileAppender;
+    }
+
+    /**
+     * Setter for rollingFileAppender
+     *
+     * @param rollingFileAppender {@link RollingFileAppender} the events are written
+     *                            to, used instead of fileAppender when given
+     */
+    @XmlElement
+    public void setRollingFileAppender(RollingFileAppender rollingFileAppender) {
+        this.rollingFileAppender = rollingFileAppender;
+    }
+
+}
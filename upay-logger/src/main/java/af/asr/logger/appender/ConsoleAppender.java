@@ -5,6 +5,7 @@ import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
 import af.asr.logger.constant.ConfigurationDefault;
+import af.asr.logger.constant.LogEncoding;
 
 /**
  * Console appender 
@@ -26,6 +27,10 @@ public class ConsoleAppender {
      * System.out.
      */
     private String target = ConfigurationDefault.DEFAULTARGET;
+    /**
+     * How events are written, either PATTERN or JSON; with default PATTERN
+     */
+    private LogEncoding encoding = ConfigurationDefault.DEFAULTENCODING;
 
     /**
      * Getter for appenderName
@@ -86,4 +91,24 @@ public class ConsoleAppender {
         this.target = target;
     }
 
+    /**
+     * Getter for encoding
+     *
+     * @return current encoding value
+     */
+    public LogEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Setter for encoding
+     *
+     * @param encoding how events are written, either PATTERN or JSON; with default
+     *                 PATTERN
+     */
+    @XmlElement
+    public void setEncoding(LogEncoding encoding) {
+        this.encoding = encoding;
+    }
+
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package af.asr.logger.appender;
 
 import af.asr.logger.constant.ConfigurationDefault;
+import af.asr.logger.constant.LogEncoding;
 
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
@@ -37,6 +38,10 @@ public class FileAppender {
      * potentially running on different hosts; with default false
      */
     private boolean prudent = ConfigurationDefault.DEFAULTPRUDENT;
+    /**
+     * How events are written, either PATTERN or JSON; with default PATTERN
+     */
+    private LogEncoding encoding = ConfigurationDefault.DEFAULTENCODING;
 
     /**
      * Getter for appenderName
@@ -138,4 +143,24 @@ public class FileAppender {
         this.prudent = prudent;
     }
 
+    /**
+     * Getter for encoding
+     *
+     * @return current encoding value
+     */
+    public LogEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Setter for encoding
+     *
+     * @param encoding how events are written, either PATTERN or JSON; with default
+     *                 PATTERN
+     */
+    @XmlElement
+    public void setEncoding(LogEncoding encoding) {
+        this.encoding = encoding;
+    }
+
 }
\ No newline at end of file
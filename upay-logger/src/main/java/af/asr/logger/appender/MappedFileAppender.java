@@ -0,0 +1,192 @@
+package af.asr.logger.appender;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import af.asr.logger.constant.ConfigurationDefault;
+import af.asr.logger.constant.LogEncoding;
+
+/**
+ * Memory-mapped file appender; events are copied into pre-sized segments mapped
+ * in memory, and full segments are compressed and pruned in the background
+
+ */
+@XmlRootElement
+public class MappedFileAppender {
+
+    /**
+     * Name of the appender
+     */
+    private String appenderName;
+    /**
+     * Name of the segment files,<b> plus a suitably placed %i</b> replaced by the
+     * number of the segment;<b>Mandatory field to pass</b>
+     */
+    private String fileNamePattern;
+    /**
+     * Size every segment is created with, and rolled at; with default 64MB
+     */
+    private String segmentSize = ConfigurationDefault.DEFAULTSEGMENTSIZE;
+    /**
+     * Gzip full segments; with default true
+     */
+    private boolean compress = ConfigurationDefault.DEFAULTCOMPRESS;
+    /**
+     * Controls the maximum number of full segments to keep, deleting older ones in
+     * the background;default this restriction will not apply
+     */
+    private int maxHistory = ConfigurationDefault.DEFAULMAXFILEHISTORY;
+    /**
+     * Controls the total size of all full segments. Oldest segments are deleted in
+     * the background when the total size cap is exceeded;default this restriction
+     * will not apply
+     */
+    private String totalCap = ConfigurationDefault.DEFAULTTOTALCAP;
+    /**
+     * How events are written, either PATTERN or JSON; with default PATTERN
+     */
+    private LogEncoding encoding = ConfigurationDefault.DEFAULTENCODING;
+
+    /**
+     * Getter for appenderName
+     *
+     * @return name of current Appender
+     */
+    public String getAppenderName() {
+        return appenderName;
+    }
+
+    /**
+     * Setter for appenderName
+     *
+     * @param appenderName name of the Appender
+     */
+    @XmlAttribute
+    public void setAppenderName(String appenderName) {
+        this.appenderName = appenderName;
+    }
+
+    /**
+     * Getter for fileNamePattern
+     *
+     * @return current fileNamePattern value
+     */
+    public String getFileNamePattern() {
+        return fileNamePattern;
+    }
+
+    /**
+     * Setter for fileNamePattern
+     *
+     * @param fileNamePattern name of the segment files,<b> plus a suitably placed
+     *                        %i</b> replaced by the number of the
+     *                        segment;<b>Mandatory field to pass</b>
+     */
+    @XmlElement
+    public void setFileNamePattern(String fileNamePattern) {
+        this.fileNamePattern = fileNamePattern;
+    }
+
+    /**
+     * Getter for segmentSize
+     *
+     * @return current segmentSize value
+     */
+    public String getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Setter for segmentSize
+     *
+     * @param segmentSize size every segment is created with, and rolled at; with
+     *                    default 64MB
+     */
+    @XmlElement
+    public void setSegmentSize(String segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Getter for compress
+     *
+     * @return current compress value
+     */
+    public boolean isCompress() {
+        return compress;
+    }
+
+    /**
+     * Setter for compress
+     *
+     * @param compress gzip full segments; with default true
+     */
+    @XmlElement
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    /**
+     * Getter for maxHistory
+     *
+     * @return current maxHistory value
+     */
+    public int getMaxHistory() {
+        return maxHistory;
+    }
+
+    /**
+     * Setter for maxHistory
+     *
+     * @param maxHistory controls the maximum number of full segments to keep,
+     *                   deleting older ones in the background;default this
+     *                   restriction will not apply
+     */
+    @XmlElement
+    public void setMaxHistory(int maxHistory) {
+        this.maxHistory = maxHistory;
+    }
+
+    /**
+     * Getter for totalCap
+     *
+     * @return current totalCap value
+     */
+    public String getTotalCap() {
+        return totalCap;
+    }
+
+    /**
+     * Setter for totalCap
+     *
+     * @param totalCap controls the total size of all full segments. Oldest
+     *                 segments are deleted in the background when the total size
+     *                 cap is exceeded;default this restriction will not apply
+     */
+    @XmlElement
+    public void setTotalCap(String totalCap) {
+        this.totalCap = totalCap;
+    }
+
+    /**
+     * Getter for encoding
+     *
+     * @return current encoding value
+     */
+    public LogEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Setter for encoding
+     *
+     * @param encoding how events are written, either PATTERN or JSON; with default
+     *                 PATTERN
+     */
+    @XmlElement
+    public void setEncoding(LogEncoding encoding) {
+        this.encoding = encoding;
+    }
+
+}
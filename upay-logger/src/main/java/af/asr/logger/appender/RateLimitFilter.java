@@ -0,0 +1,140 @@
+package af.asr.logger.appender;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import af.asr.logger.constant.ConfigurationDefault;
+
+/**
+ * Rate limit filter; applies to every logger, and limits how often events with the
+ * same logger, level and template are logged
+
+ */
+@XmlRootElement
+public class RateLimitFilter {
+
+    /**
+     * Number of similar events logged per second once the burst is used; with
+     * default 10
+     */
+    private int ratePerSecond = ConfigurationDefault.DEFAULTRATEPERSECOND;
+    /**
+     * Number of similar events logged in a row before the rate applies; with default
+     * 100
+     */
+    private int burst = ConfigurationDefault.DEFAULTBURST;
+    /**
+     * One in sampleRate events over the rate is still logged, 0 drops them all; with
+     * default 10
+     */
+    private int sampleRate = ConfigurationDefault.DEFAULTSAMPLERATE;
+    /**
+     * Time in milliseconds between two summaries of the suppressed events; with
+     * default 10000
+     */
+    private long summaryInterval = ConfigurationDefault.DEFAULTSUMMARYINTERVAL;
+    /**
+     * Number of kinds of events tracked at once; with default 4096
+     */
+    private int tableSize = ConfigurationDefault.DEFAULTFINGERPRINTTABLESIZE;
+
+    /**
+     * Getter for ratePerSecond
+     *
+     * @return current ratePerSecond value
+     */
+    public int getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    /**
+     * Setter for ratePerSecond
+     *
+     * @param ratePerSecond number of similar events logged per second once the
+     *                      burst is used; with default 10
+     */
+    @XmlElement
+    public void setRatePerSecond(int ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /**
+     * Getter for burst
+     *
+     * @return current burst value
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Setter for burst
+     *
+     * @param burst number of similar events logged in a row before the rate
+     *              applies; with default 100
+     */
+    @XmlElement
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    /**
+     * Getter for sampleRate
+     *
+     * @return current sampleRate value
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Setter for sampleRate
+     *
+     * @param sampleRate one in sampleRate events over the rate is still logged, 0
+     *                   drops them all; with default 10
+     */
+    @XmlElement
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Getter for summaryInterval
+     *
+     * @return current summaryInterval value in milliseconds
+     */
+    public long getSummaryInterval() {
+        return summaryInterval;
+    }
+
+    /**
+     * Setter for summaryInterval
+     *
+     * @param summaryInterval time in milliseconds between two summaries of the
+     *                        suppressed events; with default 10000
+     */
+    @XmlElement
+    public void setSummaryInterval(long summaryInterval) {
+        this.summaryInterval = summaryInterval;
+    }
+
+    /**
+     * Getter for tableSize
+     *
+     * @return current tableSize value
+     */
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    /**
+     * Setter for tableSize
+     *
+     * @param tableSize number of kinds of events tracked at once; with default 4096
+     */
+    @XmlElement
+    public void setTableSize(int tableSize) {
+        this.tableSize = tableSize;
+    }
+
+}
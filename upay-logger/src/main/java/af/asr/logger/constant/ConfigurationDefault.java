@@ -45,5 +45,53 @@ public final class ConfigurationDefault {
      * Default pattern of logs
      */
     public static final String LOGPATTERN = "%d{yyyy-MM-dd'T'HH:mm:ssXXX} - [%logger] - %-5level - %msg%n";
+    /**
+     * Default number of events an asynchronous appender buffers
+     */
+    public static final int DEFAULTBUFFERSIZE = 8192;
+    /**
+     * Default number of events an asynchronous appender writes between two flushes
+     */
+    public static final int DEFAULTBATCHSIZE = 256;
+    /**
+     * Default value of Overflow Policy
+     */
+    public static final OverflowPolicy DEFAULTOVERFLOWPOLICY = OverflowPolicy.DROP_TRACE_DEBUG;
+    /**
+     * Default value of Sample Rate
+     */
+    public static final int DEFAULTSAMPLERATE = 10;
+    /**
+     * Default time in milliseconds a logging call waits for room in a full buffer
+     */
+    public static final long DEFAULTBLOCKTIMEOUT = 50;
+    /**
+     * Default value of Encoding
+     */
+    public static final LogEncoding DEFAULTENCODING = LogEncoding.PATTERN;
+    /**
+     * Default size of the segments of a memory-mapped file appender
+     */
+    public static final String DEFAULTSEGMENTSIZE = "64MB";
+    /**
+     * Default value of Compress
+     */
+    public static final boolean DEFAULTCOMPRESS = true;
+    /**
+     * Default number of similar events logged per second once the burst is used
+     */
+    public static final int DEFAULTRATEPERSECOND = 10;
+    /**
+     * Default number of similar events logged in a row before the rate applies
+     */
+    public static final int DEFAULTBURST = 100;
+    /**
+     * Default time in milliseconds between two summaries of suppressed events
+     */
+    public static final long DEFAULTSUMMARYINTERVAL = 10000;
+    /**
+     * Default number of event fingerprints tracked at once
+     */
+    public static final int DEFAULTFINGERPRINTTABLESIZE = 4096;
 
 }
\ No newline at end of file
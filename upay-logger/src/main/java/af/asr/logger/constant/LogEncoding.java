@@ -0,0 +1,17 @@
+package af.asr.logger.constant;
+
+/**
+ * How an appender writes its events
+ */
+public enum LogEncoding {
+
+    /**
+     * Text line of the default pattern of logs
+     */
+    PATTERN,
+    /**
+     * One JSON object per line, with the four fields of the log call kept apart
+     */
+    JSON;
+
+}
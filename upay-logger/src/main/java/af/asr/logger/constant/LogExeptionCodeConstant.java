@@ -60,6 +60,22 @@ public enum LogExeptionCodeConstant {
      *
      */
     PHOENIXILLEGALARGUMENTEXCEPTIONMESSAGE("String value of size is not in expected format"),
+    /**
+     *
+     */
+    PHOENIXILLEGALARGUMENTEXCEPTIONMESSAGEASYNC("Buffer size, batch size and sample rate should be positive and overflow policy should not be null"),
+    /**
+     *
+     */
+    PHOENIXILLEGALARGUMENTEXCEPTIONMESSAGESEGMENT("Segment size should be positive and at most 2GB"),
+    /**
+     *
+     */
+    PHOENIXILLEGALARGUMENTEXCEPTIONMESSAGELEVEL("Logger name prefix and level should not be null and duration should be positive"),
+    /**
+     *
+     */
+    PHOENIXILLEGALARGUMENTEXCEPTIONMESSAGERATELIMIT("Rate, burst, summary interval and table size should be positive and sample rate should not be negative"),
     /**
      *
      */
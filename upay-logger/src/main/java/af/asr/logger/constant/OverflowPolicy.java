@@ -0,0 +1,22 @@
+package af.asr.logger.constant;
+
+/**
+ * What an asynchronous appender does with an event when its buffer is full
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Wait for a free slot, at most for the block timeout
+     */
+    BLOCK,
+    /**
+     * Drop TRACE and DEBUG events, wait for a free slot for the others
+     */
+    DROP_TRACE_DEBUG,
+    /**
+     * Keep one in sample rate of the events below WARN, wait for a free slot for the
+     * kept ones and for WARN and ERROR
+     */
+    SAMPLE;
+
+}
@@ -0,0 +1,203 @@
+package af.asr.logger.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import af.asr.logger.constant.ConfigurationDefault;
+import af.asr.logger.constant.OverflowPolicy;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+/**
+ * Logback appender that hands events to a background thread through an {@link EventRingBuffer}.
+ * The thread writes them to the delegate appender in batches and flushes once per batch, so a
+ * logging call costs a slot in the buffer instead of a write to disk.
+ *
+ * When the buffer is full the {@link OverflowPolicy} decides what happens to the event. An event
+ * that still finds no room once the block timeout has passed is dropped, so a slow disk never holds
+ * a caller for longer than that. Dropped events are counted and reported on the logback status.
+ */
+public class AsyncRingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    /**
+     * Longest time the consumer sleeps without being woken up
+     */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    /**
+     * Pause between two attempts of a caller waiting for room
+     */
+    private static final long RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    /**
+     * Longest time stop waits for the buffered events to be written
+     */
+    private static final long STOP_TIMEOUT_MILLIS = 1000;
+
+    private int bufferSize = ConfigurationDefault.DEFAULTBUFFERSIZE;
+    private int batchSize = ConfigurationDefault.DEFAULTBATCHSIZE;
+    private OverflowPolicy overflowPolicy = ConfigurationDefault.DEFAULTOVERFLOWPOLICY;
+    private int sampleRate = ConfigurationDefault.DEFAULTSAMPLERATE;
+    private long blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(ConfigurationDefault.DEFAULTBLOCKTIMEOUT);
+    private OutputStreamAppender<ILoggingEvent> delegate;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    private EventRingBuffer buffer;
+    private Thread consumer;
+    private volatile boolean running;
+    private volatile boolean consumerParked;
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public void setBlockTimeout(long blockTimeoutMillis) {
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+    }
+
+    /**
+     * @param delegate started appender the events are written to; it is only used by the
+     *                 background thread and stopped with this appender
+     */
+    public void setDelegate(OutputStreamAppender<ILoggingEvent> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return events dropped since the appender was started
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (delegate == null) {
+            addError("No delegate appender set for the async appender named [" + name + "]");
+            return;
+        }
+        delegate.setImmediateFlush(false);
+        buffer = new EventRingBuffer(bufferSize);
+        running = true;
+        consumer = new Thread(this::drain, "upay-logger-async-" + name);
+        consumer.setDaemon(true);
+        consumer.start();
+        super.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        if (buffer.offer(event)) {
+            wakeConsumer();
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP_TRACE_DEBUG && event.getLevel().toInt() <= Level.DEBUG_INT
+                || overflowPolicy == OverflowPolicy.SAMPLE && event.getLevel().toInt() < Level.WARN_INT
+                && overflowed.incrementAndGet() % sampleRate != 0) {
+            dropped.incrementAndGet();
+            return;
+        }
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (running && System.nanoTime() - deadline < 0) {
+            wakeConsumer();
+            LockSupport.parkNanos(this, RETRY_NANOS);
+            if (buffer.offer(event)) {
+                wakeConsumer();
+                return;
+            }
+        }
+        dropped.incrementAndGet();
+    }
+
+    private void wakeConsumer() {
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Body of the background thread: writes what is buffered until the appender is stopped
+     * and the buffer is empty. A wake-up missed between the last look at the buffer and the
+     * park only costs the idle time.
+     */
+    private void drain() {
+        long reported = 0;
+        while (running || !buffer.isEmpty()) {
+            if (buffer.drain(this::write, batchSize) > 0) {
+                flush();
+            } else {
+                consumerParked = true;
+                if (running && buffer.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                }
+                consumerParked = false;
+            }
+            long count = dropped.get();
+            if (count != reported) {
+                addWarn("Dropped " + (count - reported) + " events, the buffer of the async appender named ["
+                        + name + "] was full");
+                reported = count;
+            }
+        }
+        flush();
+    }
+
+    private void write(ILoggingEvent event) {
+        try {
+            delegate.doAppend(event);
+        } catch (RuntimeException e) {
+            addError("Writing to [" + delegate.getName() + "] failed", e);
+        }
+    }
+
+    private void flush() {
+        OutputStream out = delegate.getOutputStream();
+        if (out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                addError("Flushing [" + delegate.getName() + "] failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (consumer.isAlive()) {
+            addWarn("The async appender named [" + name + "] stopped with events still buffered");
+        }
+        delegate.stop();
+    }
+}
@@ -0,0 +1,93 @@
+package af.asr.logger.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Bounded lock-free queue of logging events for many producers and a single consumer.
+ *
+ * The slots are allocated once. Every slot carries a sequence telling whose turn it is:
+ * a producer claims a position with one CAS on the tail and publishes its event by moving
+ * the sequence of the slot on, and the consumer frees the slot by moving it on again by one
+ * lap. A producer that finds the slot of its position not yet freed knows the buffer is full.
+ */
+class EventRingBuffer {
+
+    private final ILoggingEvent[] events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * Next position to consume, only touched by the consumer thread
+     */
+    private long head;
+
+    EventRingBuffer(int size) {
+        int capacity = size <= 2 ? 2 : Integer.highestOneBit(size - 1) << 1;
+        this.events = new ILoggingEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+    }
+
+    int capacity() {
+        return events.length;
+    }
+
+    /**
+     * @return false when the buffer is full
+     */
+    boolean offer(ILoggingEvent event) {
+        long position = tail.get();
+        for (;;) {
+            int index = (int) (position & mask);
+            long distance = sequences.get(index) - position;
+            if (distance == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events[index] = event;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (distance < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Hands at most max events to the consumer, in the order they were published.
+     *
+     * @return the number of events handed over
+     */
+    int drain(Consumer<ILoggingEvent> consumer, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            ILoggingEvent event = events[index];
+            events[index] = null;
+            sequences.lazySet(index, head + events.length);
+            head++;
+            drained++;
+            consumer.accept(event);
+        }
+        return drained;
+    }
+
+    /**
+     * Only meaningful on the consumer thread.
+     */
+    boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+}
@@ -0,0 +1,350 @@
+package af.asr.logger.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+/**
+ * Logback encoder writing every event as one JSON object per line:
+ *
+ * <pre>
+ * {"timestamp":"2020-01-31T09:15:02.114Z","level":"INFO","thread":"main","logger":"af.asr.Foo",
+ *  "sessionId":"...","idType":"...","id":"...","description":"..."}
+ * </pre>
+ *
+ * The four arguments of a {@link LoggerImpl} call, recognised by its message pattern, are written
+ * as fields of their own instead of being formatted into the message, and an event logged any
+ * other way gets its formatted message as "message". A throwable is written as "exception", laid
+ * out as in a stack trace printed by Logback. The timestamp is in UTC.
+ *
+ * Characters are escaped and encoded to UTF-8 straight into a byte buffer kept per thread, so the
+ * only allocation of an event is the array handed back to the appender.
+ */
+public class JsonEventEncoder extends EncoderBase<ILoggingEvent> {
+
+    /**
+     * Names of the arguments of a {@link LoggerImpl} call, in order
+     */
+    private static final byte[][] FIELDS = {ascii(",\"sessionId\":"), ascii(",\"idType\":"), ascii(",\"id\":"),
+            ascii(",\"description\":")};
+    private static final byte[] TIMESTAMP = ascii("{\"timestamp\":\"");
+    private static final byte[] LEVEL = ascii("\",\"level\":\"");
+    private static final byte[] THREAD = ascii("\",\"thread\":");
+    private static final byte[] LOGGER = ascii(",\"logger\":");
+    private static final byte[] MESSAGE = ascii(",\"message\":");
+    private static final byte[] EXCEPTION = ascii(",\"exception\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] END = ascii("}\n");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    /**
+     * Buffers grown past this size by a large event are not kept for the next one
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(Buffer::new);
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        Buffer buffer = BUFFERS.get();
+        if (buffer.busy) {
+            // an argument logged from its own toString; leave the outer event its buffer
+            buffer = new Buffer();
+        }
+        buffer.busy = true;
+        try {
+            buffer.write(TIMESTAMP);
+            buffer.timestamp(event.getTimeStamp());
+            buffer.write(LEVEL);
+            buffer.string(event.getLevel().levelStr);
+            buffer.write(THREAD);
+            buffer.quoted(event.getThreadName());
+            buffer.write(LOGGER);
+            buffer.quoted(event.getLoggerName());
+            Object[] arguments = event.getArgumentArray();
+            if (arguments != null && arguments.length == FIELDS.length && LoggerImpl.LOGDISPLAY.equals(event.getMessage())) {
+                for (int i = 0; i < FIELDS.length; i++) {
+                    buffer.write(FIELDS[i]);
+                    buffer.quoted(arguments[i] == null ? null : arguments[i].toString());
+                }
+            } else {
+                buffer.write(MESSAGE);
+                buffer.quoted(event.getFormattedMessage());
+            }
+            IThrowableProxy throwable = event.getThrowableProxy();
+            if (throwable != null) {
+                buffer.write(EXCEPTION);
+                buffer.ensure(1);
+                buffer.put('"');
+                buffer.throwable(throwable, "", 0);
+                buffer.ensure(1);
+                buffer.put('"');
+            }
+            buffer.write(END);
+            return Arrays.copyOf(buffer.bytes, buffer.length);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Growable byte array of one thread, reused from event to event
+     */
+    private static final class Buffer {
+
+        private byte[] bytes = new byte[512];
+        private int length;
+        private boolean busy;
+
+        void release() {
+            length = 0;
+            busy = false;
+            if (bytes.length > MAX_RETAINED_CAPACITY) {
+                bytes = new byte[512];
+            }
+        }
+
+        void ensure(int more) {
+            if (length + more > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, length + more));
+            }
+        }
+
+        void write(byte[] value) {
+            ensure(value.length);
+            System.arraycopy(value, 0, bytes, length, value.length);
+            length += value.length;
+        }
+
+        private void digits(long value, int count) {
+            for (int i = length + count - 1; i >= length; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            length += count;
+        }
+
+        void put(char c) {
+            bytes[length++] = (byte) c;
+        }
+
+        /**
+         * Writes the time as yyyy-MM-dd'T'HH:mm:ss.SSS'Z', converting the day number to a civil
+         * date without going through the calendar classes
+         */
+        void timestamp(long millis) {
+            ensure(24);
+            long days = Math.floorDiv(millis, MILLIS_PER_DAY);
+            long millisOfDay = Math.floorMod(millis, MILLIS_PER_DAY);
+            long shifted = days + 719468;
+            long era = Math.floorDiv(shifted, 146097);
+            long dayOfEra = shifted - era * 146097;
+            long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+            long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+            long monthIndex = (5 * dayOfYear + 2) / 153;
+            long day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+            long month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+            long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+            digits(year, 4);
+            put('-');
+            digits(month, 2);
+            put('-');
+            digits(day, 2);
+            put('T');
+            digits(millisOfDay / 3_600_000, 2);
+            put(':');
+            digits(millisOfDay / 60_000 % 60, 2);
+            put(':');
+            digits(millisOfDay / 1000 % 60, 2);
+            put('.');
+            digits(millisOfDay % 1000, 3);
+            put('Z');
+        }
+
+        /**
+         * Writes a number of at most 19 digits, without sign
+         */
+        void number(long value) {
+            int count = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10) {
+                count++;
+            }
+            ensure(count);
+            digits(value, count);
+        }
+
+        /**
+         * Writes the escaped lines of a throwable, its suppressed throwables and its causes, each
+         * line after the first starting with a newline and {@code indent} tabs
+         */
+        void throwable(IThrowableProxy throwable, String caption, int indent) {
+            string(caption);
+            string(throwable.getClassName());
+            if (throwable.getMessage() != null) {
+                string(": ");
+                string(throwable.getMessage());
+            }
+            StackTraceElementProxy[] frames = throwable.getStackTraceElementProxyArray();
+            int common = throwable.getCommonFrames();
+            for (int i = 0; i < frames.length - common; i++) {
+                line(indent + 1);
+                string("at ");
+                frame(frames[i].getStackTraceElement());
+            }
+            if (common > 0) {
+                line(indent + 1);
+                string("... ");
+                number(common);
+                string(" common frames omitted");
+            }
+            IThrowableProxy[] suppressed = throwable.getSuppressed();
+            if (suppressed != null) {
+                for (IThrowableProxy each : suppressed) {
+                    line(indent + 1);
+                    throwable(each, "Suppressed: ", indent + 1);
+                }
+            }
+            if (throwable.getCause() != null) {
+                line(indent);
+                throwable(throwable.getCause(), "Caused by: ", indent);
+            }
+        }
+
+        private void line(int indent) {
+            ensure(2 + 2 * indent);
+            put('\\');
+            put('n');
+            for (int i = 0; i < indent; i++) {
+                put('\\');
+                put('t');
+            }
+        }
+
+        /**
+         * Writes the frame as {@link StackTraceElement#toString()} does, without building the string
+         */
+        private void frame(StackTraceElement frame) {
+            string(frame.getClassName());
+            string(".");
+            string(frame.getMethodName());
+            if (frame.isNativeMethod()) {
+                string("(Native Method)");
+            } else if (frame.getFileName() == null) {
+                string("(Unknown Source)");
+            } else {
+                string("(");
+                string(frame.getFileName());
+                if (frame.getLineNumber() >= 0) {
+                    string(":");
+                    number(frame.getLineNumber());
+                }
+                string(")");
+            }
+        }
+
+        void quoted(String value) {
+            if (value == null) {
+                write(NULL);
+                return;
+            }
+            ensure(1);
+            put('"');
+            string(value);
+            ensure(1);
+            put('"');
+        }
+
+        /**
+         * Writes the JSON escaped UTF-8 bytes of the value, without quotes
+         */
+        void string(String value) {
+            int count = value.length();
+            ensure(count);
+            for (int i = 0; i < count; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                    if (length == bytes.length) {
+                        ensure(count - i);
+                    }
+                    bytes[length++] = (byte) c;
+                } else {
+                    ensure(count - i + 6);
+                    i = special(value, i, c);
+                }
+            }
+        }
+
+        /**
+         * Writes a character needing an escape or more than one byte
+         *
+         * @return index of the last character consumed
+         */
+        private int special(String value, int i, char c) {
+            if (c == '"' || c == '\\') {
+                put('\\');
+                put(c);
+            } else if (c < 0x20) {
+                put('\\');
+                switch (c) {
+                    case '\n':
+                        put('n');
+                        break;
+                    case '\r':
+                        put('r');
+                        break;
+                    case '\t':
+                        put('t');
+                        break;
+                    case '\b':
+                        put('b');
+                        break;
+                    case '\f':
+                        put('f');
+                        break;
+                    default:
+                        put('u');
+                        put('0');
+                        put('0');
+                        bytes[length++] = HEX[c >> 4];
+                        bytes[length++] = HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                bytes[length++] = (byte) (0xC0 | c >> 6);
+                bytes[length++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes[length++] = (byte) (0xF0 | codePoint >> 18);
+                bytes[length++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                bytes[length++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                bytes[length++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                put('?');
+            } else {
+                bytes[length++] = (byte) (0xE0 | c >> 12);
+                bytes[length++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[length++] = (byte) (0x80 | c & 0x3F);
+            }
+            return i;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package af.asr.logger.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import af.asr.logger.constant.LogLevel;
+
+/**
+ * Log levels set at runtime by logger name or package prefix, in place of the levels the loggers
+ * were built with. The longest prefix matching a logger name wins, where a prefix matches the
+ * name itself and the names below it ("af.asr" matches "af.asr.Foo" but not "af.asrx"), and the
+ * empty prefix matches every logger.
+ *
+ * Overrides are replaced as a whole under the lock of this instance, which then pushes the new
+ * level of every registered logger into it; loggers only read their own volatile level. A logger
+ * built while the overrides change may miss the push, so it is checked against the version of the
+ * overrides before it is handed out.
+ */
+final class LevelOverrides {
+
+    private final LoggerRegistry registry;
+    private volatile Map<String, LevelOverride> overrides = Collections.emptyMap();
+    private volatile int version;
+    private ScheduledExecutorService reverts;
+
+    LevelOverrides(LoggerRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Sets the levels of the given prefixes in one step, until reset
+     */
+    synchronized void set(Map<String, LogLevel> levels) {
+        Map<String, LevelOverride> updated = new HashMap<>(overrides);
+        for (Map.Entry<String, LogLevel> entry : levels.entrySet()) {
+            updated.put(entry.getKey(), new LevelOverride(entry.getValue(), 0, null));
+        }
+        publish(updated);
+    }
+
+    /**
+     * Sets the level of a prefix for a while, then puts back the override it replaced, unless
+     * that one ended meanwhile, if it is still in place
+     */
+    synchronized void set(String prefix, LogLevel level, long durationMillis) {
+        Map<String, LevelOverride> updated = new HashMap<>(overrides);
+        long expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        LevelOverride override = new LevelOverride(level, expiresAt, overrides.get(prefix));
+        updated.put(prefix, override);
+        publish(updated);
+        if (reverts == null) {
+            reverts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "upay-logger-level-revert");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        reverts.schedule(() -> revert(prefix, override), durationMillis, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void reset(String prefix) {
+        if (overrides.containsKey(prefix)) {
+            Map<String, LevelOverride> updated = new HashMap<>(overrides);
+            updated.remove(prefix);
+            publish(updated);
+        }
+    }
+
+    /**
+     * @return the level of every prefix with an override, by prefix
+     */
+    Map<String, LogLevel> get() {
+        Map<String, LogLevel> levels = new TreeMap<>();
+        for (Map.Entry<String, LevelOverride> entry : overrides.entrySet()) {
+            levels.put(entry.getKey(), entry.getValue().level);
+        }
+        return levels;
+    }
+
+    /**
+     * Gives a logger its current level
+     */
+    synchronized void apply(LoggerImpl logger) {
+        logger.applyLevel(levelOf(logger.getName(), logger.getConfiguredLevel()), version);
+    }
+
+    /**
+     * @return the logger, given its current level if the overrides changed since it got it
+     */
+    LoggerImpl refresh(LoggerImpl logger) {
+        if (logger.getLevelVersion() != version) {
+            apply(logger);
+        }
+        return logger;
+    }
+
+    private synchronized void revert(String prefix, LevelOverride override) {
+        if (overrides.get(prefix) == override) {
+            Map<String, LevelOverride> updated = new HashMap<>(overrides);
+            LevelOverride replaced = override.replaced;
+            while (replaced != null && replaced.expired()) {
+                replaced = replaced.replaced;
+            }
+            if (replaced != null) {
+                updated.put(prefix, replaced);
+            } else {
+                updated.remove(prefix);
+            }
+            publish(updated);
+        }
+    }
+
+    private void publish(Map<String, LevelOverride> updated) {
+        overrides = updated;
+        version++;
+        for (LoggerImpl logger : registry.loggers()) {
+            apply(logger);
+        }
+    }
+
+    private LogLevel levelOf(String name, LogLevel configured) {
+        Map<String, LevelOverride> current = overrides;
+        if (current.isEmpty()) {
+            return configured;
+        }
+        for (String prefix = name; !prefix.isEmpty(); prefix = prefix.substring(0, Math.max(prefix.lastIndexOf('.'), 0))) {
+            LevelOverride override = current.get(prefix);
+            if (override != null) {
+                return override.level;
+            }
+        }
+        LevelOverride root = current.get("");
+        return root != null ? root.level : configured;
+    }
+
+    private static final class LevelOverride {
+
+        private final LogLevel level;
+        private final long expiresAt;
+        private final LevelOverride replaced;
+
+        /**
+         * @param expiresAt nano time the override ends at, 0 when it stays until reset
+         */
+        LevelOverride(LogLevel level, long expiresAt, LevelOverride replaced) {
+            this.level = level;
+            this.expiresAt = expiresAt;
+            this.replaced = replaced;
+        }
+
+        boolean expired() {
+            return expiresAt != 0 && System.nanoTime() - expiresAt >= 0;
+        }
+    }
+}
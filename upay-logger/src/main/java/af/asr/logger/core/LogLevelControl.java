@@ -0,0 +1,65 @@
+package af.asr.logger.core;
+
+import java.util.Map;
+
+import af.asr.logger.constant.LogExeptionCodeConstant;
+import af.asr.logger.constant.LogLevel;
+
+/**
+ * JMX endpoint over the runtime levels of {@link LoggerImpl}, registered by
+ * {@link LoggerImpl#registerLevelControl()}.
+ *
+ * Errors are reported with {@link java.lang.IllegalArgumentException}, since a remote JMX
+ * client cannot load the exceptions of this library.
+ */
+public class LogLevelControl implements LogLevelControlMBean {
+
+    public static final String OBJECT_NAME = "af.asr.logger:type=LogLevelControl";
+
+    @Override
+    public String[] getLevels() {
+        Map<String, LogLevel> levels = LoggerImpl.getLevels();
+        String[] values = new String[levels.size()];
+        int i = 0;
+        for (Map.Entry<String, LogLevel> entry : levels.entrySet()) {
+            String prefix = entry.getKey().isEmpty() ? org.slf4j.Logger.ROOT_LOGGER_NAME : entry.getKey();
+            values[i++] = prefix + "=" + entry.getValue().getLevel();
+        }
+        return values;
+    }
+
+    @Override
+    public void setLevel(String prefix, String level) {
+        try {
+            LoggerImpl.setLevel(prefix, parse(level));
+        } catch (af.asr.logger.exception.IllegalArgumentException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void setLevelFor(String prefix, String level, long durationMillis) {
+        try {
+            LoggerImpl.setLevel(prefix, parse(level), durationMillis);
+        } catch (af.asr.logger.exception.IllegalArgumentException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void resetLevel(String prefix) {
+        try {
+            LoggerImpl.resetLevel(prefix);
+        } catch (af.asr.logger.exception.IllegalArgumentException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    private static LogLevel parse(String level) {
+        if (level != null)
+            for (LogLevel logLevel : LogLevel.values())
+                if (logLevel.getLevel().equalsIgnoreCase(level.trim()))
+                    return logLevel;
+        throw new IllegalArgumentException(LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTIONMESSAGELEVEL.getValue());
+    }
+}
@@ -0,0 +1,36 @@
+package af.asr.logger.core;
+
+/**
+ * Management interface of {@link LogLevelControl}
+ */
+public interface LogLevelControlMBean {
+
+    /**
+     * @return levels set at runtime, as "prefix=LEVEL"
+     */
+    String[] getLevels();
+
+    /**
+     * Sets the level of a logger name or package prefix until reset
+     *
+     * @param prefix logger name or package prefix, "ROOT" for every logger
+     * @param level  one of TRACE, DEBUG, INFO, WARN and ERROR
+     */
+    void setLevel(String prefix, String level);
+
+    /**
+     * Sets the level of a logger name or package prefix for a while
+     *
+     * @param prefix         logger name or package prefix, "ROOT" for every logger
+     * @param level          one of TRACE, DEBUG, INFO, WARN and ERROR
+     * @param durationMillis time in milliseconds the level applies for
+     */
+    void setLevelFor(String prefix, String level, long durationMillis);
+
+    /**
+     * Removes the level set for a logger name or package prefix
+     *
+     * @param prefix logger name or package prefix, "ROOT" for every logger
+     */
+    void resetLevel(String prefix);
+}
@@ -1,12 +1,22 @@
 package af.asr.logger.core;
 
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import af.asr.logger.appender.AsyncAppender;
 import af.asr.logger.appender.ConsoleAppender;
 import af.asr.logger.appender.FileAppender;
+import af.asr.logger.appender.MappedFileAppender;
+import af.asr.logger.appender.RateLimitFilter;
 import af.asr.logger.appender.RollingFileAppender;
 import af.asr.logger.constant.ConfigurationDefault;
+import af.asr.logger.constant.LogEncoding;
 import af.asr.logger.constant.LogExeptionCodeConstant;
 import af.asr.logger.constant.LogLevel;
 import af.asr.logger.exception.ClassNameNotFoundException;
@@ -23,6 +33,7 @@ import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.encoder.Encoder;
 import ch.qos.logback.core.rolling.SizeAndTimeBasedRollingPolicy;
 import ch.qos.logback.core.rolling.TimeBasedRollingPolicy;
 import ch.qos.logback.core.util.FileSize;
@@ -32,17 +43,39 @@ import ch.qos.logback.core.util.FileSize;
  */
 public class LoggerImpl implements Logger {
 
-    private static Map<String, Appender<ILoggingEvent>> rollingFileAppenders = new HashMap<>();
-    private static Map<String, Appender<ILoggingEvent>> fileAppenders = new HashMap<>();
+    /**
+     * Loggers and appenders already built
+     */
+    private static final LoggerRegistry registry = new LoggerRegistry();
+    /**
+     * Levels set at runtime over the levels the loggers were built with
+     */
+    private static final LevelOverrides levels = new LevelOverrides(registry);
+    /**
+     * Rate limit filter installed on the logger context, if any
+     */
+    private static RateLimitTurboFilter rateLimitFilter;
     /**
      * Logger Instance per Class
      */
     private ch.qos.logback.classic.Logger logger;
+    /**
+     * Level the logger was built with
+     */
+    private LogLevel configuredLevel;
+    /**
+     * Integer value of the current logback level, the only field read before logging
+     */
+    private volatile int threshold;
+    /**
+     * Version of the level overrides the current level comes from
+     */
+    private volatile int levelVersion;
 
     /**
      * Display pattern of logs
      */
-    private static final String LOGDISPLAY = "{} - {} - {} - {}";
+    static final String LOGDISPLAY = "{} - {} - {} - {}";
 
     /**
      * Builds a logger instance
@@ -54,22 +87,9 @@ public class LoggerImpl implements Logger {
     private LoggerImpl(ConsoleAppender phoenixConsoleAppender, String name, LogLevel logLevel) {
 
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
-        this.logger = context.getLogger(name);
-        PatternLayoutEncoder ple = getdefaultPattern(context);
-        ch.qos.logback.core.ConsoleAppender<ILoggingEvent> consoleAppender = new ch.qos.logback.core.ConsoleAppender<>();
-        consoleAppender.setContext(context);
-        consoleAppender.setEncoder(ple);
-        consoleAppender.setName(phoenixConsoleAppender.getAppenderName());
-        consoleAppender.setImmediateFlush(phoenixConsoleAppender.isImmediateFlush());
-        consoleAppender.setTarget(phoenixConsoleAppender.getTarget());
-        consoleAppender.start();
-        if (logLevel != null) {
-            this.logger.setLevel(Level.valueOf(logLevel.getLevel()));
-        } else {
-            this.logger.setLevel(Level.valueOf(LogLevel.DEBUG.getLevel()));
-        }
-        this.logger.setAdditive(false);
-        this.logger.addAppender(consoleAppender);
+        Appender<ILoggingEvent> consoleAppender = registry.getAppender(LoggerRegistry.Kind.CONSOLE,
+                phoenixConsoleAppender.getAppenderName(), () -> newConsoleAppender(phoenixConsoleAppender, context));
+        attach(context, name, logLevel, consoleAppender);
     }
 
     /**
@@ -82,31 +102,9 @@ public class LoggerImpl implements Logger {
     private LoggerImpl(FileAppender phoenixFileAppender, String name, LogLevel logLevel) {
 
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
-        this.logger = context.getLogger(name);
-        this.logger.setAdditive(false);
-        PatternLayoutEncoder ple = getdefaultPattern(context);
-        ch.qos.logback.core.FileAppender<ILoggingEvent> fileAppender = null;
-        if (!fileAppenders.containsKey(phoenixFileAppender.getAppenderName())) {
-            fileAppender = new ch.qos.logback.core.FileAppender<>();
-            fileAppender.setContext(context);
-            fileAppender.setEncoder(ple);
-            fileAppender.setName(phoenixFileAppender.getAppenderName());
-            fileAppender.setImmediateFlush(phoenixFileAppender.isImmediateFlush());
-            fileAppender.setAppend(phoenixFileAppender.isAppend());
-            fileAppender.setFile(phoenixFileAppender.getFileName());
-            fileAppender.setPrudent(phoenixFileAppender.isPrudent());
-            fileAppender.start();
-            fileAppenders.put(fileAppender.getName(), fileAppender);
-        } else {
-            fileAppender = (ch.qos.logback.core.FileAppender<ILoggingEvent>) fileAppenders
-                    .get(phoenixFileAppender.getAppenderName());
-        }
-        if (logLevel != null) {
-            this.logger.setLevel(Level.valueOf(logLevel.getLevel()));
-        } else {
-            this.logger.setLevel(Level.valueOf(LogLevel.DEBUG.getLevel()));
-        }
-        this.logger.addAppender(fileAppender);
+        Appender<ILoggingEvent> fileAppender = registry.getAppender(LoggerRegistry.Kind.FILE,
+                phoenixFileAppender.getAppenderName(), () -> newFileAppender(phoenixFileAppender, context));
+        attach(context, name, logLevel, fileAppender);
     }
 
     /**
@@ -119,37 +117,225 @@ public class LoggerImpl implements Logger {
     private LoggerImpl(RollingFileAppender phoenixRollingFileAppender, String name, LogLevel logLevel) {
 
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Appender<ILoggingEvent> rollingFileAppender = registry.getAppender(LoggerRegistry.Kind.ROLLING_FILE,
+                phoenixRollingFileAppender.getAppenderName(), () -> {
+                    ch.qos.logback.core.rolling.RollingFileAppender<ILoggingEvent> appender = newRollingFileAppender(
+                            phoenixRollingFileAppender, context);
+                    appender.start();
+                    return appender;
+                });
+        attach(context, name, logLevel, rollingFileAppender);
+    }
+
+    /**
+     * Builds a logger instance
+     *
+     * @param phoenixAsyncAppender {@link AsyncAppender} instance which contains all
+     *                             configurations
+     * @param name                 name of calling class to get logger
+     */
+    private LoggerImpl(AsyncAppender phoenixAsyncAppender, String name, LogLevel logLevel) {
+
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Appender<ILoggingEvent> asyncAppender = registry.getAppender(LoggerRegistry.Kind.ASYNC,
+                phoenixAsyncAppender.getAppenderName(), () -> newAsyncAppender(phoenixAsyncAppender, context));
+        attach(context, name, logLevel, asyncAppender);
+    }
+
+    /**
+     * Builds a logger instance
+     *
+     * @param phoenixMappedFileAppender {@link MappedFileAppender} instance which
+     *                                  contains all configurations
+     * @param name                      name of calling class to get logger
+     */
+    private LoggerImpl(MappedFileAppender phoenixMappedFileAppender, String name, LogLevel logLevel) {
+
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Appender<ILoggingEvent> mappedFileAppender = registry.getAppender(LoggerRegistry.Kind.MAPPED_FILE,
+                phoenixMappedFileAppender.getAppenderName(),
+                () -> newMappedFileAppender(phoenixMappedFileAppender, context));
+        attach(context, name, logLevel, mappedFileAppender);
+    }
+
+    /**
+     * Sets up the logback logger of this instance to write to the appender only
+     *
+     * @param context  context of logger
+     * @param name     name of calling class to get logger
+     * @param logLevel level of the logger, DEBUG when null
+     * @param appender appender the logger writes to
+     */
+    private void attach(LoggerContext context, String name, LogLevel logLevel, Appender<ILoggingEvent> appender) {
         this.logger = context.getLogger(name);
         this.logger.setAdditive(false);
-        PatternLayoutEncoder ple = getdefaultPattern(context);
-        ch.qos.logback.core.rolling.RollingFileAppender<ILoggingEvent> rollingFileAppender = null;
-        if (!rollingFileAppenders.containsKey(phoenixRollingFileAppender.getAppenderName())) {
-            rollingFileAppender = new ch.qos.logback.core.rolling.RollingFileAppender<>();
-            rollingFileAppender.setContext(context);
-            rollingFileAppender.setEncoder(ple);
-            rollingFileAppender.setName(phoenixRollingFileAppender.getAppenderName());
-            rollingFileAppender.setImmediateFlush(phoenixRollingFileAppender.isImmediateFlush());
-            rollingFileAppender.setFile(phoenixRollingFileAppender.getFileName());
-            rollingFileAppender.setAppend(phoenixRollingFileAppender.isAppend());
-            rollingFileAppender.setPrudent(phoenixRollingFileAppender.isPrudent());
-            if (phoenixRollingFileAppender.getMaxFileSize().trim().isEmpty()) {
-                configureTimeBasedRollingPolicy(phoenixRollingFileAppender, context, rollingFileAppender);
-            } else {
-                configureSizeAndTimeBasedPolicy(phoenixRollingFileAppender, context, rollingFileAppender);
-            }
-            rollingFileAppenders.put(rollingFileAppender.getName(), rollingFileAppender);
-            rollingFileAppender.start();
+        if (logLevel != null) {
+            this.configuredLevel = logLevel;
         } else {
-            rollingFileAppender = (ch.qos.logback.core.rolling.RollingFileAppender<ILoggingEvent>) rollingFileAppenders
-                    .get(phoenixRollingFileAppender.getAppenderName());
+            this.configuredLevel = LogLevel.DEBUG;
         }
-        if (logLevel != null) {
-            this.logger.setLevel(Level.valueOf(logLevel.getLevel()));
+        levels.apply(this);
+        this.logger.addAppender(appender);
+    }
+
+    /**
+     * Sets the level of the logback logger and the threshold checked before logging
+     *
+     * @param logLevel     level to log at
+     * @param levelVersion version of the level overrides the level comes from
+     */
+    void applyLevel(LogLevel logLevel, int levelVersion) {
+        Level level = Level.valueOf(logLevel.getLevel());
+        this.logger.setLevel(level);
+        this.threshold = level.levelInt;
+        this.levelVersion = levelVersion;
+    }
+
+    String getName() {
+        return logger.getName();
+    }
+
+    LogLevel getConfiguredLevel() {
+        return configuredLevel;
+    }
+
+    int getLevelVersion() {
+        return levelVersion;
+    }
+
+    /**
+     * Detaches a stopped appender from the logback logger
+     *
+     * @param appender appender to detach
+     */
+    void detachAppender(Appender<ILoggingEvent> appender) {
+        this.logger.detachAppender(appender);
+    }
+
+    /**
+     * Builds and starts a logback console appender
+     *
+     * @param phoenixConsoleAppender {@link ConsoleAppender} instance to get values
+     * @param context                context of logger
+     * @return started console appender
+     */
+    private static Appender<ILoggingEvent> newConsoleAppender(ConsoleAppender phoenixConsoleAppender,
+                                                              LoggerContext context) {
+        ch.qos.logback.core.ConsoleAppender<ILoggingEvent> consoleAppender = new ch.qos.logback.core.ConsoleAppender<>();
+        consoleAppender.setContext(context);
+        consoleAppender.setEncoder(getEncoder(phoenixConsoleAppender.getEncoding(), context));
+        consoleAppender.setName(phoenixConsoleAppender.getAppenderName());
+        consoleAppender.setImmediateFlush(phoenixConsoleAppender.isImmediateFlush());
+        consoleAppender.setTarget(phoenixConsoleAppender.getTarget());
+        consoleAppender.start();
+        return consoleAppender;
+    }
+
+    /**
+     * Builds and starts an async appender writing to a file or rolling file
+     * appender of its own
+     *
+     * @param phoenixAsyncAppender {@link AsyncAppender} instance to get values
+     * @param context              context of logger
+     * @return started async appender
+     */
+    private static Appender<ILoggingEvent> newAsyncAppender(AsyncAppender phoenixAsyncAppender, LoggerContext context) {
+        AsyncRingBufferAppender asyncAppender = new AsyncRingBufferAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setName(phoenixAsyncAppender.getAppenderName());
+        asyncAppender.setBufferSize(phoenixAsyncAppender.getBufferSize());
+        asyncAppender.setBatchSize(phoenixAsyncAppender.getBatchSize());
+        asyncAppender.setOverflowPolicy(phoenixAsyncAppender.getOverflowPolicy());
+        asyncAppender.setSampleRate(phoenixAsyncAppender.getSampleRate());
+        asyncAppender.setBlockTimeout(phoenixAsyncAppender.getBlockTimeout());
+        if (phoenixAsyncAppender.getRollingFileAppender() != null) {
+            ch.qos.logback.core.rolling.RollingFileAppender<ILoggingEvent> rollingFileAppender = newRollingFileAppender(
+                    phoenixAsyncAppender.getRollingFileAppender(), context);
+            rollingFileAppender.start();
+            asyncAppender.setDelegate(rollingFileAppender);
         } else {
-            this.logger.setLevel(Level.valueOf(LogLevel.DEBUG.getLevel()));
+            asyncAppender.setDelegate(newFileAppender(phoenixAsyncAppender.getFileAppender(), context));
         }
-        this.logger.addAppender(rollingFileAppender);
+        asyncAppender.start();
+        return asyncAppender;
+    }
 
+    /**
+     * Builds and starts a memory-mapped file appender
+     *
+     * @param phoenixMappedFileAppender {@link MappedFileAppender} instance to get
+     *                                  values
+     * @param context                   context of logger
+     * @return started memory-mapped file appender
+     */
+    private static Appender<ILoggingEvent> newMappedFileAppender(MappedFileAppender phoenixMappedFileAppender,
+                                                                 LoggerContext context) {
+        MappedSegmentAppender mappedFileAppender = new MappedSegmentAppender();
+        mappedFileAppender.setContext(context);
+        mappedFileAppender.setName(phoenixMappedFileAppender.getAppenderName());
+        mappedFileAppender.setEncoder(getEncoder(phoenixMappedFileAppender.getEncoding(), context));
+        mappedFileAppender.setFileNamePattern(phoenixMappedFileAppender.getFileNamePattern());
+        mappedFileAppender.setSegmentSize(FileSize.valueOf(phoenixMappedFileAppender.getSegmentSize()).getSize());
+        mappedFileAppender.setCompress(phoenixMappedFileAppender.isCompress());
+        mappedFileAppender.setMaxHistory(phoenixMappedFileAppender.getMaxHistory());
+        if (phoenixMappedFileAppender.getTotalCap() != null
+                && !phoenixMappedFileAppender.getTotalCap().trim().isEmpty()) {
+            mappedFileAppender.setTotalSizeCap(FileSize.valueOf(phoenixMappedFileAppender.getTotalCap()).getSize());
+        }
+        mappedFileAppender.start();
+        if (!mappedFileAppender.isStarted()) {
+            throw new IllegalStateException(LogExeptionCodeConstant.PHOENIXILLEGALFILEACCESS.getValue(),
+                    LogExeptionCodeConstant.PHOENIXILLEGALFILEACCESSMESSAGE.getValue());
+        }
+        return mappedFileAppender;
+    }
+
+    /**
+     * Builds and starts a logback file appender
+     *
+     * @param phoenixFileAppender {@link FileAppender} instance to get values
+     * @param context             context of logger
+     * @return started file appender
+     */
+    private static ch.qos.logback.core.FileAppender<ILoggingEvent> newFileAppender(FileAppender phoenixFileAppender,
+                                                                           LoggerContext context) {
+        ch.qos.logback.core.FileAppender<ILoggingEvent> fileAppender = new ch.qos.logback.core.FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setEncoder(getEncoder(phoenixFileAppender.getEncoding(), context));
+        fileAppender.setName(phoenixFileAppender.getAppenderName());
+        fileAppender.setImmediateFlush(phoenixFileAppender.isImmediateFlush());
+        fileAppender.setAppend(phoenixFileAppender.isAppend());
+        fileAppender.setFile(phoenixFileAppender.getFileName());
+        fileAppender.setPrudent(phoenixFileAppender.isPrudent());
+        fileAppender.start();
+        return fileAppender;
+    }
+
+    /**
+     * Builds a logback rolling file appender with its rolling policy, to be started by
+     * the caller
+     *
+     * @param phoenixRollingFileAppender {@link RollingFileAppender} instance to get
+     *                                 values
+     * @param context                  context of logger
+     * @return rolling file appender
+     */
+    private static ch.qos.logback.core.rolling.RollingFileAppender<ILoggingEvent> newRollingFileAppender(
+            RollingFileAppender phoenixRollingFileAppender, LoggerContext context) {
+        ch.qos.logback.core.rolling.RollingFileAppender<ILoggingEvent> rollingFileAppender = new ch.qos.logback.core.rolling.RollingFileAppender<>();
+        rollingFileAppender.setContext(context);
+        rollingFileAppender.setEncoder(getEncoder(phoenixRollingFileAppender.getEncoding(), context));
+        rollingFileAppender.setName(phoenixRollingFileAppender.getAppenderName());
+        rollingFileAppender.setImmediateFlush(phoenixRollingFileAppender.isImmediateFlush());
+        rollingFileAppender.setFile(phoenixRollingFileAppender.getFileName());
+        rollingFileAppender.setAppend(phoenixRollingFileAppender.isAppend());
+        rollingFileAppender.setPrudent(phoenixRollingFileAppender.isPrudent());
+        if (phoenixRollingFileAppender.getMaxFileSize().trim().isEmpty()) {
+            configureTimeBasedRollingPolicy(phoenixRollingFileAppender, context, rollingFileAppender);
+        } else {
+            configureSizeAndTimeBasedPolicy(phoenixRollingFileAppender, context, rollingFileAppender);
+        }
+        return rollingFileAppender;
     }
 
     /**
@@ -161,7 +347,7 @@ public class LoggerImpl implements Logger {
      * @param rollingFileAppender      {@link RollingFileAppender} instance by which
      *                                 this policy will attach
      */
-    private void configureSizeAndTimeBasedPolicy(RollingFileAppender phoenixRollingFileAppender, LoggerContext context,
+    private static void configureSizeAndTimeBasedPolicy(RollingFileAppender phoenixRollingFileAppender, LoggerContext context,
                                                  ch.qos.logback.core.rolling.RollingFileAppender<ILoggingEvent> rollingFileAppender) {
         SizeAndTimeBasedRollingPolicy<ILoggingEvent> sizeAndTimeBasedRollingPolicy = new SizeAndTimeBasedRollingPolicy<>();
         sizeAndTimeBasedRollingPolicy.setContext(context);
@@ -189,7 +375,7 @@ public class LoggerImpl implements Logger {
      * @param rollingFileAppender      {@link RollingFileAppender} instance by which
      *                                 this policy will attach
      */
-    private void configureTimeBasedRollingPolicy(RollingFileAppender phoenixRollingFileAppender, LoggerContext context,
+    private static void configureTimeBasedRollingPolicy(RollingFileAppender phoenixRollingFileAppender, LoggerContext context,
                                                  ch.qos.logback.core.rolling.RollingFileAppender<ILoggingEvent> rollingFileAppender) {
         TimeBasedRollingPolicy<ILoggingEvent> timeBasedRollingPolicy = new TimeBasedRollingPolicy<>();
         timeBasedRollingPolicy.setContext(context);
@@ -222,7 +408,8 @@ public class LoggerImpl implements Logger {
             throw new ClassNameNotFoundException(LogExeptionCodeConstant.CLASSNAMENOTFOUNDEXEPTION.getValue(),
                     LogExeptionCodeConstant.CLASSNAMENOTFOUNDEXEPTIONMESSAGE.getValue());
         } else {
-            return new LoggerImpl(consoleAppender, name, loglevel);
+            return levels.refresh(registry.getLogger(LoggerRegistry.Kind.CONSOLE, consoleAppender.getAppenderName(),
+                    name, loglevel, () -> new LoggerImpl(consoleAppender, name, loglevel)));
         }
     }
 
@@ -237,17 +424,13 @@ public class LoggerImpl implements Logger {
      */
     public static Logger getFileLogger(FileAppender fileAppender, String name, LogLevel loglevel) {
 
-        if (fileAppender.getFileName() == null)
-            throw new FileNameNotProvided(LogExeptionCodeConstant.FILENAMENOTPROVIDED.getValue(),
-                    LogExeptionCodeConstant.FILENAMENOTPROVIDEDMESSAGENULL.getValue());
-        else if (fileAppender.getFileName().trim().isEmpty())
-            throw new FileNameNotProvided(LogExeptionCodeConstant.FILENAMENOTPROVIDED.getValue(),
-                    LogExeptionCodeConstant.FILENAMENOTPROVIDEDMESSAGEEMPTY.getValue());
-        else if (name.trim().isEmpty())
+        verifyFileAppender(fileAppender);
+        if (name.trim().isEmpty())
             throw new ClassNameNotFoundException(LogExeptionCodeConstant.CLASSNAMENOTFOUNDEXEPTION.getValue(),
                     LogExeptionCodeConstant.CLASSNAMENOTFOUNDEXEPTIONMESSAGE.getValue());
         else {
-            return new LoggerImpl(fileAppender, name, loglevel);
+            return levels.refresh(registry.getLogger(LoggerRegistry.Kind.FILE, fileAppender.getAppenderName(),
+                    name, loglevel, () -> new LoggerImpl(fileAppender, name, loglevel)));
         }
     }
 
@@ -261,6 +444,45 @@ public class LoggerImpl implements Logger {
      * @return Configured {@link Logger} instance
      */
     public static Logger getRollingFileLogger(RollingFileAppender rollingFileAppender, String name, LogLevel loglevel) {
+        verifyRollingFileAppender(rollingFileAppender);
+        if (name.trim().isEmpty())
+            throw new ClassNameNotFoundException(LogExeptionCodeConstant.CLASSNAMENOTFOUNDEXEPTION.getValue(),
+                    LogExeptionCodeConstant.CLASSNAMENOTFOUNDEXEPTIONMESSAGE.getValue());
+        else
+            try {
+                return levels.refresh(registry.getLogger(LoggerRegistry.Kind.ROLLING_FILE, rollingFileAppender.getAppenderName(),
+                        name, loglevel, () -> new LoggerImpl(rollingFileAppender, name, loglevel)));
+            } catch (IllegalStateException e) {
+                throw new IllegalStateException(LogExeptionCodeConstant.PHOENIXILLEGALSTATEEXCEPTION.getValue(),
+                        LogExeptionCodeConstant.PHOENIXILLEGALSTATEEXCEPTIONMESSAGE.getValue(), e);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(LogExeptionCodeConstant.PHOENIXILLEGALSTATEEXCEPTION.getValue(),
+                        LogExeptionCodeConstant.PHOENIXILLEGALSTATEEXCEPTIONMESSAGE.getValue(), e);
+            }
+    }
+
+    /**
+     * Verifies the configurations of a file appender
+     *
+     * @param fileAppender {@link FileAppender} instance which contains all
+     *                     configurations
+     */
+    private static void verifyFileAppender(FileAppender fileAppender) {
+        if (fileAppender.getFileName() == null)
+            throw new FileNameNotProvided(LogExeptionCodeConstant.FILENAMENOTPROVIDED.getValue(),
+                    LogExeptionCodeConstant.FILENAMENOTPROVIDEDMESSAGENULL.getValue());
+        else if (fileAppender.getFileName().trim().isEmpty())
+            throw new FileNameNotProvided(LogExeptionCodeConstant.FILENAMENOTPROVIDED.getValue(),
+                    LogExeptionCodeConstant.FILENAMENOTPROVIDEDMESSAGEEMPTY.getValue());
+    }
+
+    /**
+     * Verifies the configurations of a rolling file appender
+     *
+     * @param rollingFileAppender {@link RollingFileAppender} instance which
+     *                            contains all configurations
+     */
+    private static void verifyRollingFileAppender(RollingFileAppender rollingFileAppender) {
         if (rollingFileAppender.getFileNamePattern() == null)
             throw new EmptyPatternException(LogExeptionCodeConstant.EMPTYPATTERNEXCEPTION.getValue(),
                     LogExeptionCodeConstant.EMPTYPATTERNEXCEPTIONMESSAGENULL.getValue());
@@ -280,12 +502,36 @@ public class LoggerImpl implements Logger {
         else if (rollingFileAppender.getFileName().trim().isEmpty())
             throw new FileNameNotProvided(LogExeptionCodeConstant.FILENAMENOTPROVIDED.getValue(),
                     LogExeptionCodeConstant.FILENAMENOTPROVIDEDMESSAGEEMPTY.getValue());
+    }
+
+    /**
+     * Verifies configurations
+     *
+     * @param asyncAppender {@link AsyncAppender} instance which contains all
+     *                      configurations
+     * @param name          name of the calling class
+     * @param loglevel      log level
+     * @return Configured {@link Logger} instance
+     */
+    public static Logger getAsyncLogger(AsyncAppender asyncAppender, String name, LogLevel loglevel) {
+        if (asyncAppender.getRollingFileAppender() != null)
+            verifyRollingFileAppender(asyncAppender.getRollingFileAppender());
+        else if (asyncAppender.getFileAppender() != null)
+            verifyFileAppender(asyncAppender.getFileAppender());
+        else
+            throw new FileNameNotProvided(LogExeptionCodeConstant.FILENAMENOTPROVIDED.getValue(),
+                    LogExeptionCodeConstant.FILENAMENOTPROVIDEDMESSAGENULL.getValue());
+        if (asyncAppender.getBufferSize() <= 0 || asyncAppender.getBatchSize() <= 0 || asyncAppender.getSampleRate() <= 0
+                || asyncAppender.getOverflowPolicy() == null)
+            throw new IllegalArgumentException(LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTION.getValue(),
+                    LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTIONMESSAGEASYNC.getValue());
         else if (name.trim().isEmpty())
             throw new ClassNameNotFoundException(LogExeptionCodeConstant.CLASSNAMENOTFOUNDEXEPTION.getValue(),
                     LogExeptionCodeConstant.CLASSNAMENOTFOUNDEXEPTIONMESSAGE.getValue());
         else
             try {
-                return new LoggerImpl(rollingFileAppender, name, loglevel);
+                return levels.refresh(registry.getLogger(LoggerRegistry.Kind.ASYNC, asyncAppender.getAppenderName(),
+                        name, loglevel, () -> new LoggerImpl(asyncAppender, name, loglevel)));
             } catch (IllegalStateException e) {
                 throw new IllegalStateException(LogExeptionCodeConstant.PHOENIXILLEGALSTATEEXCEPTION.getValue(),
                         LogExeptionCodeConstant.PHOENIXILLEGALSTATEEXCEPTIONMESSAGE.getValue(), e);
@@ -295,6 +541,45 @@ public class LoggerImpl implements Logger {
             }
     }
 
+    /**
+     * Verifies configurations
+     *
+     * @param mappedFileAppender {@link MappedFileAppender} instance which contains
+     *                           all configurations
+     * @param name               name of the calling class
+     * @param loglevel           log level
+     * @return Configured {@link Logger} instance
+     */
+    public static Logger getMappedFileLogger(MappedFileAppender mappedFileAppender, String name, LogLevel loglevel) {
+        if (mappedFileAppender.getFileNamePattern() == null)
+            throw new EmptyPatternException(LogExeptionCodeConstant.EMPTYPATTERNEXCEPTION.getValue(),
+                    LogExeptionCodeConstant.EMPTYPATTERNEXCEPTIONMESSAGENULL.getValue());
+        else if (mappedFileAppender.getFileNamePattern().trim().isEmpty())
+            throw new EmptyPatternException(LogExeptionCodeConstant.EMPTYPATTERNEXCEPTION.getValue(),
+                    LogExeptionCodeConstant.EMPTYPATTERNEXCEPTIONMESSAGEEMPTY.getValue());
+        else if (!mappedFileAppender.getFileNamePattern().contains("%i"))
+            throw new PatternSyntaxException(LogExeptionCodeConstant.PATTERNSYNTAXEXCEPTION.getValue(),
+                    LogExeptionCodeConstant.PATTERNSYNTAXEXCEPTIONMESSAGEI.getValue());
+        long segmentSize;
+        try {
+            segmentSize = FileSize.valueOf(mappedFileAppender.getSegmentSize()).getSize();
+            if (mappedFileAppender.getTotalCap() != null && !mappedFileAppender.getTotalCap().trim().isEmpty())
+                FileSize.valueOf(mappedFileAppender.getTotalCap());
+        } catch (java.lang.IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException(LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTION.getValue(),
+                    LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTIONMESSAGE.getValue(), e);
+        }
+        if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException(LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTION.getValue(),
+                    LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTIONMESSAGESEGMENT.getValue());
+        else if (name.trim().isEmpty())
+            throw new ClassNameNotFoundException(LogExeptionCodeConstant.CLASSNAMENOTFOUNDEXEPTION.getValue(),
+                    LogExeptionCodeConstant.CLASSNAMENOTFOUNDEXEPTIONMESSAGE.getValue());
+        else
+            return levels.refresh(registry.getLogger(LoggerRegistry.Kind.MAPPED_FILE, mappedFileAppender.getAppenderName(),
+                    name, loglevel, () -> new LoggerImpl(mappedFileAppender, name, loglevel)));
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -303,7 +588,8 @@ public class LoggerImpl implements Logger {
      */
     @Override
     public void debug(String sessionId, String idType, String id, String description) {
-        logger.debug(LOGDISPLAY, sessionId, idType, id, description);
+        if (threshold <= Level.DEBUG_INT)
+            logger.debug(LOGDISPLAY, sessionId, idType, id, description);
 
     }
 
@@ -315,7 +601,8 @@ public class LoggerImpl implements Logger {
      */
     @Override
     public void warn(String sessionId, String idType, String id, String description) {
-        logger.warn(LOGDISPLAY, sessionId, idType, id, description);
+        if (threshold <= Level.WARN_INT)
+            logger.warn(LOGDISPLAY, sessionId, idType, id, description);
 
     }
 
@@ -327,7 +614,8 @@ public class LoggerImpl implements Logger {
      */
     @Override
     public void error(String sessionId, String idType, String id, String description) {
-        logger.error(LOGDISPLAY, sessionId, idType, id, description);
+        if (threshold <= Level.ERROR_INT)
+            logger.error(LOGDISPLAY, sessionId, idType, id, description);
 
     }
 
@@ -339,7 +627,8 @@ public class LoggerImpl implements Logger {
      */
     @Override
     public void info(String sessionId, String idType, String id, String description) {
-        logger.info(LOGDISPLAY, sessionId, idType, id, description);
+        if (threshold <= Level.INFO_INT)
+            logger.info(LOGDISPLAY, sessionId, idType, id, description);
 
     }
 
@@ -351,7 +640,26 @@ public class LoggerImpl implements Logger {
      */
     @Override
     public void trace(String sessionId, String idType, String id, String description) {
-        logger.trace(LOGDISPLAY, sessionId, idType, id, description);
+        if (threshold <= Level.TRACE_INT)
+            logger.trace(LOGDISPLAY, sessionId, idType, id, description);
+    }
+
+    /**
+     * Configures the encoder of an appender
+     *
+     * @param encoding {@link LogEncoding} of the appender
+     * @param context  {@link LoggerContext} instance
+     * @return started {@link JsonEventEncoder} for JSON, the default pattern
+     *         otherwise
+     */
+    private static Encoder<ILoggingEvent> getEncoder(LogEncoding encoding, LoggerContext context) {
+        if (encoding == LogEncoding.JSON) {
+            JsonEventEncoder encoder = new JsonEventEncoder();
+            encoder.setContext(context);
+            encoder.start();
+            return encoder;
+        }
+        return getdefaultPattern(context);
     }
 
     /**
@@ -360,7 +668,7 @@ public class LoggerImpl implements Logger {
      * @param context {@link LoggerContext} instance
      * @return {@link PatternLayoutEncoder} instance
      */
-    private PatternLayoutEncoder getdefaultPattern(LoggerContext context) {
+    private static PatternLayoutEncoder getdefaultPattern(LoggerContext context) {
         PatternLayoutEncoder ple = new PatternLayoutEncoder();
         ple.setPattern(ConfigurationDefault.LOGPATTERN);
         ple.setContext(context);
@@ -368,26 +676,149 @@ public class LoggerImpl implements Logger {
         return ple;
     }
 
+    /**
+     * Verifies configurations and limits similar events of every logger with them,
+     * in place of the rate limit filter set before
+     *
+     * @param filter {@link RateLimitFilter} instance which contains all
+     *               configurations
+     */
+    public static synchronized void setRateLimitFilter(RateLimitFilter filter) {
+        if (filter.getRatePerSecond() <= 0 || filter.getBurst() <= 0 || filter.getSampleRate() < 0
+                || filter.getSummaryInterval() <= 0 || filter.getTableSize() <= 0)
+            throw new IllegalArgumentException(LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTION.getValue(),
+                    LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTIONMESSAGERATELIMIT.getValue());
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        RateLimitTurboFilter turboFilter = new RateLimitTurboFilter();
+        turboFilter.setContext(context);
+        turboFilter.setName("phoenixRateLimitFilter");
+        turboFilter.setRatePerSecond(filter.getRatePerSecond());
+        turboFilter.setBurst(filter.getBurst());
+        turboFilter.setSampleRate(filter.getSampleRate());
+        turboFilter.setSummaryInterval(filter.getSummaryInterval());
+        turboFilter.setTableSize(filter.getTableSize());
+        turboFilter.start();
+        removeRateLimitFilter();
+        context.addTurboFilter(turboFilter);
+        rateLimitFilter = turboFilter;
+    }
+
+    /**
+     * Stops limiting similar events
+     */
+    public static synchronized void removeRateLimitFilter() {
+        if (rateLimitFilter != null) {
+            ((LoggerContext) LoggerFactory.getILoggerFactory()).getTurboFilterList().remove(rateLimitFilter);
+            rateLimitFilter.stop();
+            rateLimitFilter = null;
+        }
+    }
+
+    /**
+     * Sets the level of every logger with this name or under this package prefix,
+     * until reset; "" or "ROOT" sets the level of every logger
+     *
+     * @param prefix   logger name or package prefix
+     * @param logLevel level to log at
+     */
+    public static void setLevel(String prefix, LogLevel logLevel) {
+        setLevels(Collections.singletonMap(prefix, logLevel));
+    }
+
+    /**
+     * Sets the levels of several logger names or package prefixes in one step,
+     * until reset
+     *
+     * @param logLevels level to log at by logger name or package prefix
+     */
+    public static void setLevels(Map<String, LogLevel> logLevels) {
+        Map<String, LogLevel> verified = new HashMap<>();
+        for (Map.Entry<String, LogLevel> entry : logLevels.entrySet()) {
+            if (entry.getValue() == null)
+                throw new IllegalArgumentException(LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTION.getValue(),
+                        LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTIONMESSAGELEVEL.getValue());
+            verified.put(verifyPrefix(entry.getKey()), entry.getValue());
+        }
+        levels.set(verified);
+    }
+
+    /**
+     * Sets the level of every logger with this name or under this package prefix
+     * for a while, after which the level set before applies again
+     *
+     * @param prefix         logger name or package prefix
+     * @param logLevel       level to log at
+     * @param durationMillis time in milliseconds the level applies for
+     */
+    public static void setLevel(String prefix, LogLevel logLevel, long durationMillis) {
+        if (logLevel == null || durationMillis <= 0)
+            throw new IllegalArgumentException(LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTION.getValue(),
+                    LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTIONMESSAGELEVEL.getValue());
+        levels.set(verifyPrefix(prefix), logLevel, durationMillis);
+    }
+
+    /**
+     * Removes the level set for a logger name or package prefix
+     *
+     * @param prefix logger name or package prefix
+     */
+    public static void resetLevel(String prefix) {
+        levels.reset(verifyPrefix(prefix));
+    }
+
+    /**
+     * @return levels set at runtime by logger name or package prefix, "" for every
+     *         logger
+     */
+    public static Map<String, LogLevel> getLevels() {
+        return levels.get();
+    }
+
+    /**
+     * Registers {@link LogLevelControl} with the platform MBean server, if not
+     * registered yet
+     */
+    public static synchronized void registerLevelControl() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(LogLevelControl.OBJECT_NAME);
+            if (!server.isRegistered(objectName))
+                server.registerMBean(new LogLevelControl(), objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException(LogExeptionCodeConstant.PHOENIXILLEGALSTATEEXCEPTION.getValue(),
+                    LogExeptionCodeConstant.PHOENIXILLEGALSTATEEXCEPTIONMESSAGE.getValue(), e);
+        }
+    }
+
+    /**
+     * Verifies a logger name or package prefix
+     *
+     * @param prefix logger name or package prefix
+     * @return the prefix, "" for the root logger
+     */
+    private static String verifyPrefix(String prefix) {
+        if (prefix == null)
+            throw new IllegalArgumentException(LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTION.getValue(),
+                    LogExeptionCodeConstant.PHOENIXILLEGALARGUMENTEXCEPTIONMESSAGELEVEL.getValue());
+        else if (prefix.trim().equalsIgnoreCase(org.slf4j.Logger.ROOT_LOGGER_NAME))
+            return "";
+        else
+            return prefix.trim();
+    }
+
     /**
      * Stop an appender
      *
      * @param appenderName name of the appender
      */
     public static void stop(String appenderName) {
-        if (fileAppenders.containsKey(appenderName)) {
-            fileAppenders.get(appenderName).stop();
-            fileAppenders.remove(appenderName);
-        } else if (rollingFileAppenders.containsKey(appenderName)) {
-            rollingFileAppenders.get(appenderName).stop();
-            rollingFileAppenders.remove(appenderName);
-        }
+        registry.stop(appenderName);
     }
 
     /**
      * Stop all appenders
      */
     public static void stopAll() {
-        rollingFileAppenders.values().forEach(Appender<ILoggingEvent>::stop);
-        fileAppenders.values().forEach(Appender<ILoggingEvent>::stop);
+        registry.stopAll();
     }
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package af.asr.logger.core;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import af.asr.logger.constant.LogLevel;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+
+/**
+ * Loggers and logback appenders built by {@link LoggerImpl}, so that asking again for the same
+ * logger is a map lookup and every logger writing through an appender shares one instance of it,
+ * with its encoder.
+ *
+ * Appenders are known by their kind and name, loggers by the appender they write to, their name
+ * and their level. Stopping an appender forgets it together with its loggers, so the next request
+ * builds them again.
+ */
+final class LoggerRegistry {
+
+    enum Kind {
+        CONSOLE, FILE, ROLLING_FILE, ASYNC, MAPPED_FILE
+    }
+
+    private final ConcurrentMap<Key, LoggerImpl> loggers = new ConcurrentHashMap<>();
+    private final Map<Kind, ConcurrentMap<String, Appender<ILoggingEvent>>> appenders = new EnumMap<>(Kind.class);
+
+    LoggerRegistry() {
+        for (Kind kind : Kind.values()) {
+            appenders.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * @return the registered logger, built by the factory on first use
+     */
+    LoggerImpl getLogger(Kind kind, String appenderName, String name, LogLevel logLevel, Supplier<LoggerImpl> factory) {
+        Key key = new Key(kind, String.valueOf(appenderName), name, logLevel);
+        LoggerImpl logger = loggers.get(key);
+        return logger != null ? logger : loggers.computeIfAbsent(key, k -> factory.get());
+    }
+
+    /**
+     * @return every registered logger
+     */
+    Collection<LoggerImpl> loggers() {
+        return loggers.values();
+    }
+
+    /**
+     * @return the registered appender, built and started by the factory on first use
+     */
+    Appender<ILoggingEvent> getAppender(Kind kind, String appenderName, Supplier<Appender<ILoggingEvent>> factory) {
+        return appenders.get(kind).computeIfAbsent(String.valueOf(appenderName), k -> factory.get());
+    }
+
+    /**
+     * Stops every appender with this name and forgets the loggers writing to it.
+     */
+    void stop(String appenderName) {
+        String key = String.valueOf(appenderName);
+        for (Kind kind : Kind.values()) {
+            Appender<ILoggingEvent> appender = appenders.get(kind).remove(key);
+            if (appender != null) {
+                release(kind, key, appender);
+            }
+        }
+    }
+
+    void stopAll() {
+        for (Kind kind : Kind.values()) {
+            for (Iterator<Map.Entry<String, Appender<ILoggingEvent>>> it = appenders.get(kind).entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Appender<ILoggingEvent>> entry = it.next();
+                it.remove();
+                release(kind, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void release(Kind kind, String appenderName, Appender<ILoggingEvent> appender) {
+        for (Iterator<Map.Entry<Key, LoggerImpl>> it = loggers.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Key, LoggerImpl> entry = it.next();
+            if (entry.getKey().kind == kind && entry.getKey().appenderName.equals(appenderName)) {
+                it.remove();
+                entry.getValue().detachAppender(appender);
+            }
+        }
+        appender.stop();
+    }
+
+    private static final class Key {
+
+        private final Kind kind;
+        private final String appenderName;
+        private final String name;
+        private final LogLevel logLevel;
+        private final int hash;
+
+        Key(Kind kind, String appenderName, String name, LogLevel logLevel) {
+            this.kind = kind;
+            this.appenderName = appenderName;
+            this.name = name;
+            this.logLevel = logLevel;
+            this.hash = Objects.hash(kind, appenderName, name, logLevel);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return kind == key.kind && logLevel == key.logLevel && appenderName.equals(key.appenderName)
+                    && name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,607 @@
+package af.asr.logger.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+import af.asr.logger.constant.ConfigurationDefault;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.util.FileSize;
+
+/**
+ * Logback appender copying encoded events into segment files mapped in memory.
+ *
+ * Segments are named after the file name pattern, its %i replaced by an increasing number, and
+ * are created at their full size. While one is written the next is mapped, with its pages touched
+ * once, on a background thread, so rolling only swaps the two. A full segment is handed to a
+ * second background thread that cuts it to the bytes written, or gzips it to a ".gz" file next to
+ * it, and then deletes the oldest segments beyond the max history or the total size cap. Mappings
+ * are released as soon as their segment is archived rather than when the buffer is collected.
+ *
+ * A process that crashed leaves its segment in use and the one mapped in advance at their full
+ * size, padded with zeros. The archive thread first goes through the segments found at start,
+ * cutting each after its last non-zero byte, deleting the empty ones and compressing the others
+ * when compression is on.
+ *
+ * Encoding happens outside the lock; a logging call holds it for the copy into the mapping. An
+ * event larger than a segment is written across segments.
+ */
+public class MappedSegmentAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private static final int PAGE_SIZE = 4096;
+    private static final int COPY_CHUNK = 64 * 1024;
+    private static final String GZ = ".gz";
+    private static final String TMP = ".tmp";
+    /**
+     * Longest time stop waits for each background thread to finish its work
+     */
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Unsafe.invokeCleaner on Java 9 and later, null on Java 8
+     */
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+    /**
+     * DirectBuffer.cleaner and Cleaner.clean on Java 8
+     */
+    private static final Method CLEANER;
+    private static final Method CLEAN;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        Method cleaner = null;
+        Method clean = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            invokeCleaner = null;
+            try {
+                cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            } catch (ReflectiveOperationException | RuntimeException unavailable) {
+                cleaner = null;
+                clean = null;
+            }
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+        CLEANER = cleaner;
+        CLEAN = clean;
+    }
+
+    private Encoder<ILoggingEvent> encoder;
+    private String fileNamePattern;
+    private long segmentSize = FileSize.valueOf(ConfigurationDefault.DEFAULTSEGMENTSIZE).getSize();
+    private boolean compress = ConfigurationDefault.DEFAULTCOMPRESS;
+    private int maxHistory = ConfigurationDefault.DEFAULMAXFILEHISTORY;
+    private long totalSizeCap;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private File directory;
+    private String prefix;
+    private String suffix;
+    private ExecutorService mapper;
+    private ExecutorService archiver;
+    /**
+     * Guarded by the lock, like current and next
+     */
+    private long nextIndex;
+    private Segment current;
+    private Future<Segment> next;
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    /**
+     * @param fileNamePattern name of the segment files, with a %i replaced by the number of the
+     *                        segment
+     */
+    public void setFileNamePattern(String fileNamePattern) {
+        this.fileNamePattern = fileNamePattern;
+    }
+
+    /**
+     * @param segmentSize size in bytes every segment is created with, at most 2GB
+     */
+    public void setSegmentSize(long segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    /**
+     * @param maxHistory number of full segments kept, 0 for no limit
+     */
+    public void setMaxHistory(int maxHistory) {
+        this.maxHistory = maxHistory;
+    }
+
+    /**
+     * @param totalSizeCap bytes all full segments may take together, 0 for no limit
+     */
+    public void setTotalSizeCap(long totalSizeCap) {
+        this.totalSizeCap = totalSizeCap;
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (encoder == null) {
+            addError("No encoder set for the appender named [" + name + "]");
+            return;
+        }
+        if (fileNamePattern == null || !fileNamePattern.contains("%i")) {
+            addError("The file name pattern of the appender named [" + name + "] should contain %i");
+            return;
+        }
+        if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE) {
+            addError("The segment size of the appender named [" + name + "] should be positive and at most 2GB");
+            return;
+        }
+        File pattern = new File(fileNamePattern).getAbsoluteFile();
+        directory = pattern.getParentFile();
+        int token = pattern.getName().indexOf("%i");
+        prefix = pattern.getName().substring(0, token);
+        suffix = pattern.getName().substring(token + 2);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            addError("Could not create the directory [" + directory + "]");
+            return;
+        }
+        if (INVOKE_CLEANER == null && CLEAN == null) {
+            addWarn("Mappings of the appender named [" + name + "] are released only once garbage collected");
+        }
+        nextIndex = lastIndex() + 1;
+        long firstIndex = nextIndex;
+        try {
+            current = map(nextIndex++);
+        } catch (IOException e) {
+            addError("Mapping the first segment of [" + name + "] failed", e);
+            return;
+        }
+        mapper = Executors.newSingleThreadExecutor(daemon("upay-logger-mmap-" + name));
+        archiver = Executors.newSingleThreadExecutor(daemon("upay-logger-archive-" + name));
+        archiver.execute(() -> recover(firstIndex));
+        mapNext();
+        super.start();
+        byte[] header = encoder.headerBytes();
+        if (header != null) {
+            write(header);
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        write(encoder.encode(event));
+    }
+
+    private void write(byte[] bytes) {
+        lock.lock();
+        try {
+            if (current == null) {
+                return;
+            }
+            int offset = 0;
+            while (bytes.length - offset > current.buffer.remaining()) {
+                int part = current.buffer.remaining();
+                current.buffer.put(bytes, offset, part);
+                offset += part;
+                roll();
+            }
+            current.buffer.put(bytes, offset, bytes.length - offset);
+        } catch (IOException e) {
+            addError("Rolling [" + name + "] failed", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Swaps the full segment for the one mapped in the background, mapping it here only when
+     * the background mapping failed
+     */
+    private void roll() throws IOException {
+        Segment segment = null;
+        if (next != null) {
+            try {
+                segment = getUninterruptibly(next);
+            } catch (ExecutionException e) {
+                addError("Mapping the next segment of [" + name + "] failed", e.getCause());
+            }
+            next = null;
+        }
+        if (segment == null) {
+            segment = map(nextIndex++);
+        }
+        Segment full = current;
+        current = segment;
+        archiver.execute(() -> archive(full));
+        mapNext();
+    }
+
+    private void mapNext() {
+        long index = nextIndex++;
+        next = mapper.submit(() -> map(index));
+    }
+
+    /**
+     * Creates the segment file at its full size, maps it and touches every page, so that writes
+     * to the segment do not wait for the file system
+     */
+    private Segment map(long index) throws IOException {
+        File file = segmentFile(index);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            MappedByteBuffer buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            for (int page = 0; page < segmentSize; page += PAGE_SIZE) {
+                buffer.put(page, (byte) 0);
+            }
+            return new Segment(index, file, buffer);
+        }
+    }
+
+    /**
+     * Body of the archive thread for a full segment: writes it to disk, releases its mapping,
+     * cuts or compresses it and prunes the older segments
+     */
+    private void archive(Segment segment) {
+        int length = segment.buffer.position();
+        try {
+            segment.buffer.force();
+            if (compress) {
+                ByteBuffer written = segment.buffer.duplicate();
+                written.position(0);
+                written.limit(length);
+                gzip(segment.file, written);
+                segment.release();
+                delete(segment.file);
+            } else {
+                segment.release();
+                try (RandomAccessFile randomAccessFile = new RandomAccessFile(segment.file, "rw")) {
+                    randomAccessFile.setLength(length);
+                }
+            }
+        } catch (IOException e) {
+            addError("Archiving [" + segment.file + "] failed", e);
+        } finally {
+            segment.release();
+        }
+        prune(segment.index);
+    }
+
+    /**
+     * Body of the archive thread for the segments numbered before the first one of this start,
+     * which a crashed process may have left at their full size
+     */
+    private void recover(long firstIndex) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                // compressions cut short
+                if (file.getName().endsWith(GZ + TMP) && index(file.getName().substring(0,
+                        file.getName().length() - GZ.length() - TMP.length())) >= 0 && !file.delete()) {
+                    addWarn("Could not delete [" + file + "]");
+                }
+            }
+        }
+        for (File file : listSegments()) {
+            if (file.getName().endsWith(GZ) || index(file.getName()) >= firstIndex) {
+                continue;
+            }
+            try {
+                if (new File(file.getPath() + GZ).exists()) {
+                    // compressed before the crash, only the delete was missed
+                    delete(file);
+                    continue;
+                }
+                long length = trim(file);
+                if (length == 0) {
+                    delete(file);
+                } else if (compress && length <= Integer.MAX_VALUE) {
+                    gzipFile(file, length);
+                }
+            } catch (IOException e) {
+                addError("Recovering [" + file + "] failed", e);
+            }
+        }
+        prune(firstIndex - 1);
+    }
+
+    /**
+     * Cuts the file after its last non-zero byte
+     *
+     * @return the length left
+     */
+    private static long trim(File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            FileChannel channel = randomAccessFile.getChannel();
+            long size = channel.size();
+            long end = size;
+            ByteBuffer chunk = ByteBuffer.allocate(COPY_CHUNK);
+            while (end > 0) {
+                long start = Math.max(0, end - COPY_CHUNK);
+                chunk.clear();
+                chunk.limit((int) (end - start));
+                while (chunk.hasRemaining() && channel.read(chunk, start + chunk.position()) >= 0) {
+                    // until the chunk is full
+                }
+                int last = chunk.position() - 1;
+                while (last >= 0 && chunk.get(last) == 0) {
+                    last--;
+                }
+                if (last >= 0) {
+                    end = start + last + 1;
+                    break;
+                }
+                end = start;
+            }
+            if (end < size) {
+                randomAccessFile.setLength(end);
+            }
+            return end;
+        }
+    }
+
+    private void gzipFile(File file, long length) throws IOException {
+        MappedByteBuffer mapped;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            mapped = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+        try {
+            gzip(file, mapped);
+        } finally {
+            unmap(mapped);
+        }
+        delete(file);
+    }
+
+    private void gzip(File file, ByteBuffer source) throws IOException {
+        File target = new File(file.getPath() + GZ);
+        File temporary = new File(target.getPath() + TMP);
+        byte[] chunk = new byte[COPY_CHUNK];
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(temporary), COPY_CHUNK)) {
+            while (source.hasRemaining()) {
+                int part = Math.min(chunk.length, source.remaining());
+                source.get(chunk, 0, part);
+                out.write(chunk, 0, part);
+            }
+        }
+        if (!temporary.renameTo(target)) {
+            throw new IOException("Could not rename [" + temporary + "] to [" + target + "]");
+        }
+    }
+
+    private void delete(File file) {
+        if (!file.delete()) {
+            addWarn("Could not delete [" + file + "]");
+        }
+    }
+
+    /**
+     * Deletes the oldest full segments, up to the last one archived, beyond the max history
+     * or the total size cap
+     */
+    private void prune(long lastArchived) {
+        if (maxHistory <= 0 && totalSizeCap <= 0) {
+            return;
+        }
+        List<File> archived = new ArrayList<>();
+        long total = 0;
+        for (File file : listSegments()) {
+            if (index(file.getName()) <= lastArchived) {
+                archived.add(file);
+                total += file.length();
+            }
+        }
+        archived.sort(Comparator.comparingLong(file -> index(file.getName())));
+        int count = archived.size();
+        for (File file : archived) {
+            if (!(maxHistory > 0 && count > maxHistory || totalSizeCap > 0 && total > totalSizeCap)) {
+                break;
+            }
+            long size = file.length();
+            if (file.delete()) {
+                count--;
+                total -= size;
+            } else {
+                addWarn("Could not delete [" + file + "]");
+            }
+        }
+    }
+
+    private File segmentFile(long index) {
+        return new File(directory, prefix + index + suffix);
+    }
+
+    private List<File> listSegments() {
+        List<File> segments = new ArrayList<>();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (index(file.getName()) >= 0) {
+                    segments.add(file);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private long lastIndex() {
+        long last = -1;
+        for (File file : listSegments()) {
+            last = Math.max(last, index(file.getName()));
+        }
+        return last;
+    }
+
+    /**
+     * @return number of the segment, compressed or not, with this file name; -1 for any other
+     *         file
+     */
+    private long index(String fileName) {
+        String name = fileName.endsWith(GZ) ? fileName.substring(0, fileName.length() - GZ.length()) : fileName;
+        if (!name.startsWith(prefix) || !name.endsWith(suffix) || name.length() <= prefix.length() + suffix.length()) {
+            return -1;
+        }
+        String digits = name.substring(prefix.length(), name.length() - suffix.length());
+        for (int i = 0; i < digits.length(); i++) {
+            if (!Character.isDigit(digits.charAt(i))) {
+                return -1;
+            }
+        }
+        return digits.length() > 18 ? -1 : Long.parseLong(digits);
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        byte[] footer = encoder.footerBytes();
+        if (footer != null) {
+            write(footer);
+        }
+        lock.lock();
+        try {
+            super.stop();
+            Segment last = current;
+            Future<Segment> unused = next;
+            current = null;
+            next = null;
+            archiver.execute(() -> archive(last));
+            mapper.execute(() -> discard(unused));
+        } finally {
+            lock.unlock();
+        }
+        mapper.shutdown();
+        archiver.shutdown();
+        try {
+            if (!mapper.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    || !archiver.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                addWarn("The appender named [" + name + "] stopped before its segments were archived");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Deletes the segment mapped in advance and never written to
+     */
+    private void discard(Future<Segment> unused) {
+        if (unused == null) {
+            return;
+        }
+        try {
+            Segment segment = unused.get();
+            segment.release();
+            if (!segment.file.delete()) {
+                addWarn("Could not delete the unused segment [" + segment.file + "]");
+            }
+        } catch (ExecutionException e) {
+            // nothing was mapped
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <T> T getUninterruptibly(Future<T> future) throws ExecutionException {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Releases the mapping now; the buffer must not be used afterwards
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } else if (CLEAN != null) {
+                Object cleaner = CLEANER.invoke(buffer);
+                if (cleaner != null) {
+                    CLEAN.invoke(cleaner);
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // left to the garbage collector
+        }
+    }
+
+    private static ThreadFactory daemon(String threadName) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Segment file and its mapping; the position of the buffer is the number of bytes written
+     */
+    private static final class Segment {
+
+        private final long index;
+        private final File file;
+        private final MappedByteBuffer buffer;
+        private boolean released;
+
+        Segment(long index, File file, MappedByteBuffer buffer) {
+            this.index = index;
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Unmaps the buffer once, after the last use of it by the archive or map thread
+         */
+        void release() {
+            if (!released) {
+                released = true;
+                unmap(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package af.asr.logger.core;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import af.asr.logger.constant.ConfigurationDefault;
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Logback turbo filter limiting how often the same event is logged. It runs before logback
+ * builds the event, for every logger of the context.
+ *
+ * Events share a fingerprint when they have the same logger, level and template, numbers in the
+ * template left out; for a {@link LoggerImpl} call the template is the idType and description.
+ * Every fingerprint has a token bucket refilled at the rate per second and holding up to the burst.
+ * Once it is empty one in sample rate of the events is still let through, at random, and the
+ * others are counted. Every summary interval, a "suppressed N similar events" line is logged on
+ * the logger of each fingerprint with suppressed events.
+ *
+ * Fingerprints live in a fixed-size open-addressing table updated with CAS only. An event whose
+ * fingerprint finds no free slot near its own is not limited, and fingerprints not seen for two
+ * summary intervals are removed by the summary thread.
+ */
+public class RateLimitTurboFilter extends TurboFilter {
+
+    private static final int MAX_PROBES = 8;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final String SUMMARY = "Suppressed {} events similar to [{}] in the last {} ms";
+
+    private int ratePerSecond = ConfigurationDefault.DEFAULTRATEPERSECOND;
+    private int burst = ConfigurationDefault.DEFAULTBURST;
+    private int sampleRate = ConfigurationDefault.DEFAULTSAMPLERATE;
+    private long summaryInterval = ConfigurationDefault.DEFAULTSUMMARYINTERVAL;
+    private int tableSize = ConfigurationDefault.DEFAULTFINGERPRINTTABLESIZE;
+
+    private long emissionIntervalNanos;
+    private long burstToleranceNanos;
+    private AtomicReferenceArray<Fingerprint> fingerprints;
+    private int mask;
+    private ScheduledExecutorService summaries;
+
+    /**
+     * @param ratePerSecond events of one fingerprint logged per second once the burst is used
+     */
+    public void setRatePerSecond(int ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /**
+     * @param burst events of one fingerprint logged in a row before the rate applies
+     */
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    /**
+     * @param sampleRate one in sampleRate events over the rate is still logged; 0 drops them all
+     */
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * @param summaryInterval milliseconds between two summaries of the suppressed events
+     */
+    public void setSummaryInterval(long summaryInterval) {
+        this.summaryInterval = summaryInterval;
+    }
+
+    /**
+     * @param tableSize number of fingerprints tracked at once, rounded up to a power of two
+     */
+    public void setTableSize(int tableSize) {
+        this.tableSize = tableSize;
+    }
+
+    @Override
+    public void start() {
+        if (ratePerSecond <= 0 || burst <= 0 || sampleRate < 0 || summaryInterval <= 0 || tableSize <= 0) {
+            addError("The rate, burst, summary interval and table size of the filter named [" + getName()
+                    + "] should be positive");
+            return;
+        }
+        emissionIntervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        int capacity = tableSize <= 2 ? 2 : Integer.highestOneBit(tableSize - 1) << 1;
+        fingerprints = new AtomicReferenceArray<>(capacity);
+        mask = capacity - 1;
+        summaries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upay-logger-rate-limit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        summaries.scheduleWithFixedDelay(this::summarize, summaryInterval, summaryInterval, TimeUnit.MILLISECONDS);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (summaries != null) {
+            summaries.shutdownNow();
+            summaries = null;
+        }
+        super.stop();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        // level checks come without a format, events below the level would not be logged anyway and
+        // summaries, told apart by their format constant, are never limited
+        if (!isStarted() || format == null || format == SUMMARY
+                || level.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        long now = System.nanoTime();
+        Fingerprint fingerprint = lookup(logger, level, format, params, now);
+        if (fingerprint == null || fingerprint.tryAcquire(now, emissionIntervalNanos, burstToleranceNanos)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        fingerprint.suppressed.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    private Fingerprint lookup(Logger logger, Level level, String format, Object[] params, long now) {
+        long hash = hash(FNV_OFFSET, logger.getName());
+        hash = (hash ^ level.levelInt) * FNV_PRIME;
+        String template = format;
+        if (params != null && params.length == 4 && LoggerImpl.LOGDISPLAY.equals(format)) {
+            template = String.valueOf(params[3]);
+            hash = hash(hash, String.valueOf(params[1]));
+        }
+        hash = hash(hash, template);
+        int home = (int) (hash ^ hash >>> 32);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int index = home + probe & mask;
+            Fingerprint fingerprint = fingerprints.get(index);
+            if (fingerprint == null) {
+                Fingerprint created = new Fingerprint(hash, logger, level, template, now);
+                if (fingerprints.compareAndSet(index, null, created)) {
+                    return created;
+                }
+                fingerprint = fingerprints.get(index);
+            }
+            if (fingerprint != null && fingerprint.hash == hash) {
+                fingerprint.lastSeen = now;
+                return fingerprint;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * FNV-1a over the characters of the value, a run of digits counting as one '0'
+     */
+    private static long hash(long hash, String value) {
+        boolean digits = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits) {
+                    continue;
+                }
+                digits = true;
+                c = '0';
+            } else {
+                digits = false;
+            }
+            hash = (hash ^ c) * FNV_PRIME;
+        }
+        return (hash ^ 0xFF) * FNV_PRIME;
+    }
+
+    /**
+     * Body of the summary thread: logs the suppressed counts and removes idle fingerprints
+     */
+    private void summarize() {
+        long idle = TimeUnit.MILLISECONDS.toNanos(summaryInterval) * 2;
+        long now = System.nanoTime();
+        for (int index = 0; index < fingerprints.length(); index++) {
+            Fingerprint fingerprint = fingerprints.get(index);
+            if (fingerprint == null) {
+                continue;
+            }
+            long suppressed = fingerprint.suppressed.getAndSet(0);
+            if (suppressed > 0) {
+                log(fingerprint, suppressed);
+            } else if (now - fingerprint.lastSeen > idle) {
+                fingerprints.compareAndSet(index, fingerprint, null);
+            }
+        }
+    }
+
+    private void log(Fingerprint fingerprint, long suppressed) {
+        Object[] arguments = {suppressed, fingerprint.template, summaryInterval};
+        switch (fingerprint.level.levelInt) {
+            case Level.ERROR_INT:
+                fingerprint.logger.error(SUMMARY, arguments);
+                break;
+            case Level.WARN_INT:
+                fingerprint.logger.warn(SUMMARY, arguments);
+                break;
+            case Level.INFO_INT:
+                fingerprint.logger.info(SUMMARY, arguments);
+                break;
+            case Level.DEBUG_INT:
+                fingerprint.logger.debug(SUMMARY, arguments);
+                break;
+            default:
+                fingerprint.logger.trace(SUMMARY, arguments);
+        }
+    }
+
+    /**
+     * Limit state of one fingerprint. The token bucket is kept as the theoretical arrival time
+     * of the next event (GCRA), so taking a token is a single CAS.
+     */
+    private static final class Fingerprint {
+
+        private final long hash;
+        private final Logger logger;
+        private final Level level;
+        private final String template;
+        private final AtomicLong arrival;
+        private final AtomicLong suppressed = new AtomicLong();
+        private volatile long lastSeen;
+
+        Fingerprint(long hash, Logger logger, Level level, String template, long now) {
+            this.hash = hash;
+            this.logger = logger;
+            this.level = level;
+            this.template = template;
+            this.arrival = new AtomicLong(now);
+            this.lastSeen = now;
+        }
+
+        boolean tryAcquire(long now, long emissionInterval, long burstTolerance) {
+            while (true) {
+                long expected = arrival.get();
+                long base = expected - now > 0 ? expected : now;
+                if (base - now > burstTolerance) {
+                    return false;
+                }
+                if (arrival.compareAndSet(expected, base + emissionInterval)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package af.asr.logger.factory;
 
 
+import af.asr.logger.appender.AsyncAppender;
 import af.asr.logger.appender.ConsoleAppender;
 import af.asr.logger.appender.FileAppender;
+import af.asr.logger.appender.MappedFileAppender;
+import af.asr.logger.appender.RateLimitFilter;
 import af.asr.logger.appender.RollingFileAppender;
 import af.asr.logger.constant.LogExeptionCodeConstant;
 import af.asr.logger.constant.LogLevel;
@@ -13,6 +16,7 @@ import af.asr.logger.exception.spi.Logger;
 import af.asr.logger.util.LoggerUtils;
 
 import java.io.File;
+import java.util.Map;
 
 /**
  * Factory class for PHOENIX
@@ -482,6 +486,306 @@ public class Logfactory {
                     LogExeptionCodeConstant.IMPLEMENTATIONNOTFOUNDMESSAGE.getValue());
     }
 
+    /**
+     * Default Async factory method to configure logger
+     *
+     * @param PHOENIXAsyncAppender {@link AsyncAppender} instance which contains all
+     *                           configurations
+     * @param clazz              reference of the calling class
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getDefaultAsyncLogger(AsyncAppender PHOENIXAsyncAppender, Class<?> clazz) {
+        return LoggerImpl.getAsyncLogger(PHOENIXAsyncAppender, clazz.getName(), null);
+    }
+
+    /**
+     * Default Async factory method to configure logger
+     *
+     * @param PHOENIXAsyncAppender {@link AsyncAppender} instance which contains all
+     *                           configurations
+     * @param clazz              reference of the calling class
+     * @param logLevel           {@link LogLevel} more logger
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getDefaultAsyncLogger(AsyncAppender PHOENIXAsyncAppender, Class<?> clazz, LogLevel logLevel) {
+        return LoggerImpl.getAsyncLogger(PHOENIXAsyncAppender, clazz.getName(), logLevel);
+    }
+
+    /**
+     * Default Async factory method to configure logger
+     *
+     * @param PHOENIXAsyncAppender {@link AsyncAppender} instance which contains all
+     *                           configurations
+     * @param name               name of the calling class
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getDefaultAsyncLogger(AsyncAppender PHOENIXAsyncAppender, String name) {
+        return LoggerImpl.getAsyncLogger(PHOENIXAsyncAppender, name, null);
+    }
+
+    /**
+     * Default Async factory method to configure logger
+     *
+     * @param PHOENIXAsyncAppender {@link AsyncAppender} instance which contains all
+     *                           configurations
+     * @param name               name of the calling class
+     * @param logLevel           {@link LogLevel} more logger
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getDefaultAsyncLogger(AsyncAppender PHOENIXAsyncAppender, String name, LogLevel logLevel) {
+        return LoggerImpl.getAsyncLogger(PHOENIXAsyncAppender, name, logLevel);
+    }
+
+    /**
+     * Async factory method to configure logger
+     *
+     * @param PHOENIXAsyncAppender {@link AsyncAppender} instance which contains all
+     *                           configurations
+     * @param PHOENIXLoggerMethod  type of Logging implementation
+     * @param clazz              reference of the calling class
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getAsyncLogger(AsyncAppender PHOENIXAsyncAppender, LoggerMethod PHOENIXLoggerMethod,
+                                        Class<?> clazz) {
+        if (PHOENIXLoggerMethod == LoggerMethod.PHOENIXLOGBACK)
+            return LoggerImpl.getAsyncLogger(PHOENIXAsyncAppender, clazz.getName(), null);
+        else
+            throw new ImplementationNotFound(LogExeptionCodeConstant.IMPLEMENTATIONNOTFOUND.getValue(),
+                    LogExeptionCodeConstant.IMPLEMENTATIONNOTFOUNDMESSAGE.getValue());
+    }
+
+    /**
+     * Async factory method to configure logger
+     *
+     * @param PHOENIXAsyncAppender {@link AsyncAppender} instance which contains all
+     *                           configurations
+     * @param PHOENIXLoggerMethod  type of Logging implementation
+     * @param name               name of the calling class
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getAsyncLogger(AsyncAppender PHOENIXAsyncAppender, LoggerMethod PHOENIXLoggerMethod, String name) {
+        if (PHOENIXLoggerMethod == LoggerMethod.PHOENIXLOGBACK)
+            return LoggerImpl.getAsyncLogger(PHOENIXAsyncAppender, name, null);
+        else
+            throw new ImplementationNotFound(LogExeptionCodeConstant.IMPLEMENTATIONNOTFOUND.getValue(),
+                    LogExeptionCodeConstant.IMPLEMENTATIONNOTFOUNDMESSAGE.getValue());
+    }
+
+    /**
+     * Default Async factory method to configure logger
+     *
+     * @param PHOENIXAsyncAppenderFile XML file containing PHOENIX async logger
+     *                               configurations
+     * @param clazz                  reference of the calling class
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getDefaultAsyncLogger(File PHOENIXAsyncAppenderFile, Class<?> clazz) {
+        return LoggerImpl.getAsyncLogger(
+                (AsyncAppender) LoggerUtils.unmarshall(PHOENIXAsyncAppenderFile, AsyncAppender.class), clazz.getName(),
+                null);
+    }
+
+    /**
+     * Default Async factory method to configure logger
+     *
+     * @param PHOENIXAsyncAppenderFile XML file containing PHOENIX async logger
+     *                               configurations
+     * @param name                   name of the calling class
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getDefaultAsyncLogger(File PHOENIXAsyncAppenderFile, String name) {
+        return LoggerImpl.getAsyncLogger(
+                (AsyncAppender) LoggerUtils.unmarshall(PHOENIXAsyncAppenderFile, AsyncAppender.class), name, null);
+    }
+
+    /**
+     * Default Mapped File factory method to configure logger
+     *
+     * @param PHOENIXMappedFileAppender {@link MappedFileAppender} instance which
+     *                                contains all configurations
+     * @param clazz                   reference of the calling class
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getDefaultMappedFileLogger(MappedFileAppender PHOENIXMappedFileAppender, Class<?> clazz) {
+        return LoggerImpl.getMappedFileLogger(PHOENIXMappedFileAppender, clazz.getName(), null);
+    }
+
+    /**
+     * Default Mapped File factory method to configure logger
+     *
+     * @param PHOENIXMappedFileAppender {@link MappedFileAppender} instance which
+     *                                contains all configurations
+     * @param clazz                   reference of the calling class
+     * @param logLevel                {@link LogLevel} more logger
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getDefaultMappedFileLogger(MappedFileAppender PHOENIXMappedFileAppender, Class<?> clazz,
+                                                    LogLevel logLevel) {
+        return LoggerImpl.getMappedFileLogger(PHOENIXMappedFileAppender, clazz.getName(), logLevel);
+    }
+
+    /**
+     * Default Mapped File factory method to configure logger
+     *
+     * @param PHOENIXMappedFileAppender {@link MappedFileAppender} instance which
+     *                                contains all configurations
+     * @param name                    name of the calling class
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getDefaultMappedFileLogger(MappedFileAppender PHOENIXMappedFileAppender, String name) {
+        return LoggerImpl.getMappedFileLogger(PHOENIXMappedFileAppender, name, null);
+    }
+
+    /**
+     * Default Mapped File factory method to configure logger
+     *
+     * @param PHOENIXMappedFileAppender {@link MappedFileAppender} instance which
+     *                                contains all configurations
+     * @param name                    name of the calling class
+     * @param logLevel                {@link LogLevel} more logger
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getDefaultMappedFileLogger(MappedFileAppender PHOENIXMappedFileAppender, String name,
+                                                    LogLevel logLevel) {
+        return LoggerImpl.getMappedFileLogger(PHOENIXMappedFileAppender, name, logLevel);
+    }
+
+    /**
+     * Mapped File factory method to configure logger
+     *
+     * @param PHOENIXMappedFileAppender {@link MappedFileAppender} instance which
+     *                                contains all configurations
+     * @param PHOENIXLoggerMethod       type of Logging implementation
+     * @param clazz                   reference of the calling class
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getMappedFileLogger(MappedFileAppender PHOENIXMappedFileAppender,
+                                             LoggerMethod PHOENIXLoggerMethod, Class<?> clazz) {
+        if (PHOENIXLoggerMethod == LoggerMethod.PHOENIXLOGBACK)
+            return LoggerImpl.getMappedFileLogger(PHOENIXMappedFileAppender, clazz.getName(), null);
+        else
+            throw new ImplementationNotFound(LogExeptionCodeConstant.IMPLEMENTATIONNOTFOUND.getValue(),
+                    LogExeptionCodeConstant.IMPLEMENTATIONNOTFOUNDMESSAGE.getValue());
+    }
+
+    /**
+     * Mapped File factory method to configure logger
+     *
+     * @param PHOENIXMappedFileAppender {@link MappedFileAppender} instance which
+     *                                contains all configurations
+     * @param PHOENIXLoggerMethod       type of Logging implementation
+     * @param name                    name of the calling class
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getMappedFileLogger(MappedFileAppender PHOENIXMappedFileAppender,
+                                             LoggerMethod PHOENIXLoggerMethod, String name) {
+        if (PHOENIXLoggerMethod == LoggerMethod.PHOENIXLOGBACK)
+            return LoggerImpl.getMappedFileLogger(PHOENIXMappedFileAppender, name, null);
+        else
+            throw new ImplementationNotFound(LogExeptionCodeConstant.IMPLEMENTATIONNOTFOUND.getValue(),
+                    LogExeptionCodeConstant.IMPLEMENTATIONNOTFOUNDMESSAGE.getValue());
+    }
+
+    /**
+     * Default Mapped File factory method to configure logger
+     *
+     * @param PHOENIXMappedFileAppenderFile XML file containing PHOENIX mapped file
+     *                                    logger configurations
+     * @param clazz                       reference of the calling class
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getDefaultMappedFileLogger(File PHOENIXMappedFileAppenderFile, Class<?> clazz) {
+        return LoggerImpl.getMappedFileLogger(
+                (MappedFileAppender) LoggerUtils.unmarshall(PHOENIXMappedFileAppenderFile, MappedFileAppender.class),
+                clazz.getName(), null);
+    }
+
+    /**
+     * Default Mapped File factory method to configure logger
+     *
+     * @param PHOENIXMappedFileAppenderFile XML file containing PHOENIX mapped file
+     *                                    logger configurations
+     * @param name                        name of the calling class
+     * @return configured {@link Logger} instance
+     */
+    public static Logger getDefaultMappedFileLogger(File PHOENIXMappedFileAppenderFile, String name) {
+        return LoggerImpl.getMappedFileLogger(
+                (MappedFileAppender) LoggerUtils.unmarshall(PHOENIXMappedFileAppenderFile, MappedFileAppender.class),
+                name, null);
+    }
+
+    /**
+     * Limits how often similar events are logged, by every logger
+     *
+     * @param PHOENIXRateLimitFilter {@link RateLimitFilter} instance which contains
+     *                             all configurations
+     */
+    public static void setRateLimitFilter(RateLimitFilter PHOENIXRateLimitFilter) {
+        LoggerImpl.setRateLimitFilter(PHOENIXRateLimitFilter);
+    }
+
+    /**
+     * Limits how often similar events are logged, by every logger
+     *
+     * @param PHOENIXRateLimitFilterFile XML file containing PHOENIX rate limit
+     *                                 filter configurations
+     */
+    public static void setRateLimitFilter(File PHOENIXRateLimitFilterFile) {
+        LoggerImpl.setRateLimitFilter(
+                (RateLimitFilter) LoggerUtils.unmarshall(PHOENIXRateLimitFilterFile, RateLimitFilter.class));
+    }
+
+    public static void removeRateLimitFilter() {
+        LoggerImpl.removeRateLimitFilter();
+    }
+
+    /**
+     * Sets the level of every logger with this name or under this package prefix,
+     * until reset; "ROOT" sets the level of every logger
+     *
+     * @param prefix   logger name or package prefix
+     * @param logLevel level to log at
+     */
+    public static void setLevel(String prefix, LogLevel logLevel) {
+        LoggerImpl.setLevel(prefix, logLevel);
+    }
+
+    /**
+     * Sets the level of every logger with this name or under this package prefix
+     * for a while
+     *
+     * @param prefix         logger name or package prefix
+     * @param logLevel       level to log at
+     * @param durationMillis time in milliseconds the level applies for
+     */
+    public static void setLevel(String prefix, LogLevel logLevel, long durationMillis) {
+        LoggerImpl.setLevel(prefix, logLevel, durationMillis);
+    }
+
+    /**
+     * Sets the levels of several logger names or package prefixes in one step
+     *
+     * @param logLevels level to log at by logger name or package prefix
+     */
+    public static void setLevels(Map<String, LogLevel> logLevels) {
+        LoggerImpl.setLevels(logLevels);
+    }
+
+    public static void resetLevel(String prefix) {
+        LoggerImpl.resetLevel(prefix);
+    }
+
+    public static Map<String, LogLevel> getLevels() {
+        return LoggerImpl.getLevels();
+    }
+
+    /**
+     * Exposes the runtime levels over JMX
+     */
+    public static void registerLevelControl() {
+        LoggerImpl.registerLevelControl();
+    }
+
     public static void stop(String appendersName) {
         LoggerImpl.stop(appendersName);
     }
@@ -0,0 +1,197 @@
+package af.asr.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import af.asr.logger.appender.AsyncAppender;
+import af.asr.logger.appender.ConsoleAppender;
+import af.asr.logger.appender.FileAppender;
+import af.asr.logger.appender.MappedFileAppender;
+import af.asr.logger.appender.RollingFileAppender;
+import af.asr.logger.constant.LogEncoding;
+import af.asr.logger.constant.LogLevel;
+import af.asr.logger.exception.spi.Logger;
+import af.asr.logger.factory.Logfactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost of one audit-style log call through every appender, in every {@link LogEncoding}, with 1, 4
+ * and 16 threads logging through the same logger. Appenders keep the values of
+ * {@link af.asr.logger.constant.ConfigurationDefault} but for their file names and size caps, so
+ * the numbers tell how well the defaults fit; pass -p to compare a kind or encoding alone.
+ *
+ * Each run reports throughput, the latency percentiles of the sample time mode, and the bytes
+ * allocated per call from the GC profiler as gc.alloc.rate.norm. The results are written as JSON
+ * to target/jmh-appenders.json unless -rf or -rff say otherwise.
+ *
+ * The console appender writes to a discarding System.out, so it measures the appender and not the
+ * terminal. Files go to a temporary directory removed after each trial; the rolling appender rolls
+ * every 64MB, and the rolling and mapped appenders are capped at 1GB so long runs do not fill the
+ * disk, the plain file appender is not.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath af.asr.logger.AppenderBenchmark [JMH options]"
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AppenderBenchmark {
+
+    public enum Kind {
+        CONSOLE, FILE, ROLLING_FILE, ASYNC, MAPPED_FILE
+    }
+
+    private static final String TOTALCAP = "1GB";
+
+    @Param
+    private Kind kind;
+
+    @Param({"PATTERN", "JSON"})
+    private LogEncoding encoding;
+
+    private String appenderName;
+    private Path directory;
+    private PrintStream out;
+    private Logger logger;
+
+    @Setup
+    public void setUp() throws IOException {
+        appenderName = "benchmark" + kind + encoding;
+        directory = Files.createTempDirectory("appender-benchmark");
+        switch (kind) {
+            case CONSOLE:
+                out = System.out;
+                System.setOut(new PrintStream(new OutputStream() {
+
+                    @Override
+                    public void write(int b) {
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) {
+                    }
+                }));
+                ConsoleAppender consoleAppender = new ConsoleAppender();
+                consoleAppender.setAppenderName(appenderName);
+                consoleAppender.setEncoding(encoding);
+                logger = Logfactory.getDefaultConsoleLogger(consoleAppender, AppenderBenchmark.class, LogLevel.INFO);
+                break;
+            case FILE:
+                logger = Logfactory.getDefaultFileLogger(fileAppender(), AppenderBenchmark.class, LogLevel.INFO);
+                break;
+            case ROLLING_FILE:
+                logger = Logfactory.getDefaultRollingFileLogger(rollingFileAppender(), AppenderBenchmark.class,
+                        LogLevel.INFO);
+                break;
+            case ASYNC:
+                AsyncAppender asyncAppender = new AsyncAppender();
+                asyncAppender.setAppenderName(appenderName);
+                asyncAppender.setRollingFileAppender(rollingFileAppender());
+                logger = Logfactory.getDefaultAsyncLogger(asyncAppender, AppenderBenchmark.class, LogLevel.INFO);
+                break;
+            default:
+                MappedFileAppender mappedFileAppender = new MappedFileAppender();
+                mappedFileAppender.setAppenderName(appenderName);
+                mappedFileAppender.setFileNamePattern(directory.resolve("benchmark-%i.log").toString());
+                mappedFileAppender.setTotalCap(TOTALCAP);
+                mappedFileAppender.setEncoding(encoding);
+                logger = Logfactory.getDefaultMappedFileLogger(mappedFileAppender, AppenderBenchmark.class,
+                        LogLevel.INFO);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Logfactory.stop(appenderName);
+        if (out != null) {
+            System.setOut(out);
+        }
+        Files.walk(directory).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void threads01() {
+        log();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void threads04() {
+        log();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void threads16() {
+        log();
+    }
+
+    private void log() {
+        logger.info("7d3c0c4e-5f7a-4a43-9d8e-3b0c2f9a1b6e", "MSISDN", "93700123456",
+                "CashIn of 1500 AFN accepted by agent 40012");
+    }
+
+    private FileAppender fileAppender() {
+        FileAppender fileAppender = new FileAppender();
+        fileAppender.setAppenderName(appenderName);
+        fileAppender.setFileName(directory.resolve("benchmark.log").toString());
+        fileAppender.setEncoding(encoding);
+        return fileAppender;
+    }
+
+    private RollingFileAppender rollingFileAppender() {
+        RollingFileAppender rollingFileAppender = new RollingFileAppender();
+        rollingFileAppender.setAppenderName(appenderName);
+        rollingFileAppender.setFileName(directory.resolve("benchmark.log").toString());
+        rollingFileAppender.setFileNamePattern(directory.resolve("benchmark-%d{yyyy-MM-dd-HH}-%i.log").toString());
+        rollingFileAppender.setMaxFileSize("64MB");
+        rollingFileAppender.setTotalCap(TOTALCAP);
+        rollingFileAppender.setEncoding(encoding);
+        return rollingFileAppender;
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLineOptions)
+                .include(AppenderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class);
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLineOptions.getResult().hasValue()) {
+            builder.result("target/jmh-appenders.json");
+        }
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
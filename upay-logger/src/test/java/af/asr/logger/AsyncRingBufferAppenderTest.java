@@ -0,0 +1,204 @@
+package af.asr.logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import af.asr.logger.constant.OverflowPolicy;
+import af.asr.logger.core.AsyncRingBufferAppender;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+
+public class AsyncRingBufferAppenderTest {
+
+    private LoggerContext context;
+    private GatedAppender delegate;
+    private AsyncRingBufferAppender appender;
+
+    @Before
+    public void setUp() {
+        context = new LoggerContext();
+        delegate = new GatedAppender();
+        delegate.setContext(context);
+        delegate.start();
+        appender = new AsyncRingBufferAppender();
+        appender.setContext(context);
+        appender.setName("testAsyncRingBuffer");
+        appender.setDelegate(delegate);
+    }
+
+    @After
+    public void tearDown() {
+        delegate.gate.countDown();
+        appender.stop();
+    }
+
+    @Test
+    public void testAllEventsWrittenInOrder() throws InterruptedException {
+        appender.setBufferSize(64);
+        appender.setOverflowPolicy(OverflowPolicy.BLOCK);
+        appender.setBlockTimeout(TimeUnit.MINUTES.toMillis(1));
+        appender.start();
+        delegate.gate.countDown();
+
+        int producers = 8;
+        int events = 20000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String producer = "producer-" + p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < events; i++) {
+                    appender.doAppend(event(Level.INFO, producer, i));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        appender.stop();
+
+        assertEquals(producers * events, delegate.written.size());
+        assertEquals(0, appender.getDroppedCount());
+        int[] next = new int[producers];
+        for (ILoggingEvent event : delegate.written) {
+            int producer = Integer.parseInt(event.getMessage().substring("producer-".length()));
+            assertEquals(next[producer]++, ((Integer) event.getArgumentArray()[0]).intValue());
+        }
+    }
+
+    @Test
+    public void testDropTraceDebugWhenFull() {
+        appender.setBufferSize(4);
+        appender.setOverflowPolicy(OverflowPolicy.DROP_TRACE_DEBUG);
+        appender.setBlockTimeout(TimeUnit.MINUTES.toMillis(1));
+        appender.start();
+
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend(event(Level.DEBUG, "debug", i));
+        }
+        delegate.gate.countDown();
+        appender.stop();
+
+        assertTrue(delegate.written.size() <= 5);
+        assertEquals(100, delegate.written.size() + appender.getDroppedCount());
+    }
+
+    @Test
+    public void testBlockWaitsForRoom() {
+        appender.setBufferSize(4);
+        appender.setOverflowPolicy(OverflowPolicy.BLOCK);
+        appender.setBlockTimeout(TimeUnit.MINUTES.toMillis(1));
+        appender.start();
+        openGateAfter(100);
+
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend(event(Level.DEBUG, "debug", i));
+        }
+        appender.stop();
+
+        assertEquals(100, delegate.written.size());
+        assertEquals(0, appender.getDroppedCount());
+    }
+
+    @Test
+    public void testBlockTimeoutDropsEvent() {
+        appender.setBufferSize(4);
+        appender.setOverflowPolicy(OverflowPolicy.BLOCK);
+        appender.setBlockTimeout(10);
+        appender.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            appender.doAppend(event(Level.ERROR, "error", i));
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        delegate.gate.countDown();
+        appender.stop();
+
+        assertTrue(appender.getDroppedCount() >= 15);
+        assertTrue(elapsed < 20 * 10 * 5);
+    }
+
+    @Test
+    public void testSampleKeepsOneInRate() {
+        appender.setBufferSize(4);
+        appender.setOverflowPolicy(OverflowPolicy.SAMPLE);
+        appender.setSampleRate(10);
+        appender.setBlockTimeout(TimeUnit.MINUTES.toMillis(1));
+        appender.start();
+        delegate.pauseNanos = TimeUnit.MICROSECONDS.toNanos(200);
+        openGateAfter(100);
+
+        for (int i = 0; i < 1000; i++) {
+            appender.doAppend(event(Level.INFO, "info", i));
+        }
+        appender.doAppend(event(Level.WARN, "warn", 0));
+        appender.stop();
+
+        assertEquals(1001, delegate.written.size() + appender.getDroppedCount());
+        assertTrue(delegate.written.size() >= 99 && delegate.written.size() <= 120);
+        assertEquals(Level.WARN, delegate.written.get(delegate.written.size() - 1).getLevel());
+    }
+
+    private LoggingEvent event(Level level, String message, int sequence) {
+        return new LoggingEvent(AsyncRingBufferAppenderTest.class.getName(), context.getLogger("test"), level, message,
+                null, new Object[]{sequence});
+    }
+
+    private void openGateAfter(long millis) {
+        Thread thread = new Thread(() -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delegate.gate.countDown();
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Keeps the events it is given, holding the writer thread until the gate opens and
+     * then pausing on every event
+     */
+    private static class GatedAppender extends OutputStreamAppender<ILoggingEvent> {
+
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final List<ILoggingEvent> written = Collections.synchronizedList(new ArrayList<>());
+        private volatile long pauseNanos;
+
+        @Override
+        public void start() {
+            started = true;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            try {
+                gate.await();
+                if (pauseNanos > 0) {
+                    LockSupport.parkNanos(pauseNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(event);
+        }
+    }
+}
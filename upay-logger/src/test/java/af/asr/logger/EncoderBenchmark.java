@@ -0,0 +1,90 @@
+package af.asr.logger;
+
+import java.util.concurrent.TimeUnit;
+
+import af.asr.logger.constant.ConfigurationDefault;
+import af.asr.logger.constant.LogEncoding;
+import af.asr.logger.core.JsonEventEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.encoder.Encoder;
+
+/**
+ * Cost of encoding one audit-style event, the four arguments of a LoggerImpl call, in every
+ * {@link LogEncoding}. The bytes allocated per event are reported by the GC profiler as
+ * gc.alloc.rate.norm; both encodings pay for the same event object, so the difference is the
+ * encoder.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath af.asr.logger.EncoderBenchmark [JMH options]"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EncoderBenchmark {
+
+    @Param({"PATTERN", "JSON"})
+    private LogEncoding encoding;
+
+    private Logger logger;
+    private Encoder<ILoggingEvent> encoder;
+
+    @Setup
+    public void setUp() {
+        LoggerContext context = new LoggerContext();
+        logger = context.getLogger(EncoderBenchmark.class.getName());
+        if (encoding == LogEncoding.JSON) {
+            JsonEventEncoder jsonEventEncoder = new JsonEventEncoder();
+            jsonEventEncoder.setContext(context);
+            encoder = jsonEventEncoder;
+        } else {
+            PatternLayoutEncoder patternLayoutEncoder = new PatternLayoutEncoder();
+            patternLayoutEncoder.setPattern(ConfigurationDefault.LOGPATTERN);
+            patternLayoutEncoder.setContext(context);
+            encoder = patternLayoutEncoder;
+        }
+        encoder.start();
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return encoder.encode(new LoggingEvent(EncoderBenchmark.class.getName(), logger, Level.INFO,
+                "{} - {} - {} - {}", null,
+                new Object[]{"7d3c0c4e-5f7a-4a43-9d8e-3b0c2f9a1b6e", "MSISDN", "93700123456",
+                        "CashIn of 1500 AFN accepted by agent 40012"}));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(EncoderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,100 @@
+package af.asr.logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import af.asr.logger.core.JsonEventEncoder;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+
+public class JsonEventEncoderTest {
+
+    private LoggerContext context;
+    private JsonEventEncoder encoder;
+
+    @Before
+    public void setUp() {
+        context = new LoggerContext();
+        encoder = new JsonEventEncoder();
+        encoder.setContext(context);
+        encoder.start();
+    }
+
+    @Test
+    public void testEncodeFields() {
+        LoggingEvent event = event(1580462102114L, Level.INFO, "{} - {} - {} - {}", "session", "MSISDN", null,
+                "paid \"100\" AFN");
+        assertEquals("{\"timestamp\":\"2020-01-31T09:15:02.114Z\",\"level\":\"INFO\",\"thread\":\""
+                        + Thread.currentThread().getName() + "\",\"logger\":\"test\",\"sessionId\":\"session\","
+                        + "\"idType\":\"MSISDN\",\"id\":null,\"description\":\"paid \\\"100\\\" AFN\"}\n",
+                encode(event));
+    }
+
+    @Test
+    public void testEncodeMessage() {
+        LoggingEvent event = event(951782400000L, Level.WARN, "retry {}", 3);
+        assertEquals("{\"timestamp\":\"2000-02-29T00:00:00.000Z\",\"level\":\"WARN\",\"thread\":\""
+                + Thread.currentThread().getName() + "\",\"logger\":\"test\",\"message\":\"retry 3\"}\n", encode(event));
+    }
+
+    @Test
+    public void testEncodeEscapes() {
+        LoggingEvent event = event(-1L, Level.ERROR, "{}", "a\\b\n\t\u0001 éف😀\ud83d");
+        assertEquals("{\"timestamp\":\"1969-12-31T23:59:59.999Z\",\"level\":\"ERROR\",\"thread\":\""
+                        + Thread.currentThread().getName() + "\",\"logger\":\"test\","
+                        + "\"message\":\"a\\\\b\\n\\t\\u0001 éف😀?\"}\n", encode(event));
+    }
+
+    @Test
+    public void testEncodeLongDescription() {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            description.append(i % 2 == 0 ? 'x' : 'ف');
+        }
+        String encoded = encode(event(0L, Level.DEBUG, "{} - {} - {} - {}", "s", "t", "i", description.toString()));
+        assertTrue(encoded.endsWith("\"description\":\"" + description + "\"}\n"));
+        assertEquals("{\"timestamp\":\"1970-01-01T00:00:00.000Z\"",
+                encode(event(0L, Level.DEBUG, "short")).substring(0, 39));
+    }
+
+    @Test
+    public void testEncodeOtherFourArgumentMessage() {
+        LoggingEvent event = event(0L, Level.INFO, "moved {} {} from {} to {}", 100, "AFN", "A", "B");
+        assertTrue(encode(event).endsWith("\"message\":\"moved 100 AFN from A to B\"}\n"));
+    }
+
+    @Test
+    public void testEncodeThrowable() {
+        IOException cause = new IOException("timeout");
+        IllegalStateException thrown = new IllegalStateException("payment \"failed\"", cause);
+        thrown.addSuppressed(new IllegalArgumentException("rollback"));
+        LoggingEvent event = new LoggingEvent(JsonEventEncoderTest.class.getName(), context.getLogger("test"),
+                Level.ERROR, "{} - {} - {} - {}", thrown, new Object[] {"session", "MSISDN", "0700111222", "failed"});
+        String encoded = encode(event);
+
+        String frame = "\\n\\tat " + JsonEventEncoderTest.class.getName() + ".testEncodeThrowable(JsonEventEncoderTest.java:";
+        assertTrue(encoded, encoded.contains("\"description\":\"failed\",\"exception\":\"java.lang.IllegalStateException: "
+                + "payment \\\"failed\\\"" + frame));
+        assertTrue(encoded, encoded.contains("\\n\\tSuppressed: java.lang.IllegalArgumentException: rollback\\n\\t\\tat "));
+        assertTrue(encoded, encoded.contains("\\nCaused by: java.io.IOException: timeout" + frame));
+        assertTrue(encoded, encoded.contains(" common frames omitted\"}\n"));
+    }
+
+    private String encode(LoggingEvent event) {
+        return new String(encoder.encode(event), StandardCharsets.UTF_8);
+    }
+
+    private LoggingEvent event(long timeStamp, Level level, String message, Object... arguments) {
+        LoggingEvent event = new LoggingEvent(JsonEventEncoderTest.class.getName(), context.getLogger("test"), level,
+                message, null, arguments);
+        event.setTimeStamp(timeStamp);
+        return event;
+    }
+}
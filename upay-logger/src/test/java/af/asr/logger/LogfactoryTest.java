@@ -1,20 +1,47 @@
 package af.asr.logger;
 
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.isA;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
-
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import af.asr.logger.appender.AsyncAppender;
 import af.asr.logger.appender.ConsoleAppender;
 import af.asr.logger.appender.FileAppender;
+import af.asr.logger.appender.MappedFileAppender;
+import af.asr.logger.appender.RateLimitFilter;
 import af.asr.logger.appender.RollingFileAppender;
+import af.asr.logger.constant.LogEncoding;
 import af.asr.logger.constant.LogLevel;
 import af.asr.logger.constant.LoggerMethod;
 import af.asr.logger.exception.ClassNameNotFoundException;
+import af.asr.logger.exception.IllegalArgumentException;
 import af.asr.logger.exception.PatternSyntaxException;
 import af.asr.logger.exception.logger.EmptyPatternException;
 import af.asr.logger.exception.logger.FileNameNotProvided;
@@ -34,11 +61,15 @@ public class LogfactoryTest {
     private FileAppender PHOENIXFileAppender;
     private ConsoleAppender PHOENIXConsoleAppender;
     private RollingFileAppender PHOENIXRollingFileAppender;
+    private AsyncAppender PHOENIXAsyncAppender;
+    private MappedFileAppender PHOENIXMappedFileAppender;
     private static String FILENAME;
     private static String FILEPATH;
     private File consoleAppenderFile;
     private File fileAppenderFile;
     private File rollingFileAppenderFile;
+    private File asyncAppenderFile;
+    private File mappedFileAppenderFile;
 
     @BeforeClass
     public static void preSetUp() throws IOException {
@@ -51,10 +82,14 @@ public class LogfactoryTest {
         PHOENIXFileAppender = new FileAppender();
         PHOENIXConsoleAppender = new ConsoleAppender();
         PHOENIXRollingFileAppender = new RollingFileAppender();
+        PHOENIXAsyncAppender = new AsyncAppender();
+        PHOENIXMappedFileAppender = new MappedFileAppender();
 
         consoleAppenderFile = new ClassPathResource("/consoleappender.xml").getFile();
         fileAppenderFile = new ClassPathResource("/fileappender.xml").getFile();
         rollingFileAppenderFile = new ClassPathResource("/rollingfileappender.xml").getFile();
+        asyncAppenderFile = new ClassPathResource("/asyncappender.xml").getFile();
+        mappedFileAppenderFile = new ClassPathResource("/mappedfileappender.xml").getFile();
     }
 
     @AfterClass
@@ -666,4 +701,238 @@ public class LogfactoryTest {
         Logfactory.getDefaultRollingFileLogger(rollingFileAppenderFile, "LogfactoryTest");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testgetDefaultAsyncLoggerClazz() throws IOException {
+        PHOENIXFileAppender.setAppenderName("testAsyncFileappender");
+        PHOENIXFileAppender.setFileName(FILEPATH + "/testAsync.txt");
+        PHOENIXAsyncAppender.setAppenderName("testAsyncappender");
+        PHOENIXAsyncAppender.setFileAppender(PHOENIXFileAppender);
+        Logger logger = Logfactory.getDefaultAsyncLogger(PHOENIXAsyncAppender, LogfactoryTest.class);
+        assertThat(logger, isA(Logger.class));
+        logger.info("sessionId", "idType", "id", "written by the async appender");
+        Logfactory.stop("testAsyncappender");
+        assertThat(new String(Files.readAllBytes(new File(FILEPATH + "/testAsync.txt").toPath()), StandardCharsets.UTF_8),
+                containsString("sessionId - idType - id - written by the async appender"));
+    }
+
+    @Test
+    public void testgetDefaultAsyncLoggerNameLogLevelRollingFile() {
+        PHOENIXRollingFileAppender.setAppenderName("testAsyncRollingFileappender");
+        PHOENIXRollingFileAppender.setFileName(FILEPATH + "/testAsyncRolling.txt");
+        PHOENIXRollingFileAppender.setFileNamePattern(FILEPATH + "/testAsyncRolling-%d{ss}-%i.txt");
+        PHOENIXRollingFileAppender.setMaxFileSize("1kb");
+        PHOENIXAsyncAppender.setAppenderName("testAsyncRollingappender");
+        PHOENIXAsyncAppender.setRollingFileAppender(PHOENIXRollingFileAppender);
+        assertThat(Logfactory.getDefaultAsyncLogger(PHOENIXAsyncAppender, "LogfactoryTest", LogLevel.INFO),
+                isA(Logger.class));
+    }
+
+    @Test(expected = FileNameNotProvided.class)
+    public void testgetDefaultAsyncLoggerWithoutFileException() {
+        PHOENIXAsyncAppender.setAppenderName("testAsyncappender");
+        Logfactory.getDefaultAsyncLogger(PHOENIXAsyncAppender, "LogfactoryTest");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testgetDefaultAsyncLoggerBufferSizeException() {
+        PHOENIXFileAppender.setAppenderName("testAsyncFileappender");
+        PHOENIXFileAppender.setFileName(FILEPATH + "/testAsync.txt");
+        PHOENIXAsyncAppender.setAppenderName("testAsyncappender");
+        PHOENIXAsyncAppender.setFileAppender(PHOENIXFileAppender);
+        PHOENIXAsyncAppender.setBufferSize(0);
+        Logfactory.getDefaultAsyncLogger(PHOENIXAsyncAppender, "LogfactoryTest");
+    }
+
+    @Test(expected = ImplementationNotFound.class)
+    public void testgetAsyncLoggerClazzImplementationExcepTion() {
+        PHOENIXFileAppender.setAppenderName("testAsyncFileappender");
+        PHOENIXFileAppender.setFileName(FILEPATH + "/testAsync.txt");
+        PHOENIXAsyncAppender.setAppenderName("testAsyncappender");
+        PHOENIXAsyncAppender.setFileAppender(PHOENIXFileAppender);
+        Logfactory.getAsyncLogger(PHOENIXAsyncAppender, null, LogfactoryTest.class);
+    }
+
+    @Test
+    public void testgetDefaultAsyncLoggerFile() {
+        assertThat(Logfactory.getDefaultAsyncLogger(asyncAppenderFile, LogfactoryTest.class), isA(Logger.class));
+    }
+
+    @Test
+    public void testgetDefaultMappedFileLoggerClazz() throws IOException {
+        PHOENIXMappedFileAppender.setAppenderName("testMappedFileappender");
+        PHOENIXMappedFileAppender.setFileNamePattern(FILEPATH + "/testMapped-%i.log");
+        PHOENIXMappedFileAppender.setSegmentSize("64kb");
+        PHOENIXMappedFileAppender.setCompress(false);
+        Logger logger = Logfactory.getDefaultMappedFileLogger(PHOENIXMappedFileAppender, LogfactoryTest.class);
+        assertThat(logger, isA(Logger.class));
+        logger.info("sessionId", "idType", "id", "written by the mapped file appender");
+        Logfactory.stop("testMappedFileappender");
+        assertThat(new String(Files.readAllBytes(new File(FILEPATH + "/testMapped-0.log").toPath()),
+                StandardCharsets.UTF_8), containsString("sessionId - idType - id - written by the mapped file appender"));
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testgetDefaultMappedFileLoggerPatternException() {
+        PHOENIXMappedFileAppender.setAppenderName("testMappedFileappender");
+        PHOENIXMappedFileAppender.setFileNamePattern(FILEPATH + "/testMapped.log");
+        Logfactory.getDefaultMappedFileLogger(PHOENIXMappedFileAppender, LogfactoryTest.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testgetDefaultMappedFileLoggerSegmentSizeException() {
+        PHOENIXMappedFileAppender.setAppenderName("testMappedFileappender");
+        PHOENIXMappedFileAppender.setFileNamePattern(FILEPATH + "/testMapped-%i.log");
+        PHOENIXMappedFileAppender.setSegmentSize("4GB");
+        Logfactory.getDefaultMappedFileLogger(PHOENIXMappedFileAppender, LogfactoryTest.class);
+    }
+
+    @Test(expected = ImplementationNotFound.class)
+    public void testgetMappedFileLoggerClazzImplementationExcepTion() {
+        PHOENIXMappedFileAppender.setAppenderName("testMappedFileappender");
+        PHOENIXMappedFileAppender.setFileNamePattern(FILEPATH + "/testMapped-%i.log");
+        Logfactory.getMappedFileLogger(PHOENIXMappedFileAppender, null, LogfactoryTest.class);
+    }
+
+    @Test
+    public void testgetDefaultMappedFileLoggerFile() {
+        assertThat(Logfactory.getDefaultMappedFileLogger(mappedFileAppenderFile, LogfactoryTest.class),
+                isA(Logger.class));
+    }
+
+    @Test
+    public void testsetRateLimitFilter() throws IOException {
+        Logfactory.setRateLimitFilter(new ClassPathResource("/ratelimitfilter.xml").getFile());
+        Logfactory.setRateLimitFilter(new RateLimitFilter());
+        Logfactory.removeRateLimitFilter();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testsetRateLimitFilterException() {
+        RateLimitFilter rateLimitFilter = new RateLimitFilter();
+        rateLimitFilter.setRatePerSecond(0);
+        Logfactory.setRateLimitFilter(rateLimitFilter);
+    }
+
+    @Test
+    public void testgetDefaultFileLoggerJsonEncoding() throws IOException {
+        PHOENIXFileAppender.setAppenderName("testJsonFileappender");
+        PHOENIXFileAppender.setFileName(FILEPATH + "/testJson.txt");
+        PHOENIXFileAppender.setEncoding(LogEncoding.JSON);
+        Logger logger = Logfactory.getDefaultFileLogger(PHOENIXFileAppender, LogfactoryTest.class);
+        logger.info("sessionId", "idType", "id", "written as json");
+        Logfactory.stop("testJsonFileappender");
+        assertThat(new String(Files.readAllBytes(new File(FILEPATH + "/testJson.txt").toPath()), StandardCharsets.UTF_8),
+                containsString("\"level\":\"INFO\",\"thread\":\"" + Thread.currentThread().getName()
+                        + "\",\"logger\":\"" + LogfactoryTest.class.getName() + "\",\"sessionId\":\"sessionId\","
+                        + "\"idType\":\"idType\",\"id\":\"id\",\"description\":\"written as json\"}"));
+    }
+
+    @Test
+    public void testgetDefaultConsoleLoggerSameInstance() {
+        PHOENIXConsoleAppender.setAppenderName("testConsoleRegistryappender");
+        PHOENIXConsoleAppender.setTarget("System.out");
+        Logger logger = Logfactory.getDefaultConsoleLogger(PHOENIXConsoleAppender, LogfactoryTest.class);
+        assertThat(Logfactory.getDefaultConsoleLogger(PHOENIXConsoleAppender, LogfactoryTest.class),
+                sameInstance(logger));
+        assertThat(Logfactory.getDefaultConsoleLogger(PHOENIXConsoleAppender, LogfactoryTest.class, LogLevel.INFO),
+                not(sameInstance(logger)));
+    }
+
+    @Test
+    public void testgetDefaultFileLoggerNewInstanceAfterStop() {
+        PHOENIXFileAppender.setAppenderName("testFileRegistryappender");
+        PHOENIXFileAppender.setFileName(FILEPATH + "/testRegistry.txt");
+        Logger logger = Logfactory.getDefaultFileLogger(PHOENIXFileAppender, LogfactoryTest.class);
+        Logfactory.stop("testFileRegistryappender");
+        assertThat(Logfactory.getDefaultFileLogger(PHOENIXFileAppender, LogfactoryTest.class), not(sameInstance(logger)));
+    }
+
+    @Test
+    public void testgetDefaultRollingFileLoggerConcurrentSameInstance() throws InterruptedException, ExecutionException {
+        PHOENIXRollingFileAppender.setAppenderName("testRollingRegistryappender");
+        PHOENIXRollingFileAppender.setFileName(FILEPATH + "/testRegistryRolling.txt");
+        PHOENIXRollingFileAppender.setFileNamePattern(FILEPATH + "/testRegistryRolling-%d{ss}-%i.txt");
+        PHOENIXRollingFileAppender.setMaxFileSize("1kb");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Logger>> calls = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                calls.add(() -> Logfactory.getDefaultRollingFileLogger(PHOENIXRollingFileAppender, LogfactoryTest.class));
+            }
+            Set<Logger> loggers = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<Logger> logger : executor.invokeAll(calls)) {
+                loggers.add(logger.get());
+            }
+            assertEquals(1, loggers.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testsetLevelByPrefix() throws IOException {
+        PHOENIXFileAppender.setAppenderName("testLevelFileappender");
+        PHOENIXFileAppender.setFileName(FILEPATH + "/testLevel.txt");
+        Logger logger = Logfactory.getDefaultFileLogger(PHOENIXFileAppender, LogfactoryTest.class, LogLevel.INFO);
+        try {
+            logger.debug("sessionId", "idType", "id", "debug before");
+            Logfactory.setLevel("af.asr", LogLevel.DEBUG);
+            logger.debug("sessionId", "idType", "id", "debug under prefix");
+            Logfactory.setLevel(LogfactoryTest.class.getName(), LogLevel.WARN);
+            logger.info("sessionId", "idType", "id", "info under name");
+            assertEquals(2, Logfactory.getLevels().size());
+            Logfactory.resetLevel("af.asr");
+            Logfactory.resetLevel(LogfactoryTest.class.getName());
+            logger.debug("sessionId", "idType", "id", "debug after");
+            logger.info("sessionId", "idType", "id", "info after");
+        } finally {
+            Logfactory.resetLevel("af.asr");
+            Logfactory.resetLevel(LogfactoryTest.class.getName());
+        }
+        Logfactory.stop("testLevelFileappender");
+        String content = new String(Files.readAllBytes(new File(FILEPATH + "/testLevel.txt").toPath()),
+                StandardCharsets.UTF_8);
+        assertThat(content, not(containsString("debug before")));
+        assertThat(content, containsString("debug under prefix"));
+        assertThat(content, not(containsString("info under name")));
+        assertThat(content, not(containsString("debug after")));
+        assertThat(content, containsString("info after"));
+    }
+
+    @Test
+    public void testsetLevelForDuration() throws InterruptedException {
+        Logfactory.setLevel("af.asr.logger", LogLevel.INFO);
+        Logfactory.setLevel("af.asr.logger", LogLevel.TRACE, 50);
+        try {
+            assertEquals(LogLevel.TRACE, Logfactory.getLevels().get("af.asr.logger"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (Logfactory.getLevels().get("af.asr.logger") == LogLevel.TRACE && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(LogLevel.INFO, Logfactory.getLevels().get("af.asr.logger"));
+        } finally {
+            Logfactory.resetLevel("af.asr.logger");
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testsetLevelException() {
+        Logfactory.setLevel(null, LogLevel.DEBUG);
+    }
+
+    @Test
+    public void testregisterLevelControl() throws JMException {
+        Logfactory.registerLevelControl();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("af.asr.logger:type=LogLevelControl");
+        try {
+            server.invoke(objectName, "setLevel", new Object[] { "root", "warn" },
+                    new String[] { String.class.getName(), String.class.getName() });
+            assertThat((String[]) server.getAttribute(objectName, "Levels"), equalTo(new String[] { "ROOT=WARN" }));
+        } finally {
+            Logfactory.resetLevel("ROOT");
+        }
+        assertEquals(0, ((String[]) server.getAttribute(objectName, "Levels")).length);
+    }
+
+}
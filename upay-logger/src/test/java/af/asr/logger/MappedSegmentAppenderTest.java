@@ -0,0 +1,262 @@
+package af.asr.logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.GZIPInputStream;
+
+import af.asr.logger.core.MappedSegmentAppender;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+public class MappedSegmentAppenderTest {
+
+    private LoggerContext context;
+    private File directory;
+    private MappedSegmentAppender appender;
+
+    @Before
+    public void setUp() throws IOException {
+        context = new LoggerContext();
+        directory = Files.createTempDirectory("mapped").toFile();
+        appender = newAppender();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        appender.stop();
+        Files.walk(directory.toPath()).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+
+    @Test
+    public void testRollsAndCompresses() throws IOException {
+        appender.start();
+        String written = append(0, 1000);
+        appender.stop();
+
+        File[] segments = segments();
+        assertEquals(3, segments.length);
+        for (File segment : segments) {
+            assertTrue(segment.getName().endsWith(".log.gz"));
+        }
+        assertEquals(written, read(segments));
+    }
+
+    @Test
+    public void testCutsSegmentsWithoutCompression() throws IOException {
+        appender.setCompress(false);
+        appender.start();
+        String written = append(0, 1000);
+        appender.stop();
+
+        File[] segments = segments();
+        assertEquals(3, segments.length);
+        assertEquals(4096, segments[0].length());
+        assertEquals(11000 - 2 * 4096, segments[2].length());
+        assertEquals(written, read(segments));
+    }
+
+    @Test
+    public void testPrunesToMaxHistory() throws IOException {
+        appender.setCompress(false);
+        appender.setMaxHistory(2);
+        appender.start();
+        String written = append(0, 1000);
+        appender.stop();
+
+        File[] segments = segments();
+        assertEquals(2, segments.length);
+        assertEquals("app-1.log", segments[0].getName());
+        assertTrue(written.endsWith(read(segments)));
+    }
+
+    @Test
+    public void testPrunesToTotalSizeCap() throws IOException {
+        appender.setCompress(false);
+        appender.setTotalSizeCap(5000);
+        appender.start();
+        append(0, 1000);
+        appender.stop();
+
+        File[] segments = segments();
+        assertEquals(1, segments.length);
+        assertEquals("app-2.log", segments[0].getName());
+    }
+
+    @Test
+    public void testContinuesNumberingAfterRestart() throws IOException {
+        appender.start();
+        String written = append(0, 100);
+        appender.stop();
+        appender = newAppender();
+        appender.start();
+        written += append(100, 100);
+        appender.stop();
+
+        File[] segments = segments();
+        assertEquals(2, segments.length);
+        assertEquals("app-1.log.gz", segments[1].getName());
+        assertEquals(written, read(segments));
+    }
+
+    @Test
+    public void testEventLargerThanSegment() throws IOException {
+        char[] large = new char[10000];
+        Arrays.fill(large, 'x');
+        appender.start();
+        String written = append(0, 10) + append(new String(large)) + append(10, 10);
+        appender.stop();
+
+        assertEquals(written, read(segments()));
+    }
+
+    @Test
+    public void testRecoversSegmentsLeftByACrash() throws IOException {
+        crash();
+        appender.start();
+        String written = append(0, 10);
+        appender.stop();
+
+        File[] segments = segments();
+        assertEquals(2, segments.length);
+        assertEquals("app-0.log.gz", segments[0].getName());
+        assertEquals("app-2.log.gz", segments[1].getName());
+        assertEquals("event-crash\n" + written, read(segments));
+    }
+
+    @Test
+    public void testCutsSegmentsLeftByACrash() throws IOException {
+        crash();
+        appender.setCompress(false);
+        appender.start();
+        String written = append(0, 10);
+        appender.stop();
+
+        File[] segments = segments();
+        assertEquals(2, segments.length);
+        assertEquals("app-0.log", segments[0].getName());
+        assertEquals(12, segments[0].length());
+        assertEquals("event-crash\n" + written, read(segments));
+    }
+
+    @Test
+    public void testReleasesMappingsOfArchivedSegments() throws IOException {
+        File maps = new File("/proc/self/maps");
+        Assume.assumeTrue(maps.exists());
+        appender.setCompress(false);
+        appender.start();
+        append(0, 1000);
+        appender.stop();
+
+        String path = directory.getCanonicalPath();
+        for (String mapping : Files.readAllLines(maps.toPath(), StandardCharsets.UTF_8)) {
+            assertFalse(mapping, mapping.contains(path));
+        }
+    }
+
+    /**
+     * Leaves the files of a process killed while writing its first segment: that segment and
+     * the one mapped in advance at their full size, and a compression cut short
+     */
+    private void crash() throws IOException {
+        byte[] first = new byte[4096];
+        byte[] written = "event-crash\n".getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(written, 0, first, 0, written.length);
+        Files.write(new File(directory, "app-0.log").toPath(), first);
+        Files.write(new File(directory, "app-1.log").toPath(), new byte[4096]);
+        Files.write(new File(directory, "app-0.log.gz.tmp").toPath(), new byte[10]);
+    }
+
+    private MappedSegmentAppender newAppender() {
+        LineEncoder encoder = new LineEncoder();
+        encoder.start();
+        MappedSegmentAppender mappedSegmentAppender = new MappedSegmentAppender();
+        mappedSegmentAppender.setContext(context);
+        mappedSegmentAppender.setName("testMappedSegment");
+        mappedSegmentAppender.setEncoder(encoder);
+        mappedSegmentAppender.setFileNamePattern(new File(directory, "app-%i.log").getPath());
+        mappedSegmentAppender.setSegmentSize(4096);
+        return mappedSegmentAppender;
+    }
+
+    /**
+     * Appends events of 11 bytes each
+     */
+    private String append(int first, int count) {
+        StringBuilder written = new StringBuilder();
+        for (int i = first; i < first + count; i++) {
+            written.append(append(String.format("event-%04d", i)));
+        }
+        return written.toString();
+    }
+
+    private String append(String message) {
+        appender.doAppend(new LoggingEvent(MappedSegmentAppenderTest.class.getName(), context.getLogger("test"),
+                Level.INFO, message, null, null));
+        return message + "\n";
+    }
+
+    private File[] segments() {
+        File[] segments = directory.listFiles();
+        Arrays.sort(segments, Comparator.comparingInt(file -> Integer.parseInt(file.getName().replaceAll("\\D", ""))));
+        return segments;
+    }
+
+    private String read(File[] segments) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        for (File segment : segments) {
+            InputStream in = Files.newInputStream(segment.toPath());
+            if (segment.getName().endsWith(".gz")) {
+                in = new GZIPInputStream(in);
+            }
+            try {
+                for (int read = in.read(chunk); read >= 0; read = in.read(chunk)) {
+                    content.write(chunk, 0, read);
+                }
+            } finally {
+                in.close();
+            }
+        }
+        return new String(content.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the message of an event and a new line
+     */
+    private static class LineEncoder extends EncoderBase<ILoggingEvent> {
+
+        @Override
+        public byte[] headerBytes() {
+            return null;
+        }
+
+        @Override
+        public byte[] encode(ILoggingEvent event) {
+            return (event.getMessage() + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public byte[] footerBytes() {
+            return null;
+        }
+    }
+}
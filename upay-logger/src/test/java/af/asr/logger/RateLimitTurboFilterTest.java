@@ -0,0 +1,136 @@
+package af.asr.logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import af.asr.logger.core.RateLimitTurboFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.spi.FilterReply;
+
+public class RateLimitTurboFilterTest {
+
+    private static final String LOGDISPLAY = "{} - {} - {} - {}";
+
+    private Logger logger;
+    private RateLimitTurboFilter filter;
+
+    @Before
+    public void setUp() {
+        LoggerContext context = new LoggerContext();
+        logger = context.getLogger("af.asr.iso8583.jpos.channel.ChannelManager");
+        filter = new RateLimitTurboFilter();
+        filter.setContext(context);
+        filter.setRatePerSecond(1);
+        filter.setBurst(5);
+        filter.setSampleRate(0);
+    }
+
+    @After
+    public void tearDown() {
+        filter.stop();
+    }
+
+    @Test
+    public void testBurstThenDeny() {
+        filter.start();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(Level.ERROR, "switch down"));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.DENY, decide(Level.ERROR, "switch down"));
+        }
+        assertEquals(FilterReply.NEUTRAL, decide(Level.WARN, "switch down"));
+        assertEquals(FilterReply.NEUTRAL, decide(Level.ERROR, "switch up"));
+    }
+
+    @Test
+    public void testNumbersShareFingerprint() {
+        filter.setBurst(1);
+        filter.start();
+        assertEquals(FilterReply.NEUTRAL, decide(Level.INFO, "Response time (ms):12"));
+        assertEquals(FilterReply.DENY, decide(Level.INFO, "Response time (ms):3456"));
+        assertEquals(FilterReply.NEUTRAL, decide(Level.INFO, "Response size (bytes):3456"));
+    }
+
+    @Test
+    public void testLoggerFieldsFingerprint() {
+        filter.setBurst(1);
+        filter.start();
+        assertEquals(FilterReply.NEUTRAL, decide(Level.ERROR, LOGDISPLAY, "session1", "STAN", "000123", "timeout"));
+        assertEquals(FilterReply.DENY, decide(Level.ERROR, LOGDISPLAY, "session2", "STAN", "000124", "timeout"));
+        assertEquals(FilterReply.NEUTRAL, decide(Level.ERROR, LOGDISPLAY, "session2", "RRN", "000124", "timeout"));
+        assertEquals(FilterReply.NEUTRAL, decide(Level.ERROR, LOGDISPLAY, "session2", "STAN", "000124", "declined"));
+    }
+
+    @Test
+    public void testLevelChecksAndDisabledLevelsNotCounted() {
+        filter.setBurst(1);
+        filter.start();
+        logger.setLevel(Level.INFO);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.ERROR, null, null, null));
+            assertEquals(FilterReply.NEUTRAL, decide(Level.DEBUG, "switch down"));
+        }
+        assertEquals(FilterReply.NEUTRAL, decide(Level.ERROR, "switch down"));
+        assertEquals(FilterReply.DENY, decide(Level.ERROR, "switch down"));
+    }
+
+    @Test
+    public void testRateRefills() throws InterruptedException {
+        filter.setRatePerSecond(100);
+        filter.setBurst(1);
+        filter.start();
+        assertEquals(FilterReply.NEUTRAL, decide(Level.ERROR, "switch down"));
+        assertEquals(FilterReply.DENY, decide(Level.ERROR, "switch down"));
+        Thread.sleep(20);
+        assertEquals(FilterReply.NEUTRAL, decide(Level.ERROR, "switch down"));
+    }
+
+    @Test
+    public void testSampleOverRate() {
+        filter.setBurst(1);
+        filter.setSampleRate(10);
+        filter.start();
+        int passed = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (decide(Level.ERROR, "switch down") == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+        assertTrue(passed > 800 && passed < 1200);
+    }
+
+    @Test
+    public void testSummaryOfSuppressedEvents() throws InterruptedException {
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        filter.setSummaryInterval(50);
+        filter.start();
+        for (int i = 0; i < 14; i++) {
+            decide(Level.ERROR, "switch down");
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (appender.list.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, appender.list.size());
+        assertEquals(Level.ERROR, appender.list.get(0).getLevel());
+        assertEquals("Suppressed 9 events similar to [switch down] in the last 50 ms",
+                appender.list.get(0).getFormattedMessage());
+    }
+
+    private FilterReply decide(Level level, String format, Object... params) {
+        return filter.decide(null, logger, level, format, params, null);
+    }
+}
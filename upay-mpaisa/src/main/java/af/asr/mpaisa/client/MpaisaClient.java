@@ -0,0 +1,307 @@
+package af.asr.mpaisa.client;
+
+import af.asr.mpaisa.exception.mpaisa.MpaisaTransportException;
+import af.asr.mpaisa.transalator.CommandCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+
+import javax.xml.bind.JAXBException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous client of the M-Paisa XML gateway.
+ *
+ * Requests are encoded by {@link CommandCodec} into the body of an HTTP POST and the response
+ * body is decoded from its bytes, so no XML String is built on either side. All calls share one
+ * pool of keep-alive connections served by a few I/O threads: a call beyond the pool size waits
+ * for a free connection for at most the connection request timeout of the {@link TimeoutPolicy},
+ * which is what caps the load put on the gateway.
+ *
+ * Every call is aborted once its call timeout has passed, however slowly the response is still
+ * arriving. The returned futures are completed on the callback executor, never on an I/O thread,
+ * so decoding the response and the caller's continuations do not hold up the other connections.
+ *
+ * Start the client before the first call and close it on shutdown.
+ */
+@Slf4j
+public class MpaisaClient implements MpaisaGateway, Closeable {
+
+    private static final ContentType XML = ContentType.create("text/xml", StandardCharsets.UTF_8);
+
+    private final URI endpoint;
+    private final PoolingNHttpClientConnectionManager connectionManager;
+    private final CloseableHttpAsyncClient httpClient;
+    private final Map<MpaisaOperation, RequestConfig> requestConfigs = new EnumMap<>(MpaisaOperation.class);
+    private final TimeoutPolicy timeoutPolicy;
+    private final Executor callbackExecutor;
+    private final ScheduledThreadPoolExecutor deadlines;
+
+    public MpaisaClient(Builder builder)
+    {
+        this.endpoint = builder.endpoint;
+        this.timeoutPolicy = builder.timeoutPolicy;
+        this.callbackExecutor = builder.callbackExecutor;
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(builder.ioThreads)
+                .setConnectTimeout(timeoutPolicy.getConnectTimeoutMillis())
+                .setSoKeepAlive(true)
+                .setTcpNoDelay(true)
+                .build();
+        try {
+            this.connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig));
+        } catch (IOReactorException e) {
+            throw new MpaisaTransportException(MpaisaTransportException.CONNECTION_FAILED, "Cannot start the I/O reactor", e);
+        }
+        connectionManager.setMaxTotal(builder.maxConnections);
+        connectionManager.setDefaultMaxPerRoute(builder.maxConnections);
+
+        for (MpaisaOperation operation : MpaisaOperation.values()) {
+            requestConfigs.put(operation, RequestConfig.custom()
+                    .setConnectTimeout(timeoutPolicy.getConnectTimeoutMillis())
+                    .setConnectionRequestTimeout(timeoutPolicy.getConnectionRequestTimeoutMillis())
+                    .setSocketTimeout(timeoutPolicy.getResponseTimeoutMillis(operation))
+                    .build());
+        }
+
+        long keepAliveMillis = builder.keepAliveMillis;
+        this.httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> keepAliveMillis)
+                .build();
+
+        this.deadlines = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "mpaisa-client-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        deadlines.setRemoveOnCancelPolicy(true);
+    }
+
+    public void start() {
+        httpClient.start();
+    }
+
+    /**
+     * Sends a request and decodes the response of its operation.
+     *
+     * @return a future completed on the callback executor with the response, or exceptionally with a
+     *         {@link MpaisaTransportException}
+     * @throws IllegalArgumentException when the request is not an M-Paisa request or is answered
+     *                                  with another response type
+     */
+    @Override
+    public <R> CompletableFuture<R> send(Object request, Class<R> responseType) {
+        MpaisaOperation operation = MpaisaOperation.forRequest(request.getClass());
+        if (operation.getResponseType() != responseType) {
+            throw new IllegalArgumentException(operation + " is answered with " + operation.getResponseType().getSimpleName()
+                    + ", not " + responseType.getSimpleName());
+        }
+        CommandCodec<R> responseCodec = CommandCodec.forType(responseType);
+        return post(operation, encode(request)).handleAsync((body, failure) -> {
+            if (failure != null) {
+                throw rethrow(failure);
+            }
+            try {
+                return responseCodec.read(body);
+            } catch (JAXBException e) {
+                throw new MpaisaTransportException(MpaisaTransportException.UNREADABLE_RESPONSE,
+                        "Cannot read the response of " + operation, e);
+            }
+        }, callbackExecutor);
+    }
+
+    /**
+     * Posts an already encoded request.
+     *
+     * @return a future completed on the callback executor with the raw response body
+     */
+    public CompletableFuture<byte[]> exchange(MpaisaOperation operation, byte[] body) {
+        return post(operation, body).handleAsync((content, failure) -> {
+            if (failure != null) {
+                throw rethrow(failure);
+            }
+            return content;
+        }, callbackExecutor);
+    }
+
+    /**
+     * @return a future completed on an I/O thread, or on the deadline thread when the call timeout passes first
+     */
+    private CompletableFuture<byte[]> post(MpaisaOperation operation, byte[] body) {
+        HttpPost post = new HttpPost(endpoint);
+        post.setConfig(requestConfigs.get(operation));
+        post.setEntity(new ByteArrayEntity(body, XML));
+
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        Future<HttpResponse> call = httpClient.execute(post, new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void completed(HttpResponse response) {
+                try {
+                    int status = response.getStatusLine().getStatusCode();
+                    byte[] content = response.getEntity() == null ? new byte[0] : EntityUtils.toByteArray(response.getEntity());
+                    if (status / 100 != 2) {
+                        result.completeExceptionally(new MpaisaTransportException(MpaisaTransportException.HTTP_STATUS,
+                                operation + " answered with HTTP " + status));
+                    } else {
+                        result.complete(content);
+                    }
+                } catch (IOException e) {
+                    result.completeExceptionally(new MpaisaTransportException(MpaisaTransportException.UNREADABLE_RESPONSE,
+                            "Cannot read the response of " + operation, e));
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                log.debug("{} to {} failed: {}", operation, endpoint, e.toString());
+                result.completeExceptionally(new MpaisaTransportException(MpaisaTransportException.CONNECTION_FAILED,
+                        operation + " to " + endpoint + " failed", e));
+            }
+
+            @Override
+            public void cancelled() {
+                result.completeExceptionally(new MpaisaTransportException(MpaisaTransportException.CANCELLED,
+                        operation + " to " + endpoint + " was cancelled"));
+            }
+        });
+
+        int callTimeoutMillis = timeoutPolicy.getCallTimeoutMillis(operation);
+        ScheduledFuture<?> deadline = deadlines.schedule(() -> {
+            if (result.completeExceptionally(new MpaisaTransportException(MpaisaTransportException.TIMED_OUT,
+                    operation + " to " + endpoint + " did not complete within " + callTimeoutMillis + " ms"))) {
+                call.cancel(true);
+            }
+        }, callTimeoutMillis, TimeUnit.MILLISECONDS);
+        result.whenComplete((content, failure) -> deadline.cancel(false));
+        return result;
+    }
+
+    private static RuntimeException rethrow(Throwable failure) {
+        return failure instanceof RuntimeException ? (RuntimeException) failure : new CompletionException(failure);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> byte[] encode(T request) {
+        return CommandCodec.forType((Class<T>) request.getClass()).toBytes(request);
+    }
+
+    /**
+     * @return connections leased, idle and calls waiting for one
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Closes the pooled connections that have been idle for longer than the given time.
+     */
+    public void closeIdleConnections(long idleMillis) {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(idleMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            httpClient.close();
+        } finally {
+            deadlines.shutdownNow();
+        }
+    }
+
+    public static class Builder {
+
+        private URI endpoint;
+        private int maxConnections = 20;
+        private int ioThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
+        private long keepAliveMillis = 30000;
+        private TimeoutPolicy timeoutPolicy = TimeoutPolicy.Builder.newInstance().build();
+        private Executor callbackExecutor = ForkJoinPool.commonPool();
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        public Builder withEndpoint(URI endpoint)
+        {
+            this.endpoint = endpoint;
+            return this;
+        }
+
+        /**
+         * @param maxConnections most connections open to the gateway, and so most calls in flight
+         */
+        public Builder withMaxConnections(int maxConnections)
+        {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder withIoThreads(int ioThreads)
+        {
+            this.ioThreads = ioThreads;
+            return this;
+        }
+
+        /**
+         * @param keepAliveMillis how long an idle connection is kept for reuse
+         */
+        public Builder withKeepAliveMillis(long keepAliveMillis)
+        {
+            this.keepAliveMillis = keepAliveMillis;
+            return this;
+        }
+
+        public Builder withTimeoutPolicy(TimeoutPolicy timeoutPolicy)
+        {
+            this.timeoutPolicy = timeoutPolicy;
+            return this;
+        }
+
+        /**
+         * @param callbackExecutor runs the decoding of the responses and the continuations of the
+         *                         returned futures, the common pool by default
+         */
+        public Builder withCallbackExecutor(Executor callbackExecutor)
+        {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        public MpaisaClient build()
+        {
+            if (endpoint == null) {
+                throw new IllegalArgumentException("The M-Paisa endpoint is required");
+            }
+            return new MpaisaClient(this);
+        }
+    }
+}
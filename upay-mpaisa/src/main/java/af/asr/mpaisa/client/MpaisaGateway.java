@@ -0,0 +1,14 @@
+package af.asr.mpaisa.client;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends M-Paisa requests and completes with their decoded responses.
+ */
+public interface MpaisaGateway {
+
+    /**
+     * @return a future completed with the response, or exceptionally when the call failed
+     */
+    <R> CompletableFuture<R> send(Object request, Class<R> responseType);
+}
@@ -0,0 +1,88 @@
+package af.asr.mpaisa.client;
+
+import af.asr.mpaisa.message.bankservice.BankToWalletRequest;
+import af.asr.mpaisa.message.bankservice.BankToWalletResponse;
+import af.asr.mpaisa.message.bankservice.WalletToBankRequest;
+import af.asr.mpaisa.message.bankservice.WalletToBankResponse;
+import af.asr.mpaisa.message.billpayment.OneTimeBillPaymentRequest;
+import af.asr.mpaisa.message.billpayment.OneTimeBillPaymentResponse;
+import af.asr.mpaisa.message.billpayment.OnlineBillPaymentRequest;
+import af.asr.mpaisa.message.billpayment.OnlineBillPaymentResponse;
+import af.asr.mpaisa.message.billpayment.StandardBillPaymentRequest;
+import af.asr.mpaisa.message.billpayment.StandartBillPaymentResponse;
+import af.asr.mpaisa.message.cashin.CashInRequest;
+import af.asr.mpaisa.message.cashin.CashInResponse;
+import af.asr.mpaisa.message.cashout.CashOutConfirmRequest;
+import af.asr.mpaisa.message.cashout.CashOutConfirmResponse;
+import af.asr.mpaisa.message.cashout.CashOutRequest;
+import af.asr.mpaisa.message.cashout.CashoutResponse;
+import af.asr.mpaisa.message.cashout.CashoutSingleStepRequest;
+import af.asr.mpaisa.message.cashout.CashoutSingleStepResponse;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1ConfirmationRequest;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1ConfirmationResponse;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1InitiationRequest;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1InitiationResponse;
+import af.asr.mpaisa.message.domestic_money_transfer.choice2.P2PConfigChoice2Request;
+import af.asr.mpaisa.message.domestic_money_transfer.choice2.P2PConfigChoice2Response;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentConfirmRequest;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentConfirmResponse;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentRequest;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentResponse;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentSingleStepRequest;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentSingleStepResponse;
+import af.asr.mpaisa.message.nonregisteredsubscriber.SendMoneyToNonRegisteredSubscriberRequest;
+import af.asr.mpaisa.message.nonregisteredsubscriber.SendMoneyToNonRegisteredSubscriberResponse;
+import af.asr.mpaisa.message.onlinecustomerbillpayment.OnlineCustomerBillPaymentRequest;
+import af.asr.mpaisa.message.onlinecustomerbillpayment.OnlineCustomerBillPaymentResponse;
+
+/**
+ * The M-Paisa gateway calls, each a request message and the response it is answered with.
+ */
+public enum MpaisaOperation {
+
+    BANK_TO_WALLET(BankToWalletRequest.class, BankToWalletResponse.class),
+    WALLET_TO_BANK(WalletToBankRequest.class, WalletToBankResponse.class),
+    ONE_TIME_BILL_PAYMENT(OneTimeBillPaymentRequest.class, OneTimeBillPaymentResponse.class),
+    ONLINE_BILL_PAYMENT(OnlineBillPaymentRequest.class, OnlineBillPaymentResponse.class),
+    STANDARD_BILL_PAYMENT(StandardBillPaymentRequest.class, StandartBillPaymentResponse.class),
+    CASH_IN(CashInRequest.class, CashInResponse.class),
+    CASH_OUT(CashOutRequest.class, CashoutResponse.class),
+    CASH_OUT_CONFIRM(CashOutConfirmRequest.class, CashOutConfirmResponse.class),
+    CASH_OUT_SINGLE_STEP(CashoutSingleStepRequest.class, CashoutSingleStepResponse.class),
+    P2P_CHOICE1_INITIATION(P2PConfigChoice1InitiationRequest.class, P2PConfigChoice1InitiationResponse.class),
+    P2P_CHOICE1_CONFIRMATION(P2PConfigChoice1ConfirmationRequest.class, P2PConfigChoice1ConfirmationResponse.class),
+    P2P_CHOICE2(P2PConfigChoice2Request.class, P2PConfigChoice2Response.class),
+    MERCHANT_PAYMENT(MerchantPaymentRequest.class, MerchantPaymentResponse.class),
+    MERCHANT_PAYMENT_CONFIRM(MerchantPaymentConfirmRequest.class, MerchantPaymentConfirmResponse.class),
+    MERCHANT_PAYMENT_SINGLE_STEP(MerchantPaymentSingleStepRequest.class, MerchantPaymentSingleStepResponse.class),
+    SEND_MONEY_TO_NON_REGISTERED_SUBSCRIBER(SendMoneyToNonRegisteredSubscriberRequest.class, SendMoneyToNonRegisteredSubscriberResponse.class),
+    ONLINE_CUSTOMER_BILL_PAYMENT(OnlineCustomerBillPaymentRequest.class, OnlineCustomerBillPaymentResponse.class);
+
+    private final Class<?> requestType;
+    private final Class<?> responseType;
+
+    MpaisaOperation(Class<?> requestType, Class<?> responseType) {
+        this.requestType = requestType;
+        this.responseType = responseType;
+    }
+
+    public Class<?> getRequestType() {
+        return requestType;
+    }
+
+    public Class<?> getResponseType() {
+        return responseType;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the class is not the request of any operation
+     */
+    public static MpaisaOperation forRequest(Class<?> requestType) {
+        for (MpaisaOperation operation : values()) {
+            if (operation.requestType == requestType) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException(requestType.getName() + " is not an M-Paisa request");
+    }
+}
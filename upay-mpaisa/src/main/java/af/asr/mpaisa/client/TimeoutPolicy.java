@@ -0,0 +1,116 @@
+package af.asr.mpaisa.client;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * How long a gateway call may wait for a pooled connection, to connect and for the response.
+ *
+ * The response timeout applies between two reads of the response and can be set per
+ * operation: confirmations that wait on the subscriber's handset take far longer than a
+ * bill lookup. The call timeout bounds the whole call from the moment it is sent, pool wait
+ * included, so a gateway trickling its response cannot hold a call open indefinitely.
+ */
+public class TimeoutPolicy {
+
+    private final int connectTimeoutMillis;
+    private final int connectionRequestTimeoutMillis;
+    private final int responseTimeoutMillis;
+    private final Map<MpaisaOperation, Integer> responseTimeouts;
+    private final int callTimeoutMillis;
+    private final Map<MpaisaOperation, Integer> callTimeouts;
+
+    public TimeoutPolicy(Builder builder)
+    {
+        this.connectTimeoutMillis = builder.connectTimeoutMillis;
+        this.connectionRequestTimeoutMillis = builder.connectionRequestTimeoutMillis;
+        this.responseTimeoutMillis = builder.responseTimeoutMillis;
+        this.responseTimeouts = new EnumMap<>(builder.responseTimeouts);
+        this.callTimeoutMillis = builder.callTimeoutMillis;
+        this.callTimeouts = new EnumMap<>(builder.callTimeouts);
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    /**
+     * @return how long a call waits for a free connection when the pool is exhausted
+     */
+    public int getConnectionRequestTimeoutMillis() {
+        return connectionRequestTimeoutMillis;
+    }
+
+    public int getResponseTimeoutMillis(MpaisaOperation operation) {
+        return responseTimeouts.getOrDefault(operation, responseTimeoutMillis);
+    }
+
+    /**
+     * @return how long a call may take overall before it is failed and aborted
+     */
+    public int getCallTimeoutMillis(MpaisaOperation operation) {
+        return callTimeouts.getOrDefault(operation, callTimeoutMillis);
+    }
+
+    public static class Builder {
+
+        private int connectTimeoutMillis = 2000;
+        private int connectionRequestTimeoutMillis = 1000;
+        private int responseTimeoutMillis = 15000;
+        private final Map<MpaisaOperation, Integer> responseTimeouts = new EnumMap<>(MpaisaOperation.class);
+        private int callTimeoutMillis = 30000;
+        private final Map<MpaisaOperation, Integer> callTimeouts = new EnumMap<>(MpaisaOperation.class);
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        public Builder withConnectTimeoutMillis(int connectTimeoutMillis)
+        {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            return this;
+        }
+
+        public Builder withConnectionRequestTimeoutMillis(int connectionRequestTimeoutMillis)
+        {
+            this.connectionRequestTimeoutMillis = connectionRequestTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * @param responseTimeoutMillis response timeout of the operations without their own
+         */
+        public Builder withResponseTimeoutMillis(int responseTimeoutMillis)
+        {
+            this.responseTimeoutMillis = responseTimeoutMillis;
+            return this;
+        }
+
+        public Builder withResponseTimeoutMillis(MpaisaOperation operation, int responseTimeoutMillis)
+        {
+            this.responseTimeouts.put(operation, responseTimeoutMillis);
+            return this;
+        }
+
+        /**
+         * @param callTimeoutMillis call timeout of the operations without their own
+         */
+        public Builder withCallTimeoutMillis(int callTimeoutMillis)
+        {
+            this.callTimeoutMillis = callTimeoutMillis;
+            return this;
+        }
+
+        public Builder withCallTimeoutMillis(MpaisaOperation operation, int callTimeoutMillis)
+        {
+            this.callTimeouts.put(operation, callTimeoutMillis);
+            return this;
+        }
+
+        public TimeoutPolicy build()
+        {
+            return new TimeoutPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package af.asr.mpaisa.disbursement;
+
+import af.asr.mpaisa.message.bankservice.BankToWalletRequest;
+
+import java.util.function.Function;
+
+/**
+ * Builds the BankToWalletRequest of an instruction from the settings shared by the whole run.
+ *
+ * The reference of the instruction is sent as the external reference of the transaction, so
+ * a call sent again after a restart is recognised by the gateway instead of crediting twice.
+ */
+public class BankToWalletRequestFactory implements Function<DisbursementInstruction, BankToWalletRequest> {
+
+    private final String type;
+    private final String msisdn;
+    private final String accountNumber;
+    private final int provider;
+    private final String bankId;
+    private final int payId2;
+    private final int provider2;
+    private final int pin;
+    private final int language;
+
+    public BankToWalletRequestFactory(Builder builder)
+    {
+        this.type = builder.type;
+        this.msisdn = builder.msisdn;
+        this.accountNumber = builder.accountNumber;
+        this.provider = builder.provider;
+        this.bankId = builder.bankId;
+        this.payId2 = builder.payId2;
+        this.provider2 = builder.provider2;
+        this.pin = builder.pin;
+        this.language = builder.language;
+    }
+
+    @Override
+    public BankToWalletRequest apply(DisbursementInstruction instruction) {
+        BankToWalletRequest request = new BankToWalletRequest();
+        request.setTYPE(type);
+        request.setMSISDN(msisdn);
+        request.setMSISDN2(instruction.getMsisdn());
+        request.setACCNO(instruction.getAccountNumber() != null ? instruction.getAccountNumber() : accountNumber);
+        request.setPROVIDER(provider);
+        request.setBANKID(bankId);
+        request.setPAYID2(payId2);
+        request.setPROVIDER2(provider2);
+        request.setAMOUNT(instruction.getAmount());
+        request.setPIN(pin);
+        request.setLANGUAGE(language);
+        request.setEXTREFNUM(instruction.getReference());
+        return request;
+    }
+
+    public static class Builder {
+
+        private String type = "CBWREQ";
+        private String msisdn;
+        private String accountNumber;
+        private int provider;
+        private String bankId;
+        private int payId2;
+        private int provider2;
+        private int pin;
+        private int language = 1;
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        public Builder withType(String type)
+        {
+            this.type = type;
+            return this;
+        }
+
+        /**
+         * @param msisdn MSISDN of the disbursing subscriber
+         */
+        public Builder withMsisdn(String msisdn)
+        {
+            this.msisdn = msisdn;
+            return this;
+        }
+
+        /**
+         * @param accountNumber account debited for the instructions that do not name one
+         */
+        public Builder withAccountNumber(String accountNumber)
+        {
+            this.accountNumber = accountNumber;
+            return this;
+        }
+
+        public Builder withProvider(int provider)
+        {
+            this.provider = provider;
+            return this;
+        }
+
+        public Builder withBankId(String bankId)
+        {
+            this.bankId = bankId;
+            return this;
+        }
+
+        public Builder withPayId2(int payId2)
+        {
+            this.payId2 = payId2;
+            return this;
+        }
+
+        public Builder withProvider2(int provider2)
+        {
+            this.provider2 = provider2;
+            return this;
+        }
+
+        public Builder withPin(int pin)
+        {
+            this.pin = pin;
+            return this;
+        }
+
+        public Builder withLanguage(int language)
+        {
+            this.language = language;
+            return this;
+        }
+
+        public BankToWalletRequestFactory build()
+        {
+            return new BankToWalletRequestFactory(this);
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package af.asr.mpaisa.disbursement;
+
+import af.asr.mpaisa.client.MpaisaGateway;
+import af.asr.mpaisa.exception.mpaisa.MpaisaTransportException;
+import af.asr.mpaisa.message.bankservice.BankToWalletRequest;
+import af.asr.mpaisa.message.bankservice.BankToWalletResponse;
+import af.asr.mpaisa.transaction.TransactionStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Sends the wallet credits of a disbursement file as BankToWallet calls.
+ *
+ * Instructions are read and turned into requests only when a call slot is free: at most
+ * {@code parallelism} calls are in flight, they start no faster than the configured rate and
+ * no instruction runs further than a window ahead of the oldest unfinished one. Memory use is
+ * therefore set by those limits, not by the size of the file.
+ *
+ * Every outcome is appended to the result file as it arrives, and the checkpoint file keeps
+ * the sequence up to which all instructions have a completed call. A run started again on the
+ * same file, checkpoint and result file skips what was already done, past the checkpoint by the
+ * references found in the result file; only the calls that were in flight when the previous run
+ * stopped are sent again, under the same reference.
+ *
+ * A run that stops, normally or on an error of the source, first waits for the calls in flight
+ * so their results are not lost, then saves the checkpoint. Sending fails with a {@link MpaisaTransportException} when no
+ * call completes for {@code completionTimeoutMillis} while it is waiting for one.
+ */
+@Slf4j
+public class BulkDisbursement {
+
+    private static final String RESULT_HEADER = "sequence,reference,msisdn,amount,result,txnid,txnstatus,message";
+
+    private final MpaisaGateway gateway;
+    private final Function<DisbursementInstruction, BankToWalletRequest> requestFactory;
+    private final int parallelism;
+    private final double ratePerSecond;
+    private final int window;
+    private final int checkpointInterval;
+    private final long completionTimeoutMillis;
+    private final Path checkpoint;
+    private final Path results;
+
+    public BulkDisbursement(Builder builder)
+    {
+        this.gateway = builder.gateway;
+        this.requestFactory = builder.requestFactory;
+        this.parallelism = builder.parallelism;
+        this.ratePerSecond = builder.ratePerSecond;
+        this.window = Math.max(builder.window, builder.parallelism);
+        this.checkpointInterval = builder.checkpointInterval;
+        this.completionTimeoutMillis = builder.completionTimeoutMillis;
+        this.checkpoint = builder.checkpoint;
+        this.results = builder.results;
+    }
+
+    public DisbursementReport run(DisbursementSource source) throws IOException, InterruptedException {
+        long started = System.currentTimeMillis();
+        long watermark = readCheckpoint();
+        Set<String> completedPastWatermark = readCompleted(watermark);
+        DisbursementProgress progress = new DisbursementProgress(watermark, window);
+        RateLimiter rateLimiter = new RateLimiter(ratePerSecond, parallelism);
+        Semaphore slots = new Semaphore(parallelism);
+        Counters counters = new Counters();
+        if (watermark > 0) {
+            log.info("Resuming the disbursement after instruction {}", watermark);
+        }
+
+        try (ResultWriter resultWriter = new ResultWriter(results)) {
+            Checkpointer checkpointer = new Checkpointer(progress, resultWriter);
+            boolean drained = false;
+            try {
+                while (source.hasNext()) {
+                    DisbursementInstruction instruction = source.next();
+                    long sequence = instruction.getSequence();
+                    if (sequence <= watermark) {
+                        counters.skipped.increment();
+                        continue;
+                    }
+                    if (!progress.awaitWindow(sequence, completionTimeoutMillis)) {
+                        throw stalled("instruction " + (progress.getWatermark() + 1));
+                    }
+                    if (completedPastWatermark.remove(key(sequence, instruction.getReference()))) {
+                        counters.skipped.increment();
+                        checkpointer.completed(sequence);
+                        continue;
+                    }
+                    rateLimiter.acquire();
+                    if (!slots.tryAcquire(completionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        throw stalled("any of the " + parallelism + " calls in flight");
+                    }
+                    counters.sent.increment();
+                    send(instruction).whenComplete((response, e) -> {
+                        try {
+                            resultWriter.write(instruction, outcome(response, e, counters), response, e);
+                        } catch (RuntimeException failure) {
+                            log.error("Cannot record the result of {}", instruction, failure);
+                        } finally {
+                            completed(checkpointer, instruction, slots);
+                        }
+                    });
+                }
+            } finally {
+                drained = drain(slots);
+                checkpointer.write();
+            }
+            if (!drained) {
+                throw stalled("the calls still in flight");
+            }
+        }
+
+        DisbursementReport report = new DisbursementReport(counters.sent.sum(), counters.succeeded.sum(), counters.rejected.sum(),
+                counters.failed.sum(), counters.skipped.sum(), System.currentTimeMillis() - started);
+        log.info("Disbursement finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Marks a call done whether or not its result could be written, so its instruction does not
+     * hold back the watermark, and with it the window, for the rest of the run.
+     */
+    private static void completed(Checkpointer checkpointer, DisbursementInstruction instruction, Semaphore slots) {
+        try {
+            checkpointer.completed(instruction.getSequence());
+        } catch (RuntimeException e) {
+            log.error("Cannot write the checkpoint after {}", instruction, e);
+        } finally {
+            slots.release();
+        }
+    }
+
+    /**
+     * Waits for the calls in flight, so none completes after the result file is closed.
+     *
+     * @return false when some were still in flight after the completion timeout
+     */
+    private boolean drain(Semaphore slots) throws InterruptedException {
+        if (slots.tryAcquire(parallelism, completionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        log.warn("{} calls still in flight after {} ms, their results will be missing",
+                parallelism - slots.availablePermits(), completionTimeoutMillis);
+        return false;
+    }
+
+    private MpaisaTransportException stalled(String awaited) {
+        return new MpaisaTransportException(MpaisaTransportException.TIMED_OUT,
+                "No completion of " + awaited + " within " + completionTimeoutMillis + " ms");
+    }
+
+    /**
+     * @return how an instruction is recognised in the result file: by its reference, or by its
+     *         sequence when it has none
+     */
+    private static String key(long sequence, String reference) {
+        String field = ResultWriter.field(reference);
+        return field.isEmpty() ? "#" + sequence : field;
+    }
+
+    private CompletableFuture<BankToWalletResponse> send(DisbursementInstruction instruction) {
+        try {
+            return gateway.send(requestFactory.apply(instruction), BankToWalletResponse.class);
+        } catch (RuntimeException e) {
+            CompletableFuture<BankToWalletResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static DisbursementResult outcome(BankToWalletResponse response, Throwable e, Counters counters) {
+        if (e != null || response == null) {
+            counters.failed.increment();
+            return DisbursementResult.FAILED;
+        }
+        if (response.getTXNSTATUS() == TransactionStatus.SUCCESS) {
+            counters.succeeded.increment();
+            return DisbursementResult.SUCCEEDED;
+        }
+        counters.rejected.increment();
+        return DisbursementResult.REJECTED;
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (checkpoint == null || !Files.exists(checkpoint)) {
+            return 0;
+        }
+        String content = new String(Files.readAllBytes(checkpoint), StandardCharsets.US_ASCII).trim();
+        return content.isEmpty() ? 0 : Long.parseLong(content);
+    }
+
+    /**
+     * @return keys of the instructions past the checkpoint that already have a result
+     */
+    private Set<String> readCompleted(long watermark) throws IOException {
+        Set<String> completed = new HashSet<>();
+        if (results == null || !Files.exists(results)) {
+            return completed;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(results, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int comma = line.indexOf(',');
+                if (comma > 0 && Character.isDigit(line.charAt(0)) && line.endsWith("\"")) {
+                    long sequence = Long.parseLong(line.substring(0, comma));
+                    if (sequence > watermark) {
+                        completed.add(key(sequence, line.substring(comma + 1, line.indexOf(',', comma + 1))));
+                    }
+                }
+            }
+        }
+        return completed;
+    }
+
+    private static class Counters {
+
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+    }
+
+    /**
+     * Moves the watermark and saves it every few completions, after the results it covers.
+     */
+    private class Checkpointer {
+
+        private final DisbursementProgress progress;
+        private final ResultWriter resultWriter;
+        private int sinceLastWrite;
+
+        Checkpointer(DisbursementProgress progress, ResultWriter resultWriter) {
+            this.progress = progress;
+            this.resultWriter = resultWriter;
+        }
+
+        synchronized void completed(long sequence) {
+            if (progress.complete(sequence) && ++sinceLastWrite >= checkpointInterval) {
+                write();
+            }
+        }
+
+        synchronized void write() {
+            sinceLastWrite = 0;
+            if (checkpoint == null) {
+                return;
+            }
+            try {
+                resultWriter.flush();
+                Path next = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+                Files.write(next, Long.toString(progress.getWatermark()).getBytes(StandardCharsets.US_ASCII));
+                Files.move(next, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write the checkpoint " + checkpoint, e);
+            }
+        }
+    }
+
+    /**
+     * Appends one CSV line per instruction, in completion order. The message is quoted last,
+     * so a line cut short by a crash is recognised and ignored on restart.
+     */
+    private static class ResultWriter implements Closeable {
+
+        private final BufferedWriter writer;
+
+        ResultWriter(Path results) throws IOException {
+            if (results == null) {
+                this.writer = null;
+                return;
+            }
+            boolean created = !Files.exists(results) || Files.size(results) == 0;
+            this.writer = Files.newBufferedWriter(results, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (created) {
+                writer.write(RESULT_HEADER);
+                writer.newLine();
+            }
+        }
+
+        synchronized void write(DisbursementInstruction instruction, DisbursementResult result, BankToWalletResponse response, Throwable e) {
+            if (writer == null) {
+                return;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            String message = cause != null ? cause.getMessage() : response.getMESSAGE();
+            try {
+                writer.write(instruction.getSequence() + "," + field(instruction.getReference()) + "," + field(instruction.getMsisdn()) + ","
+                        + instruction.getAmount().toPlainString() + "," + result + ","
+                        + (response != null ? field(response.getTXNID()) + "," + response.getTXNSTATUS() : ",")
+                        + ",\"" + (message == null ? "" : message.replace('"', '\'').replace('\r', ' ').replace('\n', ' ')) + "\"");
+                writer.newLine();
+            } catch (IOException io) {
+                throw new UncheckedIOException(io);
+            }
+        }
+
+        private static String field(String value) {
+            return value == null ? "" : value.trim().replace(',', ' ');
+        }
+
+        synchronized void flush() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private MpaisaGateway gateway;
+        private Function<DisbursementInstruction, BankToWalletRequest> requestFactory;
+        private int parallelism = 16;
+        private double ratePerSecond;
+        private int window = 1024;
+        private int checkpointInterval = 500;
+        private long completionTimeoutMillis = 120000;
+        private Path checkpoint;
+        private Path results;
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        public Builder withGateway(MpaisaGateway gateway)
+        {
+            this.gateway = gateway;
+            return this;
+        }
+
+        public Builder withRequestFactory(Function<DisbursementInstruction, BankToWalletRequest> requestFactory)
+        {
+            this.requestFactory = requestFactory;
+            return this;
+        }
+
+        /**
+         * @param parallelism most calls in flight at once
+         */
+        public Builder withParallelism(int parallelism)
+        {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param ratePerSecond most calls started per second, 0 for no limit
+         */
+        public Builder withRatePerSecond(double ratePerSecond)
+        {
+            this.ratePerSecond = ratePerSecond;
+            return this;
+        }
+
+        /**
+         * @param window how far ahead of the oldest unfinished instruction sending may run
+         */
+        public Builder withWindow(int window)
+        {
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * @param checkpointInterval completions between two checkpoint writes
+         */
+        public Builder withCheckpointInterval(int checkpointInterval)
+        {
+            this.checkpointInterval = checkpointInterval;
+            return this;
+        }
+
+        /**
+         * @param completionTimeoutMillis longest wait for a call to complete while sending is held
+         *                                back by the window or the parallelism, and at the end of the run
+         */
+        public Builder withCompletionTimeoutMillis(long completionTimeoutMillis)
+        {
+            this.completionTimeoutMillis = completionTimeoutMillis;
+            return this;
+        }
+
+        public Builder withCheckpoint(Path checkpoint)
+        {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        public Builder withResults(Path results)
+        {
+            this.results = results;
+            return this;
+        }
+
+        public BulkDisbursement build()
+        {
+            if (gateway == null || requestFactory == null) {
+                throw new IllegalArgumentException("A disbursement needs a gateway and a request factory");
+            }
+            return new BulkDisbursement(this);
+        }
+    }
+}
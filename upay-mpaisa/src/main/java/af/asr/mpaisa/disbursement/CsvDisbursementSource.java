@@ -0,0 +1,84 @@
+package af.asr.mpaisa.disbursement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads {@code reference,msisdn,amount[,account]} lines. Blank lines, lines starting with #
+ * and a header line are skipped.
+ */
+public class CsvDisbursementSource implements DisbursementSource {
+
+    private final BufferedReader reader;
+    private long sequence;
+    private long lineNumber;
+    private DisbursementInstruction next;
+
+    public CsvDisbursementSource(Path file) throws IOException {
+        this(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+    }
+
+    public CsvDisbursementSource(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public DisbursementInstruction next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        DisbursementInstruction instruction = next;
+        next = null;
+        return instruction;
+    }
+
+    private DisbursementInstruction readNext() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                if (fields.length < 3) {
+                    throw new IllegalArgumentException("Line " + lineNumber + " needs a reference, an MSISDN and an amount");
+                }
+                BigDecimal amount;
+                try {
+                    amount = new BigDecimal(fields[2].trim());
+                } catch (NumberFormatException e) {
+                    if (lineNumber == 1) {
+                        continue;
+                    }
+                    throw new IllegalArgumentException("Line " + lineNumber + " has an invalid amount " + fields[2], e);
+                }
+                String account = fields.length > 3 && !fields[3].trim().isEmpty() ? fields[3].trim() : null;
+                return new DisbursementInstruction(++sequence, fields[0].trim(), fields[1].trim(), amount, account);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
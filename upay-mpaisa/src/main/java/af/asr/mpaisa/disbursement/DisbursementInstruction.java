@@ -0,0 +1,53 @@
+package af.asr.mpaisa.disbursement;
+
+import java.math.BigDecimal;
+
+/**
+ * One wallet credit of a bulk disbursement, numbered by its position in the input so a
+ * restarted run finds the same instruction under the same number.
+ */
+public final class DisbursementInstruction {
+
+    private final long sequence;
+    private final String reference;
+    private final String msisdn;
+    private final BigDecimal amount;
+    private final String accountNumber;
+
+    /**
+     * @param msisdn        wallet credited
+     * @param accountNumber bank account debited, or null for the account of the run
+     */
+    public DisbursementInstruction(long sequence, String reference, String msisdn, BigDecimal amount, String accountNumber) {
+        this.sequence = sequence;
+        this.reference = reference;
+        this.msisdn = msisdn;
+        this.amount = amount;
+        this.accountNumber = accountNumber;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public String getMsisdn() {
+        return msisdn;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + reference + " " + msisdn + " " + amount;
+    }
+}
@@ -0,0 +1,62 @@
+package af.asr.mpaisa.disbursement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Low watermark of a run: the highest sequence up to which every instruction has completed.
+ *
+ * Instructions complete out of order, so those past the watermark are remembered in a ring
+ * the size of the window. Sending stops while an instruction is a full window ahead of the
+ * watermark, which bounds both the ring and what a restart has to reconcile.
+ */
+class DisbursementProgress {
+
+    private final boolean[] completed;
+    private long watermark;
+
+    DisbursementProgress(long watermark, int window) {
+        this.watermark = watermark;
+        this.completed = new boolean[window];
+    }
+
+    synchronized long getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Waits until the instruction is inside the window.
+     *
+     * @return false when it still was not after {@code timeoutMillis}
+     */
+    synchronized boolean awaitWindow(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (sequence - watermark > completed.length) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * @return true when the watermark moved
+     */
+    synchronized boolean complete(long sequence) {
+        if (sequence <= watermark) {
+            return false;
+        }
+        completed[(int) (sequence % completed.length)] = true;
+        long before = watermark;
+        while (completed[(int) ((watermark + 1) % completed.length)]) {
+            completed[(int) ((watermark + 1) % completed.length)] = false;
+            watermark++;
+        }
+        if (watermark != before) {
+            notifyAll();
+            return true;
+        }
+        return false;
+    }
+}
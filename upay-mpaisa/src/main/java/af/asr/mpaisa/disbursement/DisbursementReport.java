@@ -0,0 +1,56 @@
+package af.asr.mpaisa.disbursement;
+
+/**
+ * Totals of a disbursement run.
+ */
+public class DisbursementReport {
+
+    private final long sent;
+    private final long succeeded;
+    private final long rejected;
+    private final long failed;
+    private final long skipped;
+    private final long elapsedMillis;
+
+    DisbursementReport(long sent, long succeeded, long rejected, long failed, long skipped, long elapsedMillis) {
+        this.sent = sent;
+        this.succeeded = succeeded;
+        this.rejected = rejected;
+        this.failed = failed;
+        this.skipped = skipped;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return instructions already completed by an earlier run of the same file
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sent=%d succeeded=%d rejected=%d failed=%d skipped=%d in %d ms",
+                sent, succeeded, rejected, failed, skipped, elapsedMillis);
+    }
+}
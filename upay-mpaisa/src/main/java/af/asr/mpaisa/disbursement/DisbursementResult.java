@@ -0,0 +1,22 @@
+package af.asr.mpaisa.disbursement;
+
+/**
+ * Outcome of one instruction, as written to the result file.
+ */
+public enum DisbursementResult {
+
+    /**
+     * Credited, TXNSTATUS 200.
+     */
+    SUCCEEDED,
+
+    /**
+     * Answered by M-Paisa with another TXNSTATUS.
+     */
+    REJECTED,
+
+    /**
+     * No response, so whether the wallet was credited is unknown: check before sending it again.
+     */
+    FAILED
+}
@@ -0,0 +1,22 @@
+package af.asr.mpaisa.disbursement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Instructions read one at a time from a disbursement file, so that only the instructions
+ * in flight are ever held in memory.
+ */
+public interface DisbursementSource extends Iterator<DisbursementInstruction>, Closeable {
+
+    /**
+     * Opens an ISO 20022 pain.001 file when the name ends in .xml, a CSV file otherwise.
+     */
+    static DisbursementSource open(Path file) throws IOException {
+        return file.getFileName().toString().toLowerCase().endsWith(".xml")
+                ? new Pain001DisbursementSource(file)
+                : new CsvDisbursementSource(file);
+    }
+}
@@ -0,0 +1,124 @@
+package af.asr.mpaisa.disbursement;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams the credit transfers of an ISO 20022 pain.001 customer credit transfer initiation.
+ *
+ * Each CdtTrfTxInf becomes an instruction: the EndToEndId is the reference, InstdAmt the
+ * amount and the creditor account's other ID (or the creditor's mobile number) the wallet
+ * MSISDN. The debtor account of the enclosing PmtInf is the account debited. Elements are
+ * matched by local name, whatever the pain.001 version.
+ */
+public class Pain001DisbursementSource implements DisbursementSource {
+
+    private static final XMLInputFactory INPUT_FACTORY = newInputFactory();
+
+    private final InputStream in;
+    private final XMLStreamReader reader;
+    private final Deque<String> path = new ArrayDeque<>();
+    private long sequence;
+    private String debtorAccount;
+    private DisbursementInstruction next;
+
+    public Pain001DisbursementSource(Path file) throws IOException {
+        this(Files.newInputStream(file));
+    }
+
+    public Pain001DisbursementSource(InputStream in) throws IOException {
+        this.in = in;
+        try {
+            this.reader = INPUT_FACTORY.createXMLStreamReader(in);
+        } catch (XMLStreamException e) {
+            in.close();
+            throw new IOException("Cannot read the pain.001 document", e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readNext();
+            } catch (XMLStreamException e) {
+                throw new IllegalArgumentException("Invalid pain.001 document after instruction " + sequence, e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public DisbursementInstruction next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        DisbursementInstruction instruction = next;
+        next = null;
+        return instruction;
+    }
+
+    private DisbursementInstruction readNext() throws XMLStreamException {
+        String reference = null;
+        String msisdn = null;
+        String mobileNumber = null;
+        BigDecimal amount = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                boolean inTransaction = path.contains("CdtTrfTxInf");
+                if (inTransaction && "EndToEndId".equals(name)) {
+                    reference = reader.getElementText().trim();
+                } else if (inTransaction && "InstdAmt".equals(name)) {
+                    amount = new BigDecimal(reader.getElementText().trim());
+                } else if (inTransaction && "MobNb".equals(name)) {
+                    mobileNumber = reader.getElementText().trim();
+                } else if ("Id".equals(name) && "Othr".equals(path.peek()) && path.contains("CdtrAcct")) {
+                    msisdn = reader.getElementText().trim();
+                } else if (("Id".equals(name) && "Othr".equals(path.peek()) || "IBAN".equals(name)) && path.contains("DbtrAcct")) {
+                    debtorAccount = reader.getElementText().trim();
+                } else {
+                    path.push(name);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = path.pop();
+                if ("CdtTrfTxInf".equals(name)) {
+                    return new DisbursementInstruction(++sequence, reference, msisdn != null ? msisdn : mobileNumber, amount, debtorAccount);
+                } else if ("PmtInf".equals(name)) {
+                    debtorAccount = null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package af.asr.mpaisa.disbursement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces calls evenly at a fixed rate, letting a short burst through after an idle period.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final long maxBurstNanos;
+    private long nextFreeNanos = System.nanoTime();
+
+    /**
+     * @param permitsPerSecond calls allowed per second, or 0 for no limit
+     */
+    public RateLimiter(double permitsPerSecond, int maxBurst) {
+        this.intervalNanos = permitsPerSecond <= 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.maxBurstNanos = intervalNanos * Math.max(1, maxBurst);
+    }
+
+    /**
+     * Blocks until the next call is allowed.
+     */
+    public void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            nextFreeNanos = Math.max(nextFreeNanos, now - maxBurstNanos) + intervalNanos;
+            waitNanos = nextFreeNanos - intervalNanos - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
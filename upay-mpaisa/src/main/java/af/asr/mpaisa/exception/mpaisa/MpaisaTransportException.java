@@ -0,0 +1,26 @@
+package af.asr.mpaisa.exception.mpaisa;
+
+import af.asr.mpaisa.exception.common.BaseUncheckedException;
+
+/**
+ * A gateway call that did not get a readable response: connection failure, timeout or an
+ * HTTP error status.
+ */
+public class MpaisaTransportException extends BaseUncheckedException {
+
+    private static final long serialVersionUID = 2417560914389227165L;
+
+    public static final String CONNECTION_FAILED = "MPAISA-TRANSPORT-001";
+    public static final String HTTP_STATUS = "MPAISA-TRANSPORT-002";
+    public static final String UNREADABLE_RESPONSE = "MPAISA-TRANSPORT-003";
+    public static final String CANCELLED = "MPAISA-TRANSPORT-004";
+    public static final String TIMED_OUT = "MPAISA-TRANSPORT-005";
+
+    public MpaisaTransportException(String errorCode, String errorMessage) {
+        super(errorCode, errorMessage);
+    }
+
+    public MpaisaTransportException(String errorCode, String errorMessage, Throwable rootCause) {
+        super(errorCode, errorMessage, rootCause);
+    }
+}
@@ -0,0 +1,18 @@
+package af.asr.mpaisa.exception.mpaisa;
+
+import af.asr.mpaisa.exception.common.BaseUncheckedException;
+
+/**
+ * A confirmation without a matching pending initiation.
+ */
+public class PendingTransactionException extends BaseUncheckedException {
+
+    private static final long serialVersionUID = -6093271458213720541L;
+
+    public static final String NOT_PENDING = "MPAISA-PENDING-001";
+    public static final String OTHER_FLOW = "MPAISA-PENDING-002";
+
+    public PendingTransactionException(String errorCode, String errorMessage) {
+        super(errorCode, errorMessage);
+    }
+}
@@ -25,6 +25,7 @@ import java.math.BigDecimal;
  * <AMOUNT><Amount></AMOUNT>
  * <PIN><Pin></PIN>
  * <LANGUAGE1>1</LANGUAGE1>
+ * <EXTREFNUM><External reference></EXTREFNUM>
  * </COMMAND>
  */
 @Data
@@ -58,6 +59,8 @@ public class BankToWalletRequest {
     private int PIN;
     @XmlElement
     private int LANGUAGE;
+    @XmlElement
+    private String EXTREFNUM;
 
 
     /**
@@ -85,6 +88,9 @@ public class BankToWalletRequest {
      * Provider id
      * PAYID2 < PAY ID> 12 M PROVIDER2 < PROVIDER> 101 M Provider id
      * Bankid <Bankid> M Bankid
+     * EXTREFNUM <External reference> PAY-2020-06-0001 O Unique reference of the
+     * transaction on the client side, so a request sent again is recognised as
+     * the same transaction.
      */
 
 }
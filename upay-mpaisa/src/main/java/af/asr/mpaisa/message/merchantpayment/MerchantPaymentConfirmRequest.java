@@ -37,7 +37,7 @@ public class MerchantPaymentConfirmRequest {
     @XmlElement
     private int PIN;
     @XmlElement
-    private int TXNID;
+    private String TXNID;
     @XmlElement
     private int STATUS;
     @XmlElement
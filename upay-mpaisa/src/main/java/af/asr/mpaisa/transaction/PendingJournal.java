@@ -0,0 +1,129 @@
+package af.asr.mpaisa.transaction;
+
+import af.asr.mpaisa.client.MpaisaOperation;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Append-only log of the pending transactions, replayed on start so the open confirmations
+ * survive a restart.
+ *
+ * Each line either adds a transaction or removes one by its ID. Once the removals outnumber
+ * the live transactions the log is rewritten with only the live ones, which keeps it about
+ * the size of the store. The store checks for that after every removal or replacement, be it
+ * a confirmation or an expiry.
+ */
+class PendingJournal {
+
+    private static final char ADDED = 'P';
+    private static final char REMOVED = 'R';
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    private final Path path;
+    private BufferedWriter writer;
+    private int records;
+
+    PendingJournal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Reads back the transactions still pending and starts a compacted log with them.
+     * A partly written last line, left by a crash, is ignored.
+     */
+    synchronized Collection<PendingTransaction> recover() {
+        Map<String, PendingTransaction> live = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    replay(line, live);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read the pending transaction journal " + path, e);
+            }
+        }
+        rewrite(live.values());
+        return live.values();
+    }
+
+    private static void replay(String line, Map<String, PendingTransaction> live) {
+        String[] fields = line.split("\t", -1);
+        try {
+            if (fields.length == 6 && fields[0].charAt(0) == ADDED) {
+                live.put(fields[2], new PendingTransaction(MpaisaOperation.valueOf(fields[1]), fields[2],
+                        Long.parseLong(fields[3]), Long.parseLong(fields[4]), Base64.getDecoder().decode(fields[5])));
+            } else if (fields.length == 2 && fields[0].charAt(0) == REMOVED) {
+                live.remove(fields[1]);
+            }
+        } catch (IllegalArgumentException ignored) {
+            // torn write
+        }
+    }
+
+    synchronized void added(PendingTransaction transaction) {
+        append(ADDED + "\t" + transaction.getOperation().name() + "\t" + transaction.getTxnId() + "\t"
+                + transaction.getCreatedMillis() + "\t" + transaction.getExpiresAtMillis() + "\t"
+                + Base64.getEncoder().encodeToString(transaction.getInitiationResponse()));
+    }
+
+    synchronized void removed(String txnId) {
+        append(REMOVED + "\t" + txnId);
+    }
+
+    /**
+     * Rewrites the log when it has grown to more than twice the live transactions.
+     */
+    synchronized void compact(Collection<PendingTransaction> live) {
+        if (records > MIN_COMPACTION_RECORDS && records > 2 * live.size()) {
+            rewrite(live);
+        }
+    }
+
+    private void append(String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+            records++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the pending transaction journal " + path, e);
+        }
+    }
+
+    private void rewrite(Collection<PendingTransaction> live) {
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            close();
+            writer = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8);
+            records = 0;
+            for (PendingTransaction transaction : live) {
+                added(transaction);
+            }
+            writer.close();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact the pending transaction journal " + path, e);
+        }
+    }
+
+    synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
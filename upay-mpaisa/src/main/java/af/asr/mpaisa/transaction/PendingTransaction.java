@@ -0,0 +1,52 @@
+package af.asr.mpaisa.transaction;
+
+import af.asr.mpaisa.client.MpaisaOperation;
+
+/**
+ * An initiated two-step transaction waiting for its confirmation.
+ */
+public final class PendingTransaction {
+
+    private final MpaisaOperation operation;
+    private final String txnId;
+    private final long createdMillis;
+    private final long expiresAtMillis;
+    private final byte[] initiationResponse;
+
+    /**
+     * @param operation          the initiation the transaction was started with
+     * @param initiationResponse the encoded response of the initiation
+     */
+    public PendingTransaction(MpaisaOperation operation, String txnId, long createdMillis, long expiresAtMillis, byte[] initiationResponse) {
+        this.operation = operation;
+        this.txnId = txnId;
+        this.createdMillis = createdMillis;
+        this.expiresAtMillis = expiresAtMillis;
+        this.initiationResponse = initiationResponse;
+    }
+
+    public MpaisaOperation getOperation() {
+        return operation;
+    }
+
+    public String getTxnId() {
+        return txnId;
+    }
+
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public byte[] getInitiationResponse() {
+        return initiationResponse.clone();
+    }
+
+    @Override
+    public String toString() {
+        return operation + " " + txnId;
+    }
+}
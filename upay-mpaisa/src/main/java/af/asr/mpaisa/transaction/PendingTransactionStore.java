@@ -0,0 +1,237 @@
+package af.asr.mpaisa.transaction;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory store of the transactions waiting for their confirmation, looked up by
+ * transaction ID in constant time.
+ *
+ * Expiry runs on a hashed timing wheel: each transaction sits in the bucket of the tick it
+ * expires on, and every tick only that bucket is looked at, so abandoned initiations are
+ * dropped without ever scanning the whole store. Transactions further away than one turn
+ * of the wheel stay in their bucket until their turn comes round.
+ *
+ * With a journal every change is also appended to a file and the pending transactions are
+ * read back when the store is built.
+ */
+@Slf4j
+public class PendingTransactionStore implements Closeable {
+
+    private final ConcurrentMap<String, PendingTransaction> transactions = new ConcurrentHashMap<>();
+    private final Set<PendingTransaction>[] wheel;
+    private final int mask;
+    private final long tickMillis;
+    private final LongSupplier clock;
+    private final Consumer<PendingTransaction> expiryListener;
+    private final PendingJournal journal;
+    private ScheduledExecutorService ticker;
+    private long lastTick;
+
+    @SuppressWarnings("unchecked")
+    public PendingTransactionStore(Builder builder)
+    {
+        int size = Integer.highestOneBit(Math.max(2, builder.wheelSize - 1)) << 1;
+        this.wheel = new Set[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.mask = size - 1;
+        this.tickMillis = builder.tickMillis;
+        this.clock = builder.clock;
+        this.expiryListener = builder.expiryListener;
+        this.lastTick = clock.getAsLong() / tickMillis;
+        this.journal = builder.journal == null ? null : new PendingJournal(builder.journal);
+        if (journal != null) {
+            long now = clock.getAsLong();
+            for (PendingTransaction transaction : journal.recover()) {
+                if (transaction.getExpiresAtMillis() <= now) {
+                    journal.removed(transaction.getTxnId());
+                    expiryListener.accept(transaction);
+                } else {
+                    transactions.put(transaction.getTxnId(), transaction);
+                    wheel[bucket(transaction)].add(transaction);
+                }
+            }
+            log.info("Recovered {} pending transactions from {}", transactions.size(), builder.journal);
+        }
+    }
+
+    /**
+     * Expires transactions every tick on a background thread, for stores not driven by {@link #expire()}.
+     */
+    public synchronized void start() {
+        if (ticker == null) {
+            ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mpaisa-pending-expiry");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(this::expireQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Adds a transaction, replacing any pending one with the same ID.
+     */
+    public void put(PendingTransaction transaction) {
+        PendingTransaction previous = transactions.put(transaction.getTxnId(), transaction);
+        if (previous != null) {
+            wheel[bucket(previous)].remove(previous);
+        }
+        wheel[bucket(transaction)].add(transaction);
+        if (journal != null) {
+            journal.added(transaction);
+            if (previous != null) {
+                journal.compact(transactions.values());
+            }
+        }
+    }
+
+    public PendingTransaction get(String txnId) {
+        return transactions.get(txnId);
+    }
+
+    /**
+     * @return the transaction, or null when it is unknown or already expired
+     */
+    public PendingTransaction remove(String txnId) {
+        PendingTransaction transaction = transactions.remove(txnId);
+        if (transaction != null) {
+            wheel[bucket(transaction)].remove(transaction);
+            if (journal != null) {
+                journal.removed(txnId);
+                journal.compact(transactions.values());
+            }
+        }
+        return transaction;
+    }
+
+    public int size() {
+        return transactions.size();
+    }
+
+    /**
+     * Moves the wheel to the current time and drops the transactions that expired on the way,
+     * handing each one to the expiry listener.
+     *
+     * @return the expired transactions
+     */
+    public synchronized List<PendingTransaction> expire() {
+        long now = clock.getAsLong();
+        long tick = now / tickMillis;
+        List<PendingTransaction> expired = new ArrayList<>();
+        long from = Math.max(lastTick, tick - mask);
+        for (long t = from; t <= tick; t++) {
+            for (PendingTransaction transaction : wheel[(int) (t & mask)]) {
+                if (transaction.getExpiresAtMillis() <= now && transactions.remove(transaction.getTxnId(), transaction)) {
+                    wheel[(int) (t & mask)].remove(transaction);
+                    expired.add(transaction);
+                }
+            }
+        }
+        lastTick = tick;
+
+        for (PendingTransaction transaction : expired) {
+            if (journal != null) {
+                journal.removed(transaction.getTxnId());
+            }
+            expiryListener.accept(transaction);
+        }
+        if (journal != null && !expired.isEmpty()) {
+            journal.compact(transactions.values());
+        }
+        return expired;
+    }
+
+    private void expireQuietly() {
+        try {
+            expire();
+        } catch (RuntimeException e) {
+            log.warn("Expiring pending transactions failed", e);
+        }
+    }
+
+    private int bucket(PendingTransaction transaction) {
+        return (int) ((transaction.getExpiresAtMillis() / tickMillis) & mask);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    public static class Builder {
+
+        private long tickMillis = 100;
+        private int wheelSize = 1024;
+        private LongSupplier clock = System::currentTimeMillis;
+        private Consumer<PendingTransaction> expiryListener = transaction -> { };
+        private Path journal;
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        public Builder withTickMillis(long tickMillis)
+        {
+            this.tickMillis = tickMillis;
+            return this;
+        }
+
+        /**
+         * @param wheelSize buckets on the wheel, rounded up to a power of two
+         */
+        public Builder withWheelSize(int wheelSize)
+        {
+            this.wheelSize = wheelSize;
+            return this;
+        }
+
+        public Builder withClock(LongSupplier clock)
+        {
+            this.clock = clock;
+            return this;
+        }
+
+        public Builder withExpiryListener(Consumer<PendingTransaction> expiryListener)
+        {
+            this.expiryListener = expiryListener;
+            return this;
+        }
+
+        /**
+         * @param journal file the pending transactions are kept in across restarts
+         */
+        public Builder withJournal(Path journal)
+        {
+            this.journal = journal;
+            return this;
+        }
+
+        public PendingTransactionStore build()
+        {
+            return new PendingTransactionStore(this);
+        }
+    }
+}
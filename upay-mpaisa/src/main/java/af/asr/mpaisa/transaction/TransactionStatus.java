@@ -0,0 +1,9 @@
+package af.asr.mpaisa.transaction;
+
+/**
+ * TXNSTATUS values of the M-Paisa responses.
+ */
+public interface TransactionStatus {
+
+    int SUCCESS = 200;
+}
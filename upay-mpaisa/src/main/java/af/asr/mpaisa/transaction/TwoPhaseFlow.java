@@ -0,0 +1,96 @@
+package af.asr.mpaisa.transaction;
+
+import af.asr.mpaisa.client.MpaisaOperation;
+import af.asr.mpaisa.message.cashout.CashOutConfirmRequest;
+import af.asr.mpaisa.message.cashout.CashOutConfirmResponse;
+import af.asr.mpaisa.message.cashout.CashOutRequest;
+import af.asr.mpaisa.message.cashout.CashoutResponse;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1ConfirmationRequest;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1ConfirmationResponse;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1InitiationRequest;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1InitiationResponse;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentConfirmRequest;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentConfirmResponse;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentRequest;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentResponse;
+
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * A transaction completed in two calls: an initiation answered with a transaction ID and a
+ * confirmation carrying that ID back.
+ *
+ * @param <I>  initiation request
+ * @param <IR> initiation response
+ * @param <C>  confirmation request
+ * @param <CR> confirmation response
+ */
+public final class TwoPhaseFlow<I, IR, C, CR> {
+
+    public static final TwoPhaseFlow<CashOutRequest, CashoutResponse, CashOutConfirmRequest, CashOutConfirmResponse> CASH_OUT =
+            new TwoPhaseFlow<>(CashOutRequest.class, CashoutResponse.class, CashOutConfirmRequest.class, CashOutConfirmResponse.class,
+                    CashoutResponse::getTXNID, CashoutResponse::getTXNSTATUS, CashOutConfirmRequest::getTXNID);
+
+    public static final TwoPhaseFlow<MerchantPaymentRequest, MerchantPaymentResponse, MerchantPaymentConfirmRequest, MerchantPaymentConfirmResponse> MERCHANT_PAYMENT =
+            new TwoPhaseFlow<>(MerchantPaymentRequest.class, MerchantPaymentResponse.class, MerchantPaymentConfirmRequest.class, MerchantPaymentConfirmResponse.class,
+                    MerchantPaymentResponse::getTXNID, MerchantPaymentResponse::getTXNSTATUS, MerchantPaymentConfirmRequest::getTXNID);
+
+    public static final TwoPhaseFlow<P2PConfigChoice1InitiationRequest, P2PConfigChoice1InitiationResponse, P2PConfigChoice1ConfirmationRequest, P2PConfigChoice1ConfirmationResponse> P2P_CHOICE1 =
+            new TwoPhaseFlow<>(P2PConfigChoice1InitiationRequest.class, P2PConfigChoice1InitiationResponse.class,
+                    P2PConfigChoice1ConfirmationRequest.class, P2PConfigChoice1ConfirmationResponse.class,
+                    P2PConfigChoice1InitiationResponse::getTXNID, P2PConfigChoice1InitiationResponse::getTXNSTATUS,
+                    P2PConfigChoice1ConfirmationRequest::getTXNID);
+
+    private final MpaisaOperation initiation;
+    private final MpaisaOperation confirmation;
+    private final Class<IR> initiationResponseType;
+    private final Class<CR> confirmationResponseType;
+    private final Function<IR, String> txnId;
+    private final ToIntFunction<IR> status;
+    private final Function<C, String> confirmationTxnId;
+
+    public TwoPhaseFlow(Class<I> initiationType, Class<IR> initiationResponseType, Class<C> confirmationType, Class<CR> confirmationResponseType,
+                        Function<IR, String> txnId, ToIntFunction<IR> status, Function<C, String> confirmationTxnId) {
+        this.initiation = MpaisaOperation.forRequest(initiationType);
+        this.confirmation = MpaisaOperation.forRequest(confirmationType);
+        this.initiationResponseType = initiationResponseType;
+        this.confirmationResponseType = confirmationResponseType;
+        this.txnId = txnId;
+        this.status = status;
+        this.confirmationTxnId = confirmationTxnId;
+    }
+
+    public MpaisaOperation getInitiation() {
+        return initiation;
+    }
+
+    public MpaisaOperation getConfirmation() {
+        return confirmation;
+    }
+
+    public Class<IR> getInitiationResponseType() {
+        return initiationResponseType;
+    }
+
+    public Class<CR> getConfirmationResponseType() {
+        return confirmationResponseType;
+    }
+
+    String txnId(IR initiationResponse) {
+        return txnId.apply(initiationResponse);
+    }
+
+    int status(IR initiationResponse) {
+        return status.applyAsInt(initiationResponse);
+    }
+
+    String confirmationTxnId(C confirmationRequest) {
+        return confirmationTxnId.apply(confirmationRequest);
+    }
+
+    @Override
+    public String toString() {
+        return initiation + " -> " + confirmation;
+    }
+}
@@ -0,0 +1,91 @@
+package af.asr.mpaisa.transaction;
+
+import af.asr.mpaisa.client.MpaisaGateway;
+import af.asr.mpaisa.exception.mpaisa.MpaisaTransportException;
+import af.asr.mpaisa.exception.mpaisa.PendingTransactionException;
+import af.asr.mpaisa.transalator.CommandCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs two-step transactions: a successful initiation is kept in the
+ * {@link PendingTransactionStore} until it is confirmed or its confirmation window runs out,
+ * and a confirmation is only sent for a transaction still pending in the same flow.
+ *
+ * A confirmation that fails on the transport puts its transaction back, with the original
+ * deadline, so it can be retried.
+ */
+@Slf4j
+public class TwoPhaseTransactionEngine {
+
+    private final MpaisaGateway gateway;
+    private final PendingTransactionStore store;
+    private final long confirmationWindowMillis;
+    private final LongSupplier clock;
+
+    public TwoPhaseTransactionEngine(MpaisaGateway gateway, PendingTransactionStore store, long confirmationWindowMillis) {
+        this(gateway, store, confirmationWindowMillis, System::currentTimeMillis);
+    }
+
+    public TwoPhaseTransactionEngine(MpaisaGateway gateway, PendingTransactionStore store, long confirmationWindowMillis, LongSupplier clock) {
+        this.gateway = gateway;
+        this.store = store;
+        this.confirmationWindowMillis = confirmationWindowMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Sends the initiation and, when it succeeds, waits for the confirmation of its transaction.
+     */
+    public <I, IR> CompletableFuture<IR> initiate(TwoPhaseFlow<I, IR, ?, ?> flow, I request) {
+        return gateway.send(request, flow.getInitiationResponseType()).thenApply(response -> {
+            String txnId = flow.txnId(response);
+            if (flow.status(response) == TransactionStatus.SUCCESS && txnId != null) {
+                long now = clock.getAsLong();
+                store.put(new PendingTransaction(flow.getInitiation(), txnId.trim(), now, now + confirmationWindowMillis,
+                        CommandCodec.forType(flow.getInitiationResponseType()).toBytes(response)));
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Sends the confirmation of a pending transaction.
+     *
+     * @return a future failed with a {@link PendingTransactionException} when the transaction
+     * is not pending in this flow, because it was never initiated, already confirmed or expired
+     */
+    public <C, CR> CompletableFuture<CR> confirm(TwoPhaseFlow<?, ?, C, CR> flow, C request) {
+        String txnId = flow.confirmationTxnId(request);
+        PendingTransaction pending = txnId == null ? null : store.remove(txnId.trim());
+        if (pending == null) {
+            return failed(new PendingTransactionException(PendingTransactionException.NOT_PENDING,
+                    "No pending " + flow.getInitiation() + " " + txnId));
+        }
+        if (pending.getOperation() != flow.getInitiation()) {
+            store.put(pending);
+            return failed(new PendingTransactionException(PendingTransactionException.OTHER_FLOW,
+                    txnId + " was initiated by " + pending.getOperation() + ", not " + flow.getInitiation()));
+        }
+        return gateway.send(request, flow.getConfirmationResponseType()).whenComplete((response, e) -> {
+            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            if (cause instanceof MpaisaTransportException && pending.getExpiresAtMillis() > clock.getAsLong()) {
+                log.debug("Confirmation of {} failed, keeping it pending: {}", pending, cause.getMessage());
+                store.put(pending);
+            }
+        });
+    }
+
+    public PendingTransaction getPending(String txnId) {
+        return store.get(txnId);
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+}
@@ -0,0 +1,422 @@
+package af.asr.mpaisa.transalator;
+
+import af.asr.mpaisa.exception.mpaisa.JaxbExceptioin;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming codec of a flat M-Paisa COMMAND message.
+ *
+ * The elements, their names and order are read once from the JAXB annotations of the
+ * message class, the same ones the JAXB marshaller works from, and turned into method
+ * handles. Encoding then writes compact UTF-8 XML straight to an OutputStream and decoding
+ * walks a StAX reader, so neither builds a DOM nor looks at the class again. The output
+ * is the JAXB document without the indentation: the same declaration, element order,
+ * omitted null elements and escaping, which keeps it readable by {@link JaxbTranslatorRegistry}
+ * and the other way around.
+ *
+ * Codecs are immutable and thread safe; get them through {@link #forType(Class)}.
+ */
+public final class CommandCodec<T> {
+
+    private static final byte[] DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>".getBytes(StandardCharsets.US_ASCII);
+
+    private static final ClassValue<CommandCodec<?>> CODECS = new ClassValue<CommandCodec<?>>() {
+        @Override
+        protected CommandCodec<?> computeValue(Class<?> type) {
+            return new CommandCodec<>(type);
+        }
+    };
+
+    private static final XMLInputFactory INPUT_FACTORY = newInputFactory();
+
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final byte[] openRoot;
+    private final byte[] closeRoot;
+    private final String rootName;
+    private final Property[] properties;
+    private final Map<String, Property> propertiesByName;
+
+    private CommandCodec(Class<T> type) {
+        XmlRootElement root = type.getAnnotation(XmlRootElement.class);
+        if (root == null) {
+            throw new IllegalArgumentException(type.getName() + " is not an @XmlRootElement");
+        }
+        this.type = type;
+        this.rootName = "##default".equals(root.name()) ? decapitalize(type.getSimpleName()) : root.name();
+        this.openRoot = ("<" + rootName + ">").getBytes(StandardCharsets.UTF_8);
+        this.closeRoot = ("</" + rootName + ">").getBytes(StandardCharsets.UTF_8);
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            Constructor<T> noArgs = type.getDeclaredConstructor();
+            noArgs.setAccessible(true);
+            this.constructor = lookup.unreflectConstructor(noArgs);
+
+            List<Property> elements = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())
+                        || field.isAnnotationPresent(XmlTransient.class)) {
+                    continue;
+                }
+                field.setAccessible(true);
+                XmlElement element = field.getAnnotation(XmlElement.class);
+                String name = element == null || "##default".equals(element.name()) ? field.getName() : element.name();
+                elements.add(new Property(name, Kind.of(field), lookup.unreflectGetter(field), lookup.unreflectSetter(field)));
+            }
+            this.properties = elements.toArray(new Property[0]);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot build the codec of " + type.getName(), e);
+        }
+
+        this.propertiesByName = new HashMap<>();
+        for (Property property : properties) {
+            propertiesByName.put(property.name, property);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> CommandCodec<T> forType(Class<T> type) {
+        return (CommandCodec<T>) CODECS.get(type);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Writes the message as one compact XML document. The stream is neither flushed nor closed.
+     */
+    public void write(T message, OutputStream out) throws IOException {
+        if (message == null) {
+            throw new IllegalArgumentException("Cannot write a null message");
+        }
+        ByteSink sink = new ByteSink(out);
+        sink.write(DECLARATION);
+        sink.write(openRoot);
+        for (Property property : properties) {
+            property.write(message, sink);
+        }
+        sink.write(closeRoot);
+        sink.flush();
+    }
+
+    public byte[] toBytes(T message) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try {
+            write(message, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads one message, compact or indented. Unknown elements are skipped, as JAXB does.
+     */
+    public T read(InputStream in) throws JAXBException {
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(in);
+            reader.nextTag();
+            if (!rootName.equals(reader.getLocalName())) {
+                throw new JaxbExceptioin("Expected <" + rootName + "> but got <" + reader.getLocalName() + ">");
+            }
+            T message = newMessage();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                Property property = propertiesByName.get(reader.getLocalName());
+                if (property == null) {
+                    skipElement(reader);
+                } else {
+                    property.read(message, reader.getElementText());
+                }
+            }
+            return message;
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new JaxbExceptioin("Cannot read " + type.getSimpleName(), e);
+        } finally {
+            close(reader);
+        }
+    }
+
+    public T read(byte[] xml) throws JAXBException {
+        return read(new ByteArrayInputStream(xml));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T newMessage() {
+        try {
+            return (T) constructor.invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create " + type.getName(), e);
+        }
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException ignored) {
+                // nothing was holding on to the stream
+            }
+        }
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
+    }
+
+    private static String decapitalize(String name) {
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private enum Kind {
+
+        STRING, INT, LONG, BIG_DECIMAL, INTEGER_OBJECT, LONG_OBJECT;
+
+        static Kind of(Field field) {
+            Class<?> type = field.getType();
+            if (type == String.class) {
+                return STRING;
+            } else if (type == int.class) {
+                return INT;
+            } else if (type == long.class) {
+                return LONG;
+            } else if (type == BigDecimal.class) {
+                return BIG_DECIMAL;
+            } else if (type == Integer.class) {
+                return INTEGER_OBJECT;
+            } else if (type == Long.class) {
+                return LONG_OBJECT;
+            }
+            throw new IllegalArgumentException("Unsupported element type " + type.getName() + " of "
+                    + field.getDeclaringClass().getSimpleName() + "." + field.getName());
+        }
+    }
+
+    private static final class Property {
+
+        private final String name;
+        private final Kind kind;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final byte[] open;
+        private final byte[] close;
+
+        Property(String name, Kind kind, MethodHandle getter, MethodHandle setter) {
+            this.name = name;
+            this.kind = kind;
+            this.getter = getter;
+            this.setter = setter;
+            this.open = ("<" + name + ">").getBytes(StandardCharsets.UTF_8);
+            this.close = ("</" + name + ">").getBytes(StandardCharsets.UTF_8);
+        }
+
+        void write(Object message, ByteSink sink) throws IOException {
+            try {
+                switch (kind) {
+                    case INT:
+                        sink.write(open);
+                        sink.writeLong((int) getter.invoke(message));
+                        break;
+                    case LONG:
+                        sink.write(open);
+                        sink.writeLong((long) getter.invoke(message));
+                        break;
+                    default:
+                        Object value = getter.invoke(message);
+                        if (value == null) {
+                            return;
+                        }
+                        sink.write(open);
+                        if (kind == Kind.STRING) {
+                            sink.writeText((String) value);
+                        } else if (kind == Kind.BIG_DECIMAL) {
+                            sink.writeAscii(((BigDecimal) value).toPlainString());
+                        } else {
+                            sink.writeLong(((Number) value).longValue());
+                        }
+                }
+                sink.write(close);
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot write " + name, e);
+            }
+        }
+
+        void read(Object message, String text) {
+            try {
+                switch (kind) {
+                    case STRING:
+                        setter.invoke(message, text);
+                        break;
+                    case INT:
+                        setter.invoke(message, Integer.parseInt(text.trim()));
+                        break;
+                    case LONG:
+                        setter.invoke(message, Long.parseLong(text.trim()));
+                        break;
+                    case BIG_DECIMAL:
+                        setter.invoke(message, new BigDecimal(text.trim()));
+                        break;
+                    case INTEGER_OBJECT:
+                        setter.invoke(message, Integer.valueOf(text.trim()));
+                        break;
+                    default:
+                        setter.invoke(message, Long.valueOf(text.trim()));
+                }
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot set " + name, e);
+            }
+        }
+    }
+
+    /**
+     * Small write buffer so a message reaches the stream in one or two writes.
+     */
+    private static final class ByteSink {
+
+        private final OutputStream out;
+        private final byte[] buffer = new byte[512];
+        private int position;
+
+        ByteSink(OutputStream out) {
+            this.out = out;
+        }
+
+        void write(byte[] bytes) throws IOException {
+            if (bytes.length > buffer.length - position) {
+                flush();
+                if (bytes.length > buffer.length) {
+                    out.write(bytes);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeByte(int b) throws IOException {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        void writeAscii(String text) throws IOException {
+            for (int i = 0; i < text.length(); i++) {
+                writeByte(text.charAt(i));
+            }
+        }
+
+        void writeLong(long value) throws IOException {
+            if (value == Long.MIN_VALUE) {
+                writeAscii(Long.toString(value));
+                return;
+            }
+            if (value < 0) {
+                writeByte('-');
+                value = -value;
+            }
+            if (buffer.length - position < 19) {
+                flush();
+            }
+            int end = position + digits(value);
+            for (int i = end - 1; i >= position; i--) {
+                buffer[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            position = end;
+        }
+
+        private static int digits(long value) {
+            int digits = 1;
+            while (value >= 10) {
+                value /= 10;
+                digits++;
+            }
+            return digits;
+        }
+
+        /**
+         * Escapes the characters the JAXB marshaller escapes in element text.
+         */
+        void writeText(String text) throws IOException {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '&') {
+                    writeAscii("&amp;");
+                } else if (c == '<') {
+                    writeAscii("&lt;");
+                } else if (c == '>') {
+                    writeAscii("&gt;");
+                } else if (c < 0x80) {
+                    writeByte(c);
+                } else if (c < 0x800) {
+                    writeByte(0xC0 | (c >> 6));
+                    writeByte(0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    writeByte(0xF0 | (codePoint >> 18));
+                    writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                    writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                    writeByte(0x80 | (codePoint & 0x3F));
+                } else {
+                    writeByte(0xE0 | (c >> 12));
+                    writeByte(0x80 | ((c >> 6) & 0x3F));
+                    writeByte(0x80 | (c & 0x3F));
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            if (position > 0) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+        }
+    }
+}
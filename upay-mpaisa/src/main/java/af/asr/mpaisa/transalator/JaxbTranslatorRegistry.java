@@ -0,0 +1,196 @@
+package af.asr.mpaisa.transalator;
+
+import af.asr.mpaisa.exception.mpaisa.JaxbExceptioin;
+import af.asr.mpaisa.message.bankservice.BankToWalletRequest;
+import af.asr.mpaisa.message.bankservice.BankToWalletResponse;
+import af.asr.mpaisa.message.bankservice.WalletToBankRequest;
+import af.asr.mpaisa.message.bankservice.WalletToBankResponse;
+import af.asr.mpaisa.message.billpayment.OneTimeBillPaymentRequest;
+import af.asr.mpaisa.message.billpayment.OneTimeBillPaymentResponse;
+import af.asr.mpaisa.message.billpayment.OnlineBillPaymentRequest;
+import af.asr.mpaisa.message.billpayment.OnlineBillPaymentResponse;
+import af.asr.mpaisa.message.billpayment.StandardBillPaymentRequest;
+import af.asr.mpaisa.message.billpayment.StandartBillPaymentResponse;
+import af.asr.mpaisa.message.cashin.CashInRequest;
+import af.asr.mpaisa.message.cashin.CashInResponse;
+import af.asr.mpaisa.message.cashout.CashOutConfirmRequest;
+import af.asr.mpaisa.message.cashout.CashOutConfirmResponse;
+import af.asr.mpaisa.message.cashout.CashOutRequest;
+import af.asr.mpaisa.message.cashout.CashoutResponse;
+import af.asr.mpaisa.message.cashout.CashoutSingleStepRequest;
+import af.asr.mpaisa.message.cashout.CashoutSingleStepResponse;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1ConfirmationRequest;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1ConfirmationResponse;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1InitiationRequest;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1InitiationResponse;
+import af.asr.mpaisa.message.domestic_money_transfer.choice2.P2PConfigChoice2Request;
+import af.asr.mpaisa.message.domestic_money_transfer.choice2.P2PConfigChoice2Response;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentConfirmRequest;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentConfirmResponse;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentRequest;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentResponse;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentSingleStepRequest;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentSingleStepResponse;
+import af.asr.mpaisa.message.nonregisteredsubscriber.SendMoneyToNonRegisteredSubscriberRequest;
+import af.asr.mpaisa.message.nonregisteredsubscriber.SendMoneyToNonRegisteredSubscriberResponse;
+import af.asr.mpaisa.message.onlinecustomerbillpayment.OnlineCustomerBillPaymentRequest;
+import af.asr.mpaisa.message.onlinecustomerbillpayment.OnlineCustomerBillPaymentResponse;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One JAXBContext per M-Paisa message type, shared by all the translators.
+ *
+ * Creating a JAXBContext introspects the whole class and is by far the most expensive
+ * step of a marshal, so the contexts of every known message are built once when the
+ * registry is first used. Marshallers and Unmarshallers are cheap to create but not
+ * thread safe: each call borrows one from the pool of its message type and returns it
+ * afterwards, so an instance is only ever used by one thread at a time.
+ *
+ * All messages share the COMMAND root element, which is why a context is kept per type
+ * rather than a single context for all of them.
+ */
+public final class JaxbTranslatorRegistry {
+
+    /**
+     * Idle Marshallers and Unmarshallers kept per message type; more are created under
+     * load and dropped when the pool is full.
+     */
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    private static final Class<?>[] MESSAGE_TYPES = {
+            BankToWalletRequest.class, BankToWalletResponse.class,
+            WalletToBankRequest.class, WalletToBankResponse.class,
+            OneTimeBillPaymentRequest.class, OneTimeBillPaymentResponse.class,
+            OnlineBillPaymentRequest.class, OnlineBillPaymentResponse.class,
+            StandardBillPaymentRequest.class, StandartBillPaymentResponse.class,
+            CashInRequest.class, CashInResponse.class,
+            CashOutRequest.class, CashoutResponse.class,
+            CashOutConfirmRequest.class, CashOutConfirmResponse.class,
+            CashoutSingleStepRequest.class, CashoutSingleStepResponse.class,
+            P2PConfigChoice1InitiationRequest.class, P2PConfigChoice1InitiationResponse.class,
+            P2PConfigChoice1ConfirmationRequest.class, P2PConfigChoice1ConfirmationResponse.class,
+            P2PConfigChoice2Request.class, P2PConfigChoice2Response.class,
+            MerchantPaymentRequest.class, MerchantPaymentResponse.class,
+            MerchantPaymentConfirmRequest.class, MerchantPaymentConfirmResponse.class,
+            MerchantPaymentSingleStepRequest.class, MerchantPaymentSingleStepResponse.class,
+            SendMoneyToNonRegisteredSubscriberRequest.class, SendMoneyToNonRegisteredSubscriberResponse.class,
+            OnlineCustomerBillPaymentRequest.class, OnlineCustomerBillPaymentResponse.class
+    };
+
+    private static class Holder {
+
+        private static final JaxbTranslatorRegistry INSTANCE = new JaxbTranslatorRegistry(DEFAULT_POOL_SIZE, MESSAGE_TYPES);
+    }
+
+    private final ConcurrentMap<Class<?>, Entry> entries = new ConcurrentHashMap<>();
+    private final int poolSize;
+
+    /**
+     * @throws IllegalStateException when the context of one of the types cannot be built
+     */
+    public JaxbTranslatorRegistry(int poolSize, Class<?>... types) {
+        this.poolSize = poolSize;
+        for (Class<?> type : types) {
+            try {
+                entries.put(type, new Entry(JAXBContext.newInstance(type), poolSize));
+            } catch (JAXBException e) {
+                throw new IllegalStateException("Cannot create the JAXB context of " + type.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * @return the registry of all the M-Paisa messages
+     */
+    public static JaxbTranslatorRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return the M-Paisa message classes the shared registry is built for
+     */
+    public static Class<?>[] getMessageTypes() {
+        return MESSAGE_TYPES.clone();
+    }
+
+    public String marshal(Object message) throws JAXBException {
+        if (message == null) {
+            throw new JaxbExceptioin("Cannot marshal a null message");
+        }
+        Entry entry = entry(message.getClass());
+        Marshaller marshaller = entry.borrowMarshaller();
+        try {
+            StringWriter sw = new StringWriter(512);
+            marshaller.marshal(message, sw);
+            return sw.toString();
+        } finally {
+            entry.marshallers.offer(marshaller);
+        }
+    }
+
+    public <T> T unmarshal(String xmlContent, Class<T> type) throws JAXBException {
+        Entry entry = entry(type);
+        Unmarshaller unmarshaller = entry.borrowUnmarshaller();
+        try {
+            Object message = unmarshaller.unmarshal(new StringReader(xmlContent));
+            if (!type.isInstance(message)) {
+                throw new JaxbExceptioin("Expected " + type.getSimpleName() + " but got " + message.getClass().getSimpleName());
+            }
+            return type.cast(message);
+        } finally {
+            entry.unmarshallers.offer(unmarshaller);
+        }
+    }
+
+    /**
+     * Types outside the known messages get their context on first use.
+     */
+    private Entry entry(Class<?> type) throws JAXBException {
+        Entry entry = entries.get(type);
+        if (entry == null) {
+            entry = new Entry(JAXBContext.newInstance(type), poolSize);
+            Entry existing = entries.putIfAbsent(type, entry);
+            if (existing != null) {
+                entry = existing;
+            }
+        }
+        return entry;
+    }
+
+    private static class Entry {
+
+        private final JAXBContext context;
+        private final BlockingQueue<Marshaller> marshallers;
+        private final BlockingQueue<Unmarshaller> unmarshallers;
+
+        Entry(JAXBContext context, int poolSize) {
+            this.context = context;
+            this.marshallers = new ArrayBlockingQueue<>(poolSize);
+            this.unmarshallers = new ArrayBlockingQueue<>(poolSize);
+        }
+
+        Marshaller borrowMarshaller() throws JAXBException {
+            Marshaller marshaller = marshallers.poll();
+            if (marshaller == null) {
+                marshaller = context.createMarshaller();
+                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            }
+            return marshaller;
+        }
+
+        Unmarshaller borrowUnmarshaller() throws JAXBException {
+            Unmarshaller unmarshaller = unmarshallers.poll();
+            return unmarshaller == null ? context.createUnmarshaller() : unmarshaller;
+        }
+    }
+}
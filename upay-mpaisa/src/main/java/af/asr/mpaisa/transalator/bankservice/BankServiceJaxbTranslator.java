@@ -8,18 +8,16 @@ import af.asr.mpaisa.message.cashin.CashInRequest;
 import af.asr.mpaisa.message.cashin.CashInResponse;
 import af.asr.mpaisa.message.cashout.CashOutRequest;
 import af.asr.mpaisa.message.cashout.CashoutResponse;
+import af.asr.mpaisa.transalator.JaxbTranslatorRegistry;
 import org.springframework.stereotype.Component;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
-import java.io.StringReader;
-import java.io.StringWriter;
 
 @Component
 public class BankServiceJaxbTranslator {
 
+    private final JaxbTranslatorRegistry registry = JaxbTranslatorRegistry.getInstance();
+
     /**
      * marshal BankToWalletRequest
      * @param obj
@@ -27,26 +25,7 @@ public class BankServiceJaxbTranslator {
      * @throws JAXBException
      */
     public String marshalRequest(BankToWalletRequest obj) throws JAXBException {
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(BankToWalletRequest.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-            System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
     /**
@@ -56,27 +35,7 @@ public class BankServiceJaxbTranslator {
      * @throws JAXBException
      */
     public String marshaResponse(BankToWalletResponse response) throws JAXBException {
-
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(BankToWalletResponse.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(response, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-        System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(response);
     }
 
 
@@ -88,26 +47,7 @@ public class BankServiceJaxbTranslator {
      * @throws JAXBException
      */
     public String marshalRequest(WalletToBankRequest obj) throws JAXBException {
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(WalletToBankRequest.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//            System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
     /**
@@ -117,27 +57,7 @@ public class BankServiceJaxbTranslator {
      * @throws JAXBException
      */
     public String marshaResponse(WalletToBankResponse response) throws JAXBException {
-
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(WalletToBankResponse.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(response, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-        System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(response);
     }
 
 
@@ -148,11 +68,7 @@ public class BankServiceJaxbTranslator {
      * @throws JAXBException
      */
     public BankToWalletRequest unmarshalBankToWalletRequest(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(BankToWalletRequest.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        BankToWalletRequest request = (BankToWalletRequest) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, BankToWalletRequest.class);
     }
 
     /**
@@ -162,11 +78,7 @@ public class BankServiceJaxbTranslator {
      * @throws JAXBException
      */
     public BankToWalletResponse unmarshalBankToWalletResponse(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(BankToWalletResponse.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        BankToWalletResponse request = (BankToWalletResponse) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, BankToWalletResponse.class);
     }
 
     /**
@@ -176,11 +88,7 @@ public class BankServiceJaxbTranslator {
      * @throws JAXBException
      */
     public WalletToBankRequest unmarshalWalletToBankRequest(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(WalletToBankRequest.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        WalletToBankRequest request = (WalletToBankRequest) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, WalletToBankRequest.class);
     }
 
     /**
@@ -190,11 +98,7 @@ public class BankServiceJaxbTranslator {
      * @throws JAXBException
      */
     public WalletToBankResponse unmarshalWalletToBankResponse(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(WalletToBankResponse.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        WalletToBankResponse request = (WalletToBankResponse) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, WalletToBankResponse.class);
     }
 
 
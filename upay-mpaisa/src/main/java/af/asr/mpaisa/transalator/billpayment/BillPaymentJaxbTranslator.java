@@ -5,16 +5,14 @@ import af.asr.mpaisa.message.bankservice.WalletToBankResponse;
 import af.asr.mpaisa.message.billpayment.*;
 import af.asr.mpaisa.message.cashin.CashInRequest;
 import af.asr.mpaisa.message.cashin.CashInResponse;
+import af.asr.mpaisa.transalator.JaxbTranslatorRegistry;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
-import java.io.StringReader;
-import java.io.StringWriter;
 
 public class BillPaymentJaxbTranslator {
 
+    private final JaxbTranslatorRegistry registry = JaxbTranslatorRegistry.getInstance();
+
     /**
      * Marshal OneTimeBillPaymentRequest
      * @param obj
@@ -22,26 +20,7 @@ public class BillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshalRequest(OneTimeBillPaymentRequest obj) throws JAXBException {
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(OneTimeBillPaymentRequest.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//            System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
 
@@ -52,26 +31,7 @@ public class BillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshalRequest(OnlineBillPaymentRequest obj) throws JAXBException {
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(OnlineBillPaymentRequest.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//            System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
 
@@ -82,26 +42,7 @@ public class BillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshalRequest(StandardBillPaymentRequest obj) throws JAXBException {
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(StandardBillPaymentRequest.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//            System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
 
@@ -112,27 +53,7 @@ public class BillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshalResponse(OneTimeBillPaymentResponse obj) throws JAXBException {
-
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(OneTimeBillPaymentResponse.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//        System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
 
@@ -144,27 +65,7 @@ public class BillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshalResponse(OnlineBillPaymentResponse obj) throws JAXBException {
-
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(OnlineBillPaymentResponse.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//        System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
 
@@ -175,27 +76,7 @@ public class BillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshalResponse(StandartBillPaymentResponse obj) throws JAXBException {
-
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(StandartBillPaymentResponse.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//        System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
 
@@ -206,11 +87,7 @@ public class BillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public OneTimeBillPaymentRequest unmarshalOneTimeBillPaymentRequest(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(OneTimeBillPaymentRequest.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        OneTimeBillPaymentRequest request = (OneTimeBillPaymentRequest) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, OneTimeBillPaymentRequest.class);
     }
 
     /**
@@ -220,11 +97,7 @@ public class BillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public OneTimeBillPaymentResponse unmarshalOneTimeBillPaymentResponse(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(OneTimeBillPaymentResponse.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        OneTimeBillPaymentResponse request = (OneTimeBillPaymentResponse) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, OneTimeBillPaymentResponse.class);
     }
 
 
@@ -235,11 +108,7 @@ public class BillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public OnlineBillPaymentRequest unmarshalOnlineBillPaymentRequest(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(OnlineBillPaymentRequest.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        OnlineBillPaymentRequest request = (OnlineBillPaymentRequest) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, OnlineBillPaymentRequest.class);
     }
 
     /**
@@ -249,11 +118,7 @@ public class BillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public OnlineBillPaymentResponse unmarshalOnlineBillPaymentResponse(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(OnlineBillPaymentResponse.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        OnlineBillPaymentResponse request = (OnlineBillPaymentResponse) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, OnlineBillPaymentResponse.class);
     }
 
 
@@ -264,11 +129,7 @@ public class BillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public StandardBillPaymentRequest unmarshalStandardBillPaymentRequest(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(StandardBillPaymentRequest.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        StandardBillPaymentRequest request = (StandardBillPaymentRequest) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, StandardBillPaymentRequest.class);
     }
 
     /**
@@ -278,11 +139,7 @@ public class BillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public StandartBillPaymentResponse unmarshalStandartBillPaymentResponse(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(OnlineBillPaymentResponse.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        StandartBillPaymentResponse request = (StandartBillPaymentResponse) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, StandartBillPaymentResponse.class);
     }
 
 
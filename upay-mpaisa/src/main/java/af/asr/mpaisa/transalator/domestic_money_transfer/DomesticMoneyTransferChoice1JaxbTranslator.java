@@ -9,18 +9,16 @@ import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1Con
 import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1ConfirmationResponse;
 import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1InitiationRequest;
 import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1InitiationResponse;
+import af.asr.mpaisa.transalator.JaxbTranslatorRegistry;
 import org.springframework.stereotype.Component;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
-import java.io.StringReader;
-import java.io.StringWriter;
 
 @Component
 public class DomesticMoneyTransferChoice1JaxbTranslator {
 
+    private final JaxbTranslatorRegistry registry = JaxbTranslatorRegistry.getInstance();
+
     /**
      * marshal P2PConfigChoice1ConfirmationRequest
      * @param obj
@@ -28,26 +26,7 @@ public class DomesticMoneyTransferChoice1JaxbTranslator {
      * @throws JAXBException
      */
     public String marshalRequest(P2PConfigChoice1ConfirmationRequest obj) throws JAXBException {
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(P2PConfigChoice1ConfirmationRequest.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//            System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
     /**
@@ -57,27 +36,7 @@ public class DomesticMoneyTransferChoice1JaxbTranslator {
      * @throws JAXBException
      */
     public String marshaResponse(P2PConfigChoice1ConfirmationResponse response) throws JAXBException {
-
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(P2PConfigChoice1ConfirmationResponse.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(response, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//        System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(response);
     }
 
 
@@ -89,26 +48,7 @@ public class DomesticMoneyTransferChoice1JaxbTranslator {
      * @throws JAXBException
      */
     public String marshalRequest(P2PConfigChoice1InitiationRequest obj) throws JAXBException {
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(P2PConfigChoice1InitiationRequest.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//            System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
     /**
@@ -118,27 +58,7 @@ public class DomesticMoneyTransferChoice1JaxbTranslator {
      * @throws JAXBException
      */
     public String marshaResponse(P2PConfigChoice1InitiationRequest response) throws JAXBException {
-
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(P2PConfigChoice1InitiationRequest.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(response, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//        System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(response);
     }
 
     /**
@@ -148,11 +68,7 @@ public class DomesticMoneyTransferChoice1JaxbTranslator {
      * @throws JAXBException
      */
     public P2PConfigChoice1ConfirmationRequest unmarshalStandardBillPaymentRequest(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(P2PConfigChoice1ConfirmationRequest.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        P2PConfigChoice1ConfirmationRequest request = (P2PConfigChoice1ConfirmationRequest) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, P2PConfigChoice1ConfirmationRequest.class);
     }
 
     /**
@@ -162,11 +78,7 @@ public class DomesticMoneyTransferChoice1JaxbTranslator {
      * @throws JAXBException
      */
     public P2PConfigChoice1ConfirmationResponse unmarshalP2PConfigChoice1ConfirmationResponsee(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(P2PConfigChoice1ConfirmationResponse.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        P2PConfigChoice1ConfirmationResponse request = (P2PConfigChoice1ConfirmationResponse) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, P2PConfigChoice1ConfirmationResponse.class);
     }
 
 
@@ -177,11 +89,7 @@ public class DomesticMoneyTransferChoice1JaxbTranslator {
      * @throws JAXBException
      */
     public P2PConfigChoice1InitiationRequest unmarshalP2PConfigChoice1InitiationRequest(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(P2PConfigChoice1InitiationRequest.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        P2PConfigChoice1InitiationRequest request = (P2PConfigChoice1InitiationRequest) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, P2PConfigChoice1InitiationRequest.class);
     }
 
     /**
@@ -191,11 +99,7 @@ public class DomesticMoneyTransferChoice1JaxbTranslator {
      * @throws JAXBException
      */
     public P2PConfigChoice1InitiationResponse unmarshalP2PConfigChoice1InitiationResponse(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(P2PConfigChoice1ConfirmationResponse.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        P2PConfigChoice1InitiationResponse request = (P2PConfigChoice1InitiationResponse) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, P2PConfigChoice1InitiationResponse.class);
     }
 
 }
@@ -3,18 +3,16 @@ package af.asr.mpaisa.transalator.merchantpayment;
 import af.asr.mpaisa.message.domestic_money_transfer.choice2.P2PConfigChoice2Request;
 import af.asr.mpaisa.message.domestic_money_transfer.choice2.P2PConfigChoice2Response;
 import af.asr.mpaisa.message.merchantpayment.*;
+import af.asr.mpaisa.transalator.JaxbTranslatorRegistry;
 import org.springframework.stereotype.Component;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
-import java.io.StringReader;
-import java.io.StringWriter;
 
 @Component
 public class MerchantPaymentJaxbTranslator {
 
+    private final JaxbTranslatorRegistry registry = JaxbTranslatorRegistry.getInstance();
+
     /**
      * marshal MerchantPaymentConfirmRequest
      * @param obj
@@ -22,26 +20,7 @@ public class MerchantPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshalRequest(MerchantPaymentConfirmRequest obj) throws JAXBException {
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(MerchantPaymentConfirmRequest.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//            System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
     /**
@@ -51,27 +30,7 @@ public class MerchantPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshaResponse(MerchantPaymentConfirmResponse response) throws JAXBException {
-
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(MerchantPaymentConfirmResponse.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(response, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//        System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(response);
     }
 
 
@@ -82,26 +41,7 @@ public class MerchantPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshalRequest(MerchantPaymentRequest obj) throws JAXBException {
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(MerchantPaymentRequest.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//            System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
     /**
@@ -111,27 +51,7 @@ public class MerchantPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshaResponse(MerchantPaymentResponse response) throws JAXBException {
-
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(MerchantPaymentResponse.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(response, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//        System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(response);
     }
 
 
@@ -142,26 +62,7 @@ public class MerchantPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshalRequest(MerchantPaymentSingleStepRequest obj) throws JAXBException {
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(MerchantPaymentSingleStepRequest.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//            System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
     /**
@@ -171,27 +72,7 @@ public class MerchantPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshaResponse(MerchantPaymentSingleStepResponse response) throws JAXBException {
-
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(MerchantPaymentSingleStepResponse.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(response, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//        System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(response);
     }
 
 
@@ -204,11 +85,7 @@ public class MerchantPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public MerchantPaymentConfirmRequest unmarshalMerchantPaymentConfirmRequest(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(MerchantPaymentConfirmRequest.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        MerchantPaymentConfirmRequest request = (MerchantPaymentConfirmRequest) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, MerchantPaymentConfirmRequest.class);
     }
 
     /**
@@ -218,11 +95,7 @@ public class MerchantPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public MerchantPaymentConfirmResponse unmarshalMerchantPaymentConfirmResponse(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(P2PConfigChoice2Response.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        MerchantPaymentConfirmResponse request = (MerchantPaymentConfirmResponse) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, MerchantPaymentConfirmResponse.class);
     }
 
 
@@ -233,11 +106,7 @@ public class MerchantPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public MerchantPaymentRequest unmarshalMerchantPaymentRequest(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(MerchantPaymentRequest.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        MerchantPaymentRequest request = (MerchantPaymentRequest) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, MerchantPaymentRequest.class);
     }
 
     /**
@@ -247,11 +116,7 @@ public class MerchantPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public MerchantPaymentResponse unmarshalMerchantPaymentResponse(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(MerchantPaymentResponse.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        MerchantPaymentResponse request = (MerchantPaymentResponse) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, MerchantPaymentResponse.class);
     }
 
 
@@ -262,11 +127,7 @@ public class MerchantPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public MerchantPaymentSingleStepRequest unmarshalMerchantPaymentSingleStepRequest(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(MerchantPaymentSingleStepRequest.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        MerchantPaymentSingleStepRequest request = (MerchantPaymentSingleStepRequest) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, MerchantPaymentSingleStepRequest.class);
     }
 
     /**
@@ -276,11 +137,7 @@ public class MerchantPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public MerchantPaymentSingleStepResponse unmarshalMerchantPaymentSingleStepResponse(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(MerchantPaymentSingleStepResponse.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        MerchantPaymentSingleStepResponse request = (MerchantPaymentSingleStepResponse) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, MerchantPaymentSingleStepResponse.class);
     }
 
 
@@ -4,18 +4,16 @@ import af.asr.mpaisa.message.merchantpayment.MerchantPaymentSingleStepRequest;
 import af.asr.mpaisa.message.merchantpayment.MerchantPaymentSingleStepResponse;
 import af.asr.mpaisa.message.nonregisteredsubscriber.SendMoneyToNonRegisteredSubscriberRequest;
 import af.asr.mpaisa.message.nonregisteredsubscriber.SendMoneyToNonRegisteredSubscriberResponse;
+import af.asr.mpaisa.transalator.JaxbTranslatorRegistry;
 import org.springframework.stereotype.Component;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
-import java.io.StringReader;
-import java.io.StringWriter;
 
 @Component
 public class SendMoneyToNonRegisteredSubscriberJaxbTranslator {
 
+    private final JaxbTranslatorRegistry registry = JaxbTranslatorRegistry.getInstance();
+
     /**
      * marshal SendMoneyToNonRegisteredSubscriberRequest
      * @param obj
@@ -23,26 +21,7 @@ public class SendMoneyToNonRegisteredSubscriberJaxbTranslator {
      * @throws JAXBException
      */
     public String marshalRequest(SendMoneyToNonRegisteredSubscriberRequest obj) throws JAXBException {
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(SendMoneyToNonRegisteredSubscriberRequest.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//            System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
     /**
@@ -52,27 +31,7 @@ public class SendMoneyToNonRegisteredSubscriberJaxbTranslator {
      * @throws JAXBException
      */
     public String marshaResponse(SendMoneyToNonRegisteredSubscriberResponse response) throws JAXBException {
-
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(SendMoneyToNonRegisteredSubscriberResponse.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(response, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//        System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(response);
     }
 
 
@@ -83,11 +42,7 @@ public class SendMoneyToNonRegisteredSubscriberJaxbTranslator {
      * @throws JAXBException
      */
     public SendMoneyToNonRegisteredSubscriberRequest unmarshalSendMoneyToNonRegisteredSubscriberRequest(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(SendMoneyToNonRegisteredSubscriberRequest.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        SendMoneyToNonRegisteredSubscriberRequest request = (SendMoneyToNonRegisteredSubscriberRequest) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, SendMoneyToNonRegisteredSubscriberRequest.class);
     }
 
     /**
@@ -97,11 +52,7 @@ public class SendMoneyToNonRegisteredSubscriberJaxbTranslator {
      * @throws JAXBException
      */
     public SendMoneyToNonRegisteredSubscriberResponse unmarshalSendMoneyToNonRegisteredSubscriberResponse(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(SendMoneyToNonRegisteredSubscriberResponse.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        SendMoneyToNonRegisteredSubscriberResponse request = (SendMoneyToNonRegisteredSubscriberResponse) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, SendMoneyToNonRegisteredSubscriberResponse.class);
     }
 
 }
@@ -7,18 +7,16 @@ import af.asr.mpaisa.message.nonregisteredsubscriber.SendMoneyToNonRegisteredSub
 import af.asr.mpaisa.message.nonregisteredsubscriber.SendMoneyToNonRegisteredSubscriberResponse;
 import af.asr.mpaisa.message.onlinecustomerbillpayment.OnlineCustomerBillPaymentRequest;
 import af.asr.mpaisa.message.onlinecustomerbillpayment.OnlineCustomerBillPaymentResponse;
+import af.asr.mpaisa.transalator.JaxbTranslatorRegistry;
 import org.springframework.stereotype.Component;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
-import java.io.StringReader;
-import java.io.StringWriter;
 
 @Component
 public class OnlineCustomerBillPaymentJaxbTranslator {
 
+    private final JaxbTranslatorRegistry registry = JaxbTranslatorRegistry.getInstance();
+
     /**
      * marshal OnlineCustomerBillPaymentRequest
      * @param obj
@@ -26,26 +24,7 @@ public class OnlineCustomerBillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshalRequest(OnlineCustomerBillPaymentRequest obj) throws JAXBException {
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(OnlineCustomerBillPaymentRequest.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(obj, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//            System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(obj);
     }
 
     /**
@@ -55,27 +34,7 @@ public class OnlineCustomerBillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public String marshaResponse(OnlineCustomerBillPaymentResponse response) throws JAXBException {
-
-        //Create JAXB Context
-        JAXBContext jaxbContext = JAXBContext.newInstance(OnlineCustomerBillPaymentResponse.class);
-
-        //Create Marshaller
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-        //Required formatting??
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-
-        //Print XML String to Console
-        StringWriter sw = new StringWriter();
-
-        //Write XML to StringWriter
-        jaxbMarshaller.marshal(response, sw);
-
-        //Verify XML Content
-        String xmlContent = sw.toString();
-//        System.out.println( xmlContent );
-
-        return xmlContent;
+        return registry.marshal(response);
     }
 
 
@@ -86,11 +45,7 @@ public class OnlineCustomerBillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public OnlineCustomerBillPaymentRequest unmarshalOnlineCustomerBillPaymentRequest(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(OnlineCustomerBillPaymentRequest.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-
-        OnlineCustomerBillPaymentRequest request = (OnlineCustomerBillPaymentRequest) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, OnlineCustomerBillPaymentRequest.class);
     }
 
     /**
@@ -100,10 +55,7 @@ public class OnlineCustomerBillPaymentJaxbTranslator {
      * @throws JAXBException
      */
     public OnlineCustomerBillPaymentResponse unmarshalP2PConfigChoice1InitiationResponse(String xmlContent) throws JAXBException {
-        JAXBContext jaxbContext  = JAXBContext.newInstance(OnlineCustomerBillPaymentResponse.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-        OnlineCustomerBillPaymentResponse request = (OnlineCustomerBillPaymentResponse) jaxbUnmarshaller.unmarshal(new StringReader(xmlContent));
-        return request;
+        return registry.unmarshal(xmlContent, OnlineCustomerBillPaymentResponse.class);
     }
 
 }
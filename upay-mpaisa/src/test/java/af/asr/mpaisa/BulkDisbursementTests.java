@@ -0,0 +1,284 @@
+package af.asr.mpaisa;
+
+import af.asr.mpaisa.client.MpaisaGateway;
+import af.asr.mpaisa.disbursement.BankToWalletRequestFactory;
+import af.asr.mpaisa.disbursement.BulkDisbursement;
+import af.asr.mpaisa.disbursement.DisbursementInstruction;
+import af.asr.mpaisa.disbursement.DisbursementReport;
+import af.asr.mpaisa.disbursement.DisbursementSource;
+import af.asr.mpaisa.exception.mpaisa.MpaisaTransportException;
+import af.asr.mpaisa.message.bankservice.BankToWalletRequest;
+import af.asr.mpaisa.message.bankservice.BankToWalletResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class BulkDisbursementTests {
+
+    private static final int INSTRUCTIONS = 20000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ScheduledExecutorService gatewayThreads = Executors.newScheduledThreadPool(4);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final ConcurrentHashMap<String, AtomicInteger> credits = new ConcurrentHashMap<>();
+    private final Set<String> references = ConcurrentHashMap.newKeySet();
+    private volatile String unansweredMsisdn;
+    private volatile String unrecordableSuffix;
+
+    private Path payroll;
+    private Path checkpoint;
+    private Path results;
+
+    @Before
+    public void init() throws IOException
+    {
+        payroll = folder.getRoot().toPath().resolve("payroll.csv");
+        checkpoint = folder.getRoot().toPath().resolve("payroll.checkpoint");
+        results = folder.getRoot().toPath().resolve("payroll.results.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(payroll, StandardCharsets.UTF_8)) {
+            writer.write("reference,msisdn,amount");
+            writer.newLine();
+            for (int i = 1; i <= INSTRUCTIONS; i++) {
+                writer.write("PAY" + i + ",77" + (10000000 + i) + "," + (i % 500 + 1) + ".00");
+                writer.newLine();
+            }
+        }
+    }
+
+    @After
+    public void close()
+    {
+        gatewayThreads.shutdownNow();
+    }
+
+    @Test
+    public void creditsEveryWalletWithinTheParallelism() throws Exception {
+        DisbursementReport report;
+        try (DisbursementSource source = DisbursementSource.open(payroll)) {
+            report = disbursement().build().run(source);
+        }
+
+        assertThat(report.getSent()).isEqualTo(INSTRUCTIONS);
+        assertThat(report.getSucceeded() + report.getRejected() + report.getFailed()).isEqualTo(INSTRUCTIONS);
+        assertThat(report.getRejected()).isEqualTo(INSTRUCTIONS / 10);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(8);
+        assertThat(credits).hasSize(INSTRUCTIONS);
+        assertThat(references).hasSize(INSTRUCTIONS).contains("PAY1", "PAY" + INSTRUCTIONS);
+        assertThat(new String(Files.readAllBytes(checkpoint), StandardCharsets.US_ASCII)).isEqualTo(String.valueOf(INSTRUCTIONS));
+        assertThat(resultSequences()).hasSize(INSTRUCTIONS);
+    }
+
+    @Test
+    public void checkpointsPastResultsThatCannotBeRecorded() throws Exception {
+        unrecordableSuffix = "99";
+        DisbursementReport report;
+        try (DisbursementSource source = DisbursementSource.open(payroll)) {
+            report = disbursement().build().run(source);
+        }
+
+        assertThat(report.getSent()).isEqualTo(INSTRUCTIONS);
+        assertThat(new String(Files.readAllBytes(checkpoint), StandardCharsets.US_ASCII)).isEqualTo(String.valueOf(INSTRUCTIONS));
+        assertThat(resultSequences()).hasSize(INSTRUCTIONS - INSTRUCTIONS / 100);
+    }
+
+    @Test
+    public void recordsTheCallsInFlightWhenTheSourceFails() throws Exception {
+        try (DisbursementSource source = DisbursementSource.open(payroll)) {
+            assertThatThrownBy(() -> disbursement().build().run(new StoppingSource(source, 5000, true)))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(credits).hasSize(5000);
+        assertThat(resultSequences()).hasSize(5000);
+    }
+
+    @Test
+    public void failsWhenACallNeverCompletes() throws Exception {
+        unansweredMsisdn = "7710000005";
+        try (DisbursementSource source = DisbursementSource.open(payroll)) {
+            assertThatThrownBy(() -> disbursement().withCompletionTimeoutMillis(200).build().run(source))
+                    .isInstanceOf(MpaisaTransportException.class)
+                    .hasMessageContaining(MpaisaTransportException.TIMED_OUT);
+        }
+
+        assertThat(new String(Files.readAllBytes(checkpoint), StandardCharsets.US_ASCII)).isEqualTo("4");
+        assertThat(resultSequences()).hasSize(64 - 1 + 4);
+    }
+
+    @Test
+    public void resumesWithoutCreditingTwice() throws Exception {
+        try (DisbursementSource source = DisbursementSource.open(payroll)) {
+            disbursement().build().run(new StoppingSource(source, 7000, false));
+        }
+        Files.write(checkpoint, "6500".getBytes(StandardCharsets.US_ASCII));
+
+        DisbursementReport report;
+        try (DisbursementSource source = DisbursementSource.open(payroll)) {
+            report = disbursement().build().run(source);
+        }
+
+        assertThat(report.getSkipped()).isEqualTo(7000);
+        assertThat(report.getSent()).isEqualTo(INSTRUCTIONS - 7000);
+        assertThat(credits).hasSize(INSTRUCTIONS);
+        assertThat(credits.values()).allMatch(count -> count.get() == 1);
+        assertThat(resultSequences()).hasSize(INSTRUCTIONS);
+    }
+
+    @Test
+    public void readsCreditTransfersFromPain001() throws Exception {
+        Path pain001 = folder.getRoot().toPath().resolve("payroll.xml");
+        Files.write(pain001, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:pain.001.001.03\"><CstmrCdtTrfInitn>"
+                + "<GrpHdr><MsgId>PAYROLL-2020-06</MsgId><NbOfTxs>2</NbOfTxs></GrpHdr>"
+                + "<PmtInf><PmtInfId>P1</PmtInfId><DbtrAcct><Id><Othr><Id>0101234567</Id></Othr></Id></DbtrAcct>"
+                + "<CdtTrfTxInf><PmtId><EndToEndId>E2E-1</EndToEndId></PmtId><Amt><InstdAmt Ccy=\"AFN\">150.50</InstdAmt></Amt>"
+                + "<CdtrAcct><Id><Othr><Id>0700111222</Id></Othr></Id></CdtrAcct></CdtTrfTxInf>"
+                + "<CdtTrfTxInf><PmtId><EndToEndId>E2E-2</EndToEndId></PmtId><Amt><InstdAmt Ccy=\"AFN\">20</InstdAmt></Amt>"
+                + "<Cdtr><Nm>Payee</Nm><CtctDtls><MobNb>0700333444</MobNb></CtctDtls></Cdtr></CdtTrfTxInf>"
+                + "</PmtInf></CstmrCdtTrfInitn></Document>").getBytes(StandardCharsets.UTF_8));
+
+        List<DisbursementInstruction> instructions = new ArrayList<>();
+        try (DisbursementSource source = DisbursementSource.open(pain001)) {
+            source.forEachRemaining(instructions::add);
+        }
+
+        assertThat(instructions).extracting(DisbursementInstruction::getReference).containsExactly("E2E-1", "E2E-2");
+        assertThat(instructions).extracting(DisbursementInstruction::getMsisdn).containsExactly("0700111222", "0700333444");
+        assertThat(instructions.get(0).getAmount()).isEqualByComparingTo(new BigDecimal("150.50"));
+        assertThat(instructions.get(1).getAccountNumber()).isEqualTo("0101234567");
+    }
+
+    private BulkDisbursement.Builder disbursement() {
+        return BulkDisbursement.Builder.newInstance()
+                .withGateway(new DelayedGateway())
+                .withRequestFactory(BankToWalletRequestFactory.Builder.newInstance()
+                        .withMsisdn("7700000012")
+                        .withAccountNumber("0101234567")
+                        .withBankId("AIB")
+                        .build())
+                .withParallelism(8)
+                .withWindow(64)
+                .withCheckpointInterval(100)
+                .withCheckpoint(checkpoint)
+                .withResults(results);
+    }
+
+    private Set<String> resultSequences() throws IOException {
+        List<String> lines = Files.readAllLines(results, StandardCharsets.UTF_8);
+        Set<String> sequences = new HashSet<>();
+        for (String line : lines.subList(1, lines.size())) {
+            assertThat(sequences.add(line.substring(0, line.indexOf(',')))).as(line).isTrue();
+        }
+        return sequences;
+    }
+
+    /**
+     * Answers after a short random delay; wallets ending in 7 are rejected, in 13 time out.
+     * The unanswered wallet never gets an answer, and the answers to wallets ending in the
+     * unrecordable suffix fail when their message is read.
+     */
+    private class DelayedGateway implements MpaisaGateway {
+
+        @Override
+        public <R> CompletableFuture<R> send(Object request, Class<R> responseType) {
+            BankToWalletRequest bankToWallet = (BankToWalletRequest) request;
+            references.add(bankToWallet.getEXTREFNUM());
+            CompletableFuture<R> response = new CompletableFuture<>();
+            if (bankToWallet.getMSISDN2().equals(unansweredMsisdn)) {
+                return response;
+            }
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            gatewayThreads.schedule(() -> {
+                inFlight.decrementAndGet();
+                credits.computeIfAbsent(bankToWallet.getMSISDN2(), msisdn -> new AtomicInteger()).incrementAndGet();
+                if (bankToWallet.getMSISDN2().endsWith("13")) {
+                    response.completeExceptionally(new MpaisaTransportException(MpaisaTransportException.CONNECTION_FAILED, "timeout"));
+                    return;
+                }
+                String suffix = unrecordableSuffix;
+                BankToWalletResponse bankToWalletResponse = suffix != null && bankToWallet.getMSISDN2().endsWith(suffix)
+                        ? new UnrecordableResponse() : new BankToWalletResponse();
+                bankToWalletResponse.setTYPE("CBWRESP");
+                bankToWalletResponse.setTXNID("BW" + bankToWallet.getMSISDN2());
+                bankToWalletResponse.setTXNSTATUS(bankToWallet.getMSISDN2().endsWith("7") ? 410 : 200);
+                bankToWalletResponse.setMESSAGE("Your bank to wallet account transfer is done.");
+                response.complete(responseType.cast(bankToWalletResponse));
+            }, ThreadLocalRandom.current().nextInt(100), TimeUnit.MICROSECONDS);
+            return response;
+        }
+    }
+
+    private static class UnrecordableResponse extends BankToWalletResponse {
+
+        @Override
+        public String getMESSAGE() {
+            throw new IllegalStateException("unreadable message");
+        }
+    }
+
+    /**
+     * Ends the input early, as a run stopped part way would, or fails there as a corrupt file would.
+     */
+    private static class StoppingSource implements DisbursementSource {
+
+        private final DisbursementSource source;
+        private final boolean failing;
+        private int remaining;
+
+        StoppingSource(DisbursementSource source, int instructions, boolean failing) {
+            this.source = source;
+            this.remaining = instructions;
+            this.failing = failing;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (remaining == 0 && failing) {
+                throw new IllegalStateException("Corrupt disbursement file");
+            }
+            return remaining > 0 && source.hasNext();
+        }
+
+        @Override
+        public DisbursementInstruction next() {
+            remaining--;
+            return source.next();
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package af.asr.mpaisa;
+
+import af.asr.mpaisa.message.cashin.CashInRequest;
+import af.asr.mpaisa.message.cashout.CashoutSingleStepResponse;
+import af.asr.mpaisa.transalator.CommandCodec;
+import af.asr.mpaisa.transalator.JaxbTranslatorRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.xml.bind.JAXBException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class CommandCodecTests {
+
+    private final JaxbTranslatorRegistry registry = JaxbTranslatorRegistry.getInstance();
+
+    private CashInRequest cashInRequest;
+
+    @Before
+    public void init()
+    {
+        cashInRequest = new CashInRequest();
+        cashInRequest.setAMOUNT(new BigDecimal(1000));
+        cashInRequest.setIDNO("9942223");
+        cashInRequest.setMSISDN("9942222");
+        cashInRequest.setMSISDN2("9942222");
+        cashInRequest.setPIN(1234);
+        cashInRequest.setTYPE("RCIREQ");
+        cashInRequest.setSNDPROVIDER(12);
+        cashInRequest.setRCVPROVIDER(101);
+        cashInRequest.setRCVINSTRUMENT(12);
+    }
+
+    @Test
+    public void writesTheJaxbDocumentWithoutIndentation() throws JAXBException {
+        byte[] xml = CommandCodec.forType(CashInRequest.class).toBytes(cashInRequest);
+
+        assertThat(new String(xml, StandardCharsets.UTF_8)).isEqualTo(compact(registry.marshal(cashInRequest)));
+        assertThat(registry.unmarshal(new String(xml, StandardCharsets.UTF_8), CashInRequest.class)).isEqualTo(cashInRequest);
+    }
+
+    @Test
+    public void readsTheIndentedJaxbDocument() throws JAXBException {
+        String xml = registry.marshal(cashInRequest);
+
+        assertThat(CommandCodec.forType(CashInRequest.class).read(xml.getBytes(StandardCharsets.UTF_8))).isEqualTo(cashInRequest);
+    }
+
+    @Test
+    public void keepsRenamedElementsAndEscapedText() throws JAXBException {
+        CashoutSingleStepResponse response = new CashoutSingleStepResponse();
+        response.setTYPE("CCORESP");
+        response.setTXNID("CO070608.1512.000001");
+        response.setTXNSTATUS(200);
+        response.setMESSAGE("Cash Out success by 7700000012 <amount: 1.00 AFN & charges: 0.01 AFN>, پول");
+        response.setIVRRESPONSE("Cash Out success");
+        CommandCodec<CashoutSingleStepResponse> codec = CommandCodec.forType(CashoutSingleStepResponse.class);
+        byte[] xml = codec.toBytes(response);
+
+        assertThat(new String(xml, StandardCharsets.UTF_8)).isEqualTo(compact(registry.marshal(response)));
+        assertThat(new String(xml, StandardCharsets.UTF_8)).contains("<IVR-RESPONSE>Cash Out success</IVR-RESPONSE>");
+        assertThat(codec.read(xml)).isEqualTo(response);
+    }
+
+    @Test
+    public void buildsACodecForEveryMessage() throws Exception {
+        for (Class<?> type : JaxbTranslatorRegistry.getMessageTypes()) {
+            roundTrip(type);
+        }
+    }
+
+    @Test
+    public void rejectsAnotherRootElement() {
+        assertThatThrownBy(() -> CommandCodec.forType(CashInRequest.class).read("<RESPONSE/>".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(JAXBException.class);
+    }
+
+    private <T> void roundTrip(Class<T> type) throws Exception {
+        T message = type.newInstance();
+        CommandCodec<T> codec = CommandCodec.forType(type);
+        String xml = new String(codec.toBytes(message), StandardCharsets.UTF_8);
+
+        assertThat(xml).as(type.getSimpleName()).isEqualTo(compact(registry.marshal(message)));
+        assertThat(codec.read(registry.marshal(message).getBytes(StandardCharsets.UTF_8))).as(type.getSimpleName()).isEqualTo(message);
+    }
+
+    private static String compact(String xml) {
+        return xml.replaceAll(">\\s+<", "><").trim();
+    }
+}
@@ -0,0 +1,95 @@
+package af.asr.mpaisa;
+
+import af.asr.mpaisa.message.billpayment.StandartBillPaymentResponse;
+import af.asr.mpaisa.message.cashin.CashInRequest;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentConfirmResponse;
+import af.asr.mpaisa.transalator.JaxbTranslatorRegistry;
+import af.asr.mpaisa.transalator.billpayment.BillPaymentJaxbTranslator;
+import af.asr.mpaisa.transalator.merchantpayment.MerchantPaymentJaxbTranslator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.xml.bind.JAXBException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class JaxbTranslatorRegistryTests {
+
+    private CashInRequest cashInRequest;
+
+    @Before
+    public void init()
+    {
+        cashInRequest = new CashInRequest();
+        cashInRequest.setAMOUNT(new BigDecimal(1000));
+        cashInRequest.setIDNO("9942223");
+        cashInRequest.setMSISDN("9942222");
+        cashInRequest.setMSISDN2("9942222");
+        cashInRequest.setPIN(1234);
+        cashInRequest.setTYPE("RCIREQ");
+        cashInRequest.setSNDPROVIDER(12);
+        cashInRequest.setRCVPROVIDER(101);
+        cashInRequest.setRCVINSTRUMENT(12);
+    }
+
+    @Test
+    public void reusedMarshallersProduceTheSameXml() throws JAXBException {
+        JaxbTranslatorRegistry registry = JaxbTranslatorRegistry.getInstance();
+        String first = registry.marshal(cashInRequest);
+        String second = registry.marshal(cashInRequest);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(registry.unmarshal(first, CashInRequest.class)).isEqualTo(cashInRequest);
+    }
+
+    @Test
+    public void marshalsConcurrentlyFromSharedPools() throws Exception {
+        JaxbTranslatorRegistry registry = new JaxbTranslatorRegistry(2, CashInRequest.class);
+        String expected = registry.marshal(cashInRequest);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CashInRequest>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> registry.unmarshal(registry.marshal(cashInRequest), CashInRequest.class)));
+            }
+            for (Future<CashInRequest> result : results) {
+                assertThat(result.get()).isEqualTo(cashInRequest);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(registry.marshal(cashInRequest)).isEqualTo(expected);
+    }
+
+    @Test
+    public void unmarshalsIntoTheRequestedMessageType() throws JAXBException {
+        StandartBillPaymentResponse billPaymentResponse = new StandartBillPaymentResponse();
+        billPaymentResponse.setTYPE("BPRESP");
+        billPaymentResponse.setTXNID("BP070608.1512.000001");
+        billPaymentResponse.setTXNSTATUS(200);
+        billPaymentResponse.setAMOUNT(new BigDecimal(1000));
+        BillPaymentJaxbTranslator billPaymentTranslator = new BillPaymentJaxbTranslator();
+        String billPaymentXml = billPaymentTranslator.marshalResponse(billPaymentResponse);
+        assertThat(billPaymentTranslator.unmarshalStandartBillPaymentResponse(billPaymentXml)).isEqualTo(billPaymentResponse);
+
+        MerchantPaymentConfirmResponse merchantPaymentResponse = new MerchantPaymentConfirmResponse();
+        merchantPaymentResponse.setTYPE("MPCRESP");
+        merchantPaymentResponse.setTXNID("MP070608.1512.000001");
+        merchantPaymentResponse.setTXNSTATUS(200);
+        merchantPaymentResponse.setMESSAGE("Merchant Payment Success");
+        MerchantPaymentJaxbTranslator merchantPaymentTranslator = new MerchantPaymentJaxbTranslator();
+        String merchantPaymentXml = merchantPaymentTranslator.marshaResponse(merchantPaymentResponse);
+        assertThat(merchantPaymentTranslator.unmarshalMerchantPaymentConfirmResponse(merchantPaymentXml)).isEqualTo(merchantPaymentResponse);
+    }
+}
@@ -0,0 +1,236 @@
+package af.asr.mpaisa;
+
+import af.asr.mpaisa.client.MpaisaClient;
+import af.asr.mpaisa.client.MpaisaOperation;
+import af.asr.mpaisa.client.TimeoutPolicy;
+import af.asr.mpaisa.exception.mpaisa.MpaisaTransportException;
+import af.asr.mpaisa.message.cashin.CashInRequest;
+import af.asr.mpaisa.message.cashin.CashInResponse;
+import af.asr.mpaisa.message.cashout.CashoutSingleStepRequest;
+import af.asr.mpaisa.message.cashout.CashoutSingleStepResponse;
+import af.asr.mpaisa.transalator.CommandCodec;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class MpaisaClientTests {
+
+    private static final Map<MpaisaOperation, String> REQUEST_TYPES = new EnumMap<>(MpaisaOperation.class);
+
+    static {
+        REQUEST_TYPES.put(MpaisaOperation.BANK_TO_WALLET, "CBWREQ");
+        REQUEST_TYPES.put(MpaisaOperation.WALLET_TO_BANK, "CWBREQ");
+        REQUEST_TYPES.put(MpaisaOperation.ONE_TIME_BILL_PAYMENT, "CPMBREQ");
+        REQUEST_TYPES.put(MpaisaOperation.ONLINE_BILL_PAYMENT, "ONLNBP");
+        REQUEST_TYPES.put(MpaisaOperation.STANDARD_BILL_PAYMENT, "SCPMBREQ");
+        REQUEST_TYPES.put(MpaisaOperation.CASH_IN, "RCIREQ");
+        REQUEST_TYPES.put(MpaisaOperation.CASH_OUT, "RCOREQ");
+        REQUEST_TYPES.put(MpaisaOperation.CASH_OUT_CONFIRM, "RCORREQ");
+        REQUEST_TYPES.put(MpaisaOperation.CASH_OUT_SINGLE_STEP, "CCOREQ");
+        REQUEST_TYPES.put(MpaisaOperation.P2P_CHOICE1_INITIATION, "CTMREQ");
+        REQUEST_TYPES.put(MpaisaOperation.P2P_CHOICE1_CONFIRMATION, "CTMRREQ");
+        REQUEST_TYPES.put(MpaisaOperation.P2P_CHOICE2, "CTMREQ");
+        REQUEST_TYPES.put(MpaisaOperation.MERCHANT_PAYMENT, "RMPREQ");
+        REQUEST_TYPES.put(MpaisaOperation.MERCHANT_PAYMENT_CONFIRM, "RMPRREQ");
+        REQUEST_TYPES.put(MpaisaOperation.MERCHANT_PAYMENT_SINGLE_STEP, "CMPREQ");
+        REQUEST_TYPES.put(MpaisaOperation.SEND_MONEY_TO_NON_REGISTERED_SUBSCRIBER, "RNMCOREQ");
+        REQUEST_TYPES.put(MpaisaOperation.ONLINE_CUSTOMER_BILL_PAYMENT, "ONLNBP");
+    }
+
+    private StubMpaisaServer server;
+    private MpaisaClient client;
+
+    @Before
+    public void init() throws Exception
+    {
+        server = new StubMpaisaServer(16, 0);
+    }
+
+    @After
+    public void close() throws Exception
+    {
+        if (client != null) {
+            client.close();
+        }
+        server.close();
+    }
+
+    @Test
+    public void decodesTheSampleResponseOfEveryOperation() throws Exception {
+        client = client(4, TimeoutPolicy.Builder.newInstance().build());
+
+        for (MpaisaOperation operation : MpaisaOperation.values()) {
+            Object response = send(operation);
+
+            assertThat(response).as(operation.name()).isInstanceOf(operation.getResponseType());
+            assertThat(new String(encode(response), StandardCharsets.UTF_8)).as(operation.name()).contains("<TXNSTATUS>200</TXNSTATUS>");
+        }
+    }
+
+    @Test
+    public void sendsTypedRequests() throws Exception {
+        client = client(4, TimeoutPolicy.Builder.newInstance().build());
+        CashInRequest cashInRequest = new CashInRequest();
+        cashInRequest.setTYPE("RCIREQ");
+        cashInRequest.setMSISDN("9942222");
+        cashInRequest.setMSISDN2("9942223");
+        cashInRequest.setAMOUNT(new BigDecimal(1000));
+        cashInRequest.setPIN(1234);
+
+        CashInResponse cashInResponse = client.send(cashInRequest, CashInResponse.class).get(5, TimeUnit.SECONDS);
+        assertThat(cashInResponse.getTYPE()).isEqualTo("RCIRESP");
+        assertThat(cashInResponse.getTXNID()).isEqualTo("CI070608.1512.000001");
+        assertThat(cashInResponse.getMESSAGE()).contains("new balance: 88.00 INR");
+
+        CashoutSingleStepRequest cashoutRequest = new CashoutSingleStepRequest();
+        cashoutRequest.setTYPE("CCOREQ");
+        CashoutSingleStepResponse cashoutResponse = client.send(cashoutRequest, CashoutSingleStepResponse.class).get(5, TimeUnit.SECONDS);
+        assertThat(cashoutResponse.getIVRRESPONSE()).startsWith("9012#7777999111");
+
+        assertThatThrownBy(() -> client.send(cashInRequest, CashoutSingleStepResponse.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void keepsCallsInFlightWithinThePool() throws Exception {
+        server.close();
+        server = new StubMpaisaServer(16, 20);
+        client = client(4, TimeoutPolicy.Builder.newInstance().withConnectionRequestTimeoutMillis(10000).build());
+
+        List<CompletableFuture<byte[]>> responses = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            responses.add(client.exchange(MpaisaOperation.CASH_IN, request(MpaisaOperation.CASH_IN)));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        assertThat(server.getRequests()).isEqualTo(60);
+        assertThat(server.getMaxInFlight()).isLessThanOrEqualTo(4);
+        assertThat(server.getConnections()).isLessThanOrEqualTo(4);
+        assertThat(client.getPoolStats().getLeased()).isZero();
+    }
+
+    @Test
+    public void appliesTheResponseTimeoutOfTheOperation() throws Exception {
+        server.close();
+        server = new StubMpaisaServer(4, 500);
+        client = client(4, TimeoutPolicy.Builder.newInstance()
+                .withResponseTimeoutMillis(5000)
+                .withResponseTimeoutMillis(MpaisaOperation.CASH_IN, 100)
+                .build());
+
+        CompletableFuture<byte[]> cashIn = client.exchange(MpaisaOperation.CASH_IN, request(MpaisaOperation.CASH_IN));
+        CompletableFuture<byte[]> cashOut = client.exchange(MpaisaOperation.CASH_OUT, request(MpaisaOperation.CASH_OUT));
+
+        assertThatThrownBy(() -> cashIn.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(MpaisaTransportException.class);
+        assertThat(new String(cashOut.get(5, TimeUnit.SECONDS), StandardCharsets.UTF_8)).contains("<TYPE>RCORESP</TYPE>");
+    }
+
+    @Test
+    public void failsCallsStillRunningAtTheirCallTimeout() throws Exception {
+        server.close();
+        server = new StubMpaisaServer(4, 1000);
+        client = client(4, TimeoutPolicy.Builder.newInstance()
+                .withResponseTimeoutMillis(5000)
+                .withCallTimeoutMillis(MpaisaOperation.CASH_IN, 100)
+                .build());
+
+        long start = System.nanoTime();
+        CompletableFuture<byte[]> cashIn = client.exchange(MpaisaOperation.CASH_IN, request(MpaisaOperation.CASH_IN));
+
+        assertThatThrownBy(() -> cashIn.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(MpaisaTransportException.class)
+                .hasMessageContaining(MpaisaTransportException.TIMED_OUT);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertThat(new String(client.exchange(MpaisaOperation.CASH_OUT, request(MpaisaOperation.CASH_OUT))
+                .get(5, TimeUnit.SECONDS), StandardCharsets.UTF_8)).contains("<TYPE>RCORESP</TYPE>");
+    }
+
+    @Test
+    public void completesCallsOnTheCallbackExecutor() throws Exception {
+        server.close();
+        server = new StubMpaisaServer(4, 200);
+        ExecutorService callbackExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "mpaisa-callback"));
+        try {
+            client = MpaisaClient.Builder.newInstance()
+                    .withEndpoint(URI.create(server.getUrl()))
+                    .withIoThreads(1)
+                    .withCallbackExecutor(callbackExecutor)
+                    .build();
+            client.start();
+            CashInRequest cashInRequest = new CashInRequest();
+            cashInRequest.setTYPE("RCIREQ");
+
+            CompletableFuture<String> decoded = client.send(cashInRequest, CashInResponse.class)
+                    .thenApply(response -> Thread.currentThread().getName());
+            CompletableFuture<String> failed = client.exchange(MpaisaOperation.CASH_IN,
+                    "<?xml version=\"1.0\"?><COMMAND><TYPE>UNKNOWN</TYPE></COMMAND>".getBytes(StandardCharsets.UTF_8))
+                    .handle((response, failure) -> Thread.currentThread().getName());
+
+            assertThat(decoded.get(5, TimeUnit.SECONDS)).isEqualTo("mpaisa-callback");
+            assertThat(failed.get(5, TimeUnit.SECONDS)).isEqualTo("mpaisa-callback");
+        } finally {
+            callbackExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void failsOnHttpErrors() throws Exception {
+        client = client(4, TimeoutPolicy.Builder.newInstance().build());
+
+        CompletableFuture<byte[]> response = client.exchange(MpaisaOperation.CASH_IN,
+                "<?xml version=\"1.0\"?><COMMAND><TYPE>UNKNOWN</TYPE></COMMAND>".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> response.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(MpaisaTransportException.class)
+                .hasMessageContaining(MpaisaTransportException.HTTP_STATUS);
+    }
+
+    private MpaisaClient client(int maxConnections, TimeoutPolicy timeoutPolicy) {
+        MpaisaClient mpaisaClient = MpaisaClient.Builder.newInstance()
+                .withEndpoint(URI.create(server.getUrl()))
+                .withMaxConnections(maxConnections)
+                .withIoThreads(2)
+                .withTimeoutPolicy(timeoutPolicy)
+                .build();
+        mpaisaClient.start();
+        return mpaisaClient;
+    }
+
+    private Object send(MpaisaOperation operation) throws Exception {
+        Object request = CommandCodec.forType(operation.getRequestType()).read(request(operation));
+        return client.send(request, operation.getResponseType()).get(5, TimeUnit.SECONDS);
+    }
+
+    private static byte[] request(MpaisaOperation operation) {
+        return ("<?xml version=\"1.0\"?><COMMAND><TYPE>" + REQUEST_TYPES.get(operation) + "</TYPE></COMMAND>")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> byte[] encode(T message) {
+        return CommandCodec.forType((Class<T>) message.getClass()).toBytes(message);
+    }
+}
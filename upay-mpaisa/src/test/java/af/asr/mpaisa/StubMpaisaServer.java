@@ -0,0 +1,136 @@
+package af.asr.mpaisa;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local M-Paisa gateway answering every request with the sample response of its TYPE, taken
+ * from the message javadocs and kept under mpaisa/ in the test resources.
+ *
+ * Counts the calls in flight and the client connections it sees so tests can check how much
+ * concurrency a client puts on the gateway.
+ */
+public class StubMpaisaServer implements AutoCloseable {
+
+    private static final String[] REQUEST_TYPES = {
+            "CBWREQ", "CWBREQ", "CPMBREQ", "ONLNBP", "SCPMBREQ", "RCIREQ", "RCOREQ", "RCORREQ",
+            "CCOREQ", "CTMREQ", "CTMRREQ", "RMPREQ", "RMPRREQ", "CMPREQ", "RNMCOREQ"
+    };
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> samples = new HashMap<>();
+    private final long delayMillis;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Set<SocketAddress> connections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param delayMillis time each response is held back, standing in for the gateway's processing
+     */
+    public StubMpaisaServer(int threads, long delayMillis) throws IOException {
+        this.delayMillis = delayMillis;
+        for (String type : REQUEST_TYPES) {
+            samples.put(type, load("/mpaisa/" + type + ".xml"));
+        }
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 128);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/mpaisa";
+    }
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    /**
+     * @return client connections seen, told apart by their remote address
+     */
+    public int getConnections() {
+        return connections.size();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        requests.incrementAndGet();
+        connections.add(exchange.getRemoteAddress());
+        try {
+            byte[] sample = samples.get(requestType(readAll(exchange.getRequestBody())));
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            if (sample == null) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=UTF-8");
+            exchange.sendResponseHeaders(200, sample.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(sample);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static String requestType(byte[] body) {
+        String xml = new String(body, StandardCharsets.UTF_8);
+        int start = xml.indexOf("<TYPE>");
+        int end = xml.indexOf("</TYPE>");
+        return start < 0 || end < start ? "" : xml.substring(start + 6, end).trim();
+    }
+
+    static byte[] load(String resource) throws IOException {
+        try (InputStream in = StubMpaisaServer.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing sample " + resource);
+            }
+            return readAll(in);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,259 @@
+package af.asr.mpaisa;
+
+import af.asr.mpaisa.message.bankservice.BankToWalletRequest;
+import af.asr.mpaisa.message.bankservice.BankToWalletResponse;
+import af.asr.mpaisa.message.bankservice.WalletToBankRequest;
+import af.asr.mpaisa.message.bankservice.WalletToBankResponse;
+import af.asr.mpaisa.message.billpayment.StandardBillPaymentRequest;
+import af.asr.mpaisa.message.billpayment.StandartBillPaymentResponse;
+import af.asr.mpaisa.message.cashin.CashInRequest;
+import af.asr.mpaisa.message.cashin.CashInResponse;
+import af.asr.mpaisa.message.cashout.CashOutRequest;
+import af.asr.mpaisa.message.cashout.CashoutResponse;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1InitiationRequest;
+import af.asr.mpaisa.message.domestic_money_transfer.choice1.P2PConfigChoice1InitiationResponse;
+import af.asr.mpaisa.message.domestic_money_transfer.choice2.P2PConfigChoice2Request;
+import af.asr.mpaisa.message.domestic_money_transfer.choice2.P2PConfigChoice2Response;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentRequest;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentResponse;
+import af.asr.mpaisa.message.nonregisteredsubscriber.SendMoneyToNonRegisteredSubscriberRequest;
+import af.asr.mpaisa.message.nonregisteredsubscriber.SendMoneyToNonRegisteredSubscriberResponse;
+import af.asr.mpaisa.message.onlinecustomerbillpayment.OnlineCustomerBillPaymentRequest;
+import af.asr.mpaisa.message.onlinecustomerbillpayment.OnlineCustomerBillPaymentResponse;
+import af.asr.mpaisa.transalator.CommandCodec;
+import af.asr.mpaisa.transalator.JaxbTranslatorRegistry;
+import af.asr.mpaisa.transalator.bankservice.BankServiceJaxbTranslator;
+import af.asr.mpaisa.transalator.billpayment.BillPaymentJaxbTranslator;
+import af.asr.mpaisa.transalator.cashin.CashInJaxbTranslator;
+import af.asr.mpaisa.transalator.cashout.CashOutJaxbTranslator;
+import af.asr.mpaisa.transalator.domestic_money_transfer.DomesticMoneyTransferChoice1JaxbTranslator;
+import af.asr.mpaisa.transalator.domestic_money_transfer.DomesticMoneyTransferChoice2JaxbTranslator;
+import af.asr.mpaisa.transalator.merchantpayment.MerchantPaymentJaxbTranslator;
+import af.asr.mpaisa.transalator.nonregisteredsubscriber.SendMoneyToNonRegisteredSubscriberJaxbTranslator;
+import af.asr.mpaisa.transalator.onlinecustomerbillpayment.OnlineCustomerBillPaymentJaxbTranslator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marshal and unmarshal throughput of every M-Paisa translator, with the allocation per
+ * message reported by the GC profiler.
+ *
+ * Each translator marshals one of its requests and unmarshals the response of the same call,
+ * in every {@link Encoding}: a JAXBContext created per call as the translators used to do, the
+ * translator itself on the shared {@link JaxbTranslatorRegistry} with formatted output, a cached
+ * JAXBContext with compact output, and the streaming {@link CommandCodec}.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath af.asr.mpaisa.TranslatorBenchmarks [JMH options, e.g. -p translator=cashIn]"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TranslatorBenchmarks {
+
+    public enum Encoding {
+        CONTEXT_PER_CALL, FORMATTED, COMPACT, CODEC
+    }
+
+    /**
+     * Fills the fields of every benchmarked request; the codec skips the elements a request does not have.
+     */
+    private static final String REQUEST = "<COMMAND><TYPE>%s</TYPE><MSISDN>7700000012</MSISDN><MSISDN1>7700000012</MSISDN1>"
+            + "<MSISDN2>7700000013</MSISDN2><AMOUNT>1000</AMOUNT><PIN>1234</PIN><PROVIDER>101</PROVIDER><PROVIDER2>101</PROVIDER2>"
+            + "<BPROVIDER>101</BPROVIDER><PAYID>12</PAYID><PAYID2>12</PAYID2><SNDPROVIDER>101</SNDPROVIDER><RCVPROVIDER>101</RCVPROVIDER>"
+            + "<SNDINSTRUMENT>12</SNDINSTRUMENT><RCVINSTRUMENT>12</RCVINSTRUMENT><IDNO>9942223</IDNO><ACCNO>0101234567</ACCNO>"
+            + "<ACCNO2>0101234567</ACCNO2><BANKID>12</BANKID><PAYMENT_INSTRUMENT>12</PAYMENT_INSTRUMENT><BILLCCODE>101</BILLCCODE>"
+            + "<BILLANO>7788</BILLANO><BILLERCODE>101</BILLERCODE><BNAME>DABS</BNAME><REQUESTORID>1</REQUESTORID><CELLID>1</CELLID>"
+            + "<FTXNID>1</FTXNID><LANGUAGE>1</LANGUAGE><LANGUAGE1>1</LANGUAGE1><LANGUAGE2>1</LANGUAGE2></COMMAND>";
+
+    @Param({"cashIn", "cashOut", "bankToWallet", "walletToBank", "billPayment", "merchantPayment",
+            "p2pChoice1", "p2pChoice2", "nonRegisteredSubscriber", "onlineCustomerBillPayment"})
+    public String translator;
+
+    @Param
+    public Encoding encoding;
+
+    private Object request;
+    private Class<?> responseType;
+    private RequestWriter writer;
+    private ResponseReader reader;
+    private CommandCodec<Object> requestCodec;
+    private CommandCodec<Object> responseCodec;
+    private Marshaller compactMarshaller;
+    private Unmarshaller compactUnmarshaller;
+    private String formattedResponse;
+    private String compactResponse;
+    private byte[] responseBytes;
+
+    @Setup
+    public void setUp() throws JAXBException, IOException {
+        switch (translator) {
+            case "cashIn": {
+                CashInJaxbTranslator t = new CashInJaxbTranslator();
+                prepare("RCIREQ", CashInRequest.class, CashInResponse.class,
+                        m -> t.marshalRequest((CashInRequest) m), t::unmarshalResponse);
+                break;
+            }
+            case "cashOut": {
+                CashOutJaxbTranslator t = new CashOutJaxbTranslator();
+                prepare("RCOREQ", CashOutRequest.class, CashoutResponse.class,
+                        m -> t.marshalCashOutRequest((CashOutRequest) m), t::unmarshalResponse);
+                break;
+            }
+            case "bankToWallet": {
+                BankServiceJaxbTranslator t = new BankServiceJaxbTranslator();
+                prepare("CBWREQ", BankToWalletRequest.class, BankToWalletResponse.class,
+                        m -> t.marshalRequest((BankToWalletRequest) m), t::unmarshalBankToWalletResponse);
+                break;
+            }
+            case "walletToBank": {
+                BankServiceJaxbTranslator t = new BankServiceJaxbTranslator();
+                prepare("CWBREQ", WalletToBankRequest.class, WalletToBankResponse.class,
+                        m -> t.marshalRequest((WalletToBankRequest) m), t::unmarshalWalletToBankResponse);
+                break;
+            }
+            case "billPayment": {
+                BillPaymentJaxbTranslator t = new BillPaymentJaxbTranslator();
+                prepare("SCPMBREQ", StandardBillPaymentRequest.class, StandartBillPaymentResponse.class,
+                        m -> t.marshalRequest((StandardBillPaymentRequest) m), t::unmarshalStandartBillPaymentResponse);
+                break;
+            }
+            case "merchantPayment": {
+                MerchantPaymentJaxbTranslator t = new MerchantPaymentJaxbTranslator();
+                prepare("RMPREQ", MerchantPaymentRequest.class, MerchantPaymentResponse.class,
+                        m -> t.marshalRequest((MerchantPaymentRequest) m), t::unmarshalMerchantPaymentResponse);
+                break;
+            }
+            case "p2pChoice1": {
+                DomesticMoneyTransferChoice1JaxbTranslator t = new DomesticMoneyTransferChoice1JaxbTranslator();
+                prepare("CTMREQ", P2PConfigChoice1InitiationRequest.class, P2PConfigChoice1InitiationResponse.class,
+                        m -> t.marshalRequest((P2PConfigChoice1InitiationRequest) m), t::unmarshalP2PConfigChoice1InitiationResponse);
+                break;
+            }
+            case "p2pChoice2": {
+                DomesticMoneyTransferChoice2JaxbTranslator t = new DomesticMoneyTransferChoice2JaxbTranslator();
+                prepare("CTMREQ", P2PConfigChoice2Request.class, P2PConfigChoice2Response.class,
+                        m -> t.marshalRequest((P2PConfigChoice2Request) m), t::unmarshalP2PConfigChoice1InitiationResponse);
+                break;
+            }
+            case "nonRegisteredSubscriber": {
+                SendMoneyToNonRegisteredSubscriberJaxbTranslator t = new SendMoneyToNonRegisteredSubscriberJaxbTranslator();
+                prepare("RNMCOREQ", SendMoneyToNonRegisteredSubscriberRequest.class, SendMoneyToNonRegisteredSubscriberResponse.class,
+                        m -> t.marshalRequest((SendMoneyToNonRegisteredSubscriberRequest) m),
+                        t::unmarshalSendMoneyToNonRegisteredSubscriberResponse);
+                break;
+            }
+            case "onlineCustomerBillPayment": {
+                OnlineCustomerBillPaymentJaxbTranslator t = new OnlineCustomerBillPaymentJaxbTranslator();
+                prepare("ONLNBP", OnlineCustomerBillPaymentRequest.class, OnlineCustomerBillPaymentResponse.class,
+                        m -> t.marshalRequest((OnlineCustomerBillPaymentRequest) m), t::unmarshalP2PConfigChoice1InitiationResponse);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown translator " + translator);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void prepare(String type, Class<?> requestType, Class<?> responseType, RequestWriter writer, ResponseReader reader)
+            throws JAXBException, IOException
+    {
+        this.responseType = responseType;
+        this.writer = writer;
+        this.reader = reader;
+        this.requestCodec = CommandCodec.forType((Class<Object>) requestType);
+        this.responseCodec = CommandCodec.forType((Class<Object>) responseType);
+        this.request = requestCodec.read(String.format(REQUEST, type).getBytes(StandardCharsets.UTF_8));
+
+        Object response = responseCodec.read(StubMpaisaServer.load("/mpaisa/" + type + ".xml"));
+        this.formattedResponse = JaxbTranslatorRegistry.getInstance().marshal(response);
+        this.responseBytes = responseCodec.toBytes(response);
+        this.compactResponse = new String(responseBytes, StandardCharsets.UTF_8);
+
+        JAXBContext context = JAXBContext.newInstance(requestType, responseType);
+        this.compactMarshaller = context.createMarshaller();
+        this.compactMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.FALSE);
+        this.compactUnmarshaller = context.createUnmarshaller();
+    }
+
+    @Benchmark
+    public Object marshal() throws JAXBException {
+        switch (encoding) {
+            case CONTEXT_PER_CALL: {
+                Marshaller marshaller = JAXBContext.newInstance(request.getClass()).createMarshaller();
+                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+                StringWriter sw = new StringWriter();
+                marshaller.marshal(request, sw);
+                return sw.toString();
+            }
+            case FORMATTED:
+                return writer.write(request);
+            case COMPACT: {
+                StringWriter sw = new StringWriter();
+                compactMarshaller.marshal(request, sw);
+                return sw.toString();
+            }
+            default:
+                return requestCodec.toBytes(request);
+        }
+    }
+
+    @Benchmark
+    public Object unmarshal() throws JAXBException {
+        switch (encoding) {
+            case CONTEXT_PER_CALL:
+                return JAXBContext.newInstance(responseType).createUnmarshaller().unmarshal(new StringReader(formattedResponse));
+            case FORMATTED:
+                return reader.read(formattedResponse);
+            case COMPACT:
+                return compactUnmarshaller.unmarshal(new StringReader(compactResponse));
+            default:
+                return responseCodec.read(responseBytes);
+        }
+    }
+
+    private interface RequestWriter {
+        String write(Object request) throws JAXBException;
+    }
+
+    private interface ResponseReader {
+        Object read(String xmlContent) throws JAXBException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(TranslatorBenchmarks.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,227 @@
+package af.asr.mpaisa;
+
+import af.asr.mpaisa.client.MpaisaGateway;
+import af.asr.mpaisa.client.MpaisaOperation;
+import af.asr.mpaisa.exception.mpaisa.MpaisaTransportException;
+import af.asr.mpaisa.exception.mpaisa.PendingTransactionException;
+import af.asr.mpaisa.message.cashout.CashOutConfirmRequest;
+import af.asr.mpaisa.message.cashout.CashOutConfirmResponse;
+import af.asr.mpaisa.message.cashout.CashOutRequest;
+import af.asr.mpaisa.message.cashout.CashoutResponse;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentConfirmRequest;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentConfirmResponse;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentRequest;
+import af.asr.mpaisa.message.merchantpayment.MerchantPaymentResponse;
+import af.asr.mpaisa.transalator.CommandCodec;
+import af.asr.mpaisa.transaction.PendingTransaction;
+import af.asr.mpaisa.transaction.PendingTransactionStore;
+import af.asr.mpaisa.transaction.TwoPhaseFlow;
+import af.asr.mpaisa.transaction.TwoPhaseTransactionEngine;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class TwoPhaseTransactionEngineTests {
+
+    private static final String CASH_OUT_TXNID = "CO070608.1512.000001";
+    private static final String MERCHANT_PAYMENT_TXNID = "MP110516.0213.C00007";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final AtomicBoolean gatewayDown = new AtomicBoolean();
+    private final List<PendingTransaction> expired = new ArrayList<>();
+
+    private PendingTransactionStore store;
+    private TwoPhaseTransactionEngine engine;
+
+    @Before
+    public void init()
+    {
+        store = store(null);
+        engine = new TwoPhaseTransactionEngine(new SampleGateway(), store, 60000, clock::get);
+    }
+
+    @Test
+    public void confirmsAPendingCashOutOnce() throws Exception {
+        CashoutResponse initiation = engine.initiate(TwoPhaseFlow.CASH_OUT, cashOutRequest()).get(5, TimeUnit.SECONDS);
+
+        assertThat(initiation.getTXNID()).isEqualTo(CASH_OUT_TXNID);
+        assertThat(engine.getPending(CASH_OUT_TXNID).getOperation()).isEqualTo(MpaisaOperation.CASH_OUT);
+
+        CashOutConfirmResponse confirmation = engine.confirm(TwoPhaseFlow.CASH_OUT, confirmRequest()).get(5, TimeUnit.SECONDS);
+        assertThat(confirmation.getTXNSTATUS()).isEqualTo(200);
+        assertThat(store.size()).isZero();
+
+        assertThatThrownBy(() -> engine.confirm(TwoPhaseFlow.CASH_OUT, confirmRequest()).get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(PendingTransactionException.class);
+    }
+
+    @Test
+    public void confirmsAPendingMerchantPayment() throws Exception {
+        MerchantPaymentResponse initiation = engine.initiate(TwoPhaseFlow.MERCHANT_PAYMENT, merchantPaymentRequest()).get(5, TimeUnit.SECONDS);
+
+        assertThat(initiation.getTXNID()).isEqualTo(MERCHANT_PAYMENT_TXNID);
+        assertThat(engine.getPending(MERCHANT_PAYMENT_TXNID).getOperation()).isEqualTo(MpaisaOperation.MERCHANT_PAYMENT);
+
+        MerchantPaymentConfirmRequest confirm = new MerchantPaymentConfirmRequest();
+        confirm.setTYPE("RMPRREQ");
+        confirm.setMSISDN("7754542454");
+        confirm.setTXNID(MERCHANT_PAYMENT_TXNID);
+        MerchantPaymentConfirmResponse confirmation = engine.confirm(TwoPhaseFlow.MERCHANT_PAYMENT, confirm).get(5, TimeUnit.SECONDS);
+        assertThat(confirmation.getTXNID()).isEqualTo(MERCHANT_PAYMENT_TXNID);
+        assertThat(confirmation.getTXNSTATUS()).isEqualTo(200);
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    public void keepsTheTransactionWhenTheConfirmationCannotBeSent() throws Exception {
+        engine.initiate(TwoPhaseFlow.CASH_OUT, cashOutRequest()).get(5, TimeUnit.SECONDS);
+        gatewayDown.set(true);
+
+        assertThatThrownBy(() -> engine.confirm(TwoPhaseFlow.CASH_OUT, confirmRequest()).get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(MpaisaTransportException.class);
+        assertThat(engine.getPending(CASH_OUT_TXNID)).isNotNull();
+
+        gatewayDown.set(false);
+        assertThat(engine.confirm(TwoPhaseFlow.CASH_OUT, confirmRequest()).get(5, TimeUnit.SECONDS).getTXNSTATUS()).isEqualTo(200);
+    }
+
+    @Test
+    public void expiresAbandonedInitiationsOnTheWheel() {
+        for (int i = 0; i < 100000; i++) {
+            store.put(new PendingTransaction(MpaisaOperation.CASH_OUT, "CO" + i, clock.get(), clock.get() + 1000 + i % 5000, new byte[0]));
+        }
+        store.put(new PendingTransaction(MpaisaOperation.CASH_OUT, "LATE", clock.get(), clock.get() + 3600000, new byte[0]));
+
+        clock.addAndGet(3000);
+        assertThat(store.expire()).hasSize(40020);
+        assertThat(store.get("CO0")).isNull();
+        assertThat(store.get("CO2001")).isNotNull();
+
+        clock.addAndGet(3000);
+        store.expire();
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(expired).hasSize(100000);
+
+        clock.addAndGet(3600000);
+        store.expire();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    public void recoversPendingTransactionsFromTheJournal() throws Exception {
+        Path journal = folder.getRoot().toPath().resolve("pending.journal");
+        try (PendingTransactionStore journaled = store(journal)) {
+            journaled.put(new PendingTransaction(MpaisaOperation.CASH_OUT, "CO1", clock.get(), clock.get() + 60000, new byte[]{1, 2}));
+            journaled.put(new PendingTransaction(MpaisaOperation.MERCHANT_PAYMENT, "MP1", clock.get(), clock.get() + 1000, new byte[0]));
+            journaled.put(new PendingTransaction(MpaisaOperation.CASH_OUT, "CO2", clock.get(), clock.get() + 60000, new byte[0]));
+            journaled.remove("CO2");
+        }
+
+        clock.addAndGet(5000);
+        try (PendingTransactionStore recovered = store(journal)) {
+            assertThat(recovered.size()).isEqualTo(1);
+            assertThat(recovered.get("CO1").getInitiationResponse()).containsExactly(1, 2);
+            assertThat(expired).extracting(PendingTransaction::getTxnId).containsExactly("MP1");
+        }
+    }
+
+    @Test
+    public void compactsTheJournalAsTransactionsAreConfirmed() throws Exception {
+        Path journal = folder.getRoot().toPath().resolve("pending.journal");
+        try (PendingTransactionStore journaled = store(journal)) {
+            journaled.put(new PendingTransaction(MpaisaOperation.CASH_OUT, "OPEN", clock.get(), clock.get() + 60000, new byte[0]));
+            for (int i = 0; i < 10000; i++) {
+                journaled.put(new PendingTransaction(MpaisaOperation.CASH_OUT, "CO" + i, clock.get(), clock.get() + 60000, new byte[0]));
+                journaled.remove("CO" + i);
+            }
+            assertThat(Files.readAllLines(journal).size()).isLessThan(2048);
+        }
+
+        try (PendingTransactionStore recovered = store(journal)) {
+            assertThat(recovered.size()).isEqualTo(1);
+            assertThat(recovered.get("OPEN")).isNotNull();
+        }
+    }
+
+    private PendingTransactionStore store(Path journal) {
+        return PendingTransactionStore.Builder.newInstance()
+                .withTickMillis(100)
+                .withWheelSize(256)
+                .withClock(clock::get)
+                .withExpiryListener(expired::add)
+                .withJournal(journal)
+                .build();
+    }
+
+    private static CashOutRequest cashOutRequest() {
+        CashOutRequest request = new CashOutRequest();
+        request.setTYPE("RCOREQ");
+        request.setMSISDN("7700000012");
+        request.setMSISDN2("7700000013");
+        return request;
+    }
+
+    private static MerchantPaymentRequest merchantPaymentRequest() {
+        MerchantPaymentRequest request = new MerchantPaymentRequest();
+        request.setTYPE("RMPREQ");
+        request.setMSISDN("7754542454");
+        request.setMSISDN2("7754542455");
+        request.setAMOUNT(new BigDecimal(10));
+        return request;
+    }
+
+    private static CashOutConfirmRequest confirmRequest() {
+        CashOutConfirmRequest request = new CashOutConfirmRequest();
+        request.setTYPE("RCORREQ");
+        request.setMSISDN("7700000013");
+        request.setTXNID(CASH_OUT_TXNID);
+        return request;
+    }
+
+    /**
+     * Answers with the sample response of the request TYPE, as {@link StubMpaisaServer} does.
+     */
+    private class SampleGateway implements MpaisaGateway {
+
+        @Override
+        public <R> CompletableFuture<R> send(Object request, Class<R> responseType) {
+            CompletableFuture<R> response = new CompletableFuture<>();
+            if (gatewayDown.get()) {
+                response.completeExceptionally(new MpaisaTransportException(MpaisaTransportException.CONNECTION_FAILED, "down"));
+                return response;
+            }
+            String type = request instanceof CashOutRequest ? "RCOREQ"
+                    : request instanceof MerchantPaymentRequest ? "RMPREQ"
+                    : request instanceof MerchantPaymentConfirmRequest ? "RMPRREQ" : "RCORREQ";
+            try (InputStream in = getClass().getResourceAsStream("/mpaisa/" + type + ".xml")) {
+                response.complete(CommandCodec.forType(responseType).read(in));
+            } catch (Exception e) {
+                response.completeExceptionally(e);
+            }
+            return response;
+        }
+    }
+}
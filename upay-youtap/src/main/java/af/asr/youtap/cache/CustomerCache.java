@@ -0,0 +1,200 @@
+package af.asr.youtap.cache;
+
+import af.asr.youtap.codec.MessageDispatcher;
+import af.asr.youtap.codec.NvpCodec;
+import af.asr.youtap.data.CustomerSearchData;
+import af.asr.youtap.type.MessageType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of CustomerSearch results so repeat taps of a regular customer are
+ * answered without a round trip to the server.
+ *
+ * Entries are held by CustomerId in a Caffeine cache, whose W-TinyLFU policy keeps
+ * frequently seen customers over one-off ones. NFCTagId, CardId and MSISDN are
+ * secondary indexes onto the CustomerId; they are cleaned up when an entry is evicted
+ * or invalidated and every index hit is checked against the entry it points to.
+ *
+ * Entries are invalidated when a CustomerUpdate, LinkAccount or PIN change request
+ * for the customer is sent, see {@link #observe(byte[])}.
+ */
+public class CustomerCache {
+
+    /**
+     * Outgoing requests after which the cached search result may be stale
+     */
+    public static final Set<MessageType> INVALIDATING_TYPES = EnumSet.of(
+            MessageType.CUSTOMER_UPDATE_REQUEST,
+            MessageType.LINK_ACCOUNT_REQUEST,
+            MessageType.CUSTOMER_CHANGE_PIN_REQUEST,
+            MessageType.CUSTOMER_RESET_PIN_REQUEST);
+
+    private static final byte[] CUSTOMER_ID = NvpCodec.ascii("CustomerId");
+    private static final byte[] NFC_TAG_ID = NvpCodec.ascii("NFCTagId");
+    private static final byte[] CARD_ID = NvpCodec.ascii("CardId");
+    private static final byte[] MSISDN = NvpCodec.ascii("MSISDN");
+    private static final byte[] CUSTOMER_DATA = NvpCodec.ascii("CustomerData");
+    private static final byte[] CUSTOMER_SEARCH_DATA = NvpCodec.ascii("CustomerSearchData");
+
+    private final Cache<String, CustomerSearchData> customers;
+    private final ConcurrentMap<String, String> byNfcTagId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> byCardId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> byMsisdn = new ConcurrentHashMap<>();
+
+    public CustomerCache(long maximumSize, Duration expireAfterWrite) {
+        this.customers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .executor(Runnable::run)
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    public void put(CustomerSearchData customer) {
+        String customerId = customer.getCustomerId();
+        if (customerId == null) {
+            return;
+        }
+        CustomerSearchData previous = customers.asMap().put(customerId, customer);
+        if (previous != null) {
+            unindex(customerId, previous, customer);
+        }
+        index(byNfcTagId, customer.getNFCTagId(), customerId);
+        index(byCardId, customer.getCardId(), customerId);
+        index(byMsisdn, customer.getMsisdn(), customerId);
+    }
+
+    public CustomerSearchData getByCustomerId(String customerId) {
+        return customerId == null ? null : customers.getIfPresent(customerId);
+    }
+
+    public CustomerSearchData getByNfcTagId(String nfcTagId) {
+        return get(byNfcTagId, nfcTagId, CustomerSearchData::getNFCTagId);
+    }
+
+    public CustomerSearchData getByCardId(String cardId) {
+        return get(byCardId, cardId, CustomerSearchData::getCardId);
+    }
+
+    public CustomerSearchData getByMsisdn(String msisdn) {
+        return get(byMsisdn, msisdn, CustomerSearchData::getMsisdn);
+    }
+
+    public void invalidate(String customerId) {
+        if (customerId != null) {
+            customers.invalidate(customerId);
+        }
+    }
+
+    public void invalidateAll() {
+        customers.invalidateAll();
+    }
+
+    public long size() {
+        return customers.estimatedSize();
+    }
+
+    /**
+     * Invalidates the customer targeted by an outgoing request frame when the request
+     * changes customer data, links an account or changes a PIN.
+     *
+     * The customer is identified by a top level CustomerId, or by CustomerId, NFCTagId,
+     * CardId or MSISDN inside the CustomerData/CustomerSearchData group.
+     */
+    public void observe(byte[] frame) {
+        MessageType type = MessageDispatcher.resolve(frame, 0, frame.length);
+        if (type == null || !INVALIDATING_TYPES.contains(type)) {
+            return;
+        }
+        String customerId = value(frame, 0, frame.length, CUSTOMER_ID);
+        if (customerId != null) {
+            invalidate(customerId);
+            return;
+        }
+        int group = NvpCodec.findValue(frame, 0, frame.length, CUSTOMER_DATA);
+        if (group < 0) {
+            group = NvpCodec.findValue(frame, 0, frame.length, CUSTOMER_SEARCH_DATA);
+        }
+        if (group < 0 || group >= frame.length || frame[group] != NvpCodec.GROUP_OPEN) {
+            return;
+        }
+        int from = group + 1;
+        int to = NvpCodec.valueEnd(frame, from, frame.length);
+        invalidate(value(frame, from, to, CUSTOMER_ID));
+        invalidate(customerIdOf(getByNfcTagId(value(frame, from, to, NFC_TAG_ID))));
+        invalidate(customerIdOf(getByCardId(value(frame, from, to, CARD_ID))));
+        invalidate(customerIdOf(getByMsisdn(value(frame, from, to, MSISDN))));
+    }
+
+    private void onRemoval(String customerId, CustomerSearchData customer, RemovalCause cause) {
+        if (cause != RemovalCause.REPLACED && customerId != null && customer != null) {
+            unindex(customerId, customer, null);
+        }
+    }
+
+    private void unindex(String customerId, CustomerSearchData previous, CustomerSearchData current) {
+        if (current == null || !equal(previous.getNFCTagId(), current.getNFCTagId())) {
+            remove(byNfcTagId, previous.getNFCTagId(), customerId);
+        }
+        if (current == null || !equal(previous.getCardId(), current.getCardId())) {
+            remove(byCardId, previous.getCardId(), customerId);
+        }
+        if (current == null || !equal(previous.getMsisdn(), current.getMsisdn())) {
+            remove(byMsisdn, previous.getMsisdn(), customerId);
+        }
+    }
+
+    /**
+     * Resolves a secondary key, dropping the index entry if it no longer matches the cached customer.
+     */
+    private CustomerSearchData get(ConcurrentMap<String, String> index, String key,
+                                   Function<CustomerSearchData, String> keyOf) {
+        if (key == null) {
+            return null;
+        }
+        String customerId = index.get(key);
+        if (customerId == null) {
+            return null;
+        }
+        CustomerSearchData customer = customers.getIfPresent(customerId);
+        if (customer != null && key.equals(keyOf.apply(customer))) {
+            return customer;
+        }
+        index.remove(key, customerId);
+        return null;
+    }
+
+    private static void index(ConcurrentMap<String, String> index, String key, String customerId) {
+        if (key != null) {
+            index.put(key, customerId);
+        }
+    }
+
+    private static void remove(ConcurrentMap<String, String> index, String key, String customerId) {
+        if (key != null) {
+            index.remove(key, customerId);
+        }
+    }
+
+    private static String value(byte[] frame, int from, int to, byte[] name) {
+        int valueStart = NvpCodec.findValue(frame, from, to, name);
+        return valueStart < 0 ? null : NvpCodec.decode(frame, valueStart, NvpCodec.valueEnd(frame, valueStart, to));
+    }
+
+    private static String customerIdOf(CustomerSearchData customer) {
+        return customer == null ? null : customer.getCustomerId();
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,22 @@
+package af.asr.youtap.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CustomerCacheConfig {
+
+    @Value("${youtap.customer.cache.maximumSize:10000}")
+    private long maximumSize;
+
+    @Value("${youtap.customer.cache.expireAfterWriteMinutes:30}")
+    private long expireAfterWriteMinutes;
+
+    @Bean
+    public CustomerCache customerCache() {
+        return new CustomerCache(maximumSize, Duration.ofMinutes(expireAfterWriteMinutes));
+    }
+}
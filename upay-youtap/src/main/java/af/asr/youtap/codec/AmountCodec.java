@@ -0,0 +1,151 @@
+package af.asr.youtap.codec;
+
+import af.asr.youtap.util.Amount;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formats and parses fixed-point amounts and rates in the NVP wire format
+ * without going through double or String.format.
+ *
+ * Example:
+ *
+ * WorkingAmount=1.00,SendingAmountExclFees=1.0,FxRate=1.3080636,Fee=5.0
+ */
+public final class AmountCodec {
+
+    private AmountCodec() {
+    }
+
+    /**
+     * 131 is written as "1.31"
+     */
+    public static String formatAmount(long minorUnits) {
+        return format(minorUnits, Amount.MINOR_UNIT_SCALE);
+    }
+
+    /**
+     * 13080636 is written as "1.3080636"
+     */
+    public static String formatFxRate(long scaledRate) {
+        return format(scaledRate, Amount.FX_RATE_SCALE);
+    }
+
+    public static String format(long value, int scale) {
+        return append(new StringBuilder(24), value, scale).toString();
+    }
+
+    /**
+     * Appends the value with exactly {@code scale} decimal places.
+     */
+    public static StringBuilder append(StringBuilder builder, long value, int scale) {
+        long unit = Amount.pow10(scale);
+        if (value < 0) {
+            builder.append('-');
+            long whole = -(value / unit);
+            long fraction = -(value % unit);
+            builder.append(whole);
+            return appendFraction(builder, fraction, scale);
+        }
+        builder.append(value / unit);
+        return appendFraction(builder, value % unit, scale);
+    }
+
+    private static StringBuilder appendFraction(StringBuilder builder, long fraction, int scale) {
+        if (scale == 0) {
+            return builder;
+        }
+        builder.append('.');
+        for (long digit = Amount.pow10(scale - 1); digit > 1 && fraction < digit; digit /= 10) {
+            builder.append('0');
+        }
+        return builder.append(fraction);
+    }
+
+    public static long parseAmount(CharSequence text) {
+        return parse(text, 0, text.length(), Amount.MINOR_UNIT_SCALE);
+    }
+
+    public static long parseFxRate(CharSequence text) {
+        return parse(text, 0, text.length(), Amount.FX_RATE_SCALE);
+    }
+
+    /**
+     * Parses a decimal such as "1", "1.0" or "-12.345" into a long scaled to
+     * {@code scale} decimal places. Digits beyond the scale are rejected rather
+     * than rounded so no precision is lost silently.
+     */
+    public static long parse(CharSequence text, int from, int to, int scale) {
+        if (from >= to) {
+            throw new NumberFormatException("Empty amount");
+        }
+        boolean negative = text.charAt(from) == '-';
+        int i = negative ? from + 1 : from;
+        long value = 0L;
+        int decimals = -1;
+        boolean digits = false;
+        for (; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Invalid amount: " + text.subSequence(from, to));
+            }
+            if (decimals >= 0 && ++decimals > scale) {
+                throw new NumberFormatException("Too many decimal places: " + text.subSequence(from, to));
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10L), c - '0');
+            digits = true;
+        }
+        if (!digits) {
+            throw new NumberFormatException("Invalid amount: " + text.subSequence(from, to));
+        }
+        value = Math.multiplyExact(value, Amount.pow10(scale - Math.max(decimals, 0)));
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses an ASCII encoded amount straight from a received frame.
+     */
+    public static long parse(byte[] frame, int from, int to, int scale) {
+        return parse(new AsciiSequence(frame, from, to), 0, to - from, scale);
+    }
+
+    /**
+     * Read-only view over an ASCII slice of a frame, avoids decoding to a String.
+     */
+    static final class AsciiSequence implements CharSequence {
+
+        private final byte[] bytes;
+        private final int offset;
+        private final int length;
+
+        AsciiSequence(byte[] bytes, int from, int to) {
+            this.bytes = bytes;
+            this.offset = from;
+            this.length = to - from;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[offset + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new AsciiSequence(bytes, offset + start, offset + end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, offset, length, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package af.asr.youtap.codec;
+
+import af.asr.youtap.type.MessageType;
+
+/**
+ * Routes received frames to the parser and handler registered for their MessageType.
+ *
+ * Routes are held in an array indexed by {@link MessageType#ordinal()} and the type is
+ * resolved from the frame bytes with {@link MessageType#lookup(byte[], int, int)}, so a
+ * dispatch costs the same whichever of the message types arrives. Frames with a missing
+ * or unknown MessageType are rejected without being decoded.
+ *
+ * Routes are registered at start up; dispatching is safe from any thread once
+ * registration is complete.
+ */
+public class MessageDispatcher {
+
+    private final Route<?>[] routes = new Route<?>[MessageType.values().length];
+
+    public <T> MessageDispatcher register(MessageType type, MessageParser<T> parser, MessageHandler<? super T> handler) {
+        routes[type.ordinal()] = new Route<>(parser, handler);
+        return this;
+    }
+
+    public boolean isRegistered(MessageType type) {
+        return routes[type.ordinal()] != null;
+    }
+
+    /**
+     * Resolves the MessageType field of a frame.
+     *
+     * @return the message type, or null when the field is missing or unknown
+     */
+    public static MessageType resolve(byte[] frame, int from, int to) {
+        int valueStart = NvpCodec.findValue(frame, from, to, NvpCodec.MESSAGE_TYPE);
+        if (valueStart < 0) {
+            return null;
+        }
+        return MessageType.lookup(frame, valueStart, NvpCodec.valueEnd(frame, valueStart, to));
+    }
+
+    public boolean dispatch(byte[] frame) {
+        return dispatch(frame, 0, frame.length);
+    }
+
+    /**
+     * @return false when the frame has no known MessageType or no route is registered for it
+     */
+    public boolean dispatch(byte[] frame, int from, int to) {
+        MessageType type = resolve(frame, from, to);
+        if (type == null) {
+            return false;
+        }
+        Route<?> route = routes[type.ordinal()];
+        if (route == null) {
+            return false;
+        }
+        route.dispatch(frame, from, to);
+        return true;
+    }
+
+    private static final class Route<T> {
+
+        private final MessageParser<T> parser;
+        private final MessageHandler<? super T> handler;
+
+        private Route(MessageParser<T> parser, MessageHandler<? super T> handler) {
+            this.parser = parser;
+            this.handler = handler;
+        }
+
+        private void dispatch(byte[] frame, int from, int to) {
+            handler.handle(parser.parse(frame, from, to));
+        }
+    }
+}
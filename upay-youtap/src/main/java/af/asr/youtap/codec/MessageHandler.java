@@ -0,0 +1,12 @@
+package af.asr.youtap.codec;
+
+/**
+ * Business handling of a parsed Youtap message.
+ *
+ * @param <T> parsed message type
+ */
+@FunctionalInterface
+public interface MessageHandler<T> {
+
+    void handle(T message);
+}
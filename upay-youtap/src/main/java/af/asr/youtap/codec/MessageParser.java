@@ -0,0 +1,12 @@
+package af.asr.youtap.codec;
+
+/**
+ * Builds a message object from the bytes of a received NVP frame.
+ *
+ * @param <T> parsed message type
+ */
+@FunctionalInterface
+public interface MessageParser<T> {
+
+    T parse(byte[] frame, int from, int to);
+}
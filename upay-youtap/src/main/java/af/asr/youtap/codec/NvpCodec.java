@@ -0,0 +1,127 @@
+package af.asr.youtap.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Field scanning over raw NVP frames as received from the socket.
+ *
+ * A frame is a comma separated list of Name=Value pairs where a value may be a
+ * nested group in parentheses, e.g.
+ *
+ * MessageType=CustomerSearch,TransactionId=0000000114,CustomerSearchData=(MSISDN=6421700700)
+ *
+ * The scanners work on byte offsets so values can be handed to
+ * {@link AmountCodec} or {@link af.asr.youtap.type.MessageType#lookup(byte[], int, int)}
+ * without decoding the frame to a String first.
+ */
+public final class NvpCodec {
+
+    public static final byte SEPARATOR = ',';
+    public static final byte ASSIGN = '=';
+    public static final byte GROUP_OPEN = '(';
+    public static final byte GROUP_CLOSE = ')';
+
+    public static final byte[] MESSAGE_TYPE = ascii("MessageType");
+
+    private NvpCodec() {
+    }
+
+    public static byte[] ascii(String name) {
+        return name.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Finds the value of a top level field.
+     *
+     * @return offset of the first byte of the value, or -1 when the field is absent
+     */
+    public static int findValue(byte[] frame, int from, int to, byte[] name) {
+        int pos = from;
+        while (pos < to) {
+            int assign = indexOf(frame, pos, to, ASSIGN);
+            if (assign < 0) {
+                return -1;
+            }
+            int valueStart = assign + 1;
+            if (regionEquals(frame, pos, assign, name)) {
+                return valueStart;
+            }
+            pos = valueEnd(frame, valueStart, to) + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * @return offset just past the value starting at {@code from}: the separator
+     * or closing parenthesis that ends it at the same nesting level, or {@code to}
+     */
+    public static int valueEnd(byte[] frame, int from, int to) {
+        int depth = 0;
+        for (int i = from; i < to; i++) {
+            byte b = frame[i];
+            if (b == GROUP_OPEN) {
+                depth++;
+            } else if (b == GROUP_CLOSE) {
+                if (depth == 0) {
+                    return i;
+                }
+                depth--;
+            } else if (b == SEPARATOR && depth == 0) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * @return the integer value of a top level field, or {@code absent} when the field is missing
+     */
+    public static int intValue(byte[] frame, byte[] name, int absent) {
+        int valueStart = findValue(frame, 0, frame.length, name);
+        if (valueStart < 0) {
+            return absent;
+        }
+        return parseInt(frame, valueStart, valueEnd(frame, valueStart, frame.length));
+    }
+
+    public static boolean regionEquals(byte[] frame, int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (frame[from + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static String decode(byte[] frame, int from, int to) {
+        return new String(frame, from, to - from, StandardCharsets.US_ASCII);
+    }
+
+    public static int parseInt(byte[] frame, int from, int to) {
+        if (from >= to) {
+            throw new NumberFormatException("Empty number");
+        }
+        boolean negative = frame[from] == '-';
+        int value = 0;
+        for (int i = negative ? from + 1 : from; i < to; i++) {
+            int digit = frame[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid number: " + decode(frame, from, to));
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10), digit);
+        }
+        return negative ? -value : value;
+    }
+
+    private static int indexOf(byte[] frame, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (frame[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
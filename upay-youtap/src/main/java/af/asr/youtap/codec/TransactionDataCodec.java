@@ -0,0 +1,79 @@
+package af.asr.youtap.codec;
+
+import af.asr.youtap.data.TransactionData;
+import af.asr.youtap.util.Amount;
+
+/**
+ * Parses a single TransactionData group of a TransactionSearch or LastTransactions response.
+ *
+ * Example:
+ *
+ * TransactionData=(TransactionType=MERCHANTTRANSACTION,TransactionDate=20130701131621,Status=0,
+ * CustomerId=86717,MerchantId=86637,PaymentType=C2MP,PaymentTrailId=1234,WorkingCurrency=554,
+ * WorkingAmount=1.00)
+ */
+public final class TransactionDataCodec {
+
+    public static final byte[] TRANSACTION_DATA = NvpCodec.ascii("TransactionData");
+
+    private static final byte[] TRANSACTION_TYPE = NvpCodec.ascii("TransactionType");
+    private static final byte[] TRANSACTION_DATE = NvpCodec.ascii("TransactionDate");
+    private static final byte[] STATUS = NvpCodec.ascii("Status");
+    private static final byte[] MESSAGE = NvpCodec.ascii("Message");
+    private static final byte[] CUSTOMER_ID = NvpCodec.ascii("CustomerId");
+    private static final byte[] MERCHANT_ID = NvpCodec.ascii("MerchantId");
+    private static final byte[] PAYMENT_TYPE = NvpCodec.ascii("PaymentType");
+    private static final byte[] PAYMENT_TRAIL_ID = NvpCodec.ascii("PaymentTrailId");
+    private static final byte[] WORKING_CURRENCY = NvpCodec.ascii("WorkingCurrency");
+    private static final byte[] WORKING_AMOUNT = NvpCodec.ascii("WorkingAmount");
+
+    private TransactionDataCodec() {
+    }
+
+    /**
+     * @param from offset of the first field inside the parentheses
+     * @param to   offset of the closing parenthesis
+     */
+    public static TransactionData parse(byte[] frame, int from, int to) {
+        TransactionData.Builder builder = TransactionData.Builder.newInstance();
+        int pos = from;
+        while (pos < to) {
+            int assign = pos;
+            while (assign < to && frame[assign] != NvpCodec.ASSIGN) {
+                assign++;
+            }
+            if (assign == to) {
+                break;
+            }
+            int valueStart = assign + 1;
+            int valueEnd = NvpCodec.valueEnd(frame, valueStart, to);
+            field(builder, frame, pos, assign, valueStart, valueEnd);
+            pos = valueEnd + 1;
+        }
+        return builder.build();
+    }
+
+    private static void field(TransactionData.Builder builder, byte[] frame, int nameStart, int nameEnd, int from, int to) {
+        if (NvpCodec.regionEquals(frame, nameStart, nameEnd, TRANSACTION_TYPE)) {
+            builder.withTransactionType(NvpCodec.decode(frame, from, to));
+        } else if (NvpCodec.regionEquals(frame, nameStart, nameEnd, TRANSACTION_DATE)) {
+            builder.withTransactionDate(NvpCodec.decode(frame, from, to));
+        } else if (NvpCodec.regionEquals(frame, nameStart, nameEnd, STATUS)) {
+            builder.withStatus(NvpCodec.parseInt(frame, from, to));
+        } else if (NvpCodec.regionEquals(frame, nameStart, nameEnd, MESSAGE)) {
+            builder.withSearchTxnMessage(NvpCodec.decode(frame, from, to));
+        } else if (NvpCodec.regionEquals(frame, nameStart, nameEnd, CUSTOMER_ID)) {
+            builder.withCustomerId(NvpCodec.decode(frame, from, to));
+        } else if (NvpCodec.regionEquals(frame, nameStart, nameEnd, MERCHANT_ID)) {
+            builder.withMerchantId(NvpCodec.decode(frame, from, to));
+        } else if (NvpCodec.regionEquals(frame, nameStart, nameEnd, PAYMENT_TYPE)) {
+            builder.withPaymentType(NvpCodec.decode(frame, from, to));
+        } else if (NvpCodec.regionEquals(frame, nameStart, nameEnd, PAYMENT_TRAIL_ID)) {
+            builder.withPaymentTrailId(AmountCodec.parse(frame, from, to, 0));
+        } else if (NvpCodec.regionEquals(frame, nameStart, nameEnd, WORKING_CURRENCY)) {
+            builder.withWorkingCurrency(NvpCodec.parseInt(frame, from, to));
+        } else if (NvpCodec.regionEquals(frame, nameStart, nameEnd, WORKING_AMOUNT)) {
+            builder.withWorkingAmount(AmountCodec.parse(frame, from, to, Amount.MINOR_UNIT_SCALE));
+        }
+    }
+}
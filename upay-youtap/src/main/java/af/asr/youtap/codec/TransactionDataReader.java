@@ -0,0 +1,174 @@
+package af.asr.youtap.codec;
+
+import af.asr.youtap.data.TransactionData;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the TransactionData records of a TransactionSearch or LastTransactions response
+ * one at a time as the bytes arrive, instead of materializing the whole statement.
+ *
+ * Only the record currently being parsed is buffered, so memory use is bounded by
+ * {@code maxRecordSize} however many records the response carries. The BlockCount
+ * and Status fields of the response are captured as they are passed.
+ */
+public class TransactionDataReader implements Iterator<TransactionData>, Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 4096;
+    public static final int DEFAULT_MAX_RECORD_SIZE = 64 * 1024;
+
+    private static final byte[] BLOCK_COUNT = NvpCodec.ascii("BlockCount");
+    private static final byte[] STATUS = NvpCodec.ascii("Status");
+
+    private final InputStream in;
+    private final int maxRecordSize;
+
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean endOfStream;
+
+    private TransactionData next;
+    private int blockCount = -1;
+    private int status = -1;
+
+    public TransactionDataReader(InputStream in) {
+        this(in, DEFAULT_BUFFER_SIZE, DEFAULT_MAX_RECORD_SIZE);
+    }
+
+    public TransactionDataReader(InputStream in, int bufferSize, int maxRecordSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+        this.maxRecordSize = maxRecordSize;
+    }
+
+    /**
+     * @return BlockCount of the response, or -1 when it has not been read yet
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * @return Status of the response, or -1 when it has not been read yet
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public TransactionData next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        TransactionData record = next;
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private TransactionData readNext() throws IOException {
+        while (true) {
+            skipBlanks();
+            if (position == limit && !fill()) {
+                return null;
+            }
+            int end = NvpCodec.valueEnd(buffer, position, limit);
+            if (end == limit && !endOfStream) {
+                fill();
+                continue;
+            }
+            int fieldStart = position;
+            position = Math.min(end + 1, limit);
+            TransactionData record = field(fieldStart, end);
+            if (record != null) {
+                return record;
+            }
+        }
+    }
+
+    private TransactionData field(int from, int to) {
+        int assign = from;
+        while (assign < to && buffer[assign] != NvpCodec.ASSIGN) {
+            assign++;
+        }
+        if (assign == to) {
+            return null;
+        }
+        int valueStart = assign + 1;
+        if (NvpCodec.regionEquals(buffer, from, assign, TransactionDataCodec.TRANSACTION_DATA)
+                && valueStart < to && buffer[valueStart] == NvpCodec.GROUP_OPEN) {
+            int valueEnd = buffer[to - 1] == NvpCodec.GROUP_CLOSE ? to - 1 : to;
+            return TransactionDataCodec.parse(buffer, valueStart + 1, valueEnd);
+        }
+        if (NvpCodec.regionEquals(buffer, from, assign, BLOCK_COUNT)) {
+            blockCount = NvpCodec.parseInt(buffer, valueStart, to);
+        } else if (NvpCodec.regionEquals(buffer, from, assign, STATUS)) {
+            status = NvpCodec.parseInt(buffer, valueStart, to);
+        }
+        return null;
+    }
+
+    private void skipBlanks() throws IOException {
+        while (true) {
+            while (position < limit && (buffer[position] <= ' ' || buffer[position] == NvpCodec.SEPARATOR)) {
+                position++;
+            }
+            if (position < limit || !fill()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads more bytes, compacting or growing the buffer so the field in progress stays contiguous.
+     *
+     * @return false at end of stream
+     */
+    private boolean fill() throws IOException {
+        if (endOfStream) {
+            return false;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            if (buffer.length >= maxRecordSize) {
+                throw new IOException("TransactionData record exceeds " + maxRecordSize + " bytes");
+            }
+            byte[] grown = new byte[Math.min(buffer.length * 2, maxRecordSize)];
+            System.arraycopy(buffer, 0, grown, 0, limit);
+            buffer = grown;
+        }
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfStream = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+}
@@ -1,5 +1,7 @@
 package af.asr.youtap.data;
 
+import af.asr.youtap.codec.AmountCodec;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -12,11 +14,14 @@ import java.util.Map;
 public class AuthData {
 
     /**
-     * Threshold amount above which the ID
+     * Threshold amount, in minor units, above which the ID
      * specified in CTALId needs to be requested.
      */
-    private Map<String, Double> CTALAmount;
-    private Map<String, Double> CTALId;
+    private Map<String, Long> CTALAmount;
+    /**
+     * One of the {@link af.asr.youtap.util.CTALId} codes.
+     */
+    private Map<String, Integer> CTALId;
 
 
     public AuthData(Builder builder)
@@ -27,8 +32,8 @@ public class AuthData {
 
     public static class Builder {
 
-        private Map<String, Double> CTALAmount = new HashMap<>();
-        private Map<String, Double> CTALId = new HashMap<>();
+        private Map<String, Long> CTALAmount = new HashMap<>();
+        private Map<String, Integer> CTALId = new HashMap<>();
 
 
         public static Builder newInstance()
@@ -36,15 +41,20 @@ public class AuthData {
             return new Builder();
         }
 
-        public Builder addToCTALAmount(String name, Double amount)
+        public Builder addToCTALAmount(String name, long amount)
         {
             this.CTALAmount.put(name, amount);
             return this;
         }
 
-        public Builder addToCTALId(String name, Double amount)
+        public Builder addToCTALAmount(String name, CharSequence amount)
+        {
+            return addToCTALAmount(name, AmountCodec.parseAmount(amount));
+        }
+
+        public Builder addToCTALId(String name, int id)
         {
-            this.CTALId.put(name, amount);
+            this.CTALId.put(name, id);
             return this;
         }
 
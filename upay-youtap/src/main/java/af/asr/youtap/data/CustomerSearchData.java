@@ -151,6 +151,26 @@ public class CustomerSearchData {
 
     }
 
+    public String getNFCTagId()
+    {
+        return NFCTagId;
+    }
+
+    public String getCustomerId()
+    {
+        return customerId;
+    }
+
+    public String getMsisdn()
+    {
+        return msisdn;
+    }
+
+    public String getCardId()
+    {
+        return cardId;
+    }
+
     public String getData()
     {
         return String.format("");
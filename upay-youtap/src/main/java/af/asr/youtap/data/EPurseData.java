@@ -69,8 +69,31 @@ public class EPurseData {
 
     }
 
+    public String getEPurseId() {
+        return ePurseId;
+    }
+
+    public String getEPurseCurrency() {
+        return ePurseCurrency;
+    }
+
+    public String getEPurseBalance() {
+        return ePurseBalance;
+    }
+
+    public String getEPurseCounter() {
+        return ePurseCounter;
+    }
+
+    /**
+     * @return the transaction counter of the card, written as hexadecimal on the wire
+     */
+    public long getEPurseCounterValue() {
+        return Long.parseLong(ePurseCounter, 16);
+    }
+
     public String getData()
     {
-        return String.format("");
+        return String.format("(EPurseId=%s,EPurseCurrency=%s,EPurseBalance=%s,EPurseCounter=%s)", this.ePurseId, this.ePurseCurrency, this.ePurseBalance, this.ePurseCounter);
     }
 }
@@ -99,9 +99,9 @@ public class TransactionData {
 
     /**
      * Transaction amount in the specified
-     * currency
+     * currency, in minor units
      */
-    private double workingAmount;
+    private long workingAmount;
 
     private TransactionData(Builder builder)
     {
@@ -128,7 +128,7 @@ public class TransactionData {
         private String paymentType;
         private long paymentTrailId;
         private int workingCurrency;
-        private double workingAmount;
+        private long workingAmount;
 
 
         public static Builder newInstance()
@@ -190,7 +190,7 @@ public class TransactionData {
             return this;
         }
 
-        public Builder withWorkingAmount(double workingAmount)
+        public Builder withWorkingAmount(long workingAmount)
         {
             this.workingAmount = workingAmount;
             return this;
@@ -202,6 +202,56 @@ public class TransactionData {
         }
     }
 
+    public String getTransactionType()
+    {
+        return transactionType;
+    }
+
+    public String getTransactionDate()
+    {
+        return transactionDate;
+    }
+
+    public int getStatus()
+    {
+        return status;
+    }
+
+    public String getSearchTxnMessage()
+    {
+        return searchTxnMessage;
+    }
+
+    public String getCustomerId()
+    {
+        return customerId;
+    }
+
+    public String getMerchantId()
+    {
+        return merchantId;
+    }
+
+    public String getPaymentType()
+    {
+        return paymentType;
+    }
+
+    public long getPaymentTrailId()
+    {
+        return paymentTrailId;
+    }
+
+    public int getWorkingCurrency()
+    {
+        return workingCurrency;
+    }
+
+    public long getWorkingAmount()
+    {
+        return workingAmount;
+    }
+
     public String getData()
     {
         return String.format("");
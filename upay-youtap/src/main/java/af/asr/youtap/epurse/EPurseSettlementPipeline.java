@@ -0,0 +1,119 @@
+package af.asr.youtap.epurse;
+
+import af.asr.youtap.codec.NvpCodec;
+import af.asr.youtap.network.gateway.TcpClientGateway;
+import af.asr.youtap.util.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Settles the queued offline EPurse authorizations once the server is reachable again.
+ *
+ * Each terminal's queue is sent in batches of {@code batchSize}. Within a batch the
+ * authorizations are pipelined over the executor, so as many requests are in flight as it
+ * has threads (size it to the connection pool of the gateway). Authorizations of the same
+ * purse on a terminal are still sent one after the other, in counter order.
+ *
+ * When a request cannot be delivered, or the server answers with a system error, it and
+ * the rest of its terminal's queue stay queued for the next run.
+ */
+@Slf4j
+public class EPurseSettlementPipeline {
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * Local outcome of an authorization that was not answered by the server.
+     */
+    private static final int NOT_SENT = -1;
+
+    private static final byte[] STATUS = NvpCodec.ascii("Status");
+
+    private final OfflineAuthorizationQueue queue;
+    private final TcpClientGateway gateway;
+    private final Executor executor;
+    private final int batchSize;
+
+    public EPurseSettlementPipeline(OfflineAuthorizationQueue queue, TcpClientGateway gateway, Executor executor) {
+        this(queue, gateway, executor, DEFAULT_BATCH_SIZE);
+    }
+
+    public EPurseSettlementPipeline(OfflineAuthorizationQueue queue, TcpClientGateway gateway, Executor executor, int batchSize) {
+        this.queue = queue;
+        this.gateway = gateway;
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    public SettlementResult settle() {
+        int settled = 0;
+        int deferred = 0;
+        List<OfflineAuthorization> declined = new ArrayList<>();
+        for (String terminalId : queue.getTerminalIds()) {
+            List<OfflineAuthorization> batch = new ArrayList<>(batchSize);
+            while (queue.drain(terminalId, batchSize, batch) > 0) {
+                List<OfflineAuthorization> retry = new ArrayList<>();
+                int[] statuses = send(batch);
+                for (int i = 0; i < batch.size(); i++) {
+                    int status = statuses[i];
+                    if (status == Status.SUCCESSFUL) {
+                        settled++;
+                    } else if (status == NOT_SENT || status == Status.SYSTEM_ERROR) {
+                        retry.add(batch.get(i));
+                    } else {
+                        log.warn("Offline authorization of purse {} counter {} on terminal {} refused with status {}",
+                                batch.get(i).getEPurseId(), Long.toHexString(batch.get(i).getEPurseCounter()), terminalId, status);
+                        declined.add(batch.get(i));
+                    }
+                }
+                batch.clear();
+                if (!retry.isEmpty()) {
+                    queue.requeue(terminalId, retry);
+                    break;
+                }
+            }
+            deferred += queue.size(terminalId);
+        }
+        return new SettlementResult(settled, deferred, declined);
+    }
+
+    /**
+     * @return the status of each authorization of the batch, {@link #NOT_SENT} when it was not answered
+     */
+    private int[] send(List<OfflineAuthorization> batch) {
+        Map<String, CompletableFuture<Integer>> lastOfPurse = new HashMap<>();
+        List<CompletableFuture<Integer>> outcomes = new ArrayList<>(batch.size());
+        for (OfflineAuthorization authorization : batch) {
+            CompletableFuture<Integer> previous = lastOfPurse.get(authorization.getEPurseId());
+            CompletableFuture<Integer> outcome;
+            if (previous == null) {
+                outcome = CompletableFuture.supplyAsync(() -> send(authorization), executor);
+            } else {
+                outcome = previous.thenApplyAsync(status ->
+                        status == NOT_SENT || status == Status.SYSTEM_ERROR ? NOT_SENT : send(authorization), executor);
+            }
+            lastOfPurse.put(authorization.getEPurseId(), outcome);
+            outcomes.add(outcome);
+        }
+        int[] statuses = new int[outcomes.size()];
+        for (int i = 0; i < statuses.length; i++) {
+            statuses[i] = outcomes.get(i).join();
+        }
+        return statuses;
+    }
+
+    private int send(OfflineAuthorization authorization) {
+        try {
+            return NvpCodec.intValue(gateway.send(authorization.getMessage()), STATUS, Status.SYSTEM_ERROR);
+        } catch (RuntimeException e) {
+            log.error("Settling offline authorization of terminal {} failed: {}", authorization.getTerminalId(), e.getMessage());
+            return NOT_SENT;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package af.asr.youtap.epurse;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An EPurseTransactionAuthorize performed by a terminal while it could not reach the server,
+ * kept as the wire message it will be settled with.
+ */
+public class OfflineAuthorization {
+
+    private final String terminalId;
+    private final String ePurseId;
+    private final long ePurseCounter;
+    private final byte[] message;
+
+    public OfflineAuthorization(String terminalId, String ePurseId, long ePurseCounter, String message) {
+        this.terminalId = terminalId;
+        this.ePurseId = ePurseId;
+        this.ePurseCounter = ePurseCounter;
+        this.message = message.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public String getTerminalId() {
+        return terminalId;
+    }
+
+    public String getEPurseId() {
+        return ePurseId;
+    }
+
+    public long getEPurseCounter() {
+        return ePurseCounter;
+    }
+
+    public byte[] getMessage() {
+        return message;
+    }
+}
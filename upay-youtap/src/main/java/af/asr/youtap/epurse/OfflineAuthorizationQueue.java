@@ -0,0 +1,140 @@
+package af.asr.youtap.epurse;
+
+import af.asr.youtap.data.EPurseData;
+import af.asr.youtap.message.request.EPurseTransactionAuthorizeRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Offline EPurse authorizations waiting to be settled, grouped per terminal in the order
+ * they were performed.
+ *
+ * The card decrements its EPurseCounter on every write, so an authorization whose counter
+ * is not below the last one queued for the same purse is a replayed or rolled back card
+ * image and is refused here instead of being discovered by the server at settlement.
+ *
+ * A purse's last counter is kept after its authorizations are drained, so a card image
+ * replayed after a sync is still refused. The counters are held in a Caffeine cache bounded
+ * in size and forgetting purses not written for the retention time; a terminal's queue is
+ * dropped once drained.
+ */
+public class OfflineAuthorizationQueue {
+
+    public static final long DEFAULT_MAXIMUM_PURSES = 1_000_000;
+    public static final Duration DEFAULT_COUNTER_RETENTION = Duration.ofDays(7);
+
+    private final ConcurrentHashMap<String, Deque<OfflineAuthorization>> byTerminal = new ConcurrentHashMap<>();
+    private final Cache<String, Long> lastCounters;
+
+    public OfflineAuthorizationQueue() {
+        this(DEFAULT_MAXIMUM_PURSES, DEFAULT_COUNTER_RETENTION);
+    }
+
+    /**
+     * @param maximumPurses most purses whose last counter is remembered
+     * @param counterRetention how long the last counter of a purse is remembered after it was
+     *                         last offered or requeued, at least the longest offline window
+     */
+    public OfflineAuthorizationQueue(long maximumPurses, Duration counterRetention) {
+        this.lastCounters = Caffeine.newBuilder()
+                .maximumSize(maximumPurses)
+                .expireAfterWrite(counterRetention)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * @param purse the purse as read from the card before the authorization was written
+     * @return false when the purse counter did not move forward and the authorization was refused
+     */
+    public boolean offer(EPurseTransactionAuthorizeRequest request, EPurseData purse) {
+        long counter = purse.getEPurseCounterValue();
+        boolean[] moved = new boolean[1];
+        lastCounters.asMap().compute(purse.getEPurseId(), (ePurseId, lastCounter) -> {
+            if (lastCounter != null && counter >= lastCounter) {
+                return lastCounter;
+            }
+            moved[0] = true;
+            return counter;
+        });
+        if (!moved[0]) {
+            return false;
+        }
+        if (request.getEPurseData() == null) {
+            request.setEPurseData(purse.getData());
+        }
+        OfflineAuthorization authorization = new OfflineAuthorization(request.getTerminalId(), purse.getEPurseId(), counter, request.getMessage());
+        byTerminal.compute(request.getTerminalId(), (terminalId, queue) -> {
+            Deque<OfflineAuthorization> queued = queue == null ? new ArrayDeque<>() : queue;
+            queued.addLast(authorization);
+            return queued;
+        });
+        return true;
+    }
+
+    /**
+     * Moves up to {@code max} of the oldest authorizations of a terminal to {@code batch}.
+     *
+     * @return number of authorizations moved
+     */
+    public int drain(String terminalId, int max, Collection<? super OfflineAuthorization> batch) {
+        List<OfflineAuthorization> drained = new ArrayList<>();
+        byTerminal.computeIfPresent(terminalId, (id, queue) -> {
+            while (drained.size() < max && !queue.isEmpty()) {
+                drained.add(queue.pollFirst());
+            }
+            return queue.isEmpty() ? null : queue;
+        });
+        batch.addAll(drained);
+        return drained.size();
+    }
+
+    /**
+     * Puts authorizations that could not be settled back in front of the terminal's queue,
+     * keeping their original order.
+     */
+    public void requeue(String terminalId, List<OfflineAuthorization> authorizations) {
+        for (OfflineAuthorization authorization : authorizations) {
+            lastCounters.asMap().merge(authorization.getEPurseId(), authorization.getEPurseCounter(), Math::min);
+        }
+        byTerminal.compute(terminalId, (id, queue) -> {
+            Deque<OfflineAuthorization> queued = queue == null ? new ArrayDeque<>() : queue;
+            ListIterator<OfflineAuthorization> it = authorizations.listIterator(authorizations.size());
+            while (it.hasPrevious()) {
+                queued.addFirst(it.previous());
+            }
+            return queued.isEmpty() ? null : queued;
+        });
+    }
+
+    public Set<String> getTerminalIds() {
+        return byTerminal.keySet();
+    }
+
+    public int size(String terminalId) {
+        int[] size = new int[1];
+        byTerminal.computeIfPresent(terminalId, (id, queue) -> {
+            size[0] = queue.size();
+            return queue;
+        });
+        return size[0];
+    }
+
+    /**
+     * @return number of purses whose last counter is currently remembered
+     */
+    public long purseCount() {
+        lastCounters.cleanUp();
+        return lastCounters.estimatedSize();
+    }
+}
@@ -0,0 +1,40 @@
+package af.asr.youtap.epurse;
+
+import java.util.List;
+
+/**
+ * Outcome of one settlement run.
+ */
+public class SettlementResult {
+
+    private final int settled;
+    private final int deferred;
+    private final List<OfflineAuthorization> declined;
+
+    SettlementResult(int settled, int deferred, List<OfflineAuthorization> declined) {
+        this.settled = settled;
+        this.deferred = deferred;
+        this.declined = declined;
+    }
+
+    /**
+     * @return authorizations accepted by the server
+     */
+    public int getSettled() {
+        return settled;
+    }
+
+    /**
+     * @return authorizations left queued because the server could not be reached or answered with a system error
+     */
+    public int getDeferred() {
+        return deferred;
+    }
+
+    /**
+     * @return authorizations the server refused, which will not be retried
+     */
+    public List<OfflineAuthorization> getDeclined() {
+        return declined;
+    }
+}
@@ -39,6 +39,11 @@ public class CustomerSearchRequest {
         }
 
 
+        public Builder withTerminalId(String terminalId){
+            this.terminalId = terminalId;
+            return this;
+        }
+
         public Builder withMerchantId(String merchantId){
             this.merchantId = merchantId;
             return this;
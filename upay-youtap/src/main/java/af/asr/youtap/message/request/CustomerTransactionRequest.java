@@ -1,15 +1,18 @@
 package af.asr.youtap.message.request;
 
+import af.asr.youtap.codec.AmountCodec;
+
 public class CustomerTransactionRequest {
 
     private String messageType;
     private String terminalId;
     private String merchantId;
+    private int merchantPin;
     private String transactionId;
     private String customerSearchData;
     private String paymentType;
     private String workingCurrency;
-    private double workingAmount;
+    private long workingAmount;
     private String idData;
     private String fingerData;
 
@@ -18,6 +21,7 @@ public class CustomerTransactionRequest {
         this.messageType = builder.messageType;
         this.terminalId = builder.terminalId;
         this.merchantId = builder.merchantId;
+        this.merchantPin = builder.merchantPin;
         this.transactionId = builder.transactionId;
         this.customerSearchData = builder.customerSearchData;
         this.fingerData = builder.fingerData;
@@ -33,11 +37,12 @@ public class CustomerTransactionRequest {
         private String messageType;
         private String terminalId;
         private String merchantId;
+        private int merchantPin;
         private String transactionId;
         private String customerSearchData;
         private String paymentType;
         private String workingCurrency;
-        private double workingAmount;
+        private long workingAmount;
         private String idData;
         private String fingerData;
 
@@ -62,6 +67,12 @@ public class CustomerTransactionRequest {
             return this;
         }
 
+        public Builder withMerchantPin(int merchantPin)
+        {
+            this.merchantPin = merchantPin;
+            return this;
+        }
+
         public Builder withTransactionId(String transactionId)
         {
             this.transactionId = transactionId;
@@ -91,7 +102,7 @@ public class CustomerTransactionRequest {
             return this;
         }
 
-        public Builder withWorkingAmount(double workingAmount)
+        public Builder withWorkingAmount(long workingAmount)
         {
             this.workingAmount = workingAmount;
             return  this;
@@ -112,6 +123,6 @@ public class CustomerTransactionRequest {
 
     public String getMessage()
     {
-        return String.format("MessageType=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,MerchantPin=%s,CustomerSearchData=%s,PaymentType=%s,WorkingCurrency=%s,WorkingAmount=%f", this.messageType, this.transactionId, this.terminalId, this.merchantId, this.customerSearchData, this.paymentType, this.workingCurrency, this.workingAmount);
+        return String.format("MessageType=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,MerchantPin=%d,CustomerSearchData=%s,PaymentType=%s,WorkingCurrency=%s,WorkingAmount=%s", this.messageType, this.transactionId, this.terminalId, this.merchantId, this.merchantPin, this.customerSearchData, this.paymentType, this.workingCurrency, AmountCodec.formatAmount(this.workingAmount));
     }
 }
@@ -1,5 +1,6 @@
 package af.asr.youtap.message.request;
 
+import af.asr.youtap.codec.AmountCodec;
 import lombok.Data;
 
 /**
@@ -19,7 +20,7 @@ public class EPurseTransactionAuthorizeRequest {
     private String merchantPin;
     private String paymentType;
     private String workingCurrency;
-    private double workingAmount;
+    private long workingAmount;
     private String date;
     private String time;
     /**
@@ -43,6 +44,6 @@ public class EPurseTransactionAuthorizeRequest {
      */
     public String getMessage()
     {
-        return String.format("MessageType=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,CardType=%s,Context=%s,CustomerData=%s,EPurseLog=%s,PaymentType=%s,WorkingAmount=%f,Date=%s,Time=%s,MERCHANTPIN=%s,App=%s,WorkingCurrency=%s,EPurseData=%s", this.messageType, this.transactionId, this.terminalId, this.merchantId, this.cardType, this.context, this.customerData, this.ePurseLog, this.paymentType, this.workingAmount, this.date,this.time, this.merchantPin, this.app, this.workingCurrency, this.ePurseData);
+        return String.format("MessageType=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,CardType=%s,Context=%s,CustomerData=%s,EPurseLog=%s,PaymentType=%s,WorkingAmount=%s,Date=%s,Time=%s,MERCHANTPIN=%s,App=%s,WorkingCurrency=%s,EPurseData=%s", this.messageType, this.transactionId, this.terminalId, this.merchantId, this.cardType, this.context, this.customerData, this.ePurseLog, this.paymentType, AmountCodec.formatAmount(this.workingAmount), this.date,this.time, this.merchantPin, this.app, this.workingCurrency, this.ePurseData);
     }
 }
@@ -1,5 +1,6 @@
 package af.asr.youtap.message.request;
 
+import af.asr.youtap.codec.AmountCodec;
 import lombok.Data;
 
 @Data
@@ -12,7 +13,7 @@ public class EPurseTransactionRequest {
     private String customerData;
     private String paymentType;
     private String workingCurrency;
-    private double workingAmount;
+    private long workingAmount;
     private String cardType;
     private String cardData;
     private String context;
@@ -31,6 +32,6 @@ public class EPurseTransactionRequest {
      */
     public String getMessage()
     {
-        return String.format("MessageType=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,CardType=%s,PaymentType=%s,CustomerData=%s,CardData=%s,WorkingCurrency=%s,WorkingAmount=%f,Context=%s", this.messageType,this.transactionId, this.terminalId, this.merchantId, this.cardType, this.paymentType, this.customerData, this.cardData, this.workingCurrency, this.workingAmount,this.context);
+        return String.format("MessageType=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,CardType=%s,PaymentType=%s,CustomerData=%s,CardData=%s,WorkingCurrency=%s,WorkingAmount=%s,Context=%s", this.messageType,this.transactionId, this.terminalId, this.merchantId, this.cardType, this.paymentType, this.customerData, this.cardData, this.workingCurrency, AmountCodec.formatAmount(this.workingAmount),this.context);
     }
 }
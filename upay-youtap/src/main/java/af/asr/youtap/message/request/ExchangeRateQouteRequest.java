@@ -1,5 +1,7 @@
 package af.asr.youtap.message.request;
 
+import af.asr.youtap.codec.AmountCodec;
+
 public class ExchangeRateQouteRequest {
 
     private String messageType;
@@ -12,7 +14,7 @@ public class ExchangeRateQouteRequest {
     private String destinationCurrency;
     private String workingCurrency;
     private String customerData;
-    private double workingAmount;
+    private long workingAmount;
 
     private ExchangeRateQouteRequest(Builder builder)
     {
@@ -42,7 +44,7 @@ public class ExchangeRateQouteRequest {
         private String destinationCurrency;
         private String workingCurrency;
         private String customerData;
-        private double workingAmount;
+        private long workingAmount;
 
 
         public static Builder newInstance(){
@@ -107,7 +109,7 @@ public class ExchangeRateQouteRequest {
             return this;
         }
 
-        public Builder withWorkingAmount(double workingAmount)
+        public Builder withWorkingAmount(long workingAmount)
         {
             this.workingAmount = workingAmount;
             return  this;
@@ -130,6 +132,6 @@ public class ExchangeRateQouteRequest {
      */
     public String getMessage()
     {
-        return String.format("MessageType=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,CustomerId=%s,PaymentType=%s,SourceCurrency=%s,DestinationCurrency=%s,WorkingCurrency=%s,WorkingAmount=%f, CustomerData=%s", this.messageType, this.transactionId, this.terminalId, this.merchantId, this.customerId, this.paymentType, this.sourceCurrency, this.destinationCurrency, this.workingCurrency, this.workingAmount, this.customerData);
+        return String.format("MessageType=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,CustomerId=%s,PaymentType=%s,SourceCurrency=%s,DestinationCurrency=%s,WorkingCurrency=%s,WorkingAmount=%s,CustomerData=%s", this.messageType, this.transactionId, this.terminalId, this.merchantId, this.customerId, this.paymentType, this.sourceCurrency, this.destinationCurrency, this.workingCurrency, AmountCodec.formatAmount(this.workingAmount), this.customerData);
     }
 }
@@ -1,5 +1,7 @@
 package af.asr.youtap.message.request;
 
+import af.asr.youtap.codec.AmountCodec;
+
 import java.time.LocalDate;
 
 public class ExchangeTransactionRequest {
@@ -14,15 +16,19 @@ public class ExchangeTransactionRequest {
     private String sourceCurrency;
     private String destinationCurrency;
     private String workingCurrency;
-    private double sendingAmountExclFees;
-    private String fxRate;
-    private String fee;
-    private String costToSend;
-    private double receiveAmount;
+    /**
+     * Amounts are in minor units of their currency and the
+     * FxRate is scaled, see {@link af.asr.youtap.util.Amount}
+     */
+    private long sendingAmountExclFees;
+    private long fxRate;
+    private long fee;
+    private long costToSend;
+    private long receiveAmount;
     private String billPayeeId;
     private String billPayeeReference;
     private String contactMSISDN;
-    private double workingAmount;
+    private long workingAmount;
 
 
     public ExchangeTransactionRequest(Builder builder)
@@ -61,15 +67,15 @@ public class ExchangeTransactionRequest {
         private String sourceCurrency;
         private String destinationCurrency;
         private String workingCurrency;
-        private double sendingAmountExclFees;
-        private String fxRate;
-        private String fee;
-        private String costToSend;
-        private double receiveAmount;
+        private long sendingAmountExclFees;
+        private long fxRate;
+        private long fee;
+        private long costToSend;
+        private long receiveAmount;
         private String billPayeeId;
         private String billPayeeReference;
         private String contactMSISDN;
-        private double workingAmount;
+        private long workingAmount;
 
 
         public static Builder newInstance(){
@@ -135,37 +141,37 @@ public class ExchangeTransactionRequest {
             return this;
         }
 
-        public Builder withSendingAmountExclFees(double sendingAmountExclFees)
+        public Builder withSendingAmountExclFees(long sendingAmountExclFees)
         {
             this.sendingAmountExclFees = sendingAmountExclFees;
             return this;
         }
 
-        public Builder withFxRate(String fxRate)
+        public Builder withFxRate(long fxRate)
         {
             this.fxRate = fxRate;
             return  this;
         }
 
-        public Builder withFee(String fee)
+        public Builder withFee(long fee)
         {
             this.fee  = fee;
             return this;
         }
 
-        public Builder withCostToSend(String costToSend)
+        public Builder withCostToSend(long costToSend)
         {
             this.costToSend = costToSend;
             return this;
         }
 
-        public Builder withReceiveAmount(double receiveAmount)
+        public Builder withReceiveAmount(long receiveAmount)
         {
             this.receiveAmount = receiveAmount;
             return this;
         }
 
-        public Builder withWorkingAmount(double workingAmount)
+        public Builder withWorkingAmount(long workingAmount)
         {
             this.workingAmount = workingAmount;
             return this;
@@ -221,7 +227,7 @@ public class ExchangeTransactionRequest {
     {
         LocalDate now = LocalDate.now();
         String date = String.format("%d/%d/%d", now.getDayOfMonth(), now.getMonthValue(), now.getYear());
-        return  String.format("MessageType=%s,Date=%s,Time=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,StaffPin=%s,CustomerId=%s,PaymentType=%s,SourceCurrency=%s,DestinationCurrency=%s,WorkingCurrency=%s,WorkingAmount=%s,SendingAmountExclFees=%f,FxRate=%s,Fee=%s,CostToSend=%s,ReceivedAmount%f,ContactMsisdn=%s", this.messageType, date, "", this.transactionId, this.terminalId, this.merchantId, this.staffPin, this.customerId, this.paymentType, this.sourceCurrency, this.destinationCurrency, this.workingCurrency, this.workingAmount, this.sendingAmountExclFees, this.fxRate, this.fee, this.costToSend, this.receiveAmount, this.contactMSISDN );
+        return  String.format("MessageType=%s,Date=%s,Time=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,StaffPin=%s,CustomerId=%s,PaymentType=%s,SourceCurrency=%s,DestinationCurrency=%s,WorkingCurrency=%s,WorkingAmount=%s,SendingAmountExclFees=%s,FxRate=%s,Fee=%s,CostToSend=%s,ReceivedAmount=%s,ContactMsisdn=%s", this.messageType, date, "", this.transactionId, this.terminalId, this.merchantId, this.staffPin, this.customerId, this.paymentType, this.sourceCurrency, this.destinationCurrency, this.workingCurrency, AmountCodec.formatAmount(this.workingAmount), AmountCodec.formatAmount(this.sendingAmountExclFees), AmountCodec.formatFxRate(this.fxRate), AmountCodec.formatAmount(this.fee), AmountCodec.formatAmount(this.costToSend), AmountCodec.formatAmount(this.receiveAmount), this.contactMSISDN );
     }
 
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package af.asr.youtap.message.request;
 
+import af.asr.youtap.codec.AmountCodec;
+
 public class MerchantTransactionRequest {
 
     private String messageType;
@@ -15,7 +17,7 @@ public class MerchantTransactionRequest {
     private String customerSearchData;
     private String paymentType;
     private String workingCurrency;
-    private double workingAmount;
+    private long workingAmount;
     private String idData;
     private String fingerData;
     /**
@@ -56,7 +58,7 @@ public class MerchantTransactionRequest {
         private String customerSearchData;
         private String paymentType;
         private String workingCurrency;
-        private double workingAmount;
+        private long workingAmount;
         private String idData;
         private String fingerData;
         /**
@@ -115,7 +117,7 @@ public class MerchantTransactionRequest {
             return this;
         }
 
-        public Builder withWorkingAmount(double workingAmount)
+        public Builder withWorkingAmount(long workingAmount)
         {
             this.workingAmount = workingAmount;
             return  this;
@@ -148,6 +150,6 @@ public class MerchantTransactionRequest {
 
     public String getMessage()
     {
-        return String.format("MessageType=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,MerchantPin=%d,CustomerSearchData=%s,PaymentType=%s,WorkingCurrency=%s,WorkingAmount=%f", this.messageType, this.transactionId, this.terminalId, this.merchantId, this.merchantPin, this.paymentType, this.workingCurrency, this.workingAmount );
+        return String.format("MessageType=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,MerchantPin=%d,CustomerSearchData=%s,PaymentType=%s,WorkingCurrency=%s,WorkingAmount=%s", this.messageType, this.transactionId, this.terminalId, this.merchantId, this.merchantPin, this.customerSearchData, this.paymentType, this.workingCurrency, AmountCodec.formatAmount(this.workingAmount));
     }
 }
@@ -35,6 +35,7 @@ public class MiniStatementRequest {
         this.transactionId = builder.transactionId;
         this.requestBlock = builder.requestBlock;
         this.txnHistoryCount = builder.txnHistoryCount;
+        this.customerData = builder.customerData;
         this.prnDspFormat = builder.prnDspFormat;
     }
 
@@ -110,7 +111,7 @@ public class MiniStatementRequest {
 
     public String getMessage()
     {
-        return String.format("MessageType=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,TxnHistoryCount=%d,PrnDspFormat=P,RequestBlock=%d,CustomerData=%d", this.messageType, this.transactionId, this.terminalId, this.merchantId, this.txnHistoryCount, this.prnDspFormat, this.requestBlock, this.customerData);
+        return String.format("MessageType=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,TxnHistoryCount=%d,PrnDspFormat=%s,RequestBlock=%d,CustomerData=%s", this.messageType, this.transactionId, this.terminalId, this.merchantId, this.txnHistoryCount, this.prnDspFormat, this.requestBlock, this.customerData);
     }
 
 }
@@ -27,6 +27,6 @@ public class TransactionSearchRequest {
      */
     public String getMessage()
     {
-        return String.format("MessageType=%s,Date=%s,Time=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,TransactionSearchData=%s,App=%s", this.messageType, this.date, this.time, this.transactionId, this.terminalId, this.merchantId, this.transactionSearchData);
+        return String.format("MessageType=%s,Date=%s,Time=%s,TransactionId=%s,TerminalId=%s,MerchantId=%s,TransactionSearchData=%s,App=%s", this.messageType, this.date, this.time, this.transactionId, this.terminalId, this.merchantId, this.transactionSearchData, this.app);
     }
 }
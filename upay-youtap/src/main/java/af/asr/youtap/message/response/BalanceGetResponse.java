@@ -1,13 +1,15 @@
 package af.asr.youtap.message.response;
 
+import af.asr.youtap.codec.AmountCodec;
+
 public class BalanceGetResponse {
 
     private String messageType;
     private int status;
     private String transactionId;
     private String dspData;
-    private Double balance;
-    private Double topupBalance;
+    private long balance;
+    private long topupBalance;
 
     public BalanceGetResponse(Builder builder)
     {
@@ -26,8 +28,8 @@ public class BalanceGetResponse {
         private int status;
         private String transactionId;
         private String dspData;
-        private Double balance;
-        private Double topupBalance;
+        private long balance;
+        private long topupBalance;
 
 
 
@@ -55,13 +57,13 @@ public class BalanceGetResponse {
             return this;
         }
 
-        public Builder withBalance(Double balance)
+        public Builder withBalance(long balance)
         {
             this.balance = balance;
             return this;
         }
 
-        public Builder withTopUpBalance(Double topupBalance)
+        public Builder withTopUpBalance(long topupBalance)
         {
             this.topupBalance = topupBalance;
             return this;
@@ -75,7 +77,7 @@ public class BalanceGetResponse {
 
     public String getMessage()
     {
-        return String.format("Status=%d,TransactionId=%s,Balance=%d,DspData=%s,TopupBalance=%d,MessageType=%s", this.status, this.transactionId, this.balance, this.dspData, this.topupBalance, this.messageType);
+        return String.format("Status=%d,TransactionId=%s,Balance=%s,DspData=%s,TopupBalance=%s,MessageType=%s", this.status, this.transactionId, AmountCodec.formatAmount(this.balance), this.dspData, AmountCodec.formatAmount(this.topupBalance), this.messageType);
     }
 
 }
@@ -0,0 +1,116 @@
+package af.asr.youtap.network.client;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.function.Supplier;
+
+/**
+ * Sends one request on its own connection and hands the response back as the socket's
+ * {@link InputStream}, so a long response can be parsed while it is still arriving.
+ *
+ * Requests and responses are framed as by the CRLF serializer of the outbound gateway:
+ * the request is followed by CRLF, and the returned stream ends at the CRLF ending the
+ * response. Closing the stream closes the connection.
+ */
+public class StreamingTcpClient {
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private final Supplier<InetSocketAddress> address;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+
+    /**
+     * @param address server to connect to, asked again for every request
+     * @param readTimeoutMillis longest wait for the next bytes of the response
+     */
+    public StreamingTcpClient(Supplier<InetSocketAddress> address, int connectTimeoutMillis, int readTimeoutMillis) {
+        this.address = address;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    public StreamingTcpClient(String host, int port, int connectTimeoutMillis, int readTimeoutMillis) {
+        this(() -> new InetSocketAddress(host, port), connectTimeoutMillis, readTimeoutMillis);
+    }
+
+    /**
+     * @return the response, read from the socket as the caller consumes it
+     */
+    public InputStream send(byte[] message) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(address.get(), connectTimeoutMillis);
+            socket.setSoTimeout(readTimeoutMillis);
+            OutputStream out = socket.getOutputStream();
+            out.write(message);
+            out.write(CR);
+            out.write(LF);
+            out.flush();
+            return new ResponseInputStream(socket);
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Response bytes up to and including the terminating CRLF.
+     */
+    private static final class ResponseInputStream extends InputStream {
+
+        private final Socket socket;
+        private final InputStream in;
+        private boolean afterCr;
+        private boolean ended;
+
+        ResponseInputStream(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (ended) {
+                return -1;
+            }
+            int b = in.read();
+            if (b < 0) {
+                ended = true;
+            } else {
+                ended = afterCr && b == LF;
+                afterCr = b == CR;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int first = read();
+            if (first < 0) {
+                return -1;
+            }
+            b[off] = (byte) first;
+            int count = 1;
+            // only what is already buffered, so a record is handed over as soon as its bytes arrive
+            while (count < len && !ended && in.available() > 0) {
+                b[off + count++] = (byte) read();
+            }
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            ended = true;
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package af.asr.youtap.network.client;
+
+import af.asr.youtap.codec.TransactionDataReader;
+import af.asr.youtap.data.TransactionData;
+import af.asr.youtap.message.request.MiniStatementRequest;
+import af.asr.youtap.message.request.TransactionSearchRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Walks a merchant's transaction history block by block.
+ *
+ * A block is only requested once the records of the previous one have been consumed,
+ * and records are parsed one at a time by a {@link TransactionDataReader} straight from
+ * the connection, so a long statement never has more than one record in flight on the client.
+ *
+ * A block whose response Status is not 0 fails with a {@link YoutapStatusException}
+ * rather than reading as the end of the history.
+ */
+public class TransactionHistoryCursor implements Iterator<TransactionData>, AutoCloseable {
+
+    /**
+     * Opens the response of one block, the first block is zero.
+     */
+    @FunctionalInterface
+    public interface BlockSource {
+
+        InputStream open(int block) throws IOException;
+    }
+
+    private final BlockSource source;
+
+    private TransactionDataReader reader;
+    private int block = -1;
+    private int blockCount = 1;
+
+    public TransactionHistoryCursor(BlockSource source) {
+        this.source = source;
+    }
+
+    /**
+     * LastTransactions, requesting each block with RequestBlock set on the given request.
+     */
+    public static TransactionHistoryCursor miniStatement(StreamingTcpClient client, MiniStatementRequest.Builder request) {
+        return new TransactionHistoryCursor(block -> send(client, request.withRequestBlock(block).buid().getMessage()));
+    }
+
+    /**
+     * TransactionSearch, answered in a single block.
+     */
+    public static TransactionHistoryCursor transactionSearch(StreamingTcpClient client, TransactionSearchRequest request) {
+        return new TransactionHistoryCursor(block -> send(client, request.getMessage()));
+    }
+
+    private static InputStream send(StreamingTcpClient client, String message) throws IOException {
+        return client.send(message.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Adds up to {@code pageSize} records to {@code page}.
+     *
+     * @return number of records added, 0 once the history is exhausted
+     */
+    public int nextPage(Collection<? super TransactionData> page, int pageSize) {
+        int count = 0;
+        while (count < pageSize && hasNext()) {
+            page.add(next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return block currently being read, -1 before the first one is requested
+     */
+    public int getBlock() {
+        return block;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (reader == null || !reader.hasNext()) {
+                if (reader != null) {
+                    checkStatus(true);
+                    if (reader.getBlockCount() >= 0) {
+                        blockCount = reader.getBlockCount();
+                    }
+                    reader.close();
+                    reader = null;
+                }
+                if (block + 1 >= blockCount) {
+                    return false;
+                }
+                block++;
+                reader = new TransactionDataReader(source.open(block));
+            }
+            checkStatus(false);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param ended whether the whole block has been read, a missing Status then failing it too
+     */
+    private void checkStatus(boolean ended) throws IOException {
+        int status = reader.getStatus();
+        if (status != 0 && (ended || status != -1)) {
+            reader.close();
+            reader = null;
+            blockCount = 0;
+            throw new YoutapStatusException("Block " + block, status);
+        }
+    }
+
+    @Override
+    public TransactionData next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return reader.next();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
+        blockCount = 0;
+    }
+}
@@ -0,0 +1,21 @@
+package af.asr.youtap.network.client;
+
+/**
+ * A Youtap response carrying a Status other than success.
+ */
+public class YoutapStatusException extends RuntimeException {
+
+    private final int status;
+
+    public YoutapStatusException(String message, int status) {
+        super(message + " failed with Status=" + status);
+        this.status = status;
+    }
+
+    /**
+     * @return Status of the response, -1 when the response had none
+     */
+    public int getStatus() {
+        return status;
+    }
+}
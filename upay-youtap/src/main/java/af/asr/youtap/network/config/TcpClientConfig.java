@@ -1,5 +1,11 @@
 package af.asr.youtap.network.config;
 
+import af.asr.youtap.network.client.StreamingTcpClient;
+import af.asr.youtap.network.routing.Endpoint;
+import af.asr.youtap.network.routing.EndpointRouter;
+import af.asr.youtap.network.routing.RoutingMessageHandler;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
@@ -12,31 +18,61 @@ import org.springframework.integration.ip.tcp.connection.AbstractClientConnectio
 import org.springframework.integration.ip.tcp.connection.CachingClientConnectionFactory;
 import org.springframework.integration.ip.tcp.connection.TcpNioClientConnectionFactory;
 import org.springframework.messaging.MessageChannel;
-import org.springframework.messaging.MessageHandler;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 //@EnableScheduling
-public class TcpClientConfig implements ApplicationEventPublisherAware {
-
+public class TcpClientConfig implements ApplicationEventPublisherAware, BeanFactoryAware {
 
-    @Value("${tcp.server.host}")
-    private String host;
 
-    @Value("${tcp.server.port}")
-    private int port;
+    /**
+     * Comma separated host:port list of the Youtap servers, defaults to the single tcp.server.host and tcp.server.port.
+     */
+    @Value("${tcp.server.endpoints:${tcp.server.host}:${tcp.server.port}}")
+    private String[] endpoints;
 
     @Value("${tcp.client.connection.poolSize}")
     private int connectionPoolSize;
 
+    @Value("${tcp.client.routing.ejectAfterFailures:3}")
+    private int ejectAfterFailures;
+
+    @Value("${tcp.client.routing.baseEjectionMillis:1000}")
+    private long baseEjectionMillis;
+
+    @Value("${tcp.client.routing.maxEjectionMillis:60000}")
+    private long maxEjectionMillis;
+
+    @Value("${tcp.client.routing.decay:0.2}")
+    private double decay;
+
+    @Value("${tcp.client.routing.drainTimeoutMillis:5000}")
+    private long drainTimeoutMillis;
+
+    @Value("${tcp.client.streaming.connectTimeoutMillis:5000}")
+    private int streamingConnectTimeoutMillis;
+
+    @Value("${tcp.client.streaming.readTimeoutMillis:30000}")
+    private int streamingReadTimeoutMillis;
+
     private ApplicationEventPublisher applicationEventPublisher;
 
+    private BeanFactory beanFactory;
+
     @Override
     public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
         this.applicationEventPublisher = applicationEventPublisher;
     }
 
-    @Bean
-    public AbstractClientConnectionFactory clientConnectionFactory() {
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    private AbstractClientConnectionFactory clientConnectionFactory(String host, int port) {
         TcpNioClientConnectionFactory tcpNioClientConnectionFactory = new TcpNioClientConnectionFactory(host, port);
         tcpNioClientConnectionFactory.setUsingDirectBuffers(true);
         tcpNioClientConnectionFactory.setApplicationEventPublisher(applicationEventPublisher);
@@ -48,12 +84,40 @@ public class TcpClientConfig implements ApplicationEventPublisherAware {
         return new DirectChannel();
     }
 
-    @Bean
+    @Bean(initMethod = "start", destroyMethod = "stop")
     @ServiceActivator(inputChannel = "outboundChannel")
-    public MessageHandler outboundGateway(AbstractClientConnectionFactory clientConnectionFactory) {
-        TcpOutboundGateway tcpOutboundGateway = new TcpOutboundGateway();
-        tcpOutboundGateway.setConnectionFactory(clientConnectionFactory);
-        return tcpOutboundGateway;
+    public RoutingMessageHandler outboundGateway() {
+        EndpointRouter.Builder<TcpOutboundGateway> router = EndpointRouter.Builder.<TcpOutboundGateway>newInstance()
+                .withEjectAfterFailures(ejectAfterFailures)
+                .withBaseEjectionMillis(baseEjectionMillis)
+                .withMaxEjectionMillis(maxEjectionMillis)
+                .withDecay(decay);
+        List<AbstractClientConnectionFactory> connectionFactories = new ArrayList<>();
+        for (String endpoint : endpoints) {
+            int separator = endpoint.lastIndexOf(':');
+            String host = endpoint.substring(0, separator).trim();
+            int port = Integer.parseInt(endpoint.substring(separator + 1).trim());
+            AbstractClientConnectionFactory clientConnectionFactory = clientConnectionFactory(host, port);
+            TcpOutboundGateway tcpOutboundGateway = new TcpOutboundGateway();
+            tcpOutboundGateway.setConnectionFactory(clientConnectionFactory);
+            tcpOutboundGateway.setBeanFactory(beanFactory);
+            connectionFactories.add(clientConnectionFactory);
+            router.withEndpoint(host, port, tcpOutboundGateway);
+        }
+        return new RoutingMessageHandler(router.build(), connectionFactories, drainTimeoutMillis);
+    }
+
+    /**
+     * Client for responses read while they arrive, e.g. by TransactionHistoryCursor, connecting
+     * to the endpoint the outbound gateway's router would pick.
+     */
+    @Bean
+    public StreamingTcpClient streamingTcpClient() {
+        EndpointRouter<TcpOutboundGateway> router = outboundGateway().getRouter();
+        return new StreamingTcpClient(() -> {
+            Endpoint<TcpOutboundGateway> endpoint = router.select();
+            return new InetSocketAddress(endpoint.getHost(), endpoint.getPort());
+        }, streamingConnectTimeoutMillis, streamingReadTimeoutMillis);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package af.asr.youtap.network.routing;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One Youtap server the client can route to, with the health observed on it so far.
+ *
+ * The statistics are only written by {@link EndpointRouter}, under the endpoint's monitor.
+ */
+public class Endpoint<T> {
+
+    private final String host;
+    private final int port;
+    private final T target;
+
+    final AtomicInteger inFlight = new AtomicInteger();
+    /**
+     * Set while the one request probing an ejected endpoint is in flight.
+     */
+    final AtomicBoolean probing = new AtomicBoolean();
+
+    volatile double latencyNanos;
+    volatile double errorRate;
+    volatile long ejectedUntil;
+    volatile boolean draining;
+    int consecutiveFailures;
+    volatile int ejections;
+
+    Endpoint(String host, int port, T target) {
+        this.host = host;
+        this.port = port;
+        this.target = target;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public T getTarget() {
+        return target;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return moving average of the successful round trips, 0 before the first one
+     */
+    public double getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * @return moving average of the failure ratio, between 0 and 1
+     */
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    @Override
+    public String toString() {
+        return host + ":" + port;
+    }
+}
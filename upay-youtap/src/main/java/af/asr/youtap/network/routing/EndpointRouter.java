@@ -0,0 +1,301 @@
+package af.asr.youtap.network.routing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Spreads requests over several Youtap servers by the latency and error rate observed on each.
+ *
+ * Every request picks two endpoints at random and goes to the cheaper one, the cost being
+ * the average round trip weighted by the requests already in flight and the recent error
+ * rate. An endpoint failing {@code ejectAfterFailures} times in a row is ejected: it gets no
+ * new requests for a backoff that doubles with every ejection in a row, up to
+ * {@code maxEjectionMillis}. Once the backoff has passed a single probe request is let through
+ * while the endpoint stays out of rotation; the probe succeeding restores it and the probe
+ * failing ejects it for longer. Requests still in flight from before the ejection do not
+ * change its state either way.
+ *
+ * Requests already sent to an ejected or draining endpoint are left to complete, see
+ * {@link #awaitDrained(Endpoint, long)}.
+ */
+@Slf4j
+public class EndpointRouter<T> {
+
+    public static final int DEFAULT_EJECT_AFTER_FAILURES = 3;
+    public static final long DEFAULT_BASE_EJECTION_MILLIS = 1000;
+    public static final long DEFAULT_MAX_EJECTION_MILLIS = 60000;
+    public static final double DEFAULT_DECAY = 0.2;
+
+    /**
+     * Floor of the success rate in the cost, so an endpoint that only failed lately is avoided but still comparable.
+     */
+    private static final double MIN_SUCCESS_RATE = 0.05;
+
+    private final List<Endpoint<T>> endpoints;
+    private final int ejectAfterFailures;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+    private final double decay;
+    private final LongSupplier clock;
+
+    public EndpointRouter(Builder<T> builder)
+    {
+        this.endpoints = Collections.unmodifiableList(new ArrayList<>(builder.endpoints));
+        this.ejectAfterFailures = builder.ejectAfterFailures;
+        this.baseEjectionNanos = TimeUnit.MILLISECONDS.toNanos(builder.baseEjectionMillis);
+        this.maxEjectionNanos = TimeUnit.MILLISECONDS.toNanos(builder.maxEjectionMillis);
+        this.decay = builder.decay;
+        this.clock = builder.clock;
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+    }
+
+    public List<Endpoint<T>> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Runs {@code call} against the selected endpoint and records how it went.
+     * Any exception thrown by the call counts as a failure of the endpoint and is rethrown.
+     */
+    public <R> R execute(Function<? super T, R> call) {
+        long start = clock.getAsLong();
+        Endpoint<T> endpoint = claimProbe(start);
+        boolean probe = endpoint != null;
+        if (!probe) {
+            endpoint = select();
+        }
+        endpoint.inFlight.incrementAndGet();
+        boolean success = false;
+        try {
+            R result = call.apply(endpoint.getTarget());
+            success = true;
+            return result;
+        } finally {
+            record(endpoint, start, success, probe);
+        }
+    }
+
+    /**
+     * Leaves out ejected endpoints even once their backoff has passed, unless every endpoint
+     * is ejected, as only {@link #execute(Function)} sends and judges their probe.
+     *
+     * @return the endpoint the next request should go to
+     * @throws IllegalStateException when every endpoint is draining
+     */
+    public Endpoint<T> select() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Endpoint<T> first = eligible(random.nextInt(endpoints.size()), null);
+        if (first == null) {
+            return leastEjected();
+        }
+        Endpoint<T> second = eligible(random.nextInt(endpoints.size()), first);
+        return second == null || cost(first) <= cost(second) ? first : second;
+    }
+
+    /**
+     * Stops routing new requests to the endpoint, e.g. before taking the server down.
+     */
+    public void drain(Endpoint<T> endpoint) {
+        endpoint.draining = true;
+    }
+
+    public void restore(Endpoint<T> endpoint) {
+        endpoint.draining = false;
+    }
+
+    /**
+     * Waits for the requests in flight on the endpoint to complete.
+     *
+     * @return false when some were still in flight after {@code timeoutMillis}
+     */
+    public boolean awaitDrained(Endpoint<T> endpoint, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (endpoint) {
+            while (endpoint.inFlight.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(endpoint, remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the endpoint would currently be selected at all, if only as the probe
+     */
+    public boolean isAvailable(Endpoint<T> endpoint) {
+        return !endpoint.draining && (endpoint.ejections == 0 || isProbeDue(endpoint, clock.getAsLong()));
+    }
+
+    /**
+     * @return an ejected endpoint whose backoff has passed, now reserved for this request as its probe
+     */
+    private Endpoint<T> claimProbe(long now) {
+        int size = endpoints.size();
+        int start = ThreadLocalRandom.current().nextInt(size);
+        for (int i = 0; i < size; i++) {
+            Endpoint<T> endpoint = endpoints.get((start + i) % size);
+            if (!endpoint.draining && endpoint.ejections != 0 && isProbeDue(endpoint, now)
+                    && endpoint.probing.compareAndSet(false, true)) {
+                if (endpoint.ejections != 0) {
+                    return endpoint;
+                }
+                // restored by the probe completing in between
+                endpoint.probing.set(false);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isProbeDue(Endpoint<?> endpoint, long now) {
+        return now - endpoint.ejectedUntil >= 0 && !endpoint.probing.get();
+    }
+
+    private Endpoint<T> eligible(int start, Endpoint<T> excluded) {
+        int size = endpoints.size();
+        for (int i = 0; i < size; i++) {
+            Endpoint<T> endpoint = endpoints.get((start + i) % size);
+            if (endpoint != excluded && isEligible(endpoint)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isEligible(Endpoint<?> endpoint) {
+        return !endpoint.draining && endpoint.ejections == 0;
+    }
+
+    /**
+     * With every endpoint ejected, the one coming back first is tried rather than failing the request outright.
+     * Such a request is not its probe, so the endpoint stays ejected whatever the outcome.
+     */
+    private Endpoint<T> leastEjected() {
+        Endpoint<T> least = null;
+        for (Endpoint<T> endpoint : endpoints) {
+            if (!endpoint.draining && (least == null || endpoint.ejectedUntil - least.ejectedUntil < 0)) {
+                least = endpoint;
+            }
+        }
+        if (least == null) {
+            throw new IllegalStateException("No Youtap endpoint available, all of " + endpoints + " are draining");
+        }
+        return least;
+    }
+
+    private double cost(Endpoint<T> endpoint) {
+        return (endpoint.latencyNanos + 1) * (endpoint.inFlight.get() + 1)
+                / Math.max(MIN_SUCCESS_RATE, 1 - endpoint.errorRate);
+    }
+
+    private void record(Endpoint<T> endpoint, long start, boolean success, boolean probe) {
+        long now = clock.getAsLong();
+        synchronized (endpoint) {
+            if (success) {
+                double latency = now - start;
+                endpoint.latencyNanos = endpoint.latencyNanos == 0 ? latency : endpoint.latencyNanos + decay * (latency - endpoint.latencyNanos);
+                endpoint.errorRate -= decay * endpoint.errorRate;
+                endpoint.consecutiveFailures = 0;
+                if (probe) {
+                    log.info("Restoring Youtap endpoint {} after a successful probe", endpoint);
+                    endpoint.ejections = 0;
+                }
+            } else {
+                endpoint.errorRate += decay * (1 - endpoint.errorRate);
+                if (probe) {
+                    eject(endpoint, now);
+                } else if (endpoint.ejections == 0 && ++endpoint.consecutiveFailures >= ejectAfterFailures) {
+                    eject(endpoint, now);
+                }
+            }
+            if (probe) {
+                endpoint.probing.set(false);
+            }
+            if (endpoint.inFlight.decrementAndGet() == 0) {
+                endpoint.notifyAll();
+            }
+        }
+    }
+
+    private void eject(Endpoint<T> endpoint, long now) {
+        long backoff = Math.min(maxEjectionNanos, baseEjectionNanos << Math.min(endpoint.ejections, 30));
+        endpoint.ejections++;
+        endpoint.consecutiveFailures = 0;
+        endpoint.ejectedUntil = now + backoff;
+        log.warn("Ejecting Youtap endpoint {} for {} ms after {} ejection(s) in a row",
+                endpoint, TimeUnit.NANOSECONDS.toMillis(backoff), endpoint.ejections);
+    }
+
+    public static class Builder<T> {
+
+        private final List<Endpoint<T>> endpoints = new ArrayList<>();
+        private int ejectAfterFailures = DEFAULT_EJECT_AFTER_FAILURES;
+        private long baseEjectionMillis = DEFAULT_BASE_EJECTION_MILLIS;
+        private long maxEjectionMillis = DEFAULT_MAX_EJECTION_MILLIS;
+        private double decay = DEFAULT_DECAY;
+        private LongSupplier clock = System::nanoTime;
+
+        public static <T> Builder<T> newInstance()
+        {
+            return new Builder<>();
+        }
+
+        public Builder<T> withEndpoint(String host, int port, T target)
+        {
+            this.endpoints.add(new Endpoint<>(host, port, target));
+            return this;
+        }
+
+        public Builder<T> withEjectAfterFailures(int ejectAfterFailures)
+        {
+            this.ejectAfterFailures = ejectAfterFailures;
+            return this;
+        }
+
+        public Builder<T> withBaseEjectionMillis(long baseEjectionMillis)
+        {
+            this.baseEjectionMillis = baseEjectionMillis;
+            return this;
+        }
+
+        public Builder<T> withMaxEjectionMillis(long maxEjectionMillis)
+        {
+            this.maxEjectionMillis = maxEjectionMillis;
+            return this;
+        }
+
+        /**
+         * @param decay weight of the latest request in the latency and error averages, between 0 and 1
+         */
+        public Builder<T> withDecay(double decay)
+        {
+            this.decay = decay;
+            return this;
+        }
+
+        /**
+         * @param clock source of {@link System#nanoTime()} style timestamps
+         */
+        public Builder<T> withClock(LongSupplier clock)
+        {
+            this.clock = clock;
+            return this;
+        }
+
+        public EndpointRouter<T> build()
+        {
+            return new EndpointRouter<>(this);
+        }
+    }
+}
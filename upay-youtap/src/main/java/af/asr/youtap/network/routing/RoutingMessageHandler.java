@@ -0,0 +1,73 @@
+package af.asr.youtap.network.routing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.integration.ip.tcp.TcpOutboundGateway;
+import org.springframework.integration.ip.tcp.connection.AbstractClientConnectionFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+
+import java.util.List;
+
+/**
+ * Outbound handler of the {@code outboundChannel} sending each request through the
+ * {@link TcpOutboundGateway} of the endpoint chosen by an {@link EndpointRouter}.
+ *
+ * A request that fails is not resent to another endpoint, as the server may already have
+ * processed it; the failure is reported to the caller and the router steers the following
+ * requests away from the endpoint.
+ */
+@Slf4j
+public class RoutingMessageHandler implements MessageHandler {
+
+    private final EndpointRouter<TcpOutboundGateway> router;
+    private final List<AbstractClientConnectionFactory> connectionFactories;
+    private final long drainTimeoutMillis;
+
+    public RoutingMessageHandler(EndpointRouter<TcpOutboundGateway> router,
+                                 List<AbstractClientConnectionFactory> connectionFactories,
+                                 long drainTimeoutMillis) {
+        this.router = router;
+        this.connectionFactories = connectionFactories;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+    }
+
+    public EndpointRouter<TcpOutboundGateway> getRouter() {
+        return router;
+    }
+
+    @Override
+    public void handleMessage(Message<?> message) throws MessagingException {
+        router.execute(gateway -> {
+            gateway.handleMessage(message);
+            return null;
+        });
+    }
+
+    public void start() {
+        for (AbstractClientConnectionFactory connectionFactory : connectionFactories) {
+            connectionFactory.start();
+        }
+        for (Endpoint<TcpOutboundGateway> endpoint : router.getEndpoints()) {
+            endpoint.getTarget().afterPropertiesSet();
+        }
+    }
+
+    /**
+     * Lets the requests in flight complete before closing the connections.
+     */
+    public void stop() throws InterruptedException {
+        for (Endpoint<TcpOutboundGateway> endpoint : router.getEndpoints()) {
+            router.drain(endpoint);
+        }
+        for (Endpoint<TcpOutboundGateway> endpoint : router.getEndpoints()) {
+            if (!router.awaitDrained(endpoint, drainTimeoutMillis)) {
+                log.warn("{} requests still in flight on Youtap endpoint {} after {} ms",
+                        endpoint.getInFlight(), endpoint, drainTimeoutMillis);
+            }
+        }
+        for (AbstractClientConnectionFactory connectionFactory : connectionFactories) {
+            connectionFactory.stop();
+        }
+    }
+}
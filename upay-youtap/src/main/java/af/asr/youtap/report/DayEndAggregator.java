@@ -0,0 +1,50 @@
+package af.asr.youtap.report;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the running {@link DayEndTotals} of every merchant terminal so a DayEndReport
+ * can be answered locally instead of every terminal asking the server for a full day
+ * summary at the same moment.
+ */
+public class DayEndAggregator {
+
+    private final ConcurrentHashMap<String, DayEndTotals> totals = new ConcurrentHashMap<>();
+
+    /**
+     * Records a completed MerchantTransaction or CustomerTransaction.
+     *
+     * The transaction is added within the compute of the terminal's entry, so it cannot land in
+     * totals that {@link #close(String, String)} has already taken away.
+     *
+     * @param workingAmount minor units of {@code workingCurrency}
+     */
+    public void record(String merchantId, String terminalId, String transactionType, String paymentType,
+                       String workingCurrency, int status, long workingAmount) {
+        totals.compute(key(merchantId, terminalId), (key, current) -> {
+            DayEndTotals recorded = current == null ? new DayEndTotals(merchantId, terminalId) : current;
+            recorded.record(transactionType, paymentType, workingCurrency, status, workingAmount);
+            return recorded;
+        });
+    }
+
+    /**
+     * Current totals of the terminal, the day stays open.
+     */
+    public DayEndReport report(String merchantId, String terminalId) {
+        DayEndTotals current = totals.get(key(merchantId, terminalId));
+        return current == null ? DayEndReport.empty(merchantId, terminalId) : current.snapshot();
+    }
+
+    /**
+     * Closes the terminal's day: returns its totals and starts the next day from zero.
+     */
+    public DayEndReport close(String merchantId, String terminalId) {
+        DayEndTotals closed = totals.remove(key(merchantId, terminalId));
+        return closed == null ? DayEndReport.empty(merchantId, terminalId) : closed.snapshot();
+    }
+
+    private static String key(String merchantId, String terminalId) {
+        return merchantId + '/' + terminalId;
+    }
+}
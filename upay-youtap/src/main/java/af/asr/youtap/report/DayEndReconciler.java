@@ -0,0 +1,59 @@
+package af.asr.youtap.report;
+
+import af.asr.youtap.codec.NvpCodec;
+import af.asr.youtap.message.request.EndDayReportRequest;
+import af.asr.youtap.network.gateway.TcpClientGateway;
+import af.asr.youtap.util.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the DayEndReport to the server after the terminal has already been answered
+ * from its local totals.
+ *
+ * Each reconciliation is delayed by a random amount within {@code spreadMillis} so the
+ * terminals closing their day together do not reach the server at the same moment.
+ */
+@Slf4j
+public class DayEndReconciler {
+
+    private static final byte[] STATUS = NvpCodec.ascii("Status");
+
+    private final TcpClientGateway gateway;
+    private final ScheduledExecutorService executor;
+    private final long spreadMillis;
+
+    public DayEndReconciler(TcpClientGateway gateway, ScheduledExecutorService executor, long spreadMillis) {
+        this.gateway = gateway;
+        this.executor = executor;
+        this.spreadMillis = spreadMillis;
+    }
+
+    /**
+     * @return the server's response once it arrives
+     */
+    public CompletableFuture<byte[]> reconcile(EndDayReportRequest request, DayEndReport local) {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        long delay = spreadMillis > 0 ? ThreadLocalRandom.current().nextLong(spreadMillis) : 0L;
+        executor.schedule(() -> {
+            try {
+                byte[] response = gateway.send(request.getMessage().getBytes(StandardCharsets.US_ASCII));
+                int status = NvpCodec.intValue(response, STATUS, Status.SYSTEM_ERROR);
+                if (status != Status.SUCCESSFUL) {
+                    log.warn("Day end reconciliation of terminal {} merchant {} returned status {}, local totals: {}",
+                            local.getTerminalId(), local.getMerchantId(), status, local.getPrnData());
+                }
+                result.complete(response);
+            } catch (Exception e) {
+                log.error("Day end reconciliation of terminal {} failed: {}", local.getTerminalId(), e.getMessage());
+                result.completeExceptionally(e);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+        return result;
+    }
+}
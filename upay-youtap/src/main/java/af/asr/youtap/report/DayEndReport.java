@@ -0,0 +1,199 @@
+package af.asr.youtap.report;
+
+import af.asr.youtap.codec.AmountCodec;
+import af.asr.youtap.message.response.EndDayReportResponse;
+import af.asr.youtap.type.YoutapMessageTypes;
+import af.asr.youtap.util.Amount;
+import af.asr.youtap.util.Status;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Point in time copy of a terminal's {@link DayEndTotals}.
+ *
+ * Sums are in minor units and only ever cover one working currency; counts are
+ * given per currency or over all of them.
+ */
+public class DayEndReport {
+
+    private final String merchantId;
+    private final String terminalId;
+    private final SortedMap<String, CurrencyTotals> currencies;
+    private final long failedCount;
+
+    DayEndReport(String merchantId, String terminalId, SortedMap<String, CurrencyTotals> currencies,
+                 long failedCount) {
+        this.merchantId = merchantId;
+        this.terminalId = terminalId;
+        this.currencies = currencies;
+        this.failedCount = failedCount;
+    }
+
+    public static DayEndReport empty(String merchantId, String terminalId) {
+        return new DayEndTotals(merchantId, terminalId).snapshot();
+    }
+
+    public String getMerchantId() {
+        return merchantId;
+    }
+
+    public String getTerminalId() {
+        return terminalId;
+    }
+
+    /**
+     * @return working currencies of the successful transactions of the day, in order
+     */
+    public Set<String> getCurrencies() {
+        return Collections.unmodifiableSet(currencies.keySet());
+    }
+
+    /**
+     * @return count over all currencies
+     */
+    public long getPaymentTypeCount(String paymentType) {
+        int slot = indexOf(DayEndTotals.PAYMENT_TYPES, paymentType);
+        long total = 0L;
+        for (CurrencyTotals totals : currencies.values()) {
+            total += totals.paymentTypeCounts[slot];
+        }
+        return total;
+    }
+
+    public long getPaymentTypeCount(String currency, String paymentType) {
+        CurrencyTotals totals = currencies.get(currency);
+        return totals == null ? 0L : totals.paymentTypeCounts[indexOf(DayEndTotals.PAYMENT_TYPES, paymentType)];
+    }
+
+    public long getPaymentTypeSum(String currency, String paymentType) {
+        CurrencyTotals totals = currencies.get(currency);
+        return totals == null ? 0L : totals.paymentTypeSums[indexOf(DayEndTotals.PAYMENT_TYPES, paymentType)];
+    }
+
+    /**
+     * @return count over all currencies
+     */
+    public long getTransactionTypeCount(String transactionType) {
+        int slot = indexOf(DayEndTotals.TRANSACTION_TYPES, transactionType);
+        long total = 0L;
+        for (CurrencyTotals totals : currencies.values()) {
+            total += totals.transactionTypeCounts[slot];
+        }
+        return total;
+    }
+
+    public long getTransactionTypeSum(String currency, String transactionType) {
+        CurrencyTotals totals = currencies.get(currency);
+        return totals == null ? 0L : totals.transactionTypeSums[indexOf(DayEndTotals.TRANSACTION_TYPES, transactionType)];
+    }
+
+    /**
+     * @return count over all currencies
+     */
+    public long getTotalCount() {
+        long total = 0L;
+        for (CurrencyTotals totals : currencies.values()) {
+            total += totals.getTotalCount();
+        }
+        return total;
+    }
+
+    public long getTotalCount(String currency) {
+        CurrencyTotals totals = currencies.get(currency);
+        return totals == null ? 0L : totals.getTotalCount();
+    }
+
+    public long getTotalSum(String currency) {
+        CurrencyTotals totals = currencies.get(currency);
+        return totals == null ? 0L : totals.getTotalSum();
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Print lines separated by the field separator character (pipe), one per currency and
+     * payment type used during the day followed by the currency's total,
+     * e.g. C2MP 3 15.00 AFN|TOPUP 1 5.00 AFN|TOTAL 4 20.00 AFN|C2MP 1 2.00 USD|TOTAL 1 2.00 USD|FAILED 1
+     */
+    public String getPrnData() {
+        StringBuilder builder = new StringBuilder(256);
+        for (Map.Entry<String, CurrencyTotals> entry : currencies.entrySet()) {
+            CurrencyTotals totals = entry.getValue();
+            for (int i = 0; i < totals.paymentTypeCounts.length; i++) {
+                if (totals.paymentTypeCounts[i] == 0) {
+                    continue;
+                }
+                String label = i < DayEndTotals.PAYMENT_TYPES.length ? DayEndTotals.PAYMENT_TYPES[i] : DayEndTotals.OTHER;
+                appendLine(builder, label, totals.paymentTypeCounts[i], totals.paymentTypeSums[i], entry.getKey());
+            }
+            appendLine(builder, "TOTAL", totals.getTotalCount(), totals.getTotalSum(), entry.getKey());
+        }
+        return builder.append("FAILED ").append(failedCount).toString();
+    }
+
+    public EndDayReportResponse toResponse(String transactionId) {
+        String prnData = getPrnData();
+        return EndDayReportResponse.Builder.newInstance()
+                .withMessageType(YoutapMessageTypes.DAY_END_REPORT_RESPONSE)
+                .withStatus(Status.SUCCESSFUL)
+                .withTransactionId(transactionId)
+                .withBlockCount(1)
+                .withDspData(prnData)
+                .withPrnData(prnData)
+                .build();
+    }
+
+    private static void appendLine(StringBuilder builder, String label, long count, long sum, String currency) {
+        builder.append(label).append(' ').append(count).append(' ');
+        AmountCodec.append(builder, sum, Amount.MINOR_UNIT_SCALE);
+        if (!currency.isEmpty()) {
+            builder.append(' ').append(currency);
+        }
+        builder.append('|');
+    }
+
+    private static int indexOf(String[] types, String type) {
+        for (int i = 0; i < types.length; i++) {
+            if (types[i].equals(type)) {
+                return i;
+            }
+        }
+        return types.length;
+    }
+
+    /**
+     * Counts and sums of one working currency.
+     */
+    static final class CurrencyTotals {
+
+        private final long[] paymentTypeCounts;
+        private final long[] paymentTypeSums;
+        private final long[] transactionTypeCounts;
+        private final long[] transactionTypeSums;
+
+        CurrencyTotals(long[] paymentTypeCounts, long[] paymentTypeSums, long[] transactionTypeCounts,
+                       long[] transactionTypeSums) {
+            this.paymentTypeCounts = paymentTypeCounts;
+            this.paymentTypeSums = paymentTypeSums;
+            this.transactionTypeCounts = transactionTypeCounts;
+            this.transactionTypeSums = transactionTypeSums;
+        }
+
+        long getTotalCount() {
+            long total = 0L;
+            for (long count : paymentTypeCounts) {
+                total += count;
+            }
+            return total;
+        }
+
+        long getTotalSum() {
+            return Amount.sum(paymentTypeSums, paymentTypeSums.length);
+        }
+    }
+}
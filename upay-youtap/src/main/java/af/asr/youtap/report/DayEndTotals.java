@@ -0,0 +1,158 @@
+package af.asr.youtap.report;
+
+import af.asr.youtap.type.PaymentType;
+import af.asr.youtap.type.TransactionType;
+import af.asr.youtap.util.Amount;
+import af.asr.youtap.util.Status;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Running day totals of a single merchant terminal, updated as each
+ * MerchantTransactionResp/CustomerTransactionResp completes.
+ *
+ * Counters live in fixed size arrays indexed by PaymentType and TransactionType,
+ * one set per working currency so amounts of different currencies are never added
+ * together, and recording a transaction and taking a snapshot both cost the same
+ * however many transactions the terminal has done during the day.
+ */
+public class DayEndTotals {
+
+    static final String[] PAYMENT_TYPES = {
+            PaymentType.DMM, PaymentType.TOPUP, PaymentType.BILL, PaymentType.C2MP, PaymentType.C2MW,
+            PaymentType.C2MD, PaymentType.C2CW, PaymentType.C2CD, PaymentType.M2CT, PaymentType.PINTOP,
+            PaymentType.SNDMON, PaymentType.CSHTOP, PaymentType.CSHVOUT, PaymentType.CSHVOUR, PaymentType.CP2MP,
+            PaymentType.INTXF, PaymentType.OUTTXF
+    };
+
+    static final String[] TRANSACTION_TYPES = {
+            TransactionType.MERCHANT_TRANSACTION, TransactionType.SUBSCRIBER_TRANSACTION,
+            TransactionType.MICROMERCHANT_TRANSACTION, TransactionType.AGENT_TRANSACTION,
+            TransactionType.SUPERAGENT_TRANSACTION, TransactionType.MMSTAFF_TRANSACTION
+    };
+
+    /**
+     * Label of the slot collecting types not listed above
+     */
+    static final String OTHER = "OTHER";
+
+    private static final Map<String, Integer> PAYMENT_TYPE_INDEX = index(PAYMENT_TYPES);
+    private static final Map<String, Integer> TRANSACTION_TYPE_INDEX = index(TRANSACTION_TYPES);
+
+    private final String merchantId;
+    private final String terminalId;
+
+    private final ConcurrentMap<String, CurrencyTotals> currencies = new ConcurrentHashMap<>();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    public DayEndTotals(String merchantId, String terminalId) {
+        this.merchantId = merchantId;
+        this.terminalId = terminalId;
+    }
+
+    public String getMerchantId() {
+        return merchantId;
+    }
+
+    public String getTerminalId() {
+        return terminalId;
+    }
+
+    /**
+     * @param workingAmount minor units of {@code workingCurrency}, only successful transactions are
+     *                      added to the sums, which are kept apart per currency
+     * @throws ArithmeticException when a sum would overflow, the sum is then left unchanged
+     */
+    public void record(String transactionType, String paymentType, String workingCurrency, int status,
+                       long workingAmount) {
+        if (status != Status.SUCCESSFUL) {
+            failedCount.incrementAndGet();
+            return;
+        }
+        String currency = workingCurrency == null ? "" : workingCurrency;
+        CurrencyTotals totals = currencies.get(currency);
+        if (totals == null) {
+            CurrencyTotals created = new CurrencyTotals();
+            totals = currencies.putIfAbsent(currency, created);
+            if (totals == null) {
+                totals = created;
+            }
+        }
+        totals.record(slot(PAYMENT_TYPE_INDEX, paymentType, PAYMENT_TYPES.length),
+                slot(TRANSACTION_TYPE_INDEX, transactionType, TRANSACTION_TYPES.length), workingAmount);
+    }
+
+    public DayEndReport snapshot() {
+        SortedMap<String, DayEndReport.CurrencyTotals> snapshot = new TreeMap<>();
+        for (Map.Entry<String, CurrencyTotals> entry : currencies.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return new DayEndReport(merchantId, terminalId, snapshot, failedCount.get());
+    }
+
+    private static int slot(Map<String, Integer> index, String type, int other) {
+        Integer slot = type == null ? null : index.get(type);
+        return slot == null ? other : slot;
+    }
+
+    /**
+     * Adds {@code amount} to a slot, failing rather than wrapping around.
+     */
+    private static void addExact(AtomicLongArray sums, int slot, long amount) {
+        long current;
+        do {
+            current = sums.get(slot);
+        } while (!sums.compareAndSet(slot, current, Amount.add(current, amount)));
+    }
+
+    private static long[] copy(AtomicLongArray array) {
+        long[] copy = new long[array.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = array.get(i);
+        }
+        return copy;
+    }
+
+    private static Map<String, Integer> index(String[] types) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < types.length; i++) {
+            index.put(types[i], i);
+        }
+        return index;
+    }
+
+    /**
+     * Counters of the transactions done in one working currency.
+     */
+    private static final class CurrencyTotals {
+
+        private final AtomicLongArray paymentTypeCounts = new AtomicLongArray(PAYMENT_TYPES.length + 1);
+        private final AtomicLongArray paymentTypeSums = new AtomicLongArray(PAYMENT_TYPES.length + 1);
+        private final AtomicLongArray transactionTypeCounts = new AtomicLongArray(TRANSACTION_TYPES.length + 1);
+        private final AtomicLongArray transactionTypeSums = new AtomicLongArray(TRANSACTION_TYPES.length + 1);
+
+        void record(int payment, int transaction, long amount) {
+            addExact(paymentTypeSums, payment, amount);
+            try {
+                addExact(transactionTypeSums, transaction, amount);
+            } catch (ArithmeticException e) {
+                paymentTypeSums.addAndGet(payment, -amount);
+                throw e;
+            }
+            paymentTypeCounts.incrementAndGet(payment);
+            transactionTypeCounts.incrementAndGet(transaction);
+        }
+
+        DayEndReport.CurrencyTotals snapshot() {
+            return new DayEndReport.CurrencyTotals(copy(paymentTypeCounts), copy(paymentTypeSums),
+                    copy(transactionTypeCounts), copy(transactionTypeSums));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package af.asr.youtap.type;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Registry of the Youtap message types with their MessageType value on the wire.
+ *
+ * {@link #lookup(byte[], int, int)} resolves the raw bytes of a MessageType value
+ * through a perfect hash table built once when the class is loaded, so resolving
+ * a type costs one hash and one byte comparison regardless of how many types exist.
+ */
+public enum MessageType {
+
+    MERCHANT_LOGIN_REQUEST("MerchantLogin"),
+    MERCHANT_LOGIN_RESPONSE("MerchantLoginResp"),
+    STAFF_LOGIN_REQUEST("StaffLogin"),
+    STAFF_LOGIN_RESPONSE("StaffLoginResp"),
+    MINI_STATEMENT_REQUEST("LastTransactions"),
+    MINI_STATEMENT_RESPONSE("LastTransactionResp"),
+    DAY_END_REPORT_REQUEST("DayEndReport"),
+    DAY_END_REPORT_RESPONSE("DayEndReportResp"),
+    REGISTER_TAG_REQUEST("RegisterTag"),
+    REGISTER_TAG_RESPONSE("RegisterTagResp"),
+    MERCHANT_CHANGE_PIN_REQUEST("ChangeMerchantPin"),
+    MERCHANT_CHANGE_PIN_RESPONSE("ChangeMerchantPinResp"),
+    CUSTOMER_CHANGE_PIN_REQUEST("ChangeCustomerPin"),
+    CUSTOMER_CHANGE_PIN_RESPONSE("ChangeCustomerPinResp"),
+    CUSTOMER_RESET_PIN_REQUEST("ResetPin"),
+    CUSTOMER_RESET_PIN_RESPONSE("ResetPinResp"),
+    CUSTOMER_TRANSACTION_REQUEST("CustomerTransaction"),
+    CUSTOMER_TRANSACTION_RESPONSE("CustomerTransactionResp"),
+    MERCHANT_TRANSACTION_REQUEST("MerchantTransaction"),
+    MERCHANT_TRANSACTION_RESPONSE("MerchantTransactionResp"),
+    CUSTOMER_CREATE_REQUEST("CustomerCreate"),
+    CUSTOMER_CREATE_RESPONSE("CustomerCreateResp"),
+    CUSTOMER_SEARCH_REQUEST("CustomerSearch"),
+    CUSTOMER_SEARCH_RESPONSE("CustomerSearchResp"),
+    IDENTIFICATION_SUBMIT_REQUEST("IdentificationSubmit"),
+    IDENTIFICATION_SUBMIT_RESPONSE("IdentificationSubmitResp"),
+    EXCHANGE_RATE_QOUTE_REQUEST("ExchangeQuotation"),
+    EXCHANGE_RATE_QOUTE_RESPONSE("ExchangeQuotationResp"),
+    EXCHANGE_TRANSACTION_REQUEST("ExchangeTransaction"),
+    EXCHANGE_TRANSACTION_RESPONSE("ExchangeTransactionResp"),
+    TRANSACTION_SEARCH_REQUEST("TransactionSearch"),
+    TRANSACTION_SEARCH_RESPONSE("TransactionSearchResp"),
+    CUSTOMER_UPDATE_REQUEST("CustomerUpdate"),
+    CUSTOMER_UPDATE_RESPONSE("CustomerUpdateDataResp"),
+    CUSTOMER_ADDITIONAL_DATA_REQUEST("CustomerAdditionalData"),
+    CUSTOMER_ADDITIONAL_DATA_RESPONSE("CustomerAdditionalDataResp"),
+    LINK_ACCOUNT_REQUEST("LinkAccount"),
+    LINK_ACCOUNT_RESPONSE("LinkAccountResp"),
+    CUSTOMER_LOGIN_REQUEST("CustomerLogin"),
+    CUSTOMER_LOGIN_RESPONSE("CustomerLoginResp"),
+    ATOMIC_CUSTOMER_CREATE_REQUEST("AtomicCustomerCreate"),
+    ATOMIC_CUSTOMER_CREATE_RESPONSE("AtomicCustomerCreateResp"),
+    MIF_CARD_CHECK_REQUEST("MifCardCheck"),
+    MIF_CARD_CHECK_RESPONSE("MifCardCheckResp"),
+    EPURSE_CHECK_REQUEST("EPurseCheck"),
+    EPURSE_CHECK_RESPONSE("EPurseCheckResp"),
+    EPURSE_TRANSACTION_REQUEST("EPurseTransaction"),
+    EPURSE_TRANSACTION_RESPONSE("EPurseTransactionResp"),
+    MIFARE_CARD_WRITE_NOTIFICATION_REQUEST("MifCardWriteNotification"),
+    MIFARE_CARD_WRITE_NOTIFICATION_RESPONSE("MifCardWriteNotificationResp"),
+    EPURSE_TRANSACTION_AUTHORIZE_REQUEST("EPurseTransactionAuthorize"),
+    EPURSE_TRANSACTION_AUTHORIZE_RESPONSE("EPurseTransactionAuthorizeResp"),
+    FILE_UPLOAD_NOTIFICATION_REQUEST("FileUploadNotification"),
+    FILE_UPLOAD_NOTIFICATION_RESPONSE("FileUploadNotificationResp"),
+    BALANCE_GET_REQUEST("BalanceGet"),
+    BALANCE_GET_RESPONSE("BalanceGetResp");
+
+    private static final int FNV_PRIME = 0x01000193;
+
+    private static final MessageType[] TABLE;
+    private static final int MASK;
+    private static final int SEED;
+
+    static {
+        MessageType[] values = values();
+        int size = Integer.highestOneBit(values.length * 8);
+        int seed = 0;
+        MessageType[] table;
+        while ((table = tryBuild(values, seed, size - 1)) == null) {
+            seed++;
+        }
+        TABLE = table;
+        MASK = size - 1;
+        SEED = seed;
+    }
+
+    private final String wireName;
+    private final byte[] wireBytes;
+
+    MessageType(String wireName) {
+        this.wireName = wireName;
+        this.wireBytes = wireName.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public String getWireName() {
+        return wireName;
+    }
+
+    public boolean isResponse() {
+        return wireName.endsWith("Resp");
+    }
+
+    /**
+     * Resolves the MessageType value held in {@code bytes[from, to)}.
+     *
+     * @return the message type, or null when the value is not a known type
+     */
+    public static MessageType lookup(byte[] bytes, int from, int to) {
+        MessageType candidate = TABLE[hash(bytes, from, to, SEED) & MASK];
+        if (candidate == null || candidate.wireBytes.length != to - from) {
+            return null;
+        }
+        byte[] expected = candidate.wireBytes;
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != bytes[from + i]) {
+                return null;
+            }
+        }
+        return candidate;
+    }
+
+    /**
+     * @return the message type, or null when the value is not a known type
+     */
+    public static MessageType fromWireName(String wireName) {
+        byte[] bytes = wireName.getBytes(StandardCharsets.US_ASCII);
+        return lookup(bytes, 0, bytes.length);
+    }
+
+    private static MessageType[] tryBuild(MessageType[] values, int seed, int mask) {
+        MessageType[] table = new MessageType[mask + 1];
+        for (MessageType type : values) {
+            int slot = hash(type.wireBytes, 0, type.wireBytes.length, seed) & mask;
+            if (table[slot] != null) {
+                return null;
+            }
+            table[slot] = type;
+        }
+        return table;
+    }
+
+    private static int hash(byte[] bytes, int from, int to, int seed) {
+        int h = 0x811C9DC5 ^ seed;
+        for (int i = from; i < to; i++) {
+            h = (h ^ bytes[i]) * FNV_PRIME;
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -51,10 +51,12 @@ public interface YoutapMessageTypes {
     public static String EPURSE_TRANSACTION_REQUEST = "EPurseTransaction";
     public static String EPURSE_TRANSACTION_RESPONSE = "EPurseTransactionResp";
     public static String MIFARE_CARD_WRITE_NOTIFICATION_REQUEST ="MifCardWriteNotification";
-    public static String MIFARE_CARD_WRITE_NOTIFICATION_RESPONSE ="MifCardWriteNotification";
+    public static String MIFARE_CARD_WRITE_NOTIFICATION_RESPONSE ="MifCardWriteNotificationResp";
     public static String EPURSE_TRANSACTION_AUTHORIZE_REQUEST = "EPurseTransactionAuthorize";
     public static String EPURSE_TRANSACTION_AUTHORIZE_RESPONSE ="EPurseTransactionAuthorizeResp";
     public static String FILE_UPLOAD_NOTIFICATION_REQUEST = "FileUploadNotification";
     public static String FILE_UPLOAD_NOTIFICATION_RESPONSE ="FileUploadNotificationResp";
+    public static String BALANCE_GET_REQUEST = "BalanceGet";
+    public static String BALANCE_GET_RESPONSE = "BalanceGetResp";
 
 }
@@ -0,0 +1,74 @@
+package af.asr.youtap.upload;
+
+import af.asr.youtap.data.FileDescritorData;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+
+/**
+ * Writes chunks straight to a channel, e.g. a SocketChannel connected to the file server,
+ * so mapped file pages go to the socket without being copied onto the heap.
+ *
+ * Each chunk is preceded by a header of its offset in the file (8 bytes), its length
+ * (4 bytes) and a flags byte with bit 0 set on the last chunk, big endian. The peer
+ * answers every chunk with the 8 byte offset up to which it has stored the file.
+ * Up to {@code window} chunks are sent before waiting for their acknowledgements.
+ */
+public class ChannelChunkSink implements ChunkSink {
+
+    public static final int HEADER_SIZE = 13;
+    public static final int ACK_SIZE = 8;
+    public static final byte LAST = 1;
+    public static final int DEFAULT_WINDOW = 4;
+
+    private final ByteChannel channel;
+    private final int window;
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    private final ByteBuffer ack = ByteBuffer.allocate(ACK_SIZE);
+
+    private int unacknowledged;
+    private long acknowledged;
+
+    public ChannelChunkSink(ByteChannel channel) {
+        this(channel, DEFAULT_WINDOW);
+    }
+
+    public ChannelChunkSink(ByteChannel channel, int window) {
+        this.channel = channel;
+        this.window = window;
+    }
+
+    @Override
+    public long send(FileDescritorData descriptor, long offset, ByteBuffer chunk, boolean last) throws IOException {
+        if (unacknowledged == 0) {
+            acknowledged = offset;
+        }
+        header.clear();
+        header.putLong(offset).putInt(chunk.remaining()).put(last ? LAST : 0).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        while (chunk.hasRemaining()) {
+            channel.write(chunk);
+        }
+        unacknowledged++;
+        while (unacknowledged >= window || last && unacknowledged > 0) {
+            readAck();
+        }
+        return acknowledged;
+    }
+
+    private void readAck() throws IOException {
+        ack.clear();
+        while (ack.hasRemaining()) {
+            if (channel.read(ack) < 0) {
+                throw new EOFException("Connection closed with " + unacknowledged + " chunks unacknowledged");
+            }
+        }
+        ack.flip();
+        acknowledged = ack.getLong();
+        unacknowledged--;
+    }
+}
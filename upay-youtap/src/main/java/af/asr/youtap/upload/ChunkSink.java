@@ -0,0 +1,25 @@
+package af.asr.youtap.upload;
+
+import af.asr.youtap.data.FileDescritorData;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Destination of the chunks of a file upload.
+ */
+public interface ChunkSink {
+
+    /**
+     * Sends the remaining bytes of {@code chunk}. The buffer is a view of the file and must
+     * not be retained after the call returns.
+     *
+     * The sink may return before the peer acknowledged the chunk, but must wait for every
+     * acknowledgement once the last chunk is sent.
+     *
+     * @param offset position of the chunk in the file
+     * @param last   true for the final chunk of the file
+     * @return offset up to which the peer has acknowledged the file, the end of the file after the last chunk
+     */
+    long send(FileDescritorData descriptor, long offset, ByteBuffer chunk, boolean last) throws IOException;
+}
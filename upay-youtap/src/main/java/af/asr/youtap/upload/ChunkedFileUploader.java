@@ -0,0 +1,99 @@
+package af.asr.youtap.upload;
+
+import af.asr.youtap.data.FileDescritorData;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Uploads terminal files (ID document scans, purse logs ...) in fixed size chunks.
+ *
+ * Each chunk is a read-only memory mapping of the file region, digested and handed
+ * to the {@link ChunkSink} without being copied onto the heap, so the size of the
+ * file does not affect memory use. Progress is checkpointed as the peer acknowledges
+ * the chunks and an interrupted upload resumes from the last acknowledged offset; the
+ * digest of the part sent before the interruption is recomputed from the file.
+ */
+public class ChunkedFileUploader {
+
+    public static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+    public static final String DEFAULT_DIGEST_ALGORITHM = "SHA-256";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ChunkSink sink;
+    private final int chunkSize;
+    private final String digestAlgorithm;
+
+    public ChunkedFileUploader(ChunkSink sink) {
+        this(sink, DEFAULT_CHUNK_SIZE, DEFAULT_DIGEST_ALGORITHM);
+    }
+
+    public ChunkedFileUploader(ChunkSink sink, int chunkSize, String digestAlgorithm) {
+        this.sink = sink;
+        this.chunkSize = chunkSize;
+        this.digestAlgorithm = digestAlgorithm;
+    }
+
+    public UploadResult upload(Path file, FileDescritorData descriptor) throws IOException {
+        UploadCheckpoint checkpoint = new UploadCheckpoint(file);
+        MessageDigest digest = newDigest();
+        long size;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            long offset = Math.min(checkpoint.load(), size);
+            long saved = offset;
+            for (long position = 0; position < offset; position += chunkSize) {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(chunkSize, offset - position)));
+            }
+            if (size == 0) {
+                acknowledged(sink.send(descriptor, 0L, ByteBuffer.allocate(0), true), size);
+            }
+            while (offset < size) {
+                long length = Math.min(chunkSize, size - offset);
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                digest.update(chunk.duplicate());
+                boolean last = offset + length == size;
+                long acknowledged = sink.send(descriptor, offset, chunk, last);
+                offset += length;
+                if (last) {
+                    acknowledged(acknowledged, size);
+                } else if (acknowledged > saved) {
+                    checkpoint.save(acknowledged);
+                    saved = acknowledged;
+                }
+            }
+        }
+        checkpoint.clear();
+        return new UploadResult(descriptor, size, digestAlgorithm, hex(digest.digest()));
+    }
+
+    private static void acknowledged(long acknowledged, long size) throws IOException {
+        if (acknowledged != size) {
+            throw new IOException("Peer acknowledged " + acknowledged + " of " + size + " bytes");
+        }
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(digestAlgorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unsupported digest algorithm " + digestAlgorithm, e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0F];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,61 @@
+package af.asr.youtap.upload;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Remembers how far an upload got, in a side file next to the uploaded file, so an
+ * interrupted upload resumes from the last acknowledged chunk.
+ *
+ * The checkpoint also records the size and modification time of the file and is
+ * ignored if the file has changed since.
+ *
+ * Example: offline_20160503120133_94876567.txt.upload
+ */
+public class UploadCheckpoint {
+
+    public static final String SUFFIX = ".upload";
+
+    private final Path file;
+    private final Path checkpoint;
+    private final Path temporary;
+
+    public UploadCheckpoint(Path file) {
+        this.file = file;
+        this.checkpoint = file.resolveSibling(file.getFileName() + SUFFIX);
+        this.temporary = file.resolveSibling(file.getFileName() + SUFFIX + ".tmp");
+    }
+
+    /**
+     * @return offset to resume from, 0 when there is no valid checkpoint
+     */
+    public long load() throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return 0L;
+        }
+        String[] values = new String(Files.readAllBytes(checkpoint), StandardCharsets.US_ASCII).trim().split(" ");
+        try {
+            if (values.length != 3
+                    || Long.parseLong(values[1]) != Files.size(file)
+                    || Long.parseLong(values[2]) != Files.getLastModifiedTime(file).toMillis()) {
+                return 0L;
+            }
+            return Long.parseLong(values[0]);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    public void save(long offset) throws IOException {
+        String value = offset + " " + Files.size(file) + " " + Files.getLastModifiedTime(file).toMillis();
+        Files.write(temporary, value.getBytes(StandardCharsets.US_ASCII));
+        Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void clear() throws IOException {
+        Files.deleteIfExists(checkpoint);
+    }
+}
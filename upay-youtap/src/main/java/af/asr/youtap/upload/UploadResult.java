@@ -0,0 +1,61 @@
+package af.asr.youtap.upload;
+
+import af.asr.youtap.data.FileDescritorData;
+import af.asr.youtap.message.request.FileUploadNotificationRequest;
+import af.asr.youtap.type.YoutapMessageTypes;
+
+/**
+ * Outcome of a completed upload.
+ */
+public class UploadResult {
+
+    private final FileDescritorData descriptor;
+    private final long size;
+    private final String checksumAlgorithm;
+    private final String checksum;
+
+    public UploadResult(FileDescritorData descriptor, long size, String checksumAlgorithm, String checksum) {
+        this.descriptor = descriptor;
+        this.size = size;
+        this.checksumAlgorithm = checksumAlgorithm;
+        this.checksum = checksum;
+    }
+
+    public FileDescritorData getDescriptor() {
+        return descriptor;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * MessageDigest algorithm of the checksum, e.g. SHA-256
+     */
+    public String getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+    /**
+     * Hex encoded digest of the whole file
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * The FileUploadNotification telling the server the file is available, with the size and
+     * checksum the server can verify the stored file against, e.g.
+     * FileDescriptor=(Name=id_scan.jpg,InfoType=IDSCAN,Size=1000,ChecksumType=SHA-256,Checksum=9f86d0...)
+     */
+    public FileUploadNotificationRequest toNotification(String terminalId, String merchantId, String transactionId) {
+        FileUploadNotificationRequest request = new FileUploadNotificationRequest();
+        request.setMessageType(YoutapMessageTypes.FILE_UPLOAD_NOTIFICATION_REQUEST);
+        request.setTerminalId(terminalId);
+        request.setMerchantId(merchantId);
+        request.setTransactionId(transactionId);
+        request.setFileDescriptor(String.format("(Name=%s,InfoType=%s,Size=%d,ChecksumType=%s,Checksum=%s)",
+                descriptor.getName(), descriptor.getInfoType(), size, checksumAlgorithm, checksum));
+        return request;
+    }
+}
@@ -0,0 +1,140 @@
+package af.asr.youtap.util;
+
+/**
+ * Exact arithmetic on monetary amounts carried as primitive longs.
+ *
+ * Amounts (WorkingAmount, SendingAmountExclFees, Fee, CostToSend,
+ * ReceivedAmount ...) are held in minor units of the currency, e.g.
+ * 1.31 NZD is 131. Exchange rates (FxRate) are held as a long scaled by
+ * {@link #FX_RATE_UNIT}, e.g. 1.3080636 is 13080636.
+ *
+ * All operations throw {@link ArithmeticException} on overflow instead of
+ * silently wrapping.
+ */
+public final class Amount {
+
+    /**
+     * Number of decimal places of a minor unit amount
+     */
+    public static final int MINOR_UNIT_SCALE = 2;
+
+    /**
+     * Minor units in one major unit
+     */
+    public static final long MINOR_UNIT = 100L;
+
+    /**
+     * Number of decimal places of a scaled FxRate
+     */
+    public static final int FX_RATE_SCALE = 7;
+
+    /**
+     * Scaled value of an FxRate of 1
+     */
+    public static final long FX_RATE_UNIT = 10_000_000L;
+
+    /**
+     * Scaled value of a rate of 100%, fee rates are expressed in basis points
+     */
+    public static final long BASIS_POINTS = 10_000L;
+
+    private Amount() {
+    }
+
+    public static long add(long amount, long other) {
+        return Math.addExact(amount, other);
+    }
+
+    public static long subtract(long amount, long other) {
+        return Math.subtractExact(amount, other);
+    }
+
+    public static long multiply(long amount, long quantity) {
+        return Math.multiplyExact(amount, quantity);
+    }
+
+    /**
+     * Sums the first {@code count} amounts of the array.
+     */
+    public static long sum(long[] amounts, int count) {
+        long total = 0L;
+        for (int i = 0; i < count; i++) {
+            total = Math.addExact(total, amounts[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Converts an amount to the destination currency, rounding half away from zero.
+     *
+     * @param amount minor units in the source currency
+     * @param fxRate rate scaled by {@link #FX_RATE_UNIT}
+     * @return minor units in the destination currency
+     */
+    public static long convert(long amount, long fxRate) {
+        return multiplyDivide(amount, fxRate, FX_RATE_UNIT);
+    }
+
+    /**
+     * Fee for an amount at the given rate, rounding half away from zero.
+     *
+     * @param amount      minor units
+     * @param basisPoints fee rate, 150 is 1.5%
+     * @return fee in minor units
+     */
+    public static long fee(long amount, long basisPoints) {
+        return multiplyDivide(amount, basisPoints, BASIS_POINTS);
+    }
+
+    /**
+     * CostToSend: the amount excluding fees plus the fee.
+     */
+    public static long costToSend(long sendingAmountExclFees, long fee) {
+        return Math.addExact(sendingAmountExclFees, fee);
+    }
+
+    /**
+     * Rescales an amount from one number of decimal places to another, e.g.
+     * between currencies with different ISO4217 minor units.
+     */
+    public static long rescale(long amount, int fromScale, int toScale) {
+        if (fromScale == toScale) {
+            return amount;
+        }
+        if (toScale > fromScale) {
+            return Math.multiplyExact(amount, pow10(toScale - fromScale));
+        }
+        return divideRounded(amount, pow10(fromScale - toScale));
+    }
+
+    public static long pow10(int exponent) {
+        if (exponent < 0 || exponent > 18) {
+            throw new ArithmeticException("Scale out of range: " + exponent);
+        }
+        long result = 1L;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10L;
+        }
+        return result;
+    }
+
+    private static long multiplyDivide(long value, long multiplier, long divisor) {
+        if (multiplier == 0L || Math.abs(value) <= Long.MAX_VALUE / Math.abs(multiplier)) {
+            return divideRounded(value * multiplier, divisor);
+        }
+        // product does not fit in a long, split the value so the partial products do
+        long quotient = value / divisor;
+        long remainder = value % divisor;
+        return Math.addExact(Math.multiplyExact(quotient, multiplier),
+                divideRounded(Math.multiplyExact(remainder, multiplier), divisor));
+    }
+
+    private static long divideRounded(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += dividend < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,117 @@
+package af.asr.youtap;
+
+import af.asr.youtap.codec.AmountCodec;
+import af.asr.youtap.codec.NvpCodec;
+import af.asr.youtap.message.request.CustomerTransactionRequest;
+import af.asr.youtap.message.request.MerchantTransactionRequest;
+import af.asr.youtap.message.response.BalanceGetResponse;
+import af.asr.youtap.util.Amount;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class AmountCodecTests {
+
+	@Test
+	void formatsMinorUnitsAndRates() {
+		assertThat(AmountCodec.formatAmount(131)).isEqualTo("1.31");
+		assertThat(AmountCodec.formatAmount(100)).isEqualTo("1.00");
+		assertThat(AmountCodec.formatAmount(5)).isEqualTo("0.05");
+		assertThat(AmountCodec.formatAmount(-250)).isEqualTo("-2.50");
+		assertThat(AmountCodec.formatFxRate(13080636)).isEqualTo("1.3080636");
+	}
+
+	@Test
+	void parsesWireAmounts() {
+		assertThat(AmountCodec.parseAmount("1.0")).isEqualTo(100);
+		assertThat(AmountCodec.parseAmount("1.31")).isEqualTo(131);
+		assertThat(AmountCodec.parseAmount("95807")).isEqualTo(9580700);
+		assertThat(AmountCodec.parseFxRate("1.3080636")).isEqualTo(13080636);
+
+		byte[] frame = "WorkingAmount=1.00,Fee=5.0".getBytes(StandardCharsets.US_ASCII);
+		assertThat(AmountCodec.parse(frame, 23, frame.length, Amount.MINOR_UNIT_SCALE)).isEqualTo(500);
+
+		assertThatThrownBy(() -> AmountCodec.parseAmount("1.001")).isInstanceOf(NumberFormatException.class);
+		assertThatThrownBy(() -> AmountCodec.parseAmount("1,00")).isInstanceOf(NumberFormatException.class);
+	}
+
+	@Test
+	void computesExactFeesAndConversions() {
+		assertThat(Amount.convert(100, 13080636)).isEqualTo(131);
+		assertThat(Amount.fee(1000, 150)).isEqualTo(15);
+		assertThat(Amount.costToSend(100, 500)).isEqualTo(600);
+		assertThat(Amount.rescale(131, 2, 0)).isEqualTo(1);
+		assertThat(Amount.sum(new long[]{100, 200, 300}, 3)).isEqualTo(600);
+		assertThatThrownBy(() -> Amount.add(Long.MAX_VALUE, 1)).isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	void customerTransactionMessageRoundTrips() {
+		String message = CustomerTransactionRequest.Builder.newInstance()
+				.withMessageType("CustomerTransaction").withTransactionId("0000000114").withTerminalId("T0001")
+				.withMerchantId("M0001").withMerchantPin(1234).withCustomerSearchData("(MSISDN=6421700700)")
+				.withPaymentType("Cash").withWorkingCurrency("AFN").withWorkingAmount(150075)
+				.build().getMessage();
+
+		assertThat(fields(message)).containsExactly(
+				entry("MessageType", "CustomerTransaction"), entry("TransactionId", "0000000114"),
+				entry("TerminalId", "T0001"), entry("MerchantId", "M0001"), entry("MerchantPin", "1234"),
+				entry("CustomerSearchData", "(MSISDN=6421700700)"), entry("PaymentType", "Cash"),
+				entry("WorkingCurrency", "AFN"), entry("WorkingAmount", "1500.75"));
+		assertThat(amount(message)).isEqualTo(150075);
+	}
+
+	@Test
+	void merchantTransactionMessageRoundTrips() {
+		String message = MerchantTransactionRequest.Builder.newInstance()
+				.withMessageType("MerchantTransaction").withTransactionId("0000000115").withTerminalId("T0001")
+				.withMerchantId("M0001").withMerchantPin(1234).withCustomerData("(MSISDN=6421700700)")
+				.withPaymentType("Cash").withWorkingCurrency("AFN").withWorkingAmount(5)
+				.build().getMessage();
+
+		assertThat(fields(message)).containsExactly(
+				entry("MessageType", "MerchantTransaction"), entry("TransactionId", "0000000115"),
+				entry("TerminalId", "T0001"), entry("MerchantId", "M0001"), entry("MerchantPin", "1234"),
+				entry("CustomerSearchData", "(MSISDN=6421700700)"), entry("PaymentType", "Cash"),
+				entry("WorkingCurrency", "AFN"), entry("WorkingAmount", "0.05"));
+		assertThat(amount(message)).isEqualTo(5);
+	}
+
+	@Test
+	void balanceMessageFormatsMinorUnits() {
+		String message = new BalanceGetResponse.Builder()
+				.withMessageType("BalanceGet").withStatus(0).withTransactionId("0000000116").withDspData("OK")
+				.withBalance(9580700).withTopUpBalance(-250)
+				.build().getMessage();
+
+		assertThat(fields(message)).containsExactly(
+				entry("Status", "0"), entry("TransactionId", "0000000116"), entry("Balance", "95807.00"),
+				entry("DspData", "OK"), entry("TopupBalance", "-2.50"), entry("MessageType", "BalanceGet"));
+	}
+
+	private static Map<String, String> fields(String message) {
+		byte[] frame = message.getBytes(StandardCharsets.US_ASCII);
+		Map<String, String> fields = new LinkedHashMap<>();
+		int pos = 0;
+		while (pos < frame.length) {
+			int assign = message.indexOf('=', pos);
+			int end = NvpCodec.valueEnd(frame, assign + 1, frame.length);
+			fields.put(NvpCodec.decode(frame, pos, assign), NvpCodec.decode(frame, assign + 1, end));
+			pos = end + 1;
+		}
+		return fields;
+	}
+
+	private static long amount(String message) {
+		byte[] frame = message.getBytes(StandardCharsets.US_ASCII);
+		int from = NvpCodec.findValue(frame, 0, frame.length, NvpCodec.ascii("WorkingAmount"));
+		return AmountCodec.parse(frame, from, NvpCodec.valueEnd(frame, from, frame.length), Amount.MINOR_UNIT_SCALE);
+	}
+
+}
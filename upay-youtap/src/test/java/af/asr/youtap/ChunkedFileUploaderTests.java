@@ -0,0 +1,181 @@
+package af.asr.youtap;
+
+import af.asr.youtap.data.FileDescritorData;
+import af.asr.youtap.upload.ChannelChunkSink;
+import af.asr.youtap.upload.ChunkSink;
+import af.asr.youtap.upload.ChunkedFileUploader;
+import af.asr.youtap.upload.UploadCheckpoint;
+import af.asr.youtap.upload.UploadResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChunkedFileUploaderTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void resumesInterruptedUploadFromLastChunk() throws Exception {
+		byte[] content = new byte[1000];
+		new Random(7).nextBytes(content);
+		Path file = Files.write(directory.resolve("id_scan.jpg"), content);
+
+		ByteArrayOutputStream received = new ByteArrayOutputStream();
+		List<Long> offsets = new ArrayList<>();
+		ChunkSink failing = (descriptor, offset, chunk, last) -> {
+			if (offset == 512) {
+				throw new IOException("connection reset");
+			}
+			offsets.add(offset);
+			return offset + copy(chunk, received);
+		};
+		assertThatThrownBy(() -> new ChunkedFileUploader(failing, 256, "SHA-256").upload(file, new FileDescritorData()))
+				.isInstanceOf(IOException.class);
+		assertThat(new UploadCheckpoint(file).load()).isEqualTo(512);
+
+		ChunkSink working = (descriptor, offset, chunk, last) -> {
+			offsets.add(offset);
+			return offset + copy(chunk, received);
+		};
+		UploadResult result = new ChunkedFileUploader(working, 256, "SHA-256").upload(file, new FileDescritorData());
+
+		assertThat(offsets).containsExactly(0L, 256L, 512L, 768L);
+		assertThat(received.toByteArray()).isEqualTo(content);
+		assertThat(result.getSize()).isEqualTo(1000);
+		assertThat(result.getChecksum()).isEqualTo(hex(MessageDigest.getInstance("SHA-256").digest(content)));
+		assertThat(new UploadCheckpoint(file).load()).isZero();
+	}
+
+	@Test
+	void checkpointsOnlyAcknowledgedChunks() throws Exception {
+		Path file = Files.write(directory.resolve("purse.log"), new byte[1000]);
+
+		// acknowledges each chunk only when the next one is sent
+		ChunkSink lagging = (descriptor, offset, chunk, last) -> {
+			if (offset == 768) {
+				throw new IOException("connection reset");
+			}
+			chunk.position(chunk.limit());
+			return offset;
+		};
+		assertThatThrownBy(() -> new ChunkedFileUploader(lagging, 256, "SHA-256").upload(file, new FileDescritorData()))
+				.isInstanceOf(IOException.class);
+
+		assertThat(new UploadCheckpoint(file).load()).isEqualTo(512);
+	}
+
+	@Test
+	void failsWhenLastChunkIsNotAcknowledged() throws Exception {
+		Path file = Files.write(directory.resolve("purse.log"), new byte[1000]);
+
+		ChunkSink unacknowledged = (descriptor, offset, chunk, last) -> {
+			chunk.position(chunk.limit());
+			return offset;
+		};
+		assertThatThrownBy(() -> new ChunkedFileUploader(unacknowledged, 256, "SHA-256").upload(file, new FileDescritorData()))
+				.isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void framesChunksOnTheChannel() throws Exception {
+		byte[] content = new byte[1000];
+		new Random(11).nextBytes(content);
+		Path file = Files.write(directory.resolve("id_scan.jpg"), content);
+		FileDescritorData descriptor = new FileDescritorData();
+		descriptor.setName("id_scan.jpg");
+		descriptor.setInfoType("IDSCAN");
+
+		FileServerChannel server = new FileServerChannel();
+		UploadResult result = new ChunkedFileUploader(new ChannelChunkSink(server, 2), 256, "SHA-256").upload(file, descriptor);
+
+		assertThat(server.offsets).containsExactly(0L, 256L, 512L, 768L);
+		assertThat(server.lastFlags).containsExactly(false, false, false, true);
+		assertThat(server.file.toByteArray()).isEqualTo(content);
+		assertThat(result.toNotification("98378265", "8888888888888", "0000000030").getFileDescriptor())
+				.isEqualTo("(Name=id_scan.jpg,InfoType=IDSCAN,Size=1000,ChecksumType=SHA-256,Checksum="
+						+ hex(MessageDigest.getInstance("SHA-256").digest(content)) + ")");
+	}
+
+	private static int copy(ByteBuffer chunk, ByteArrayOutputStream out) {
+		byte[] bytes = new byte[chunk.remaining()];
+		chunk.get(bytes);
+		out.write(bytes, 0, bytes.length);
+		return bytes.length;
+	}
+
+	/**
+	 * File server end of a {@link ChannelChunkSink}, reading the frames written to it and
+	 * acknowledging each one with the offset stored so far.
+	 */
+	private static class FileServerChannel implements ByteChannel {
+
+		final ByteArrayOutputStream file = new ByteArrayOutputStream();
+		final List<Long> offsets = new ArrayList<>();
+		final List<Boolean> lastFlags = new ArrayList<>();
+
+		private final ByteBuffer frames = ByteBuffer.allocate(64 * 1024);
+		private final ByteBuffer acks = ByteBuffer.allocate(1024);
+
+		@Override
+		public int write(ByteBuffer src) {
+			int written = src.remaining();
+			frames.put(src);
+			frames.flip();
+			while (frames.remaining() >= ChannelChunkSink.HEADER_SIZE
+					&& frames.remaining() >= ChannelChunkSink.HEADER_SIZE + frames.getInt(frames.position() + 8)) {
+				long offset = frames.getLong();
+				byte[] chunk = new byte[frames.getInt()];
+				lastFlags.add((frames.get() & ChannelChunkSink.LAST) != 0);
+				frames.get(chunk);
+				offsets.add(offset);
+				file.write(chunk, 0, chunk.length);
+				acks.putLong(offset + chunk.length);
+			}
+			frames.compact();
+			return written;
+		}
+
+		@Override
+		public int read(ByteBuffer dst) {
+			acks.flip();
+			int read = Math.min(dst.remaining(), acks.remaining());
+			for (int i = 0; i < read; i++) {
+				dst.put(acks.get());
+			}
+			acks.compact();
+			return read;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private static String hex(byte[] bytes) {
+		StringBuilder builder = new StringBuilder();
+		for (byte b : bytes) {
+			builder.append(String.format("%02x", b));
+		}
+		return builder.toString();
+	}
+
+}
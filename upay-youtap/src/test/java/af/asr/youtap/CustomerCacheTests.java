@@ -0,0 +1,63 @@
+package af.asr.youtap;
+
+import af.asr.youtap.cache.CustomerCache;
+import af.asr.youtap.data.CustomerSearchData;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerCacheTests {
+
+	private final CustomerCache cache = new CustomerCache(100, Duration.ofMinutes(5));
+
+	@Test
+	void resolvesCustomerByEverySecondaryKey() {
+		CustomerSearchData customer = customer("86717", "521BFD5B", "6421700700");
+		cache.put(customer);
+
+		assertThat(cache.getByCustomerId("86717")).isSameAs(customer);
+		assertThat(cache.getByNfcTagId("521BFD5B")).isSameAs(customer);
+		assertThat(cache.getByMsisdn("6421700700")).isSameAs(customer);
+		assertThat(cache.getByCardId("4000000000000002")).isSameAs(customer);
+	}
+
+	@Test
+	void dropsStaleIndexEntriesWhenCustomerIsReplaced() {
+		cache.put(customer("86717", "521BFD5B", "6421700700"));
+		CustomerSearchData retagged = customer("86717", "39BD361E", "6421700700");
+		cache.put(retagged);
+
+		assertThat(cache.getByNfcTagId("521BFD5B")).isNull();
+		assertThat(cache.getByNfcTagId("39BD361E")).isSameAs(retagged);
+	}
+
+	@Test
+	void invalidatesOnCustomerChangingRequests() {
+		cache.put(customer("86717", "521BFD5B", "6421700700"));
+
+		cache.observe(frame("MessageType=CustomerSearch,TransactionId=0000000114,CustomerSearchData=(NFCTagId=521BFD5B)"));
+		assertThat(cache.getByCustomerId("86717")).isNotNull();
+
+		cache.observe(frame("MessageType=ChangeCustomerPin,TransactionId=0000000115,TerminalId=98944138,CustomerData=(NFCTagId=521BFD5B)"));
+		assertThat(cache.getByCustomerId("86717")).isNull();
+		assertThat(cache.getByNfcTagId("521BFD5B")).isNull();
+		assertThat(cache.getByMsisdn("6421700700")).isNull();
+	}
+
+	private static CustomerSearchData customer(String customerId, String nfcTagId, String msisdn) {
+		return CustomerSearchData.Builder.newInstance()
+				.withCustomerId(customerId)
+				.withNFCTagId(nfcTagId)
+				.withMSISDN(msisdn)
+				.withCardId("4000000000000002")
+				.build();
+	}
+
+	private static byte[] frame(String message) {
+		return message.getBytes(StandardCharsets.US_ASCII);
+	}
+
+}
@@ -0,0 +1,103 @@
+package af.asr.youtap;
+
+import af.asr.youtap.report.DayEndAggregator;
+import af.asr.youtap.report.DayEndReport;
+import af.asr.youtap.type.PaymentType;
+import af.asr.youtap.type.TransactionType;
+import af.asr.youtap.util.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DayEndAggregatorTests {
+
+	@Test
+	void answersDayEndFromRunningTotals() {
+		DayEndAggregator aggregator = new DayEndAggregator();
+		aggregator.record("86637", "98378273", TransactionType.MERCHANT_TRANSACTION, PaymentType.C2MP, "AFN", Status.SUCCESSFUL, 1000);
+		aggregator.record("86637", "98378273", TransactionType.MERCHANT_TRANSACTION, PaymentType.C2MP, "AFN", Status.SUCCESSFUL, 500);
+		aggregator.record("86637", "98378273", TransactionType.SUBSCRIBER_TRANSACTION, PaymentType.TOPUP, "AFN", Status.SUCCESSFUL, 500);
+		aggregator.record("86637", "98378273", TransactionType.MERCHANT_TRANSACTION, PaymentType.C2MP, "AFN", Status.DECLINED, 9900);
+		aggregator.record("86637", "21908856", TransactionType.MERCHANT_TRANSACTION, PaymentType.BILL, "AFN", Status.SUCCESSFUL, 700);
+
+		DayEndReport report = aggregator.report("86637", "98378273");
+		assertThat(report.getPaymentTypeCount(PaymentType.C2MP)).isEqualTo(2);
+		assertThat(report.getPaymentTypeSum("AFN", PaymentType.C2MP)).isEqualTo(1500);
+		assertThat(report.getTransactionTypeSum("AFN", TransactionType.SUBSCRIBER_TRANSACTION)).isEqualTo(500);
+		assertThat(report.getTotalSum("AFN")).isEqualTo(2000);
+		assertThat(report.getFailedCount()).isEqualTo(1);
+		assertThat(report.getPrnData()).isEqualTo("TOPUP 1 5.00 AFN|C2MP 2 15.00 AFN|TOTAL 3 20.00 AFN|FAILED 1");
+
+		assertThat(aggregator.close("86637", "98378273").getTotalCount()).isEqualTo(3);
+		assertThat(aggregator.report("86637", "98378273").getTotalCount()).isZero();
+		assertThat(aggregator.report("86637", "21908856").getTotalSum("AFN")).isEqualTo(700);
+	}
+
+	@Test
+	void keepsCurrenciesApart() {
+		DayEndAggregator aggregator = new DayEndAggregator();
+		aggregator.record("86637", "98378273", TransactionType.MERCHANT_TRANSACTION, PaymentType.C2MP, "AFN", Status.SUCCESSFUL, 1000);
+		aggregator.record("86637", "98378273", TransactionType.MERCHANT_TRANSACTION, PaymentType.C2MP, "USD", Status.SUCCESSFUL, 200);
+
+		DayEndReport report = aggregator.report("86637", "98378273");
+		assertThat(report.getCurrencies()).containsExactly("AFN", "USD");
+		assertThat(report.getPaymentTypeCount(PaymentType.C2MP)).isEqualTo(2);
+		assertThat(report.getPaymentTypeSum("AFN", PaymentType.C2MP)).isEqualTo(1000);
+		assertThat(report.getPaymentTypeSum("USD", PaymentType.C2MP)).isEqualTo(200);
+		assertThat(report.getPrnData())
+				.isEqualTo("C2MP 1 10.00 AFN|TOTAL 1 10.00 AFN|C2MP 1 2.00 USD|TOTAL 1 2.00 USD|FAILED 0");
+	}
+
+	@Test
+	void failsInsteadOfOverflowing() {
+		DayEndAggregator aggregator = new DayEndAggregator();
+		aggregator.record("86637", "98378273", TransactionType.MERCHANT_TRANSACTION, PaymentType.C2MP, "AFN", Status.SUCCESSFUL, Long.MAX_VALUE);
+
+		assertThatThrownBy(() -> aggregator.record("86637", "98378273", TransactionType.MERCHANT_TRANSACTION,
+				PaymentType.C2MP, "AFN", Status.SUCCESSFUL, 1)).isInstanceOf(ArithmeticException.class);
+		DayEndReport report = aggregator.report("86637", "98378273");
+		assertThat(report.getPaymentTypeSum("AFN", PaymentType.C2MP)).isEqualTo(Long.MAX_VALUE);
+		assertThat(report.getPaymentTypeCount(PaymentType.C2MP)).isEqualTo(1);
+	}
+
+	@Test
+	void losesNoTransactionWhenClosingConcurrently() throws InterruptedException {
+		DayEndAggregator aggregator = new DayEndAggregator();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				for (int i = 0; i < 10000; i++) {
+					aggregator.record("86637", "98378273", TransactionType.MERCHANT_TRANSACTION, PaymentType.C2MP,
+							"AFN", Status.SUCCESSFUL, 1);
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		AtomicLong closed = new AtomicLong();
+		start.countDown();
+		for (Thread thread : threads) {
+			while (thread.isAlive()) {
+				closed.addAndGet(aggregator.close("86637", "98378273").getTotalSum("AFN"));
+			}
+			thread.join();
+		}
+		closed.addAndGet(aggregator.close("86637", "98378273").getTotalSum("AFN"));
+
+		assertThat(closed.get()).isEqualTo(40000);
+	}
+
+}
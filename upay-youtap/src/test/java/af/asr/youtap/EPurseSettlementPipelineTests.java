@@ -0,0 +1,152 @@
+package af.asr.youtap;
+
+import af.asr.youtap.data.EPurseData;
+import af.asr.youtap.epurse.EPurseSettlementPipeline;
+import af.asr.youtap.epurse.OfflineAuthorization;
+import af.asr.youtap.epurse.OfflineAuthorizationQueue;
+import af.asr.youtap.epurse.SettlementResult;
+import af.asr.youtap.message.request.EPurseTransactionAuthorizeRequest;
+import af.asr.youtap.network.gateway.TcpClientGateway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EPurseSettlementPipelineTests {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void refusesCountersThatDoNotMoveForward() {
+		OfflineAuthorizationQueue queue = new OfflineAuthorizationQueue();
+
+		assertThat(queue.offer(request("98378265", "0000000030"), purse("39BD361E", "7ffffff0"))).isTrue();
+		assertThat(queue.offer(request("98378265", "0000000031"), purse("39BD361E", "7ffffff0"))).isFalse();
+		assertThat(queue.offer(request("98378265", "0000000032"), purse("39BD361E", "7ffffff1"))).isFalse();
+		assertThat(queue.offer(request("98378265", "0000000033"), purse("39BD361E", "7fffffef"))).isTrue();
+		assertThat(queue.offer(request("98378265", "0000000034"), purse("521BFD5B", "7fffffff"))).isTrue();
+
+		assertThat(queue.size("98378265")).isEqualTo(3);
+	}
+
+	@Test
+	void settlesEveryPurseInCounterOrder() {
+		OfflineAuthorizationQueue queue = new OfflineAuthorizationQueue();
+		for (int i = 0; i < 1000; i++) {
+			String terminalId = "9837826" + (i % 3);
+			long counter = 0x7fffffffL - i / 9;
+			queue.offer(request(terminalId, String.format("%010d", i)), purse("PURSE" + (i % 9), Long.toHexString(counter)));
+		}
+		List<String> sent = new CopyOnWriteArrayList<>();
+		TcpClientGateway gateway = message -> {
+			sent.add(new String(message, StandardCharsets.US_ASCII));
+			return "Status=0,MessageType=EPurseTransactionAuthorizeResp".getBytes(StandardCharsets.US_ASCII);
+		};
+
+		SettlementResult result = new EPurseSettlementPipeline(queue, gateway, executor, 50).settle();
+
+		assertThat(result.getSettled()).isEqualTo(1000);
+		assertThat(result.getDeferred()).isZero();
+		assertThat(sent).hasSize(1000);
+		assertThat(queue.getTerminalIds()).isEmpty();
+		assertThat(queue.purseCount()).isEqualTo(9);
+		for (int purse = 0; purse < 9; purse++) {
+			long last = Long.MAX_VALUE;
+			for (String message : sent) {
+				if (message.contains("EPurseId=PURSE" + purse + ",")) {
+					long counter = Long.parseLong(message.substring(message.lastIndexOf('=') + 1, message.length() - 1), 16);
+					assertThat(counter).isLessThan(last);
+					last = counter;
+				}
+			}
+		}
+	}
+
+	@Test
+	void keepsUndeliveredAuthorizationsQueued() {
+		OfflineAuthorizationQueue queue = new OfflineAuthorizationQueue();
+		queue.offer(request("98378265", "0000000030"), purse("39BD361E", "7ffffff0"));
+		queue.offer(request("98378265", "0000000031"), purse("39BD361E", "7fffffef"));
+		queue.offer(request("98378265", "0000000032"), purse("521BFD5B", "7fffffff"));
+		AtomicBoolean online = new AtomicBoolean();
+		TcpClientGateway gateway = message -> {
+			String frame = new String(message, StandardCharsets.US_ASCII);
+			if (!online.get() && frame.contains("EPurseId=39BD361E")) {
+				throw new IllegalStateException("Connection refused");
+			}
+			String status = frame.contains("TransactionId=0000000032") ? "4" : "0";
+			return ("Status=" + status + ",MessageType=EPurseTransactionAuthorizeResp").getBytes(StandardCharsets.US_ASCII);
+		};
+		EPurseSettlementPipeline pipeline = new EPurseSettlementPipeline(queue, gateway, executor);
+
+		SettlementResult offline = pipeline.settle();
+		assertThat(offline.getSettled()).isZero();
+		assertThat(offline.getDeferred()).isEqualTo(2);
+		assertThat(offline.getDeclined()).extracting(a -> a.getEPurseId()).containsExactly("521BFD5B");
+		assertThat(queue.purseCount()).isEqualTo(2);
+		assertThat(queue.offer(request("98378265", "0000000033"), purse("39BD361E", "7fffffef"))).isFalse();
+
+		online.set(true);
+		SettlementResult recovered = pipeline.settle();
+		assertThat(recovered.getSettled()).isEqualTo(2);
+		assertThat(recovered.getDeferred()).isZero();
+		assertThat(queue.getTerminalIds()).isEmpty();
+		assertThat(queue.offer(request("98378265", "0000000034"), purse("39BD361E", "7fffffef"))).isFalse();
+	}
+
+	@Test
+	void refusesDrainedCounters() {
+		OfflineAuthorizationQueue queue = new OfflineAuthorizationQueue();
+		queue.offer(request("98378265", "0000000030"), purse("39BD361E", "7ffffff0"));
+		List<OfflineAuthorization> batch = new ArrayList<>();
+		assertThat(queue.drain("98378265", 10, batch)).isEqualTo(1);
+
+		assertThat(queue.offer(request("98378265", "0000000031"), purse("39BD361E", "7ffffff0"))).isFalse();
+		assertThat(queue.offer(request("98378265", "0000000032"), purse("39BD361E", "7fffffef"))).isTrue();
+	}
+
+	@Test
+	void boundsTheRememberedPurses() {
+		OfflineAuthorizationQueue queue = new OfflineAuthorizationQueue(100, Duration.ofDays(1));
+		for (int i = 0; i < 10000; i++) {
+			queue.offer(request("98378265", String.format("%010d", i)), purse("PURSE" + i, "7ffffff0"));
+		}
+
+		assertThat(queue.purseCount()).isLessThanOrEqualTo(100);
+	}
+
+	private static EPurseTransactionAuthorizeRequest request(String terminalId, String transactionId) {
+		EPurseTransactionAuthorizeRequest request = new EPurseTransactionAuthorizeRequest();
+		request.setMessageType("EPurseTransactionAuthorize");
+		request.setTerminalId(terminalId);
+		request.setTransactionId(transactionId);
+		request.setMerchantId("8888888888888");
+		request.setPaymentType("TOPUP");
+		request.setWorkingAmount(100);
+		return request;
+	}
+
+	private static EPurseData purse(String ePurseId, String counter) {
+		return EPurseData.Builder.newInstance()
+				.withEPurseId(ePurseId)
+				.withEPurseCurrency("IDR")
+				.withEPurseBalance("95807")
+				.withEPurseCounter(counter)
+				.build();
+	}
+
+}
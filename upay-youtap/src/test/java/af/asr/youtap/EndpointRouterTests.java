@@ -0,0 +1,230 @@
+package af.asr.youtap;
+
+import af.asr.youtap.network.routing.Endpoint;
+import af.asr.youtap.network.routing.EndpointRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EndpointRouterTests {
+
+	private final List<StubServer> servers = new ArrayList<>();
+
+	@AfterEach
+	void stopServers() throws IOException {
+		for (StubServer server : servers) {
+			server.close();
+		}
+	}
+
+	@Test
+	void prefersTheFasterEndpoint() throws IOException {
+		StubServer fast = start(0);
+		StubServer slow = start(20);
+		EndpointRouter<StubServer> router = router(EndpointRouter.Builder.newInstance(), fast, slow);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(router.execute(server -> server.send("MessageType=EchoTest"))).isEqualTo("Status=0");
+		}
+
+		assertThat(fast.requests.get()).isGreaterThan(slow.requests.get() * 3);
+	}
+
+	@Test
+	void ejectsFailingEndpointWithGrowingBackoff() throws IOException {
+		StubServer server = start(0);
+		server.failing = true;
+		AtomicLong clock = new AtomicLong();
+		EndpointRouter<StubServer> router = router(EndpointRouter.Builder.<StubServer>newInstance()
+				.withClock(clock::get)
+				.withEjectAfterFailures(3)
+				.withBaseEjectionMillis(1000), server);
+		Endpoint<StubServer> endpoint = router.getEndpoints().get(0);
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(router.isAvailable(endpoint)).isTrue();
+			assertThatThrownBy(() -> router.execute(s -> s.send("MessageType=EchoTest"))).isInstanceOf(UncheckedIOException.class);
+		}
+		assertThat(router.isAvailable(endpoint)).isFalse();
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertThat(router.isAvailable(endpoint)).isTrue();
+		assertThatThrownBy(() -> router.execute(s -> s.send("MessageType=EchoTest"))).isInstanceOf(UncheckedIOException.class);
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertThat(router.isAvailable(endpoint)).isFalse();
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertThat(router.isAvailable(endpoint)).isTrue();
+
+		server.failing = false;
+		assertThat(router.execute(s -> s.send("MessageType=EchoTest"))).isEqualTo("Status=0");
+		assertThat(router.isAvailable(endpoint)).isTrue();
+	}
+
+	@Test
+	void keepsEndpointOutOfRotationWhileItsProbeIsInFlight() throws Exception {
+		StubServer recovering = start(500);
+		StubServer healthy = start(0);
+		AtomicLong clock = new AtomicLong();
+		EndpointRouter<StubServer> router = router(EndpointRouter.Builder.<StubServer>newInstance()
+				.withClock(clock::get)
+				.withEjectAfterFailures(1)
+				.withBaseEjectionMillis(1000), recovering, healthy);
+		Endpoint<StubServer> ejected = router.getEndpoints().get(0);
+		Endpoint<StubServer> other = router.getEndpoints().get(1);
+
+		recovering.failing = true;
+		router.drain(other);
+		assertThatThrownBy(() -> router.execute(s -> s.send("MessageType=EchoTest"))).isInstanceOf(UncheckedIOException.class);
+		assertThat(recovering.received.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+		router.restore(other);
+		assertThat(router.isAvailable(ejected)).isFalse();
+
+		recovering.failing = false;
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertThat(router.select()).isSameAs(other);
+		CompletableFuture<String> probe = CompletableFuture.supplyAsync(() -> router.execute(s -> s.send("MessageType=EchoTest")));
+		assertThat(recovering.received.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(router.isAvailable(ejected)).isFalse();
+		for (int i = 0; i < 20; i++) {
+			assertThat(router.execute(s -> s.send("MessageType=EchoTest"))).isEqualTo("Status=0");
+		}
+		assertThat(healthy.requests.get()).isEqualTo(20);
+
+		assertThat(probe.get(5, TimeUnit.SECONDS)).isEqualTo("Status=0");
+		assertThat(recovering.requests.get()).isEqualTo(1);
+		assertThat(router.isAvailable(ejected)).isTrue();
+	}
+
+	@Test
+	void drainsInFlightRequestsBeforeFailover() throws Exception {
+		StubServer first = start(200);
+		StubServer second = start(0);
+		EndpointRouter<StubServer> router = router(EndpointRouter.Builder.newInstance(), first, second);
+		Endpoint<StubServer> draining = router.getEndpoints().get(0);
+		Endpoint<StubServer> remaining = router.getEndpoints().get(1);
+
+		router.drain(remaining);
+		CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() -> router.execute(s -> s.send("MessageType=EchoTest")));
+		assertThat(first.received.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+		router.restore(remaining);
+		router.drain(draining);
+
+		assertThat(draining.getInFlight()).isEqualTo(1);
+		assertThat(router.execute(s -> s.send("MessageType=EchoTest"))).isEqualTo("Status=0");
+		assertThat(second.requests.get()).isEqualTo(1);
+
+		assertThat(router.awaitDrained(draining, 5000)).isTrue();
+		assertThat(inFlight.get()).isEqualTo("Status=0");
+
+		router.drain(remaining);
+		assertThatThrownBy(router::select).isInstanceOf(IllegalStateException.class);
+	}
+
+	private StubServer start(long delayMillis) throws IOException {
+		StubServer server = new StubServer(delayMillis);
+		servers.add(server);
+		return server;
+	}
+
+	private static EndpointRouter<StubServer> router(EndpointRouter.Builder<StubServer> builder, StubServer... servers) {
+		for (StubServer server : servers) {
+			builder.withEndpoint("localhost", server.getPort(), server);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Answers each CRLF terminated request with Status=0 after a delay, or drops the connection while failing.
+	 */
+	private static class StubServer implements AutoCloseable {
+
+		private final ServerSocket serverSocket;
+		private final long delayMillis;
+		private final AtomicInteger requests = new AtomicInteger();
+		private final Semaphore received = new Semaphore(0);
+		private volatile boolean failing;
+
+		StubServer(long delayMillis) throws IOException {
+			this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+			this.delayMillis = delayMillis;
+			Thread acceptor = new Thread(this::accept, "stub-youtap-" + getPort());
+			acceptor.setDaemon(true);
+			acceptor.start();
+		}
+
+		int getPort() {
+			return serverSocket.getLocalPort();
+		}
+
+		private void accept() {
+			while (!serverSocket.isClosed()) {
+				try {
+					Socket socket = serverSocket.accept();
+					Thread handler = new Thread(() -> answer(socket));
+					handler.setDaemon(true);
+					handler.start();
+				} catch (IOException e) {
+					return;
+				}
+			}
+		}
+
+		private void answer(Socket socket) {
+			try (Socket s = socket) {
+				BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+				OutputStream out = s.getOutputStream();
+				while (in.readLine() != null) {
+					received.release();
+					if (failing) {
+						return;
+					}
+					Thread.sleep(delayMillis);
+					requests.incrementAndGet();
+					out.write("Status=0\r\n".getBytes(StandardCharsets.US_ASCII));
+					out.flush();
+				}
+			} catch (IOException | InterruptedException e) {
+				// connection closed by the client
+			}
+		}
+
+		String send(String message) {
+			try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), getPort())) {
+				socket.getOutputStream().write((message + "\r\n").getBytes(StandardCharsets.US_ASCII));
+				String reply = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+				if (reply == null) {
+					throw new IOException("Connection closed by " + getPort());
+				}
+				return reply;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			serverSocket.close();
+		}
+	}
+
+}
@@ -0,0 +1,56 @@
+package af.asr.youtap;
+
+import af.asr.youtap.load.LatencyHistogram;
+import af.asr.youtap.load.LoadGenerator;
+import af.asr.youtap.load.LoadMix;
+import af.asr.youtap.load.LoadReport;
+import af.asr.youtap.load.StubYoutapServer;
+import af.asr.youtap.network.gateway.TcpClientGateway;
+import af.asr.youtap.type.YoutapMessageTypes;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LoadGeneratorTests {
+
+	@Test
+	void histogramPercentilesStayWithinBucketPrecision() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long micros = 1; micros <= 100000; micros++) {
+			histogram.record(micros * 1000);
+		}
+
+		assertThat(histogram.getTotalCount()).isEqualTo(100000);
+		assertThat(histogram.getMin()).isEqualTo(1000);
+		assertThat(histogram.getMax()).isEqualTo(100000000);
+		assertThat((double) histogram.getValueAtPercentile(50)).isCloseTo(50000000, within(50000000 * 0.016));
+		assertThat((double) histogram.getValueAtPercentile(99)).isCloseTo(99000000, within(99000000 * 0.016));
+		assertThat(histogram.getValueAtPercentile(99.9)).isLessThanOrEqualTo(histogram.getMax());
+	}
+
+	@Test
+	void drivesTheStandardMixAgainstTheStubServer() throws Exception {
+		try (StubYoutapServer server = new StubYoutapServer(0, 0);
+			 AnnotationConfigApplicationContext context = LoadGenerator.startGateway("localhost:" + server.getPort(), 2)) {
+			LoadReport report = LoadGenerator.Builder.newInstance()
+					.withMix(LoadMix.standard("86637", "21908856"))
+					.withThreads(2)
+					.withWarmupMillis(100)
+					.withDurationMillis(300)
+					.build()
+					.run(context.getBean(TcpClientGateway.class));
+
+			assertThat(report.getMessages()).isPositive();
+			assertThat(report.getErrors()).isZero();
+			assertThat(report.getTps()).isPositive();
+			assertThat(report.getTotal().getValueAtPercentile(50))
+					.isLessThanOrEqualTo(report.getTotal().getValueAtPercentile(99));
+			assertThat(report.getHistogram(YoutapMessageTypes.MERCHANT_TRANSACTION_REQUEST).getTotalCount()).isPositive();
+			assertThat(report.getHistogram(YoutapMessageTypes.MINI_STATEMENT_REQUEST).getTotalCount()).isPositive();
+			assertThat(report.toString()).contains("TOTAL");
+		}
+	}
+
+}
@@ -0,0 +1,41 @@
+package af.asr.youtap;
+
+import af.asr.youtap.codec.MessageDispatcher;
+import af.asr.youtap.codec.NvpCodec;
+import af.asr.youtap.type.MessageType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageDispatcherTests {
+
+	@Test
+	void resolvesEveryMessageTypeFromWireBytes() {
+		for (MessageType type : MessageType.values()) {
+			assertThat(MessageType.fromWireName(type.getWireName())).isSameAs(type);
+		}
+		assertThat(MessageType.fromWireName("MerchantLogi")).isNull();
+		assertThat(MessageType.fromWireName("Unknown")).isNull();
+	}
+
+	@Test
+	void dispatchesToRegisteredRoute() {
+		List<String> handled = new ArrayList<>();
+		MessageDispatcher dispatcher = new MessageDispatcher()
+				.register(MessageType.CUSTOMER_SEARCH_RESPONSE, NvpCodec::decode, handled::add);
+
+		byte[] frame = "Status=0,TransactionId=0000000114,CustomerSearchData=(MSISDN=6421700700),MessageType=CustomerSearchResp"
+				.getBytes(StandardCharsets.US_ASCII);
+		assertThat(dispatcher.dispatch(frame)).isTrue();
+		assertThat(handled).hasSize(1);
+
+		assertThat(dispatcher.dispatch("MessageType=MerchantLoginResp".getBytes(StandardCharsets.US_ASCII))).isFalse();
+		assertThat(dispatcher.dispatch("MessageType=Bogus,Status=0".getBytes(StandardCharsets.US_ASCII))).isFalse();
+		assertThat(dispatcher.dispatch("Status=0".getBytes(StandardCharsets.US_ASCII))).isFalse();
+	}
+
+}
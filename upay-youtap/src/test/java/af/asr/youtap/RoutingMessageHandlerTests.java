@@ -0,0 +1,186 @@
+package af.asr.youtap;
+
+import af.asr.youtap.network.config.TcpClientConfig;
+import af.asr.youtap.network.gateway.TcpClientGateway;
+import af.asr.youtap.network.routing.Endpoint;
+import af.asr.youtap.network.routing.EndpointRouter;
+import af.asr.youtap.network.routing.RoutingMessageHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.integration.annotation.IntegrationComponentScan;
+import org.springframework.integration.config.EnableIntegration;
+import org.springframework.integration.ip.tcp.TcpOutboundGateway;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routes through the outbound gateway as configured by {@link TcpClientConfig}, with real
+ * {@link TcpOutboundGateway}s and connection factories in front of stub servers.
+ */
+class RoutingMessageHandlerTests {
+
+	private static final byte[] ECHO_TEST = "MessageType=EchoTest".getBytes(StandardCharsets.US_ASCII);
+
+	private static final long BASE_EJECTION_MILLIS = 300;
+
+	@Test
+	void probesEjectedServerBeforeRestoringIt() throws Exception {
+		int downPort = freePort();
+		try (StubServer healthy = new StubServer(0, 0);
+			 AnnotationConfigApplicationContext context = start(downPort, healthy.getPort())) {
+			TcpClientGateway gateway = context.getBean(TcpClientGateway.class);
+			EndpointRouter<TcpOutboundGateway> router = context.getBean(RoutingMessageHandler.class).getRouter();
+			Endpoint<TcpOutboundGateway> down = router.getEndpoints().get(0);
+			Endpoint<TcpOutboundGateway> up = router.getEndpoints().get(1);
+
+			router.drain(up);
+			assertThatThrownBy(() -> gateway.send(ECHO_TEST)).isInstanceOf(RuntimeException.class);
+			router.restore(up);
+			assertThat(router.isAvailable(down)).isFalse();
+			assertThat(send(gateway)).isEqualTo("Status=0");
+
+			awaitAvailable(router, down);
+			assertThatThrownBy(() -> gateway.send(ECHO_TEST)).isInstanceOf(RuntimeException.class);
+			assertThat(router.isAvailable(down)).isFalse();
+
+			try (StubServer recovering = new StubServer(downPort, 500)) {
+				awaitAvailable(router, down);
+				CompletableFuture<String> probe = CompletableFuture.supplyAsync(() -> send(gateway));
+				assertThat(recovering.received.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+				assertThat(router.isAvailable(down)).isFalse();
+				int before = healthy.requests.get();
+				for (int i = 0; i < 10; i++) {
+					assertThat(send(gateway)).isEqualTo("Status=0");
+				}
+				assertThat(healthy.requests.get()).isEqualTo(before + 10);
+
+				assertThat(probe.get(5, TimeUnit.SECONDS)).isEqualTo("Status=0");
+				assertThat(recovering.requests.get()).isEqualTo(1);
+				assertThat(router.isAvailable(down)).isTrue();
+			}
+		}
+	}
+
+	private static AnnotationConfigApplicationContext start(int... ports) {
+		StringBuilder endpoints = new StringBuilder();
+		for (int port : ports) {
+			endpoints.append(endpoints.length() == 0 ? "" : ",").append("localhost:").append(port);
+		}
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		TestPropertyValues.of(
+				"tcp.server.host=localhost",
+				"tcp.server.port=" + ports[0],
+				"tcp.server.endpoints=" + endpoints,
+				"tcp.client.connection.poolSize=2",
+				"tcp.client.routing.ejectAfterFailures=1",
+				"tcp.client.routing.baseEjectionMillis=" + BASE_EJECTION_MILLIS)
+				.applyTo(context);
+		context.register(GatewayConfig.class);
+		context.refresh();
+		return context;
+	}
+
+	private static String send(TcpClientGateway gateway) {
+		return new String(gateway.send(ECHO_TEST), StandardCharsets.US_ASCII);
+	}
+
+	private static void awaitAvailable(EndpointRouter<TcpOutboundGateway> router, Endpoint<TcpOutboundGateway> endpoint)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!router.isAvailable(endpoint)) {
+			assertThat(System.nanoTime() - deadline).isNegative();
+			Thread.sleep(10);
+		}
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+			return socket.getLocalPort();
+		}
+	}
+
+	@Configuration
+	@EnableIntegration
+	@IntegrationComponentScan(basePackageClasses = TcpClientGateway.class)
+	@Import(TcpClientConfig.class)
+	static class GatewayConfig {
+	}
+
+	/**
+	 * Answers each CRLF terminated request with Status=0 after a delay.
+	 */
+	private static class StubServer implements AutoCloseable {
+
+		private final ServerSocket serverSocket;
+		private final long delayMillis;
+		private final AtomicInteger requests = new AtomicInteger();
+		private final Semaphore received = new Semaphore(0);
+
+		StubServer(int port, long delayMillis) throws IOException {
+			this.serverSocket = new ServerSocket();
+			this.serverSocket.setReuseAddress(true);
+			this.serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+			this.delayMillis = delayMillis;
+			Thread acceptor = new Thread(this::accept, "stub-youtap-" + getPort());
+			acceptor.setDaemon(true);
+			acceptor.start();
+		}
+
+		int getPort() {
+			return serverSocket.getLocalPort();
+		}
+
+		private void accept() {
+			while (!serverSocket.isClosed()) {
+				try {
+					Socket socket = serverSocket.accept();
+					Thread handler = new Thread(() -> answer(socket));
+					handler.setDaemon(true);
+					handler.start();
+				} catch (IOException e) {
+					return;
+				}
+			}
+		}
+
+		private void answer(Socket socket) {
+			try (Socket s = socket) {
+				BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+				OutputStream out = s.getOutputStream();
+				while (in.readLine() != null) {
+					received.release();
+					Thread.sleep(delayMillis);
+					requests.incrementAndGet();
+					out.write("Status=0\r\n".getBytes(StandardCharsets.US_ASCII));
+					out.flush();
+				}
+			} catch (IOException | InterruptedException e) {
+				// connection closed by the client
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			serverSocket.close();
+		}
+	}
+
+}
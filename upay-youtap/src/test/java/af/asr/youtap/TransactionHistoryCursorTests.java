@@ -0,0 +1,132 @@
+package af.asr.youtap;
+
+import af.asr.youtap.codec.TransactionDataReader;
+import af.asr.youtap.data.TransactionData;
+import af.asr.youtap.message.request.TransactionSearchRequest;
+import af.asr.youtap.network.client.StreamingTcpClient;
+import af.asr.youtap.network.client.TransactionHistoryCursor;
+import af.asr.youtap.network.client.YoutapStatusException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionHistoryCursorTests {
+
+	private static final String[] BLOCKS = {
+			"Status=0,TransactionId=0000000091,BlockCount=2,"
+					+ "TransactionData=(TransactionType=MERCHANTTRANSACTION,TransactionDate=20130701131621,Status=0,MerchantId=86637,PaymentType=C2MP,WorkingCurrency=554,WorkingAmount=1.00),"
+					+ "TransactionData=(TransactionType=MERCHANTTRANSACTION,TransactionDate=20130701131700,Status=4,Message=Declined,PaymentTrailId=42,WorkingAmount=12.5),"
+					+ "MessageType=LastTransactionResp\r\n",
+			"Status=0,BlockCount=2,"
+					+ "TransactionData=(TransactionType=SUBSCRIBERTRANSACTION,TransactionDate=20130702090000,Status=0,CustomerId=86717,WorkingAmount=0.05),"
+					+ "MessageType=LastTransactionResp"
+	};
+
+	@Test
+	void readsRecordsOneAtATimeWithSmallBuffer() {
+		TransactionDataReader reader = new TransactionDataReader(
+				new ByteArrayInputStream(BLOCKS[0].getBytes(StandardCharsets.US_ASCII)), 16, 1024);
+
+		TransactionData first = reader.next();
+		assertThat(first.getTransactionDate()).isEqualTo("20130701131621");
+		assertThat(first.getWorkingCurrency()).isEqualTo(554);
+		assertThat(first.getWorkingAmount()).isEqualTo(100);
+
+		TransactionData second = reader.next();
+		assertThat(second.getStatus()).isEqualTo(4);
+		assertThat(second.getSearchTxnMessage()).isEqualTo("Declined");
+		assertThat(second.getPaymentTrailId()).isEqualTo(42);
+		assertThat(second.getWorkingAmount()).isEqualTo(1250);
+
+		assertThat(reader.hasNext()).isFalse();
+		assertThat(reader.getBlockCount()).isEqualTo(2);
+	}
+
+	@Test
+	void pagesAcrossBlocks() {
+		List<Integer> requested = new ArrayList<>();
+		TransactionHistoryCursor cursor = new TransactionHistoryCursor(block -> {
+			requested.add(block);
+			return new ByteArrayInputStream(BLOCKS[block].getBytes(StandardCharsets.US_ASCII));
+		});
+
+		List<TransactionData> page = new ArrayList<>();
+		assertThat(cursor.nextPage(page, 2)).isEqualTo(2);
+		assertThat(requested).containsExactly(0);
+
+		page.clear();
+		assertThat(cursor.nextPage(page, 2)).isEqualTo(1);
+		assertThat(page.get(0).getCustomerId()).isEqualTo("86717");
+		assertThat(requested).containsExactly(0, 1);
+		assertThat(cursor.nextPage(page, 2)).isZero();
+	}
+
+	@Test
+	void streamsRecordsFromTheConnection() throws Exception {
+		CountDownLatch firstRecordRead = new CountDownLatch(1);
+		String[] fields = BLOCKS[0].replace("BlockCount=2", "BlockCount=1").split("(?<=\\)),");
+		try (ServerSocket server = new ServerSocket(0)) {
+			Thread serving = new Thread(() -> {
+				try (Socket socket = server.accept()) {
+					new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+					OutputStream out = socket.getOutputStream();
+					out.write((fields[0] + ",").getBytes(StandardCharsets.US_ASCII));
+					out.flush();
+					// the rest is only sent once the client parsed the first record
+					firstRecordRead.await(5, TimeUnit.SECONDS);
+					out.write((fields[1] + "," + fields[2]).getBytes(StandardCharsets.US_ASCII));
+					out.flush();
+					socket.getInputStream().read();
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			serving.start();
+
+			StreamingTcpClient client = new StreamingTcpClient("localhost", server.getLocalPort(), 1000, 5000);
+			TransactionSearchRequest request = new TransactionSearchRequest();
+			request.setMessageType("TransactionSearch");
+			request.setTransactionId("0000000091");
+			try (TransactionHistoryCursor cursor = TransactionHistoryCursor.transactionSearch(client, request)) {
+				assertThat(cursor.next().getTransactionDate()).isEqualTo("20130701131621");
+				firstRecordRead.countDown();
+				assertThat(cursor.next().getTransactionDate()).isEqualTo("20130701131700");
+				assertThat(cursor.hasNext()).isFalse();
+			}
+			serving.join(5000);
+		}
+	}
+
+	@Test
+	void failsOnNonSuccessStatus() {
+		TransactionHistoryCursor cursor = new TransactionHistoryCursor(block -> new ByteArrayInputStream(
+				"Status=12,TransactionId=0000000091,MessageType=LastTransactionResp\r\n".getBytes(StandardCharsets.US_ASCII)));
+
+		assertThatThrownBy(cursor::hasNext).isInstanceOf(YoutapStatusException.class)
+				.extracting("status").isEqualTo(12);
+		assertThat(cursor.hasNext()).isFalse();
+	}
+
+	@Test
+	void failsOnMissingStatus() {
+		TransactionHistoryCursor cursor = new TransactionHistoryCursor(block -> new ByteArrayInputStream(
+				"TransactionId=0000000091,MessageType=LastTransactionResp".getBytes(StandardCharsets.US_ASCII)));
+
+		assertThatThrownBy(cursor::hasNext).isInstanceOf(YoutapStatusException.class)
+				.extracting("status").isEqualTo(-1);
+	}
+
+}
@@ -0,0 +1,277 @@
+package af.asr.youtap.load;
+
+import af.asr.youtap.codec.NvpCodec;
+import af.asr.youtap.network.config.TcpClientConfig;
+import af.asr.youtap.network.gateway.TcpClientGateway;
+import af.asr.youtap.util.Status;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.integration.annotation.IntegrationComponentScan;
+import org.springframework.integration.config.EnableIntegration;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a {@link LoadMix} through a {@link TcpClientGateway} from a number of threads,
+ * each sending its next request as soon as the previous one is answered.
+ *
+ * Requests sent during the warmup are not counted. A request fails when the gateway
+ * throws or the response Status is not successful.
+ *
+ * Usage: LoadGenerator [--endpoints=host:port,...] [--threads=8] [--connections=threads] [--warmup=5] [--duration=30] [--delayMicros=0]
+ * The requests go through the {@link TcpClientGateway} and routed TcpOutboundGateways of
+ * {@link TcpClientConfig}, with {@code connections} pooled per endpoint. Without --endpoints an
+ * embedded {@link StubYoutapServer} is started, answering after delayMicros. Being test code,
+ * it is run from the test classpath, e.g.
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=af.asr.youtap.load.LoadGenerator
+ */
+public class LoadGenerator {
+
+    private static final byte[] STATUS = NvpCodec.ascii("Status");
+
+    private final LoadMix mix;
+    private final int threads;
+    private final long warmupMillis;
+    private final long durationMillis;
+
+    public LoadGenerator(Builder builder)
+    {
+        this.mix = builder.mix;
+        this.threads = builder.threads;
+        this.warmupMillis = builder.warmupMillis;
+        this.durationMillis = builder.durationMillis;
+    }
+
+    public LoadReport run(TcpClientGateway gateway) throws InterruptedException {
+        int size = mix.size();
+        List<Worker> workers = new ArrayList<>(threads);
+        List<Thread> running = new ArrayList<>(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        long[] window = new long[2];
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(gateway, i, size, ready, go, window);
+            Thread thread = new Thread(worker, "youtap-load-" + i);
+            workers.add(worker);
+            running.add(thread);
+            thread.start();
+        }
+        ready.await();
+        window[0] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+        window[1] = window[0] + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        go.countDown();
+        for (Thread thread : running) {
+            thread.join();
+        }
+
+        String[] names = new String[size];
+        LatencyHistogram[] histograms = new LatencyHistogram[size];
+        long[] errors = new long[size];
+        long allocated = 0;
+        for (int m = 0; m < size; m++) {
+            names[m] = mix.getName(m);
+            histograms[m] = new LatencyHistogram();
+        }
+        for (Worker worker : workers) {
+            for (int m = 0; m < size; m++) {
+                histograms[m].add(worker.histograms[m]);
+                errors[m] += worker.errors[m];
+            }
+            allocated = worker.allocated < 0 || allocated < 0 ? -1 : allocated + worker.allocated;
+        }
+        return new LoadReport(names, histograms, errors, window[1] - window[0], allocated);
+    }
+
+    private class Worker implements Runnable {
+
+        private final TcpClientGateway gateway;
+        private final SplittableRandom random;
+        private final long sequenceBase;
+        private final CountDownLatch ready;
+        private final CountDownLatch go;
+        private final long[] window;
+        private final LatencyHistogram[] histograms;
+        private final long[] errors;
+        private long allocated = -1;
+
+        Worker(TcpClientGateway gateway, int index, int size, CountDownLatch ready, CountDownLatch go, long[] window) {
+            this.gateway = gateway;
+            this.random = new SplittableRandom(index);
+            this.sequenceBase = index * 1000000000L;
+            this.ready = ready;
+            this.go = go;
+            this.window = window;
+            this.histograms = new LatencyHistogram[size];
+            this.errors = new long[size];
+            for (int m = 0; m < size; m++) {
+                histograms[m] = new LatencyHistogram();
+            }
+        }
+
+        @Override
+        public void run() {
+            ready.countDown();
+            try {
+                go.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long measureFrom = window[0];
+            long end = window[1];
+            long sequence = sequenceBase;
+            long allocatedFrom = 0;
+            boolean measuring = false;
+            while (true) {
+                long now = System.nanoTime();
+                if (now - end >= 0) {
+                    break;
+                }
+                if (!measuring && now - measureFrom >= 0) {
+                    measuring = true;
+                    allocatedFrom = allocatedBytes();
+                }
+                int message = mix.next(random);
+                byte[] request = mix.build(message, sequence++);
+                long start = System.nanoTime();
+                boolean successful;
+                try {
+                    successful = NvpCodec.intValue(gateway.send(request), STATUS, -1) == Status.SUCCESSFUL;
+                } catch (RuntimeException e) {
+                    successful = false;
+                }
+                long elapsed = System.nanoTime() - start;
+                if (measuring) {
+                    if (successful) {
+                        histograms[message].record(elapsed);
+                    } else {
+                        errors[message]++;
+                    }
+                }
+            }
+            long allocatedTo = allocatedBytes();
+            allocated = measuring && allocatedFrom >= 0 && allocatedTo >= 0 ? allocatedTo - allocatedFrom : -1;
+        }
+    }
+
+    /**
+     * @return bytes allocated so far by the current thread, or -1 when the JVM does not track it
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Starts the outbound gateway of {@link TcpClientConfig} on its own, without the rest of the application.
+     *
+     * @param endpoints comma separated host:port list of the Youtap servers
+     * @param connections connections pooled per endpoint
+     */
+    public static AnnotationConfigApplicationContext startGateway(String endpoints, int connections) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("tcp.server.endpoints", endpoints);
+        properties.put("tcp.client.connection.poolSize", connections);
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("loadGenerator", properties));
+        context.register(GatewayConfig.class);
+        context.refresh();
+        return context;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int assign = arg.indexOf('=');
+            if (arg.startsWith("--") && assign > 2) {
+                options.put(arg.substring(2, assign), arg.substring(assign + 1));
+            }
+        }
+        long delayMicros = Long.parseLong(options.getOrDefault("delayMicros", "0"));
+        StubYoutapServer stub = options.containsKey("endpoints") ? null : new StubYoutapServer(0, delayMicros);
+        String endpoints = stub == null ? options.get("endpoints") : "localhost:" + stub.getPort();
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+
+        LoadGenerator generator = Builder.newInstance()
+                .withMix(LoadMix.standard(options.getOrDefault("merchantId", "86637"), options.getOrDefault("terminalId", "21908856")))
+                .withThreads(threads)
+                .withWarmupMillis(TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("warmup", "5"))))
+                .withDurationMillis(TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("duration", "30"))))
+                .build();
+        try (AnnotationConfigApplicationContext context = startGateway(endpoints,
+                Integer.parseInt(options.getOrDefault("connections", String.valueOf(threads))))) {
+            System.out.println("Driving " + threads + " threads against " + (stub == null ? endpoints : "embedded stub " + endpoints));
+            System.out.print(generator.run(context.getBean(TcpClientGateway.class)));
+        } finally {
+            if (stub != null) {
+                stub.close();
+            }
+        }
+    }
+
+    @Configuration
+    @EnableIntegration
+    @IntegrationComponentScan(basePackageClasses = TcpClientGateway.class)
+    @Import(TcpClientConfig.class)
+    static class GatewayConfig {
+    }
+
+    public static class Builder {
+
+        private LoadMix mix;
+        private int threads = 8;
+        private long warmupMillis = 5000;
+        private long durationMillis = 30000;
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        public Builder withMix(LoadMix mix)
+        {
+            this.mix = mix;
+            return this;
+        }
+
+        public Builder withThreads(int threads)
+        {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder withWarmupMillis(long warmupMillis)
+        {
+            this.warmupMillis = warmupMillis;
+            return this;
+        }
+
+        public Builder withDurationMillis(long durationMillis)
+        {
+            this.durationMillis = durationMillis;
+            return this;
+        }
+
+        public LoadGenerator build()
+        {
+            return new LoadGenerator(this);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package af.asr.youtap.load;
+
+import af.asr.youtap.message.request.BalanceGetRequest;
+import af.asr.youtap.message.request.CustomerSearchRequest;
+import af.asr.youtap.message.request.MerchantLoginRequest;
+import af.asr.youtap.message.request.MerchantTransactionRequest;
+import af.asr.youtap.message.request.MiniStatementRequest;
+import af.asr.youtap.type.BalanceType;
+import af.asr.youtap.type.PaymentType;
+import af.asr.youtap.type.YoutapMessageTypes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongFunction;
+
+/**
+ * Weighted set of the requests a load run sends, each built through the regular request
+ * builders so message construction is part of what is measured.
+ */
+public class LoadMix {
+
+    private final List<String> names;
+    private final List<LongFunction<String>> factories;
+    private final int[] cumulativeWeights;
+
+    public LoadMix(Builder builder)
+    {
+        this.names = Collections.unmodifiableList(new ArrayList<>(builder.names));
+        this.factories = new ArrayList<>(builder.factories);
+        this.cumulativeWeights = new int[builder.weights.size()];
+        int total = 0;
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            total += builder.weights.get(i);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("A load mix needs at least one message with a positive weight");
+        }
+    }
+
+    /**
+     * The traffic of a busy merchant terminal: mostly transactions and customer lookups,
+     * with the occasional login, balance check and statement.
+     */
+    public static LoadMix standard(String merchantId, String terminalId) {
+        return Builder.newInstance()
+                .withMessage(YoutapMessageTypes.MERCHANT_LOGIN_REQUEST, 10, sequence -> MerchantLoginRequest.Builder.newInstance()
+                        .withMessageType(YoutapMessageTypes.MERCHANT_LOGIN_REQUEST)
+                        .withMerchantId(merchantId)
+                        .withTerminalId(terminalId)
+                        .withMerchantPin("1234")
+                        .withTransactionId(transactionId(sequence))
+                        .build().getMessage())
+                .withMessage(YoutapMessageTypes.CUSTOMER_SEARCH_REQUEST, 25, sequence -> CustomerSearchRequest.Builder.newInstance()
+                        .withMessageType(YoutapMessageTypes.CUSTOMER_SEARCH_REQUEST)
+                        .withMerchantId(merchantId)
+                        .withTerminalId(terminalId)
+                        .withTransactionId(transactionId(sequence))
+                        .withCustomerSearchData("(MSISDN=64217" + (sequence % 100000) + ")")
+                        .build().getMessage())
+                .withMessage(YoutapMessageTypes.MERCHANT_TRANSACTION_REQUEST, 40, sequence -> MerchantTransactionRequest.Builder.newInstance()
+                        .withMessageType(YoutapMessageTypes.MERCHANT_TRANSACTION_REQUEST)
+                        .withMerchantId(merchantId)
+                        .withTerminalId(terminalId)
+                        .withTransactionId(transactionId(sequence))
+                        .withMerchantPin(1234)
+                        .withCustomerData("(NFCTagId=" + Long.toHexString(0x39BD0000L + sequence % 0x10000).toUpperCase() + ")")
+                        .withPaymentType(PaymentType.C2MP)
+                        .withWorkingCurrency("AFN")
+                        .withWorkingAmount(100 + sequence % 10000)
+                        .build().getMessage())
+                .withMessage(YoutapMessageTypes.BALANCE_GET_REQUEST, 15, sequence -> BalanceGetRequest.Builder.newInstance()
+                        .withMessageType(YoutapMessageTypes.BALANCE_GET_REQUEST)
+                        .withMerchantId(merchantId)
+                        .withTerminalId(terminalId)
+                        .withTransactionId(transactionId(sequence))
+                        .withMerchantPin("1234")
+                        .balanceType(BalanceType.MERCHANT)
+                        .build().getMessage())
+                .withMessage(YoutapMessageTypes.MINI_STATEMENT_REQUEST, 10, sequence -> MiniStatementRequest.Builder.newInstance()
+                        .withMessageType(YoutapMessageTypes.MINI_STATEMENT_REQUEST)
+                        .withMerchantId(merchantId)
+                        .withTerminalId(terminalId)
+                        .withTransactionId(transactionId(sequence))
+                        .withTxnHistoryCount(10)
+                        .withPrnDspFormat("PRN")
+                        .withRequestBlock(0)
+                        .buid().getMessage())
+                .build();
+    }
+
+    private static String transactionId(long sequence) {
+        return String.format("%010d", sequence % 10000000000L);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public String getName(int message) {
+        return names.get(message);
+    }
+
+    /**
+     * @return index of a message drawn according to the weights
+     */
+    public int next(SplittableRandom random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int message = 0;
+        while (draw >= cumulativeWeights[message]) {
+            message++;
+        }
+        return message;
+    }
+
+    public byte[] build(int message, long sequence) {
+        return factories.get(message).apply(sequence).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public static class Builder {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<Integer> weights = new ArrayList<>();
+        private final List<LongFunction<String>> factories = new ArrayList<>();
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        /**
+         * @param factory builds the request for a sequence number unique within the run
+         */
+        public Builder withMessage(String name, int weight, LongFunction<String> factory)
+        {
+            this.names.add(name);
+            this.weights.add(weight);
+            this.factories.add(factory);
+            return this;
+        }
+
+        public LoadMix build()
+        {
+            return new LoadMix(this);
+        }
+    }
+}
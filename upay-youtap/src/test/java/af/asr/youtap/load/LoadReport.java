@@ -0,0 +1,93 @@
+package af.asr.youtap.load;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput, latency percentiles and allocation of one load run, per message and in total.
+ */
+public class LoadReport {
+
+    private final String[] names;
+    private final LatencyHistogram[] histograms;
+    private final long[] errors;
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final long durationNanos;
+    private final long allocatedBytes;
+
+    LoadReport(String[] names, LatencyHistogram[] histograms, long[] errors, long durationNanos, long allocatedBytes) {
+        this.names = names;
+        this.histograms = histograms;
+        this.errors = errors;
+        this.durationNanos = durationNanos;
+        this.allocatedBytes = allocatedBytes;
+        for (LatencyHistogram histogram : histograms) {
+            total.add(histogram);
+        }
+    }
+
+    /**
+     * @return successful round trips in the measured window
+     */
+    public long getMessages() {
+        return total.getTotalCount();
+    }
+
+    public long getErrors() {
+        long sum = 0;
+        for (long count : errors) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    public double getTps() {
+        return getMessages() * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos;
+    }
+
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    /**
+     * @return latencies of one message type of the mix, or null when it is not part of it
+     */
+    public LatencyHistogram getHistogram(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return histograms[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return bytes allocated by the load threads per message, building and parsing included,
+     * or -1 when the JVM does not report thread allocation
+     */
+    public long getAllocatedBytesPerMessage() {
+        if (allocatedBytes < 0) {
+            return -1;
+        }
+        long messages = getMessages() + getErrors();
+        return messages == 0 ? 0 : allocatedBytes / messages;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(1024);
+        report.append(String.format("%d messages, %d errors in %.1f s: %.0f TPS, %d bytes allocated per message%n",
+                getMessages(), getErrors(), durationNanos / 1e9, getTps(), getAllocatedBytesPerMessage()));
+        report.append(String.format("%-22s %10s %8s %10s %10s %10s %10s%n", "MessageType", "count", "errors", "p50 us", "p99 us", "p999 us", "max us"));
+        for (int i = 0; i < names.length; i++) {
+            line(report, names[i], histograms[i], errors[i]);
+        }
+        line(report, "TOTAL", total, getErrors());
+        return report.toString();
+    }
+
+    private static void line(StringBuilder report, String name, LatencyHistogram histogram, long errors) {
+        report.append(String.format("%-22s %10d %8d %10.1f %10.1f %10.1f %10.1f%n", name, histogram.getTotalCount(), errors,
+                histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3,
+                histogram.getValueAtPercentile(99.9) / 1e3, histogram.getMax() / 1e3));
+    }
+}
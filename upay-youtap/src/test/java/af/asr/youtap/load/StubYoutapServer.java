@@ -0,0 +1,123 @@
+package af.asr.youtap.load;
+
+import af.asr.youtap.codec.NvpCodec;
+import af.asr.youtap.type.YoutapMessageTypes;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Local stand-in for a Youtap server answering every request with Status=0.
+ *
+ * Frames are CRLF terminated as with the default serializer of the Spring Integration TCP
+ * connection factories. LastTransactions is answered with a short statement so the client
+ * side parsing is exercised too. {@code delayMicros} simulates the server processing time.
+ */
+public class StubYoutapServer implements Closeable {
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private static final byte[] TRANSACTION_ID = NvpCodec.ascii("TransactionId");
+
+    private static final String STATEMENT = ",BlockCount=1"
+            + ",TransactionData=(TransactionType=MERCHANTTRANSACTION,TransactionDate=20130701131621,Status=0,CustomerId=86717,MerchantId=86637,PaymentType=C2MP,WorkingCurrency=554,WorkingAmount=1.00)"
+            + ",TransactionData=(TransactionType=MERCHANTTRANSACTION,TransactionDate=20130701131700,Status=0,CustomerId=86718,MerchantId=86637,PaymentType=C2MP,WorkingCurrency=554,WorkingAmount=12.50)";
+
+    private final ServerSocket serverSocket;
+    private final long delayMicros;
+
+    public StubYoutapServer(int port, long delayMicros) throws IOException {
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        this.delayMicros = delayMicros;
+        Thread acceptor = new Thread(this::accept, "stub-youtap-" + getPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Thread handler = new Thread(() -> serve(socket), "stub-youtap-" + socket.getPort());
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket) {
+            InputStream in = new BufferedInputStream(s.getInputStream());
+            OutputStream out = new BufferedOutputStream(s.getOutputStream());
+            ByteArrayOutputStream frame = new ByteArrayOutputStream(256);
+            while (readFrame(in, frame)) {
+                if (delayMicros > 0) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(delayMicros));
+                }
+                out.write(answer(frame.toByteArray()));
+                out.write(CR);
+                out.write(LF);
+                out.flush();
+                frame.reset();
+            }
+        } catch (IOException e) {
+            // connection closed by the client
+        }
+    }
+
+    private static boolean readFrame(InputStream in, ByteArrayOutputStream frame) throws IOException {
+        int previous = -1;
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (previous == CR && b == LF) {
+                return true;
+            }
+            if (previous >= 0) {
+                frame.write(previous);
+            }
+            previous = b;
+        }
+        return false;
+    }
+
+    static byte[] answer(byte[] request) {
+        String messageType = field(request, NvpCodec.MESSAGE_TYPE);
+        StringBuilder response = new StringBuilder(256)
+                .append("MessageType=").append(messageType).append("Resp")
+                .append(",TransactionId=").append(field(request, TRANSACTION_ID))
+                .append(",Status=0");
+        if (YoutapMessageTypes.MINI_STATEMENT_REQUEST.equals(messageType)) {
+            response.append(STATEMENT);
+        }
+        return response.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String field(byte[] frame, byte[] name) {
+        int from = NvpCodec.findValue(frame, 0, frame.length, name);
+        return from < 0 ? "" : NvpCodec.decode(frame, from, NvpCodec.valueEnd(frame, from, frame.length));
+    }
+}